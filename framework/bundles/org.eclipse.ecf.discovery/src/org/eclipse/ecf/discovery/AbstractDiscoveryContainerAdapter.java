@@ -52,6 +52,8 @@ public abstract class AbstractDiscoveryContainerAdapter extends AbstractContaine
 
 	private final IServiceInfoServiceListener iServiceInfoServiceListener;
 
+	private static final boolean SHARED_EXECUTOR = Boolean.valueOf(System.getProperty(DiscoveryExecutor.SHARED_PROP, "false")).booleanValue(); //$NON-NLS-1$
+
 	/**
 	 * @param aNamespaceName
 	 *            namespace name
@@ -86,7 +88,7 @@ public abstract class AbstractDiscoveryContainerAdapter extends AbstractContaine
 		Assert.isNotNull(aListener);
 
 		if (aListener.triggerDiscovery()) {
-			final IExecutor executor = new ThreadsExecutor();
+			final IExecutor executor = getExecutor();
 			executor.execute(new IProgressRunnable() {
 				public Object run(final IProgressMonitor arg0) throws Exception {
 					final IServiceInfo[] services = getServices();
@@ -129,7 +131,7 @@ public abstract class AbstractDiscoveryContainerAdapter extends AbstractContaine
 		Assert.isNotNull(aType);
 
 		if (aListener.triggerDiscovery()) {
-			final IExecutor executor = new ThreadsExecutor();
+			final IExecutor executor = getExecutor();
 			executor.execute(new IProgressRunnable() {
 				public Object run(final IProgressMonitor arg0) throws Exception {
 					final IServiceInfo[] services = getServices(aType);
@@ -398,12 +400,30 @@ public abstract class AbstractDiscoveryContainerAdapter extends AbstractContaine
 		return new IServiceInfo[] {};
 	}
 
+	/**
+	 * Returns the executor that runs the asynchronous operations of this
+	 * container and the initial discovery for newly added listeners. This is
+	 * the shared {@link DiscoveryExecutor} if the system property
+	 * {@value DiscoveryExecutor#SHARED_PROP} is <code>true</code>, and an
+	 * executor that starts a new thread for each operation otherwise.
+	 * Subclasses may override to provide an executor of their own.
+	 * 
+	 * @return IExecutor the executor to use. Must not be <code>null</code>.
+	 * @since 5.2
+	 */
+	protected IExecutor getExecutor() {
+		if (SHARED_EXECUTOR) {
+			return DiscoveryPlugin.getExecutor();
+		}
+		return new ThreadsExecutor();
+	}
+
 	/**
 	 * @see org.eclipse.ecf.discovery.IDiscoveryLocator#getAsyncServiceInfo(org.eclipse.ecf.discovery.identity.IServiceID)
 	 * @since 3.0
 	 */
 	public IFuture getAsyncServiceInfo(final IServiceID service) {
-		IExecutor executor = new ThreadsExecutor();
+		IExecutor executor = getExecutor();
 		return executor.execute(new IProgressRunnable() {
 			public Object run(IProgressMonitor monitor) throws Exception {
 				return getServiceInfo(service);
@@ -416,7 +436,7 @@ public abstract class AbstractDiscoveryContainerAdapter extends AbstractContaine
 	 * @since 3.0
 	 */
 	public IFuture getAsyncServiceTypes() {
-		IExecutor executor = new ThreadsExecutor();
+		IExecutor executor = getExecutor();
 		return executor.execute(new IProgressRunnable() {
 			public Object run(IProgressMonitor monitor) throws Exception {
 				return getServiceTypes();
@@ -429,7 +449,7 @@ public abstract class AbstractDiscoveryContainerAdapter extends AbstractContaine
 	 * @since 3.0
 	 */
 	public IFuture getAsyncServices() {
-		IExecutor executor = new ThreadsExecutor();
+		IExecutor executor = getExecutor();
 		return executor.execute(new IProgressRunnable() {
 			public Object run(IProgressMonitor monitor) throws Exception {
 				return getServices();
@@ -442,7 +462,7 @@ public abstract class AbstractDiscoveryContainerAdapter extends AbstractContaine
 	 * @since 3.0
 	 */
 	public IFuture getAsyncServices(final IServiceTypeID type) {
-		IExecutor executor = new ThreadsExecutor();
+		IExecutor executor = getExecutor();
 		return executor.execute(new IProgressRunnable() {
 			public Object run(IProgressMonitor monitor) throws Exception {
 				return getServices(type);
@@ -0,0 +1,346 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.discovery;
+
+import java.util.LinkedList;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.ecf.internal.discovery.DiscoveryPlugin;
+import org.eclipse.equinox.concurrent.future.*;
+
+/**
+ * Executor for discovery operations that runs them on a bounded number of
+ * reused worker threads. At most <code>maxThreads</code> operations run at
+ * once, and at most <code>maxQueued</code> further operations wait in a queue
+ * for a free thread. The future of an operation that finds the queue full
+ * fails with an {@link IllegalStateException}. Idle threads exit after a
+ * minute.
+ * <p>
+ * {@link AbstractDiscoveryContainerAdapter} uses a single executor shared by
+ * all discovery containers if the system property
+ * {@value #SHARED_PROP} is set to <code>true</code>. The shared executor is
+ * configured with the system properties {@value #MAX_THREADS_PROP},
+ * {@value #MAX_QUEUED_PROP} and {@value #VIRTUAL_THREADS_PROP}, and is
+ * returned by {@link #getSharedExecutor()}, for example to monitor its queue
+ * depth and active count.
+ *
+ * @since 5.2
+ */
+public class DiscoveryExecutor extends AbstractExecutor {
+
+	/**
+	 * System property to run the asynchronous operations of all discovery
+	 * containers on a shared executor, instead of a new thread each.
+	 */
+	public static final String SHARED_PROP = "org.eclipse.ecf.discovery.executor.shared"; //$NON-NLS-1$
+
+	/**
+	 * System property with the maximum number of operations the shared
+	 * executor runs at once. The default is 8.
+	 */
+	public static final String MAX_THREADS_PROP = "org.eclipse.ecf.discovery.executor.maxThreads"; //$NON-NLS-1$
+
+	/**
+	 * System property with the maximum number of operations waiting for a
+	 * thread of the shared executor. The default is 1000.
+	 */
+	public static final String MAX_QUEUED_PROP = "org.eclipse.ecf.discovery.executor.maxQueued"; //$NON-NLS-1$
+
+	/**
+	 * System property to run the operations of the shared executor on virtual
+	 * threads, if available (Java 21 and later).
+	 */
+	public static final String VIRTUAL_THREADS_PROP = "org.eclipse.ecf.discovery.executor.virtual"; //$NON-NLS-1$
+
+	private static final int DEFAULT_MAX_THREADS = 8;
+
+	private static final int DEFAULT_MAX_QUEUED = 1000;
+
+	private static final long KEEP_ALIVE = 60000;
+
+	private final String name;
+	private final int maxThreads;
+	private final int maxQueued;
+	private final boolean virtualThreads;
+
+	// guarded by queue
+	private final LinkedList queue = new LinkedList();
+	private int threadCount;
+	private int idleCount;
+	private int activeCount;
+	private long completedCount;
+	private long rejectedCount;
+	private int threadCounter;
+	private boolean shutdown;
+
+	/**
+	 * Create an executor with an unbounded queue.
+	 * 
+	 * @param name
+	 *            prefix for thread names. Must not be <code>null</code>.
+	 * @param maxThreads
+	 *            maximum number of operations run at once. Must be &gt; 0.
+	 * @param virtualThreads
+	 *            <code>true</code> to run operations on virtual threads if
+	 *            available, on platform daemon threads otherwise
+	 */
+	public DiscoveryExecutor(String name, int maxThreads, boolean virtualThreads) {
+		this(name, maxThreads, Integer.MAX_VALUE, virtualThreads);
+	}
+
+	/**
+	 * @param name
+	 *            prefix for thread names. Must not be <code>null</code>.
+	 * @param maxThreads
+	 *            maximum number of operations run at once. Must be &gt; 0.
+	 * @param maxQueued
+	 *            maximum number of operations waiting for a thread. Must be
+	 *            &gt;= 0.
+	 * @param virtualThreads
+	 *            <code>true</code> to run operations on virtual threads if
+	 *            available, on platform daemon threads otherwise
+	 */
+	public DiscoveryExecutor(String name, int maxThreads, int maxQueued, boolean virtualThreads) {
+		Assert.isNotNull(name);
+		Assert.isLegal(maxThreads > 0);
+		Assert.isLegal(maxQueued >= 0);
+		this.name = name;
+		this.maxThreads = maxThreads;
+		this.maxQueued = maxQueued;
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * Create an executor configured with the {@value #MAX_THREADS_PROP},
+	 * {@value #MAX_QUEUED_PROP} and {@value #VIRTUAL_THREADS_PROP} system
+	 * properties.
+	 *
+	 * @param name
+	 *            prefix for thread names. Must not be <code>null</code>.
+	 * @return DiscoveryExecutor the new executor. Will not be
+	 *         <code>null</code>.
+	 */
+	public static DiscoveryExecutor createFromSystemProperties(String name) {
+		final int max = getIntProperty(MAX_THREADS_PROP, DEFAULT_MAX_THREADS);
+		final int queued = getIntProperty(MAX_QUEUED_PROP, DEFAULT_MAX_QUEUED);
+		return new DiscoveryExecutor(name, Math.max(1, max), Math.max(0, queued), Boolean.valueOf(System.getProperty(VIRTUAL_THREADS_PROP, "false")).booleanValue()); //$NON-NLS-1$
+	}
+
+	private static int getIntProperty(String key, int defaultValue) {
+		try {
+			return Integer.parseInt(System.getProperty(key, String.valueOf(defaultValue)));
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Returns the executor shared by all discovery containers, which run their
+	 * asynchronous operations on it if the system property
+	 * {@value #SHARED_PROP} is <code>true</code>. Its metrics like
+	 * {@link #getQueuedCount()} and {@link #getActiveCount()} show the load
+	 * of discovery operations.
+	 *
+	 * @return DiscoveryExecutor the shared executor, created on first use.
+	 *         Will not be <code>null</code>.
+	 */
+	public static DiscoveryExecutor getSharedExecutor() {
+		return DiscoveryPlugin.getExecutor();
+	}
+
+	protected AbstractFuture createFuture(IProgressMonitor progressMonitor) {
+		return new SingleOperationFuture(progressMonitor);
+	}
+
+	public IFuture execute(final IProgressRunnable runnable, IProgressMonitor monitor) {
+		Assert.isNotNull(runnable);
+		final AbstractFuture sof = createFuture(monitor);
+		final Runnable task = new Runnable() {
+			public void run() {
+				// First check to make sure things haven't been canceled
+				if (!sof.isCanceled())
+					sof.runWithProgress(runnable);
+			}
+		};
+		final String rejection;
+		synchronized (queue) {
+			if (shutdown) {
+				rejection = "Executor " + name + " has been shut down"; //$NON-NLS-1$ //$NON-NLS-2$
+			} else if (threadCount >= maxThreads && queue.size() - (threadCount - activeCount) >= maxQueued) {
+				// no thread can be started, and the operations already queued
+				// exceed the threads not running an operation by maxQueued
+				rejectedCount++;
+				rejection = "Executor " + name + " is full"; //$NON-NLS-1$ //$NON-NLS-2$
+			} else {
+				queue.add(task);
+				if (queue.size() > idleCount && threadCount < maxThreads)
+					startWorker();
+				else
+					queue.notify();
+				return sof;
+			}
+		}
+		sof.runWithProgress(new IProgressRunnable() {
+			public Object run(IProgressMonitor m) throws Exception {
+				throw new IllegalStateException(rejection);
+			}
+		});
+		return sof;
+	}
+
+	// called with queue lock held
+	private void startWorker() {
+		final Runnable worker = new Runnable() {
+			public void run() {
+				runWorker();
+			}
+		};
+		Thread thread = virtualThreads ? createVirtualThread(worker) : null;
+		if (thread == null) {
+			thread = new Thread(worker, name + "-" + (++threadCounter)); //$NON-NLS-1$
+			thread.setDaemon(true);
+		}
+		threadCount++;
+		thread.start();
+	}
+
+	/**
+	 * Equivalent to
+	 * <code>Thread.ofVirtual().name(name).unstarted(runnable)</code>, looked
+	 * up reflectively so that this class still loads on older Java versions.
+	 */
+	private Thread createVirtualThread(Runnable runnable) {
+		try {
+			final Class builderClass = Class.forName("java.lang.Thread$Builder"); //$NON-NLS-1$
+			Object builder = Thread.class.getMethod("ofVirtual", new Class[0]).invoke(null, new Object[0]); //$NON-NLS-1$
+			builder = builderClass.getMethod("name", new Class[] {String.class}).invoke(builder, new Object[] {name}); //$NON-NLS-1$
+			return (Thread) builderClass.getMethod("unstarted", new Class[] {Runnable.class}).invoke(builder, new Object[] {runnable}); //$NON-NLS-1$
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	void runWorker() {
+		try {
+			while (true) {
+				Runnable task;
+				synchronized (queue) {
+					if (queue.isEmpty() && !shutdown) {
+						idleCount++;
+						try {
+							queue.wait(KEEP_ALIVE);
+						} catch (InterruptedException e) {
+							return;
+						} finally {
+							idleCount--;
+						}
+					}
+					if (queue.isEmpty())
+						return;
+					task = (Runnable) queue.removeFirst();
+					activeCount++;
+				}
+				try {
+					task.run();
+				} finally {
+					synchronized (queue) {
+						activeCount--;
+						completedCount++;
+					}
+				}
+			}
+		} finally {
+			synchronized (queue) {
+				threadCount--;
+			}
+		}
+	}
+
+	/**
+	 * @return int the number of operations waiting for a thread
+	 */
+	public int getQueuedCount() {
+		synchronized (queue) {
+			return queue.size();
+		}
+	}
+
+	/**
+	 * @return int the number of operations currently running
+	 */
+	public int getActiveCount() {
+		synchronized (queue) {
+			return activeCount;
+		}
+	}
+
+	/**
+	 * @return int the number of threads currently started, running or idle
+	 */
+	public int getThreadCount() {
+		synchronized (queue) {
+			return threadCount;
+		}
+	}
+
+	/**
+	 * @return long the number of operations run since this executor was
+	 *         created
+	 */
+	public long getCompletedCount() {
+		synchronized (queue) {
+			return completedCount;
+		}
+	}
+
+	/**
+	 * @return long the number of operations rejected because the queue was
+	 *         full
+	 */
+	public long getRejectedCount() {
+		synchronized (queue) {
+			return rejectedCount;
+		}
+	}
+
+	/**
+	 * @return int the maximum number of operations run at once
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * @return int the maximum number of operations waiting for a thread
+	 */
+	public int getMaxQueued() {
+		return maxQueued;
+	}
+
+	/**
+	 * Stop accepting operations. Operations already queued are still run.
+	 */
+	public void shutdown() {
+		synchronized (queue) {
+			shutdown = true;
+			queue.notifyAll();
+		}
+	}
+
+	public String toString() {
+		synchronized (queue) {
+			return "DiscoveryExecutor[name=" + name + ";maxThreads=" + maxThreads + ";threads=" + threadCount //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ ";active=" + activeCount + ";queued=" + queue.size() + ";completed=" + completedCount + ";rejected=" + rejectedCount + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		}
+	}
+}
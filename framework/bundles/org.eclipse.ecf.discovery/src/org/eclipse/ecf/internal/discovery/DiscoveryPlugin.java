@@ -15,6 +15,7 @@ package org.eclipse.ecf.internal.discovery;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.identity.Namespace;
 import org.eclipse.ecf.core.util.*;
+import org.eclipse.ecf.discovery.DiscoveryExecutor;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.log.LogService;
@@ -35,6 +36,8 @@ public class DiscoveryPlugin implements BundleActivator {
 	private AdapterManagerTracker adapterManagerTracker;
 	private ServiceTracker logServiceTracker = null;
 
+	private static DiscoveryExecutor executor;
+
 	/**
 	 * The constructor.
 	 */
@@ -102,10 +105,29 @@ public class DiscoveryPlugin implements BundleActivator {
 			adapterManagerTracker.close();
 			adapterManagerTracker = null;
 		}
+		synchronized (DiscoveryPlugin.class) {
+			if (executor != null) {
+				executor.shutdown();
+				executor = null;
+			}
+		}
 		plugin = null;
 		this.context = null;
 	}
 
+	/**
+	 * Returns the executor shared by all discovery containers.
+	 * 
+	 * @return the shared executor, created on first use.
+	 */
+	public synchronized static DiscoveryExecutor getExecutor() {
+		if (executor == null) {
+			executor = DiscoveryExecutor
+					.createFromSystemProperties("ECF Discovery"); //$NON-NLS-1$
+		}
+		return executor;
+	}
+
 	/**
 	 * Returns the shared instance.
 	 * 
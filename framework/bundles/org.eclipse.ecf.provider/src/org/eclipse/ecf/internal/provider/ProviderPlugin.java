@@ -15,12 +15,16 @@ package org.eclipse.ecf.internal.provider;
 
 import java.io.*;
 import java.util.Hashtable;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.net.ssl.SSLServerSocketFactory;
 import javax.net.ssl.SSLSocketFactory;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.ContainerTypeDescription;
 import org.eclipse.ecf.core.util.*;
+import org.eclipse.ecf.provider.comm.tcp.NIOSelectorPool;
 import org.eclipse.ecf.provider.generic.GenericContainerInstantiator;
+import org.eclipse.ecf.provider.generic.SOContainer;
 import org.eclipse.ecf.provider.generic.SSLGenericContainerInstantiator;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
@@ -49,6 +53,8 @@ public class ProviderPlugin implements BundleActivator {
 	private ServiceTracker sslServerSocketFactoryTracker;
 	private ServiceTracker sslSocketFactoryTracker;
 
+	private ExecutorService sharedObjectExecutor;
+
 	public IAdapterManager getAdapterManager() {
 		if (context == null)
 			return null;
@@ -92,10 +98,38 @@ public class ProviderPlugin implements BundleActivator {
 		return (genericClassResolverOverride) ? ClassResolverObjectInputStream.create(this.context, ins) : new ObjectInputStream(ins);
 	}
 
+	/**
+	 * @return Executor a pool of {@link SOContainer#SHARED_OBJECT_THREADS} daemon
+	 * threads shared by all shared object mailboxes.  Shut down when this
+	 * plug-in is stopped.
+	 */
+	public synchronized Executor getSharedObjectExecutor() {
+		if (sharedObjectExecutor == null) {
+			final int threads = Math.max(1, SOContainer.SHARED_OBJECT_THREADS);
+			sharedObjectExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				public Thread newThread(Runnable r) {
+					final Thread t = new Thread(r, "ECF SharedObject-" + count.incrementAndGet()); //$NON-NLS-1$
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return sharedObjectExecutor;
+	}
+
 	/**
 	 * This method is called when the plug-in is stopped
 	 */
 	public void stop(BundleContext context1) throws Exception {
+		NIOSelectorPool.shutdownDefault();
+		synchronized (this) {
+			if (sharedObjectExecutor != null) {
+				sharedObjectExecutor.shutdown();
+				sharedObjectExecutor = null;
+			}
+		}
 		if (logServiceTracker != null) {
 			logServiceTracker.close();
 			logServiceTracker = null;
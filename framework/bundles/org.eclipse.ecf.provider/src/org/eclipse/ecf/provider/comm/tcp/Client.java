@@ -36,6 +36,26 @@ public final class Client implements ISynchAsynchConnection {
 	// Default maximum cached messages on object stream is 50
 	public static final int DEFAULT_MAX_BUFFER_MSG = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.client.maxmsgs", "50")); //$NON-NLS-1$ //$NON-NLS-2$
 	public static final int DEFAULT_WAIT_INTERVAL = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.client.waitinterval", "10")); //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * Default for {@link #setBatch(boolean)}.
+	 * @since 4.10
+	 */
+	public static final boolean DEFAULT_BATCH = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.comm.tcp.client.batch", "false")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * Default for {@link #setBatchMaxMsgs(int)}.
+	 * @since 4.10
+	 */
+	public static final int DEFAULT_BATCH_MAX_MSGS = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.client.batchmaxmsgs", "64")); //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * Default for {@link #setBatchLinger(long)}.
+	 * @since 4.10
+	 */
+	public static final long DEFAULT_BATCH_LINGER = Long.parseLong(System.getProperty("org.eclipse.ecf.provider.comm.tcp.client.batchlinger", "0")); //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * Size of the buffer between the object stream and the socket.
+	 * @since 4.10
+	 */
+	public static final int DEFAULT_OUTPUT_BUFFER_SIZE = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.client.outputbuffersize", "8192")); //$NON-NLS-1$ //$NON-NLS-2$
 	protected Socket socket;
 	private String addressPort = "-1:<no endpoint>:-1"; //$NON-NLS-1$
 	// Underlying streams
@@ -61,6 +81,9 @@ public final class Client implements ISynchAsynchConnection {
 	private final Object disconnectLock = new Object();
 	protected final Object outputStreamLock = new Object();
 	private int maxmsgs = DEFAULT_MAX_BUFFER_MSG;
+	private volatile boolean batch = DEFAULT_BATCH;
+	private volatile int batchMaxMsgs = DEFAULT_BATCH_MAX_MSGS;
+	private volatile long batchLinger = DEFAULT_BATCH_LINGER;
 
 	private String getHostNameForAddressWithoutLookup(InetAddress inetAddress) {
 		// First get InetAddress.toString(), which returns
@@ -214,7 +237,7 @@ public final class Client implements ISynchAsynchConnection {
 			setSocketOptions(s);
 			// Now we've got a connection so set our socket
 			setSocket(s);
-			outputStream = new ObjectOutputStream(s.getOutputStream());
+			outputStream = new ObjectOutputStream(createBufferedOutputStream(s));
 			outputStream.flush();
 			inputStream = ProviderPlugin.getDefault().createObjectInputStream(s.getInputStream());
 			debug("connect;" + anURI); //$NON-NLS-1$
@@ -251,6 +274,17 @@ public final class Client implements ISynchAsynchConnection {
 		});
 	}
 
+	/**
+	 * @param s the socket.  Must not be <code>null</code>.
+	 * @return OutputStream buffered output stream for the socket, so that each
+	 * flush of the object stream is written to the socket in one call
+	 * @throws IOException if the socket output stream cannot be obtained
+	 * @since 4.10
+	 */
+	public static OutputStream createBufferedOutputStream(Socket s) throws IOException {
+		return new BufferedOutputStream(s.getOutputStream(), DEFAULT_OUTPUT_BUFFER_SIZE);
+	}
+
 	Thread getSendThread() {
 		final Thread aThread = new Thread(new Runnable() {
 			public void run() {
@@ -260,6 +294,23 @@ public final class Client implements ISynchAsynchConnection {
 				for (;;) {
 					if (me.isInterrupted())
 						break;
+					final int maxMsgs = batchMaxMsgs;
+					if (batch && maxMsgs > 1) {
+						// Messages stay in the queue until they have been sent, so
+						// that unsent messages are reported on disconnect
+						Object[] msgs = queue.peekQueue(maxMsgs, batchLinger * 1000);
+						if (me.isInterrupted() || msgs == null)
+							break;
+						try {
+							send(msgs);
+							for (int i = 0; i < msgs.length; i++)
+								queue.removeHead();
+						} catch (Exception e) {
+							handleException(e);
+							break;
+						}
+						continue;
+					}
 					// sender should wait here until something appears in queue
 					// or queue is stopped (returns null)
 					Serializable aMsg = (Serializable) queue.peekQueue();
@@ -314,16 +365,28 @@ public final class Client implements ISynchAsynchConnection {
 
 	void send(Serializable snd) throws IOException {
 		synchronized (outputStreamLock) {
-			outputStream.writeObject(snd);
+			write(snd);
+			outputStream.flush();
+		}
+	}
+
+	void send(Object[] msgs) throws IOException {
+		synchronized (outputStreamLock) {
+			for (int i = 0; i < msgs.length; i++)
+				write((Serializable) msgs[i]);
 			outputStream.flush();
-			if (resetCounter > this.maxmsgs) {
-				outputStream.reset();
-				resetCounter = 0;
-			} else
-				resetCounter++;
 		}
 	}
 
+	private void write(Serializable snd) throws IOException {
+		outputStream.writeObject(snd);
+		if (resetCounter > this.maxmsgs) {
+			outputStream.reset();
+			resetCounter = 0;
+		} else
+			resetCounter++;
+	}
+
 	private void handlePingResp() {
 		synchronized (pingLock) {
 			waitForPing = false;
@@ -334,6 +397,46 @@ public final class Client implements ISynchAsynchConnection {
 		closeTimeout = t;
 	}
 
+	/**
+	 * @param batch if true, the send thread writes all queued messages (up to
+	 * {@link #setBatchMaxMsgs(int)}) and flushes the socket once for them.
+	 * Defaults to the org.eclipse.ecf.provider.comm.tcp.client.batch system
+	 * property.
+	 * @since 4.10
+	 */
+	public void setBatch(boolean batch) {
+		this.batch = batch;
+	}
+
+	/**
+	 * @return boolean true if the send thread batches messages
+	 * @since 4.10
+	 */
+	public boolean isBatch() {
+		return batch;
+	}
+
+	/**
+	 * @param maxMsgs the maximum number of messages written between flushes
+	 * in batching mode.  Defaults to the
+	 * org.eclipse.ecf.provider.comm.tcp.client.batchmaxmsgs system property.
+	 * @since 4.10
+	 */
+	public void setBatchMaxMsgs(int maxMsgs) {
+		this.batchMaxMsgs = maxMsgs;
+	}
+
+	/**
+	 * @param linger time in microseconds the send thread waits for a batch to
+	 * fill before flushing.  With 0 only messages already queued are batched,
+	 * so no latency is added.  Defaults to the
+	 * org.eclipse.ecf.provider.comm.tcp.client.batchlinger system property.
+	 * @since 4.10
+	 */
+	public void setBatchLinger(long linger) {
+		this.batchLinger = linger;
+	}
+
 	private void sendClose(Serializable snd) throws IOException {
 		isClosing = true;
 		debug("sendClose(" + snd + ")"); //$NON-NLS-1$ //$NON-NLS-2$
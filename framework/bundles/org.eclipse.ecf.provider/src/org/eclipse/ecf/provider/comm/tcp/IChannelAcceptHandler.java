@@ -0,0 +1,35 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+/**
+ * Accept handler for connections accepted by {@link NIOServer}.
+ * 
+ * @since 4.10
+ */
+public interface IChannelAcceptHandler {
+	/**
+	 * Handle the connect request of a newly accepted connection. Called on an
+	 * {@link NIOSelectorPool} worker thread once the request has been received
+	 * completely. The handler answers the request with
+	 * {@link NIOClient#sendConnectResult(java.io.Serializable)}, and sets the
+	 * event handler of the connection and starts it if the request is
+	 * accepted.
+	 * 
+	 * @param connection the accepted connection
+	 * @param request the connect request
+	 * @throws Exception if the connect request is invalid. The connection will
+	 * be closed.
+	 */
+	public void handleConnectRequest(NIOClient connection, ConnectRequestMessage request) throws Exception;
+}
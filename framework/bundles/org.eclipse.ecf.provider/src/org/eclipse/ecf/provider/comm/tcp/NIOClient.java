@@ -0,0 +1,871 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.util.ECFException;
+import org.eclipse.ecf.core.util.Trace;
+import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
+import org.eclipse.ecf.internal.provider.ProviderPlugin;
+import org.eclipse.ecf.provider.comm.*;
+
+/**
+ * {@link ISynchAsynchConnection} over a non-blocking {@link SocketChannel}.
+ * <p>
+ * Uses the object stream protocol of {@link Client} unchanged, so either end
+ * of a connection may be a {@link Client} and {@link Server}. Instead of a
+ * send, receive and keep-alive thread per connection, readiness is handled by
+ * a shared {@link NIOSelectorPool}: messages are serialized on the calling
+ * thread and written by the selector. The selector finds the end of each
+ * received message in the object stream, and complete messages are decoded
+ * and dispatched by a pooled worker. A worker therefore never waits for bytes
+ * from the network, and per-connection ordering is preserved because at most
+ * one decode task runs for a connection at a time.
+ * <p>
+ * Messages larger than {@link #DEFAULT_MAX_MESSAGE_SIZE} are refused, and
+ * reading from the channel is suspended while that many bytes of received
+ * messages wait to be decoded. A connection accepted by {@link NIOServer} is
+ * closed if it is not started within {@link #DEFAULT_HANDSHAKE_TIMEOUT} ms.
+ *
+ * @since 4.10
+ */
+public class NIOClient implements ISynchAsynchConnection, NIOSelectorPool.ISelectHandler {
+
+	public static final String PROTOCOL = Client.PROTOCOL;
+
+	/**
+	 * Maximum size of a received message in bytes.  A peer sending a larger
+	 * message is disconnected.
+	 */
+	public static final int DEFAULT_MAX_MESSAGE_SIZE = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.nio.maxmessagesize", String.valueOf(16 * 1024 * 1024))); //$NON-NLS-1$
+
+	/**
+	 * Time in ms an accepted connection has to send its connect request and be
+	 * started.
+	 */
+	public static final int DEFAULT_HANDSHAKE_TIMEOUT = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.nio.handshaketimeout", "30000")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private static final int READ_BUFFER_SIZE = 16384;
+	private static final int MAX_GATHER = 16;
+
+	protected final NIOSelectorPool pool;
+	protected SocketChannel channel;
+	private NIOSelectorPool.SelectorLoop loop;
+	private volatile SelectionKey key;
+	private int maxMessageSize = DEFAULT_MAX_MESSAGE_SIZE;
+	private String addressPort = "-1:<no endpoint>:-1"; //$NON-NLS-1$
+
+	protected ISynchAsynchEventHandler handler;
+	protected ID containerID = null;
+	protected Map properties = new HashMap();
+	protected int keepAlive = 0;
+	protected long closeTimeout = Client.DEFAULT_CLOSE_TIMEOUT;
+	private int maxmsgs = Client.DEFAULT_MAX_BUFFER_MSG;
+
+	// Outbound: object stream into a reusable buffer, drained into writeQueue
+	protected final Object outputStreamLock = new Object();
+	private final OutputBuffer outputBuffer = new OutputBuffer();
+	private ObjectOutputStream outputStream;
+	private int resetCounter = 0;
+	private final ConcurrentLinkedQueue<ByteBuffer> writeQueue = new ConcurrentLinkedQueue<ByteBuffer>();
+	private final AtomicBoolean writeRequested = new AtomicBoolean();
+
+	// Inbound: complete messages from the selector, consumed by the decode task
+	private final ChannelInputStream inbound = new ChannelInputStream();
+	private ObjectStreamFramer framer = new ObjectStreamFramer(DEFAULT_MAX_MESSAGE_SIZE);
+	private final AtomicBoolean readSuspended = new AtomicBoolean();
+	private ObjectInputStream inputStream;
+	private final AtomicBoolean decoding = new AtomicBoolean();
+	private final Runnable decodeTask = new Runnable() {
+		public void run() {
+			decode();
+		}
+	};
+
+	protected boolean isClosing = false;
+	private volatile boolean started = false;
+	private volatile boolean closed = false;
+	volatile boolean disconnectHandled = false;
+	private final Object disconnectLock = new Object();
+
+	protected volatile boolean waitForPing = false;
+	protected PingMessage ping = new PingMessage();
+	protected PingResponseMessage pingResp = new PingResponseMessage();
+	private ScheduledFuture<?> pingFuture;
+
+	// Accepted connections only: handles the connect request, null once it has
+	// been received
+	private final boolean accepted;
+	private volatile IChannelAcceptHandler acceptHandler;
+	private ScheduledFuture<?> handshakeFuture;
+
+	/**
+	 * Create a client-side connection. {@link #connect(ID, Object, int)} must
+	 * be called before {@link #start()}.
+	 * @param handler the event handler.  Must not be <code>null</code>.
+	 * @param keepAlive keep alive interval in ms.  If &lt;= 0, no pings are sent.
+	 */
+	public NIOClient(ISynchAsynchEventHandler handler, int keepAlive) {
+		this(NIOSelectorPool.getDefault(), handler, keepAlive);
+	}
+
+	public NIOClient(NIOSelectorPool pool, ISynchAsynchEventHandler handler, int keepAlive) {
+		if (handler == null)
+			throw new NullPointerException("event handler cannot be null"); //$NON-NLS-1$
+		this.pool = pool;
+		this.handler = handler;
+		this.keepAlive = keepAlive;
+		this.accepted = false;
+		containerID = handler.getEventHandlerID();
+	}
+
+	/**
+	 * Create a connection for a channel accepted by {@link NIOServer}. The
+	 * channel is registered with a selector right away. Once the connect
+	 * request has been received completely, it is passed to the accept handler
+	 * on a pool worker, which answers it with
+	 * {@link #sendConnectResult(Serializable)} and calls
+	 * {@link #setEventHandler(ISynchAsynchEventHandler)} and {@link #start()}.
+	 * The channel is closed if this has not happened within
+	 * {@link #DEFAULT_HANDSHAKE_TIMEOUT} ms.
+	 * @param pool the selector pool
+	 * @param channel the accepted channel
+	 * @param keepAlive keep alive interval in ms
+	 * @param acceptHandler the handler for the connect request
+	 * @throws IOException if the channel cannot be set up
+	 */
+	public NIOClient(NIOSelectorPool pool, SocketChannel channel, int keepAlive, IChannelAcceptHandler acceptHandler) throws IOException {
+		this.pool = pool;
+		this.keepAlive = keepAlive;
+		this.accepted = true;
+		this.acceptHandler = acceptHandler;
+		setChannel(channel);
+		setSocketOptions(channel.socket());
+		channel.configureBlocking(false);
+		inbound.setNonBlocking();
+		handshakeFuture = pool.schedule(new Runnable() {
+			public void run() {
+				handshakeTimeout();
+			}
+		}, DEFAULT_HANDSHAKE_TIMEOUT);
+		loop = pool.nextLoop();
+		// Registration is queued before any write request, so the key is set
+		// when the selector handles the first write
+		loop.submit(new Runnable() {
+			public void run() {
+				try {
+					key = loop.registerNow(NIOClient.this.channel, SelectionKey.OP_READ, NIOClient.this);
+				} catch (IOException e) {
+					handleException(e);
+				}
+			}
+		});
+		synchronized (outputStreamLock) {
+			outputStream = new ObjectOutputStream(outputBuffer);
+			outputStream.flush();
+			flushOutputBuffer();
+		}
+	}
+
+	private String getHostNameForAddressWithoutLookup(InetAddress inetAddress) {
+		String inetAddressStr = inetAddress.toString();
+		int slashPos = inetAddressStr.indexOf('/');
+		if (slashPos == 0)
+			return inetAddressStr.substring(1);
+		return inetAddressStr.substring(0, slashPos);
+	}
+
+	private void setChannel(SocketChannel c) {
+		channel = c;
+		Socket s = (c == null) ? null : c.socket();
+		if (s != null && s.getInetAddress() != null)
+			addressPort = s.getLocalPort() + ":" //$NON-NLS-1$
+					+ getHostNameForAddressWithoutLookup(s.getInetAddress()) + ":" + s.getPort(); //$NON-NLS-1$
+		else
+			addressPort = "-1:<no endpoint>:-1"; //$NON-NLS-1$
+	}
+
+	private void setSocketOptions(Socket aSocket) throws SocketException {
+		aSocket.setTcpNoDelay(true);
+		if (keepAlive > 0)
+			aSocket.setKeepAlive(true);
+	}
+
+	public void setEventHandler(ISynchAsynchEventHandler handler) {
+		this.handler = handler;
+		this.containerID = (handler == null) ? null : handler.getEventHandlerID();
+	}
+
+	/**
+	 * @return Socket the socket of the channel.  May be <code>null</code> if
+	 * not connected
+	 */
+	public Socket getSocket() {
+		SocketChannel c = channel;
+		return (c == null) ? null : c.socket();
+	}
+
+	/**
+	 * Set the maximum size of a received message. Must be called before
+	 * {@link #connect(ID, Object, int)}.
+	 * @param maxMessageSize maximum size in bytes
+	 */
+	public void setMaxMessageSize(int maxMessageSize) {
+		if (maxMessageSize < 1)
+			throw new IllegalArgumentException("maxMessageSize must be > 0"); //$NON-NLS-1$
+		this.maxMessageSize = maxMessageSize;
+		this.framer = new ObjectStreamFramer(maxMessageSize);
+	}
+
+	/**
+	 * Write the connect response for an accepted connection.
+	 * @param data the response data returned by the connect request handler
+	 * @throws IOException if the response cannot be sent
+	 */
+	public void sendConnectResult(Serializable data) throws IOException {
+		send(new ConnectResultMessage(data));
+	}
+
+	public synchronized ID getLocalID() {
+		if (containerID != null)
+			return containerID;
+		if (channel == null)
+			return null;
+		Socket s = channel.socket();
+		try {
+			return IDFactory.getDefault().createStringID(PROTOCOL + "://" + getHostNameForAddressWithoutLookup(s.getLocalAddress()) //$NON-NLS-1$
+					+ ":" + s.getLocalPort()); //$NON-NLS-1$
+		} catch (final Exception e) {
+			traceStack("Exception in getLocalID()", e); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	public void removeListener(IConnectionListener l) {
+		// XXX does not support listeners
+	}
+
+	public void addListener(IConnectionListener l) {
+		// XXX does not support listeners
+	}
+
+	public synchronized boolean isConnected() {
+		return channel != null && channel.isConnected();
+	}
+
+	public boolean isStarted() {
+		return started && !closed;
+	}
+
+	protected URI parseRemoteID(ID remote) throws ECFException {
+		try {
+			return new URI(remote.getName());
+		} catch (final URISyntaxException e) {
+			throw new ECFException("Invalid URI for remoteID=" + remote, e); //$NON-NLS-1$
+		}
+	}
+
+	protected SocketChannel createConnectChannel(URI remote, int timeout) throws ECFException {
+		SocketChannel c = null;
+		try {
+			c = SocketChannel.open();
+			c.socket().connect(new InetSocketAddress(remote.getHost(), remote.getPort()), timeout);
+			return c;
+		} catch (IOException e) {
+			if (c != null)
+				try {
+					c.close();
+				} catch (IOException e1) {
+					// ignore
+				}
+			throw new ECFException("Could not create socket to connect to id=" + remote, e); //$NON-NLS-1$
+		}
+	}
+
+	public synchronized Object connect(ID remote, Object data, int timeout) throws ECFException {
+		debug("connect(" + remote + "," + data + "," + timeout + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		if (channel != null)
+			throw new ECFException("Already connected"); //$NON-NLS-1$
+		if (remote == null)
+			throw new ECFException("remote cannot be null"); //$NON-NLS-1$
+		URI anURI = parseRemoteID(remote);
+		final SocketChannel c = createConnectChannel(anURI, timeout);
+		ConnectResultMessage res = null;
+		try {
+			setSocketOptions(c.socket());
+			setChannel(c);
+			// The handshake is done in blocking mode, exactly as Client does it
+			if (timeout > 0)
+				c.socket().setSoTimeout(timeout);
+			synchronized (outputStreamLock) {
+				outputStream = new ObjectOutputStream(outputBuffer);
+				outputStream.flush();
+				flushOutputBuffer();
+			}
+			inputStream = ProviderPlugin.getDefault().createObjectInputStream(inbound);
+			send(new ConnectRequestMessage(anURI, (Serializable) data));
+			res = (ConnectResultMessage) readObject();
+		} catch (final IOException e) {
+			closeChannel();
+			throw new ECFException("Exception during connection to " + remote.getName(), e); //$NON-NLS-1$
+		}
+		debug("connect;rcv:" + res); //$NON-NLS-1$
+		if (res == null)
+			throw new ECFException("Result cannot be null"); //$NON-NLS-1$
+		return res.getData();
+	}
+
+	public synchronized void start() {
+		debug("start()"); //$NON-NLS-1$
+		if (started || channel == null)
+			return;
+		if (accepted) {
+			// Registered since it was accepted
+			cancelHandshakeTimeout();
+		} else {
+			try {
+				// Switch to non-blocking and hand the channel over to a selector
+				channel.socket().setSoTimeout(0);
+				synchronized (outputStreamLock) {
+					inbound.setNonBlocking();
+					channel.configureBlocking(false);
+					loop = pool.nextLoop();
+					CompletableFuture<SelectionKey> f = new CompletableFuture<SelectionKey>();
+					loop.register(channel, SelectionKey.OP_READ, this, f);
+					key = f.get();
+				}
+			} catch (Exception e) {
+				handleException(e);
+				return;
+			}
+		}
+		started = true;
+		// Messages received before the connection was started are decoded now
+		scheduleDecode();
+		if (writeQueue.peek() != null)
+			requestWrite();
+		if (keepAlive > 0)
+			pingFuture = pool.scheduleAtFixedRate(new Runnable() {
+				public void run() {
+					checkPing();
+				}
+			}, new Random().nextInt(Math.max(1, keepAlive / 2)) + keepAlive / 2, keepAlive / 2);
+	}
+
+	public void stop() {
+		debug("stop()"); //$NON-NLS-1$
+	}
+
+	void checkPing() {
+		if (disconnectHandled || closed) {
+			cancelPing();
+			return;
+		}
+		// If the previous ping has not been answered within keepAlive/2 we
+		// assume the remote is not reachable
+		if (waitForPing) {
+			handleException(new IOException(getAddressPort() + " remote not reachable by ping")); //$NON-NLS-1$
+			return;
+		}
+		waitForPing = true;
+		try {
+			send(ping);
+		} catch (IOException e) {
+			handleException(e);
+		}
+	}
+
+	void handshakeTimeout() {
+		if (!started && !closed) {
+			debug("handshake timeout, closing " + getAddressPort()); //$NON-NLS-1$
+			closeChannel();
+		}
+	}
+
+	private void cancelHandshakeTimeout() {
+		ScheduledFuture<?> f = handshakeFuture;
+		if (f != null) {
+			f.cancel(false);
+			handshakeFuture = null;
+		}
+	}
+
+	private void cancelPing() {
+		ScheduledFuture<?> f = pingFuture;
+		if (f != null) {
+			f.cancel(false);
+			pingFuture = null;
+		}
+	}
+
+	/**
+	 * Serialize the message on the calling thread and queue it for the
+	 * selector. Serialization and queuing are done under the output stream
+	 * lock so messages are written in the order they are sent.
+	 * @param snd the message to send
+	 * @throws IOException if the message cannot be serialized or the
+	 * connection is closed
+	 */
+	void send(Serializable snd) throws IOException {
+		synchronized (outputStreamLock) {
+			if (closed)
+				throw new ConnectException("Not connected"); //$NON-NLS-1$
+			outputStream.writeObject(snd);
+			if (resetCounter > this.maxmsgs) {
+				outputStream.reset();
+				resetCounter = 0;
+			} else
+				resetCounter++;
+			outputStream.flush();
+			flushOutputBuffer();
+		}
+	}
+
+	private void flushOutputBuffer() throws IOException {
+		int size = outputBuffer.size();
+		if (size == 0)
+			return;
+		ByteBuffer bb = ByteBuffer.wrap(Arrays.copyOf(outputBuffer.getBuffer(), size));
+		outputBuffer.reset();
+		if (channel.isBlocking()) {
+			// Handshake of an outgoing connection
+			while (bb.hasRemaining())
+				channel.write(bb);
+		} else {
+			writeQueue.add(bb);
+			requestWrite();
+		}
+	}
+
+	private void requestWrite() {
+		if (writeRequested.compareAndSet(false, true)) {
+			loop.submit(new Runnable() {
+				public void run() {
+					try {
+						SelectionKey k = key;
+						if (k == null)
+							// Registration failed, connection is closed
+							return;
+						if (k.isValid() && !writeQueued())
+							k.interestOps(k.interestOps() | SelectionKey.OP_WRITE);
+					} catch (Exception e) {
+						handleException(e);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Gathering write of the queued buffers. Called on the selector thread.
+	 * @return true if everything queued has been written
+	 * @throws IOException if the write fails
+	 */
+	boolean writeQueued() throws IOException {
+		ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+		for (;;) {
+			int n = 0;
+			for (Iterator<ByteBuffer> i = writeQueue.iterator(); i.hasNext() && n < gather.length;)
+				gather[n++] = i.next();
+			if (n == 0) {
+				writeRequested.set(false);
+				// A sender may have queued after our peek and before the reset
+				if (writeQueue.peek() == null || !writeRequested.compareAndSet(false, true))
+					return true;
+				continue;
+			}
+			channel.write(gather, 0, n);
+			for (int i = 0; i < n; i++) {
+				if (gather[i].hasRemaining())
+					// Socket buffer full, wait for OP_WRITE
+					return false;
+				writeQueue.poll();
+			}
+		}
+	}
+
+	public void handleSelect(SelectionKey k) throws IOException {
+		if (k.isReadable())
+			readAvailable();
+		if (k.isValid() && k.isWritable() && writeQueued())
+			k.interestOps(k.interestOps() & ~SelectionKey.OP_WRITE);
+	}
+
+	public void handleSelectException(Throwable e) {
+		handleException(e);
+	}
+
+	private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+	/**
+	 * Read what is available and collect complete messages. Called on the
+	 * selector thread.
+	 * @throws IOException if the read fails, the remote closed the connection
+	 * or a message is too large or invalid
+	 */
+	private void readAvailable() throws IOException {
+		int messages = 0;
+		for (;;) {
+			readBuffer.clear();
+			int r = channel.read(readBuffer);
+			if (r < 0) {
+				inbound.close();
+				if (messages == 0)
+					throw new EOFException("Connection closed by remote " + getAddressPort()); //$NON-NLS-1$
+				break;
+			}
+			if (r == 0)
+				break;
+			messages += received(readBuffer.array(), r);
+			if (inbound.available() >= maxMessageSize) {
+				// Stop reading until the decode task has caught up
+				readSuspended.set(true);
+				key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+				break;
+			}
+		}
+		if (messages > 0)
+			scheduleDecode();
+	}
+
+	/**
+	 * @param b received bytes
+	 * @param len number of bytes received
+	 * @return int the number of messages completed
+	 * @throws IOException if a message is too large or invalid
+	 */
+	int received(byte[] b, int len) throws IOException {
+		framer.append(b, 0, len);
+		int messages = 0;
+		byte[] message;
+		while ((message = framer.next()) != null) {
+			inbound.append(message, message.length);
+			messages++;
+		}
+		return messages;
+	}
+
+	private void scheduleDecode() {
+		if (hasInput() && decoding.compareAndSet(false, true))
+			pool.execute(decodeTask);
+	}
+
+	private boolean hasInput() {
+		// Before start only the connect request of an accepted connection is read
+		return (started || acceptHandler != null) && inbound.available() > 0;
+	}
+
+	void decode() {
+		try {
+			for (;;) {
+				if (closed)
+					return;
+				if (inputStream == null)
+					inputStream = ProviderPlugin.getDefault().createObjectInputStream(inbound);
+				else if (started)
+					handleRcv(readObject());
+				else
+					handleConnectRequest(readObject());
+				resumeRead();
+				if (!hasInput() && (inputStream == null || inputStream.available() == 0)) {
+					decoding.set(false);
+					// Messages may have arrived, or the connection may have been
+					// started, after the check above
+					if (!hasInput() || !decoding.compareAndSet(false, true))
+						return;
+				}
+			}
+		} catch (Exception e) {
+			decoding.set(false);
+			handleException(e);
+		}
+	}
+
+	private void resumeRead() {
+		if (inbound.available() < maxMessageSize && readSuspended.compareAndSet(true, false))
+			loop.submit(new Runnable() {
+				public void run() {
+					SelectionKey k = key;
+					if (k.isValid())
+						k.interestOps(k.interestOps() | SelectionKey.OP_READ);
+				}
+			});
+	}
+
+	private void handleConnectRequest(Serializable rcv) throws Exception {
+		final IChannelAcceptHandler h = acceptHandler;
+		acceptHandler = null;
+		if (!(rcv instanceof ConnectRequestMessage))
+			throw new InvalidObjectException("Invalid connect request from " + getAddressPort()); //$NON-NLS-1$
+		h.handleConnectRequest(this, (ConnectRequestMessage) rcv);
+	}
+
+	void handleRcv(Serializable rcv) throws IOException {
+		try {
+			if (rcv instanceof SynchMessage) {
+				handler.handleSynchEvent(new SynchEvent(this, ((SynchMessage) rcv).getData()));
+			} else if (rcv instanceof AsynchMessage) {
+				handler.handleAsynchEvent(new AsynchEvent(this, ((AsynchMessage) rcv).getData()));
+			} else if (rcv instanceof PingMessage) {
+				send(pingResp);
+			} else if (rcv instanceof PingResponseMessage) {
+				waitForPing = false;
+			} else
+				throw new IOException("Invalid message received"); //$NON-NLS-1$
+		} catch (final IOException e) {
+			disconnect();
+			throw e;
+		}
+	}
+
+	void handleException(Throwable e) {
+		if (accepted && !started) {
+			// Handshake failed, nobody to notify
+			traceStack("handshake failed for " + getAddressPort(), e); //$NON-NLS-1$
+			closeChannel();
+			return;
+		}
+		synchronized (disconnectLock) {
+			if (!disconnectHandled) {
+				disconnectHandled = true;
+				cancelPing();
+				if (e != null)
+					traceStack("handleException in thread=" //$NON-NLS-1$
+							+ Thread.currentThread().getName(), e);
+				if (handler != null)
+					handler.handleDisconnectEvent(new DisconnectEvent(this, e, null));
+			}
+		}
+		synchronized (this) {
+			notifyAll();
+		}
+	}
+
+	private void closeChannel() {
+		closed = true;
+		cancelHandshakeTimeout();
+		inbound.close();
+		if (key != null)
+			key.cancel();
+		try {
+			if (channel != null)
+				channel.close();
+		} catch (final IOException e) {
+			traceStack("closeChannel Exception", e); //$NON-NLS-1$
+		}
+		writeQueue.clear();
+	}
+
+	public void setCloseTimeout(long t) {
+		closeTimeout = t;
+	}
+
+	public synchronized void disconnect() {
+		debug("disconnect()"); //$NON-NLS-1$
+		cancelPing();
+		closeChannel();
+		notifyAll();
+	}
+
+	private void sendClose(Serializable snd) throws IOException {
+		isClosing = true;
+		debug("sendClose(" + snd + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		send(snd);
+		int count = 0;
+		final int interval = Client.DEFAULT_WAIT_INTERVAL;
+		while (!disconnectHandled && count < interval) {
+			try {
+				wait(closeTimeout / interval);
+				count++;
+			} catch (final InterruptedException e) {
+				traceStack("sendClose wait", e); //$NON-NLS-1$
+				return;
+			}
+		}
+	}
+
+	public void sendAsynch(ID recipient, byte[] obj) throws IOException {
+		queueObject(recipient, obj);
+	}
+
+	public void sendAsynch(ID recipient, Object obj) throws IOException {
+		queueObject(recipient, (Serializable) obj);
+	}
+
+	public void queueObject(ID recipient, Serializable obj) throws IOException {
+		if (closed || isClosing)
+			throw new ConnectException("Not connected"); //$NON-NLS-1$
+		send(new AsynchMessage(obj));
+	}
+
+	public synchronized Serializable sendObject(ID recipient, Serializable obj) throws IOException {
+		if (closed || isClosing)
+			throw new ConnectException("Not connected"); //$NON-NLS-1$
+		sendClose(new SynchMessage(obj));
+		return null;
+	}
+
+	public Object sendSynch(ID rec, Object obj) throws IOException {
+		return sendObject(rec, (Serializable) obj);
+	}
+
+	public Object sendSynch(ID rec, byte[] obj) throws IOException {
+		return sendObject(rec, obj);
+	}
+
+	Serializable readObject() throws IOException {
+		try {
+			return (Serializable) inputStream.readObject();
+		} catch (final ClassNotFoundException e) {
+			traceStack("readObject;classnotfoundexception", e); //$NON-NLS-1$
+			final IOException except = new IOException("Protocol violation due to class load failure"); //$NON-NLS-1$
+			except.setStackTrace(e.getStackTrace());
+			throw except;
+		}
+	}
+
+	public Map getProperties() {
+		return properties;
+	}
+
+	public void setProperties(Map props) {
+		this.properties = props;
+	}
+
+	@SuppressWarnings("unchecked")
+	public Object getAdapter(Class clazz) {
+		return null;
+	}
+
+	String getAddressPort() {
+		return addressPort;
+	}
+
+	public Object getOutputStreamLock() {
+		return outputStreamLock;
+	}
+
+	protected void debug(String msg) {
+		Trace.trace(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.CONNECTION, getLocalID() + "." + msg); //$NON-NLS-1$
+	}
+
+	protected void traceStack(String msg, Throwable e) {
+		Trace.catching(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.EXCEPTIONS_CATCHING, NIOClient.class, msg, e);
+	}
+
+	/**
+	 * Reusable serialization buffer. {@link #reset()} keeps the backing array.
+	 */
+	static class OutputBuffer extends ByteArrayOutputStream {
+		OutputBuffer() {
+			super(1024);
+		}
+
+		byte[] getBuffer() {
+			return buf;
+		}
+	}
+
+	/**
+	 * Input stream over the complete messages received for this connection.
+	 * During the handshake of an outgoing connection it reads directly from the
+	 * (blocking) channel until a message is complete; otherwise it is filled
+	 * with complete messages by the selector thread and read by the decode
+	 * task, and running out of bytes in the middle of a message is a protocol
+	 * violation rather than a reason to wait.
+	 */
+	class ChannelInputStream extends InputStream {
+		private byte[] buf = new byte[READ_BUFFER_SIZE];
+		private int head = 0;
+		private int tail = 0;
+		private boolean blocking = true;
+		private boolean eof = false;
+
+		synchronized void setNonBlocking() {
+			blocking = false;
+		}
+
+		synchronized void append(byte[] src, int len) {
+			if (tail + len > buf.length) {
+				int used = tail - head;
+				byte[] dst = (used + len > buf.length) ? new byte[Math.max(buf.length * 2, used + len)] : buf;
+				System.arraycopy(buf, head, dst, 0, used);
+				buf = dst;
+				head = 0;
+				tail = used;
+			}
+			System.arraycopy(src, 0, buf, tail, len);
+			tail += len;
+		}
+
+		private boolean fill() throws IOException {
+			while (head == tail) {
+				if (eof)
+					return false;
+				if (!blocking)
+					throw new StreamCorruptedException("Incomplete message from " + getAddressPort()); //$NON-NLS-1$
+				if (!readBlocking()) {
+					eof = true;
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean readBlocking() throws IOException {
+			// Honour SO_TIMEOUT during the handshake by reading through the socket stream
+			InputStream in = channel.socket().getInputStream();
+			byte[] b = new byte[READ_BUFFER_SIZE];
+			while (head == tail) {
+				int r = in.read(b);
+				if (r < 0)
+					return false;
+				received(b, r);
+			}
+			return true;
+		}
+
+		public synchronized int read() throws IOException {
+			if (!fill())
+				return -1;
+			return buf[head++] & 0xff;
+		}
+
+		public synchronized int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0)
+				return 0;
+			if (!fill())
+				return -1;
+			int n = Math.min(len, tail - head);
+			System.arraycopy(buf, head, b, off, n);
+			head += n;
+			return n;
+		}
+
+		public synchronized int available() {
+			return tail - head;
+		}
+
+		public synchronized void close() {
+			eof = true;
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.IOException;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.ecf.core.util.Trace;
+import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
+import org.eclipse.ecf.internal.provider.ProviderPlugin;
+
+/**
+ * A small, fixed set of selector threads shared by all {@link NIOClient} and
+ * {@link NIOServer} instances, plus a bounded worker pool for connect
+ * handshakes and message decoding and a timer for keep-alive pings and
+ * handshake timeouts.
+ * <p>
+ * Channel readiness is multiplexed over {@link #DEFAULT_SELECTOR_THREADS}
+ * selectors rather than dedicating send, receive and ping threads to each
+ * connection.
+ *
+ * @since 4.10
+ */
+public class NIOSelectorPool {
+
+	public static final int DEFAULT_SELECTOR_THREADS = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.nio.selectors", String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() / 2)))); //$NON-NLS-1$
+
+	public static final int DEFAULT_WORKER_THREADS = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.nio.workers", String.valueOf(Math.max(4, Runtime.getRuntime().availableProcessors() * 2)))); //$NON-NLS-1$
+
+	private static NIOSelectorPool defaultPool;
+
+	/**
+	 * Handler for the ready operations of a registered channel. Always called
+	 * on the selector thread that owns the key.
+	 */
+	interface ISelectHandler {
+		void handleSelect(SelectionKey key) throws IOException;
+
+		void handleSelectException(Throwable e);
+	}
+
+	private final SelectorLoop[] loops;
+	private final AtomicInteger nextLoop = new AtomicInteger();
+	private final ThreadPoolExecutor workers;
+	private final ScheduledThreadPoolExecutor timer;
+	private volatile boolean shutdown = false;
+
+	public static synchronized NIOSelectorPool getDefault() {
+		if (defaultPool == null || defaultPool.isShutdown())
+			defaultPool = new NIOSelectorPool(DEFAULT_SELECTOR_THREADS, DEFAULT_WORKER_THREADS);
+		return defaultPool;
+	}
+
+	/**
+	 * Shut down the default pool if it has been created. Called when the
+	 * provider bundle is stopped.
+	 */
+	public static synchronized void shutdownDefault() {
+		if (defaultPool != null) {
+			defaultPool.shutdown();
+			defaultPool = null;
+		}
+	}
+
+	public NIOSelectorPool(int selectorThreads, int workerThreads) {
+		if (selectorThreads < 1)
+			throw new IllegalArgumentException("selectorThreads must be > 0"); //$NON-NLS-1$
+		if (workerThreads < 1)
+			throw new IllegalArgumentException("workerThreads must be > 0"); //$NON-NLS-1$
+		workers = new ThreadPoolExecutor(workerThreads, workerThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("ECF NIO worker")); //$NON-NLS-1$
+		workers.allowCoreThreadTimeOut(true);
+		timer = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("ECF NIO timer")); //$NON-NLS-1$
+		timer.setRemoveOnCancelPolicy(true);
+		loops = new SelectorLoop[selectorThreads];
+		try {
+			for (int i = 0; i < loops.length; i++)
+				loops[i] = new SelectorLoop("ECF NIO selector-" + i); //$NON-NLS-1$
+		} catch (IOException e) {
+			shutdown();
+			throw new IllegalStateException("Could not open selector", e); //$NON-NLS-1$
+		}
+	}
+
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	public void shutdown() {
+		shutdown = true;
+		for (int i = 0; i < loops.length; i++)
+			if (loops[i] != null)
+				loops[i].close();
+		workers.shutdownNow();
+		timer.shutdownNow();
+	}
+
+	SelectorLoop nextLoop() {
+		return loops[(nextLoop.getAndIncrement() & Integer.MAX_VALUE) % loops.length];
+	}
+
+	void execute(Runnable r) {
+		workers.execute(r);
+	}
+
+	ScheduledFuture<?> schedule(Runnable r, long delay) {
+		return timer.schedule(r, delay, TimeUnit.MILLISECONDS);
+	}
+
+	ScheduledFuture<?> scheduleAtFixedRate(Runnable r, long initialDelay, long period) {
+		return timer.scheduleAtFixedRate(r, initialDelay, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return int number of decode and handshake tasks waiting for a worker
+	 */
+	public int getQueuedTaskCount() {
+		return workers.getQueue().size();
+	}
+
+	protected void debug(String msg) {
+		Trace.trace(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.CONNECTION, msg);
+	}
+
+	protected void traceStack(String msg, Throwable e) {
+		Trace.catching(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.EXCEPTIONS_CATCHING, NIOSelectorPool.class, msg, e);
+	}
+
+	static class NamedThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger count = new AtomicInteger();
+
+		NamedThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, prefix + "-" + count.incrementAndGet()); //$NON-NLS-1$
+			t.setDaemon(true);
+			return t;
+		}
+	}
+
+	/**
+	 * One selector and the thread that runs it. Registration and interest
+	 * changes from other threads are queued and run on the selector thread.
+	 */
+	class SelectorLoop implements Runnable {
+		private final Selector selector;
+		private final Thread thread;
+		private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+		SelectorLoop(String name) throws IOException {
+			selector = Selector.open();
+			thread = new Thread(this, name);
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		boolean inLoop() {
+			return Thread.currentThread() == thread;
+		}
+
+		void submit(Runnable task) {
+			if (inLoop())
+				task.run();
+			else {
+				tasks.add(task);
+				selector.wakeup();
+			}
+		}
+
+		void register(final SelectableChannel channel, final int ops, final ISelectHandler handler, final CompletableFuture<SelectionKey> result) {
+			submit(new Runnable() {
+				public void run() {
+					try {
+						result.complete(channel.register(selector, ops, handler));
+					} catch (Exception e) {
+						result.completeExceptionally(e);
+					}
+				}
+			});
+		}
+
+		/**
+		 * Register a channel. Must be called on the selector thread.
+		 */
+		SelectionKey registerNow(SelectableChannel channel, int ops, ISelectHandler handler) throws ClosedChannelException {
+			return channel.register(selector, ops, handler);
+		}
+
+		void close() {
+			thread.interrupt();
+			try {
+				selector.close();
+			} catch (IOException e) {
+				traceStack("SelectorLoop.close", e); //$NON-NLS-1$
+			}
+		}
+
+		public void run() {
+			while (!shutdown && selector.isOpen()) {
+				try {
+					Runnable task;
+					while ((task = tasks.poll()) != null)
+						task.run();
+					selector.select();
+					if (!selector.isOpen())
+						break;
+					for (Iterator<SelectionKey> i = selector.selectedKeys().iterator(); i.hasNext();) {
+						SelectionKey key = i.next();
+						i.remove();
+						ISelectHandler handler = (ISelectHandler) key.attachment();
+						try {
+							if (key.isValid())
+								handler.handleSelect(key);
+						} catch (CancelledKeyException e) {
+							// Channel closed concurrently, handler already notified
+						} catch (Exception e) {
+							key.cancel();
+							handler.handleSelectException(e);
+						}
+					}
+				} catch (ClosedSelectorException e) {
+					break;
+				} catch (Exception e) {
+					// Keep the loop alive for all other channels
+					ProviderPlugin.getDefault().log(new Status(IStatus.ERROR, ProviderPlugin.PLUGIN_ID, IStatus.ERROR, "Unexpected exception in selector loop " + thread.getName(), e)); //$NON-NLS-1$
+				}
+			}
+			debug("SELECTOR TERMINATING " + thread.getName()); //$NON-NLS-1$
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.*;
+import java.util.concurrent.CompletableFuture;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.ecf.core.util.Trace;
+import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
+import org.eclipse.ecf.internal.provider.ProviderPlugin;
+
+/**
+ * Listener for the NIO transport. Accept readiness is handled by one of the
+ * {@link NIOSelectorPool} selectors. Each accepted channel is registered with
+ * a selector right away as an {@link NIOClient}, and its connect request is
+ * passed to the {@link IChannelAcceptHandler} on a pool worker once it has
+ * arrived completely, so no thread waits for a slow or idle peer.
+ *
+ * @since 4.10
+ */
+public class NIOServer implements NIOSelectorPool.ISelectHandler {
+
+	private final NIOSelectorPool pool;
+	private final ServerSocketChannel serverChannel;
+	private IChannelAcceptHandler acceptHandler;
+	private final int keepAlive;
+	private SelectionKey key;
+
+	protected void debug(String msg) {
+		Trace.trace(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.CONNECTION, msg);
+	}
+
+	protected void traceStack(String msg, Throwable e) {
+		Trace.catching(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.EXCEPTIONS_CATCHING, NIOServer.class, msg, e);
+	}
+
+	public NIOServer(NIOSelectorPool pool, int port, int backlog, InetAddress bindAddress, int keepAlive, IChannelAcceptHandler handler) throws IOException {
+		if (handler == null)
+			throw new NullPointerException("Channel accept handler cannot be null"); //$NON-NLS-1$
+		this.pool = pool;
+		this.keepAlive = keepAlive;
+		this.acceptHandler = handler;
+		serverChannel = ServerSocketChannel.open();
+		try {
+			serverChannel.socket().bind(new InetSocketAddress(bindAddress, port), backlog);
+			serverChannel.configureBlocking(false);
+			CompletableFuture<SelectionKey> f = new CompletableFuture<SelectionKey>();
+			pool.nextLoop().register(serverChannel, SelectionKey.OP_ACCEPT, this, f);
+			key = f.get();
+		} catch (Exception e) {
+			serverChannel.close();
+			if (e instanceof IOException)
+				throw (IOException) e;
+			throw new IOException("Could not register server channel", e); //$NON-NLS-1$
+		}
+	}
+
+	public NIOServer(int port, int backlog, InetAddress bindAddress, int keepAlive, IChannelAcceptHandler handler) throws IOException {
+		this(NIOSelectorPool.getDefault(), port, backlog, bindAddress, keepAlive, handler);
+	}
+
+	public int getLocalPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	public void handleSelect(SelectionKey k) throws IOException {
+		if (!k.isAcceptable())
+			return;
+		SocketChannel channel;
+		while ((channel = serverChannel.accept()) != null)
+			handleAccept(channel);
+	}
+
+	public void handleSelectException(Throwable e) {
+		traceStack("Exception in accept", e); //$NON-NLS-1$
+		debug("Closing listener on accept exception."); //$NON-NLS-1$
+	}
+
+	protected void handleAccept(SocketChannel channel) {
+		final IChannelAcceptHandler handler = acceptHandler;
+		if (handler == null) {
+			closeChannel(channel);
+			return;
+		}
+		try {
+			debug("accept:" + channel.socket().getInetAddress()); //$NON-NLS-1$
+			new NIOClient(pool, channel, keepAlive, handler);
+		} catch (Exception e) {
+			traceStack("Unexpected exception in handleAccept...closing", //$NON-NLS-1$
+					e);
+			closeChannel(channel);
+		}
+	}
+
+	private void closeChannel(SocketChannel channel) {
+		try {
+			channel.close();
+		} catch (IOException e1) {
+			ProviderPlugin.getDefault().log(new Status(IStatus.ERROR, ProviderPlugin.PLUGIN_ID, IStatus.ERROR, "accept.close", e1)); //$NON-NLS-1$
+		}
+	}
+
+	public synchronized void close() throws IOException {
+		if (key != null) {
+			key.cancel();
+			key = null;
+		}
+		serverChannel.close();
+		acceptHandler = null;
+	}
+}
@@ -0,0 +1,457 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.ObjectStreamConstants;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits the bytes of an object stream written by {@link Client}, that is an
+ * {@link java.io.ObjectOutputStream} with a stream header followed by top
+ * level objects and resets, into messages that each hold one complete top
+ * level object. The stream is scanned with the grammar of the Java Object
+ * Serialization Specification (chapter 6, Object Serialization Stream
+ * Protocol), without loading classes or creating objects, so that a message
+ * can be handed to an {@link java.io.ObjectInputStream} once all of it has
+ * arrived, and the reader never has to wait for the network in the middle of
+ * an object.
+ * <p>
+ * The class descriptors defined in the stream are remembered until the next
+ * reset, as they are by the reader, because later objects refer to them by
+ * handle. The stream header is returned as the first message. Leading resets
+ * are part of the message of the object that follows them.
+ * <p>
+ * A scan that runs out of bytes is repeated from the start of the message
+ * when more bytes have arrived, but not before the number of bytes that the
+ * scan found missing is there, so large arrays and block data are not scanned
+ * again for every read.
+ * <p>
+ * Not thread safe.
+ */
+final class ObjectStreamFramer implements ObjectStreamConstants {
+
+	private static final int MAX_DEPTH = 2000;
+
+	/**
+	 * Signals that the message is not complete yet.
+	 */
+	private static final class Incomplete extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		Incomplete() {
+			super(null, null, false, false);
+		}
+	}
+
+	private static final Incomplete INCOMPLETE = new Incomplete();
+
+	static final class ClassDesc {
+		final byte flags;
+		// type codes of the serializable fields
+		final byte[] fieldTypes;
+		// element type code if this is an array class, 0 otherwise
+		final byte arrayType;
+		ClassDesc superDesc;
+
+		ClassDesc(byte flags, byte[] fieldTypes, byte arrayType) {
+			this.flags = flags;
+			this.fieldTypes = fieldTypes;
+			this.arrayType = arrayType;
+		}
+	}
+
+	private final int maxMessageSize;
+
+	private byte[] buf = new byte[1024];
+	// start of the current message
+	private int start = 0;
+	// end of the received bytes
+	private int limit = 0;
+	// received bytes needed before the next scan can succeed
+	private int needed = 0;
+	private int pos;
+	private int depth;
+
+	private boolean headerRead = false;
+
+	// Objects by handle. Class descriptors are kept, other objects are null.
+	// The handles of the current stream start at handleBase.
+	private final List<ClassDesc> handles = new ArrayList<ClassDesc>();
+	private int handleBase = 0;
+
+	ObjectStreamFramer(int maxMessageSize) {
+		this.maxMessageSize = maxMessageSize;
+	}
+
+	/**
+	 * Append received bytes.
+	 * @param src the received bytes
+	 * @param off offset in src
+	 * @param len number of bytes
+	 */
+	void append(byte[] src, int off, int len) {
+		if (limit + len > buf.length) {
+			int used = limit - start;
+			byte[] dst = (used + len > buf.length) ? new byte[Math.max(buf.length * 2, used + len)] : buf;
+			System.arraycopy(buf, start, dst, 0, used);
+			buf = dst;
+			needed -= start;
+			limit = used;
+			start = 0;
+		}
+		System.arraycopy(src, off, buf, limit, len);
+		limit += len;
+	}
+
+	/**
+	 * @return int the number of received bytes not yet returned in a message
+	 */
+	int pending() {
+		return limit - start;
+	}
+
+	/**
+	 * Return the next complete message.
+	 * @return byte[] the message, or <code>null</code> if no complete message
+	 * has been received
+	 * @throws StreamCorruptedException if the bytes are not a valid object
+	 * stream, or a message is larger than the maximum message size
+	 */
+	byte[] next() throws StreamCorruptedException {
+		if (start == limit || limit < needed)
+			return null;
+		int handleCount = handles.size();
+		int base = handleBase;
+		pos = start;
+		depth = 0;
+		try {
+			if (headerRead)
+				readMessage();
+			else
+				readHeader();
+		} catch (Incomplete e) {
+			// Forget the handles assigned by this scan
+			handles.subList(handleCount, handles.size()).clear();
+			handleBase = base;
+			if (limit - start > maxMessageSize)
+				throw new StreamCorruptedException("Message larger than " + maxMessageSize + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+		}
+		if (pos - start > maxMessageSize)
+			throw new StreamCorruptedException("Message larger than " + maxMessageSize + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$
+		headerRead = true;
+		byte[] message = Arrays.copyOfRange(buf, start, pos);
+		start = pos;
+		needed = pos;
+		if (handleBase > 0) {
+			handles.subList(0, handleBase).clear();
+			handleBase = 0;
+		}
+		return message;
+	}
+
+	private void readHeader() throws Incomplete, StreamCorruptedException {
+		if (readShort() != (STREAM_MAGIC & 0xffff) || readShort() != STREAM_VERSION)
+			throw new StreamCorruptedException("Invalid stream header"); //$NON-NLS-1$
+	}
+
+	private void readMessage() throws Incomplete, StreamCorruptedException {
+		while (peek() == TC_RESET) {
+			pos++;
+			reset();
+		}
+		readContent();
+	}
+
+	private void reset() {
+		handleBase = handles.size();
+	}
+
+	private void require(int n) throws Incomplete {
+		if (pos + n > limit) {
+			needed = pos + n;
+			throw INCOMPLETE;
+		}
+	}
+
+	private byte peek() throws Incomplete {
+		require(1);
+		return buf[pos];
+	}
+
+	private byte readByte() throws Incomplete {
+		require(1);
+		return buf[pos++];
+	}
+
+	private int readShort() throws Incomplete {
+		require(2);
+		int v = ((buf[pos] & 0xff) << 8) | (buf[pos + 1] & 0xff);
+		pos += 2;
+		return v;
+	}
+
+	private int readInt() throws Incomplete {
+		require(4);
+		int v = ((buf[pos] & 0xff) << 24) | ((buf[pos + 1] & 0xff) << 16) | ((buf[pos + 2] & 0xff) << 8) | (buf[pos + 3] & 0xff);
+		pos += 4;
+		return v;
+	}
+
+	private void skip(long n) throws Incomplete, StreamCorruptedException {
+		if (n < 0 || n > maxMessageSize)
+			throw new StreamCorruptedException("Invalid length " + n); //$NON-NLS-1$
+		require((int) n);
+		pos += (int) n;
+	}
+
+	private void skipUTF() throws Incomplete, StreamCorruptedException {
+		skip(readShort());
+	}
+
+	private void newHandle(ClassDesc desc) {
+		handles.add(desc);
+	}
+
+	private int getHandle(int handle) throws StreamCorruptedException {
+		int index = handle - baseWireHandle + handleBase;
+		if (index < handleBase || index >= handles.size())
+			throw new StreamCorruptedException("Invalid handle " + Integer.toHexString(handle)); //$NON-NLS-1$
+		return index;
+	}
+
+	/**
+	 * content: object or blockdata. Only objects are valid at the top level
+	 * and in fields and arrays.
+	 */
+	private void readContent() throws Incomplete, StreamCorruptedException {
+		if (++depth > MAX_DEPTH)
+			throw new StreamCorruptedException("Objects nested deeper than " + MAX_DEPTH); //$NON-NLS-1$
+		byte tc = readByte();
+		switch (tc) {
+			case TC_NULL :
+				break;
+			case TC_REFERENCE :
+				getHandle(readInt());
+				break;
+			case TC_CLASSDESC :
+				readNonProxyDesc();
+				break;
+			case TC_PROXYCLASSDESC :
+				readProxyDesc();
+				break;
+			case TC_OBJECT :
+				readObjectData();
+				break;
+			case TC_CLASS :
+				readClassDesc();
+				newHandle(null);
+				break;
+			case TC_ARRAY :
+				readArray();
+				break;
+			case TC_STRING :
+				newHandle(null);
+				skipUTF();
+				break;
+			case TC_LONGSTRING :
+				newHandle(null);
+				require(8);
+				skip(((long) readInt() << 32) | (readInt() & 0xffffffffL));
+				break;
+			case TC_ENUM :
+				readClassDesc();
+				newHandle(null);
+				readContent();
+				break;
+			case TC_EXCEPTION :
+				reset();
+				readContent();
+				reset();
+				break;
+			default :
+				throw new StreamCorruptedException("Invalid type code " + Integer.toHexString(tc & 0xff)); //$NON-NLS-1$
+		}
+		depth--;
+	}
+
+	/**
+	 * classDesc: newClassDesc, nullReference or prevObject
+	 */
+	private ClassDesc readClassDesc() throws Incomplete, StreamCorruptedException {
+		byte tc = readByte();
+		switch (tc) {
+			case TC_NULL :
+				return null;
+			case TC_REFERENCE :
+				ClassDesc desc = handles.get(getHandle(readInt()));
+				if (desc == null)
+					throw new StreamCorruptedException("Handle is not a class descriptor"); //$NON-NLS-1$
+				return desc;
+			case TC_CLASSDESC :
+				return readNonProxyDesc();
+			case TC_PROXYCLASSDESC :
+				return readProxyDesc();
+			default :
+				throw new StreamCorruptedException("Invalid class descriptor type code " + Integer.toHexString(tc & 0xff)); //$NON-NLS-1$
+		}
+	}
+
+	private ClassDesc readNonProxyDesc() throws Incomplete, StreamCorruptedException {
+		// The handle is assigned before the descriptor is read
+		int handle = handles.size();
+		newHandle(null);
+		int nameLength = readShort();
+		require(nameLength);
+		byte arrayType = (nameLength > 1 && buf[pos] == '[') ? buf[pos + 1] : 0;
+		pos += nameLength;
+		// serialVersionUID
+		skip(8);
+		byte flags = readByte();
+		int fieldCount = readShort();
+		byte[] fieldTypes = new byte[fieldCount];
+		for (int i = 0; i < fieldCount; i++) {
+			fieldTypes[i] = readByte();
+			skipUTF();
+			if (fieldTypes[i] == '[' || fieldTypes[i] == 'L')
+				// field type name
+				readContent();
+			else if (getPrimitiveSize(fieldTypes[i]) < 0)
+				throw new StreamCorruptedException("Invalid field type code " + fieldTypes[i]); //$NON-NLS-1$
+		}
+		ClassDesc desc = new ClassDesc(flags, fieldTypes, arrayType);
+		handles.set(handle, desc);
+		readAnnotation();
+		desc.superDesc = readClassDesc();
+		return desc;
+	}
+
+	private ClassDesc readProxyDesc() throws Incomplete, StreamCorruptedException {
+		int handle = handles.size();
+		newHandle(null);
+		int count = readInt();
+		for (int i = 0; i < count; i++)
+			skipUTF();
+		ClassDesc desc = new ClassDesc(SC_SERIALIZABLE, new byte[0], (byte) 0);
+		handles.set(handle, desc);
+		readAnnotation();
+		desc.superDesc = readClassDesc();
+		return desc;
+	}
+
+	/**
+	 * classAnnotation and objectAnnotation: contents up to TC_ENDBLOCKDATA
+	 */
+	private void readAnnotation() throws Incomplete, StreamCorruptedException {
+		for (;;) {
+			switch (peek()) {
+				case TC_ENDBLOCKDATA :
+					pos++;
+					return;
+				case TC_BLOCKDATA :
+					pos++;
+					skip(readByte() & 0xff);
+					break;
+				case TC_BLOCKDATALONG :
+					pos++;
+					skip(readInt());
+					break;
+				default :
+					readContent();
+			}
+		}
+	}
+
+	private void readObjectData() throws Incomplete, StreamCorruptedException {
+		ClassDesc desc = readClassDesc();
+		if (desc == null)
+			throw new StreamCorruptedException("Object without class descriptor"); //$NON-NLS-1$
+		newHandle(null);
+		if ((desc.flags & SC_EXTERNALIZABLE) != 0) {
+			if ((desc.flags & SC_BLOCK_DATA) == 0)
+				// Externalizable data written with PROTOCOL_VERSION_1 has no
+				// length, ObjectOutputStream has not written it since 1.2
+				throw new StreamCorruptedException("Externalizable data without block data"); //$NON-NLS-1$
+			readAnnotation();
+			return;
+		}
+		// Class data of the super classes comes first
+		List<ClassDesc> hierarchy = new ArrayList<ClassDesc>();
+		for (ClassDesc d = desc; d != null; d = d.superDesc)
+			hierarchy.add(d);
+		for (int i = hierarchy.size() - 1; i >= 0; i--) {
+			ClassDesc d = hierarchy.get(i);
+			if ((d.flags & SC_SERIALIZABLE) == 0)
+				continue;
+			// The serializable fields are written first, also by a class
+			// writeObject method, which must call defaultWriteObject or
+			// writeFields before writing anything else
+			for (int j = 0; j < d.fieldTypes.length; j++) {
+				int size = getPrimitiveSize(d.fieldTypes[j]);
+				if (size > 0)
+					skip(size);
+				else
+					readContent();
+			}
+			if ((d.flags & SC_WRITE_METHOD) != 0)
+				readAnnotation();
+		}
+	}
+
+	private void readArray() throws Incomplete, StreamCorruptedException {
+		ClassDesc desc = readClassDesc();
+		if (desc == null || desc.arrayType == 0)
+			throw new StreamCorruptedException("Array without array class descriptor"); //$NON-NLS-1$
+		newHandle(null);
+		int length = readInt();
+		if (length < 0)
+			throw new StreamCorruptedException("Invalid array length " + length); //$NON-NLS-1$
+		int size = getPrimitiveSize(desc.arrayType);
+		if (size > 0)
+			skip((long) length * size);
+		else if (size == 0)
+			for (int i = 0; i < length; i++)
+				readContent();
+		else
+			throw new StreamCorruptedException("Invalid array type code " + desc.arrayType); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return int the size of a primitive type, 0 for object types and -1 for
+	 * invalid type codes
+	 */
+	private static int getPrimitiveSize(byte typeCode) {
+		switch (typeCode) {
+			case 'B' :
+			case 'Z' :
+				return 1;
+			case 'C' :
+			case 'S' :
+				return 2;
+			case 'I' :
+			case 'F' :
+				return 4;
+			case 'J' :
+			case 'D' :
+				return 8;
+			case 'L' :
+			case '[' :
+				return 0;
+			default :
+				return -1;
+		}
+	}
+}
@@ -310,7 +310,7 @@ public abstract class ClientSOContainer extends SOContainer implements ISharedOb
 	 */
 	protected void queueContainerMessage(ContainerMessage message) throws IOException {
 		// Do it
-		connection.sendAsynch(message.getToContainerID(), serialize(message));
+		connection.sendAsynch(message.getToContainerID(), serializeContainerMessage(message));
 	}
 
 	/**
@@ -448,7 +448,7 @@ public abstract class ClientSOContainer extends SOContainer implements ISharedOb
 					fireContainerEvent(new ContainerDisconnectingEvent(this.getID(), groupID));
 				synchronized (connection) {
 					try {
-						connection.sendSynch(groupID, serialize(ContainerMessage.createLeaveGroupMessage(getID(), groupID, getNextSequenceNumber(), getLeaveData(groupID))));
+						connection.sendSynch(groupID, serializeContainerMessage(ContainerMessage.createLeaveGroupMessage(getID(), groupID, getNextSequenceNumber(), getLeaveData(groupID))));
 					} catch (final Exception e) {
 						// This is not necessary to log
 						// see bug https://bugs.eclipse.org/bugs/show_bug.cgi?id=476263
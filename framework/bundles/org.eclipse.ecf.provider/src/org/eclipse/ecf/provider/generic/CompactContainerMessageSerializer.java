@@ -0,0 +1,415 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.generic;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import org.eclipse.ecf.core.identity.*;
+import org.eclipse.ecf.internal.provider.ProviderPlugin;
+
+/**
+ * Binary {@link IContainerMessageSerializer} that writes the container message
+ * envelope without Java serialization.
+ * <p>
+ * The sequence number and all lengths are written as unsigned varints.
+ * {@link StringID}, {@link GUID} and {@link LongID} instances are written as
+ * namespace and name. Each distinct ID and namespace is written once per
+ * message and then referred to by its index in the message's dictionary.
+ * The dictionaries are not kept across messages: the serializer of a
+ * container is shared by all its connections, and the receiving side decodes
+ * each message on its own, so the from and to IDs are written in full in
+ * every message.
+ * Shared object payloads that are already <code>byte[]</code> (the output of
+ * the shared object message serializer) are copied as is. Any other payload or
+ * ID is written as a length-prefixed Java serialized blob.
+ * <p>
+ * Messages start with a two byte magic that can never start a Java
+ * serialization stream, and {@link #deserializeContainerMessage(byte[])}
+ * accepts both forms. Containers using the default serializer also read this
+ * form, so only the sending side needs to enable it.
+ *
+ * @since 4.10
+ */
+public class CompactContainerMessageSerializer implements IContainerMessageSerializer {
+
+	private static final byte MAGIC0 = (byte) 0xEC;
+	private static final byte MAGIC1 = (byte) 0xF1;
+
+	private static final int TYPE_NULL = 0;
+	private static final int TYPE_OTHER = 1;
+	private static final int TYPE_SHARED_OBJECT = 2;
+	private static final int TYPE_SHARED_OBJECT_DISPOSE = 3;
+	private static final int TYPE_CREATE = 4;
+	private static final int TYPE_CREATE_RESPONSE = 5;
+	private static final int TYPE_VIEW_CHANGE = 6;
+	private static final int TYPE_JOIN_GROUP = 7;
+	private static final int TYPE_LEAVE_GROUP = 8;
+
+	private static final int VALUE_NULL = 0;
+	private static final int VALUE_BYTES = 1;
+	private static final int VALUE_SERIALIZED = 2;
+
+	// ID references: null, a new dictionary entry, or an earlier entry (ref - 2)
+	private static final int ID_NULL = 0;
+	private static final int ID_NEW = 1;
+
+	private static final int ID_NAMED = 0;
+	private static final int ID_SERIALIZED = 1;
+
+	/**
+	 * @param bytes the serialized message
+	 * @return true if the bytes were written by this serializer, false otherwise
+	 */
+	public static boolean isCompactMessage(byte[] bytes) {
+		return bytes != null && bytes.length >= 2 && bytes[0] == MAGIC0 && bytes[1] == MAGIC1;
+	}
+
+	public byte[] serializeContainerMessage(ContainerMessage message) throws IOException {
+		final Encoder enc = new Encoder();
+		enc.writeByte(MAGIC0);
+		enc.writeByte(MAGIC1);
+		enc.writeVarLong(message.getSequence());
+		enc.writeID(message.getFromContainerID());
+		enc.writeID(message.getToContainerID());
+		final Serializable data = message.getData();
+		if (data == null)
+			enc.writeByte(TYPE_NULL);
+		else if (data instanceof ContainerMessage.SharedObjectMessage) {
+			final ContainerMessage.SharedObjectMessage m = (ContainerMessage.SharedObjectMessage) data;
+			enc.writeByte(TYPE_SHARED_OBJECT);
+			enc.writeID(m.getFromSharedObjectID());
+			enc.writeValue(m.getData());
+		} else if (data instanceof ContainerMessage.SharedObjectDisposeMessage) {
+			enc.writeByte(TYPE_SHARED_OBJECT_DISPOSE);
+			enc.writeID(((ContainerMessage.SharedObjectDisposeMessage) data).getSharedObjectID());
+		} else if (data instanceof ContainerMessage.CreateMessage) {
+			enc.writeByte(TYPE_CREATE);
+			enc.writeValue(((ContainerMessage.CreateMessage) data).getData());
+		} else if (data instanceof ContainerMessage.CreateResponseMessage) {
+			final ContainerMessage.CreateResponseMessage m = (ContainerMessage.CreateResponseMessage) data;
+			enc.writeByte(TYPE_CREATE_RESPONSE);
+			enc.writeID(m.getSharedObjectID());
+			enc.writeVarLong(m.getSequence());
+			enc.writeValue(m.getException());
+		} else if (data instanceof ContainerMessage.ViewChangeMessage) {
+			final ContainerMessage.ViewChangeMessage m = (ContainerMessage.ViewChangeMessage) data;
+			enc.writeByte(TYPE_VIEW_CHANGE);
+			enc.writeByte(m.isAdd() ? 1 : 0);
+			final ID[] ids = m.getChangeIDs();
+			// 0 for a null array, otherwise length + 1
+			enc.writeVarLong(ids == null ? 0 : ids.length + 1);
+			if (ids != null)
+				for (int i = 0; i < ids.length; i++)
+					enc.writeID(ids[i]);
+			enc.writeValue(m.getData());
+		} else if (data instanceof ContainerMessage.JoinGroupMessage) {
+			enc.writeByte(TYPE_JOIN_GROUP);
+			enc.writeValue(((ContainerMessage.JoinGroupMessage) data).getData());
+		} else if (data instanceof ContainerMessage.LeaveGroupMessage) {
+			enc.writeByte(TYPE_LEAVE_GROUP);
+			enc.writeValue(((ContainerMessage.LeaveGroupMessage) data).getData());
+		} else {
+			enc.writeByte(TYPE_OTHER);
+			enc.writeValue(data);
+		}
+		return enc.toByteArray();
+	}
+
+	public ContainerMessage deserializeContainerMessage(byte[] bytes) throws IOException {
+		if (!isCompactMessage(bytes))
+			return SOContainer.deserializeContainerMessage(bytes);
+		final Decoder dec = new Decoder(bytes, 2);
+		final long sequence = dec.readVarLong();
+		final ID fromID = dec.readID();
+		final ID toID = dec.readID();
+		final int type = dec.readByte();
+		Serializable data;
+		switch (type) {
+			case TYPE_NULL :
+				data = null;
+				break;
+			case TYPE_SHARED_OBJECT :
+				final ID fromSharedObjectID = dec.readID();
+				data = new ContainerMessage.SharedObjectMessage(fromSharedObjectID, dec.readValue());
+				break;
+			case TYPE_SHARED_OBJECT_DISPOSE :
+				data = new ContainerMessage.SharedObjectDisposeMessage(dec.readID());
+				break;
+			case TYPE_CREATE :
+				data = new ContainerMessage.CreateMessage(dec.readValue());
+				break;
+			case TYPE_CREATE_RESPONSE :
+				final ID sharedObjectID = dec.readID();
+				final long responseSequence = dec.readVarLong();
+				final Serializable exception = dec.readValue();
+				if (exception != null && !(exception instanceof Throwable))
+					throw new StreamCorruptedException("Invalid exception in CreateResponseMessage"); //$NON-NLS-1$
+				data = new ContainerMessage.CreateResponseMessage(sharedObjectID, (Throwable) exception, responseSequence);
+				break;
+			case TYPE_VIEW_CHANGE :
+				final boolean add = dec.readByte() != 0;
+				final int count = dec.readLength();
+				ID[] ids = null;
+				if (count > 0) {
+					ids = new ID[count - 1];
+					for (int i = 0; i < ids.length; i++)
+						ids[i] = dec.readID();
+				}
+				data = new ContainerMessage.ViewChangeMessage(ids, add, dec.readValue());
+				break;
+			case TYPE_JOIN_GROUP :
+				data = new ContainerMessage.JoinGroupMessage(dec.readValue());
+				break;
+			case TYPE_LEAVE_GROUP :
+				data = new ContainerMessage.LeaveGroupMessage(dec.readValue());
+				break;
+			case TYPE_OTHER :
+				data = dec.readValue();
+				break;
+			default :
+				throw new StreamCorruptedException("Unknown container message type " + type); //$NON-NLS-1$
+		}
+		return new ContainerMessage(fromID, toID, sequence, data);
+	}
+
+	static boolean isNamedID(ID id) {
+		final Class clazz = id.getClass();
+		return clazz == StringID.class || clazz == GUID.class || clazz == LongID.class;
+	}
+
+	static class Encoder {
+		private byte[] buf = new byte[128];
+		private int count;
+		private Map<ID, Integer> ids;
+		private Map<String, Integer> namespaces;
+
+		private void ensureCapacity(int n) {
+			if (count + n > buf.length)
+				buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + n));
+		}
+
+		void writeByte(int b) {
+			ensureCapacity(1);
+			buf[count++] = (byte) b;
+		}
+
+		void writeBytes(byte[] b) {
+			writeVarLong(b.length);
+			ensureCapacity(b.length);
+			System.arraycopy(b, 0, buf, count, b.length);
+			count += b.length;
+		}
+
+		void writeVarLong(long v) {
+			ensureCapacity(10);
+			while ((v & ~0x7FL) != 0) {
+				buf[count++] = (byte) ((v & 0x7F) | 0x80);
+				v >>>= 7;
+			}
+			buf[count++] = (byte) v;
+		}
+
+		void writeString(String s) {
+			writeBytes(s.getBytes(StandardCharsets.UTF_8));
+		}
+
+		void writeID(ID id) throws IOException {
+			if (id == null) {
+				writeVarLong(ID_NULL);
+				return;
+			}
+			if (ids == null)
+				ids = new HashMap<ID, Integer>(4);
+			final Integer index = ids.get(id);
+			if (index != null) {
+				writeVarLong(index.intValue() + 2);
+				return;
+			}
+			ids.put(id, Integer.valueOf(ids.size()));
+			writeVarLong(ID_NEW);
+			if (isNamedID(id)) {
+				writeByte(ID_NAMED);
+				writeNamespace(id.getNamespace().getName());
+				writeString(id.getName());
+			} else {
+				writeByte(ID_SERIALIZED);
+				writeBytes(SOContainer.serialize(id));
+			}
+		}
+
+		private void writeNamespace(String name) {
+			if (namespaces == null)
+				namespaces = new HashMap<String, Integer>(4);
+			final Integer index = namespaces.get(name);
+			if (index != null) {
+				writeVarLong(index.intValue() + 1);
+				return;
+			}
+			namespaces.put(name, Integer.valueOf(namespaces.size()));
+			writeVarLong(0);
+			writeString(name);
+		}
+
+		void writeValue(Serializable value) throws IOException {
+			if (value == null)
+				writeByte(VALUE_NULL);
+			else if (value instanceof byte[]) {
+				writeByte(VALUE_BYTES);
+				writeBytes((byte[]) value);
+			} else {
+				writeByte(VALUE_SERIALIZED);
+				writeBytes(SOContainer.serialize(value));
+			}
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(buf, count);
+		}
+	}
+
+	static class Decoder {
+		private final byte[] buf;
+		private int pos;
+		private List<ID> ids;
+		private List<Namespace> namespaces;
+
+		Decoder(byte[] buf, int pos) {
+			this.buf = buf;
+			this.pos = pos;
+		}
+
+		int readByte() throws IOException {
+			if (pos >= buf.length)
+				throw new EOFException();
+			return buf[pos++] & 0xff;
+		}
+
+		long readVarLong() throws IOException {
+			long result = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				final int b = readByte();
+				result |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+					return result;
+			}
+			throw new StreamCorruptedException("Malformed varint"); //$NON-NLS-1$
+		}
+
+		int readLength() throws IOException {
+			final long length = readVarLong();
+			if (length < 0 || length > buf.length - pos + 1L)
+				throw new StreamCorruptedException("Invalid length " + length); //$NON-NLS-1$
+			return (int) length;
+		}
+
+		private int readBytesLength() throws IOException {
+			final int length = readLength();
+			if (length > buf.length - pos)
+				throw new EOFException();
+			return length;
+		}
+
+		byte[] readBytes() throws IOException {
+			final int length = readBytesLength();
+			final byte[] result = Arrays.copyOfRange(buf, pos, pos + length);
+			pos += length;
+			return result;
+		}
+
+		String readString() throws IOException {
+			final int length = readBytesLength();
+			final String result = new String(buf, pos, length, StandardCharsets.UTF_8);
+			pos += length;
+			return result;
+		}
+
+		ID readID() throws IOException {
+			final long ref = readVarLong();
+			if (ref == ID_NULL)
+				return null;
+			if (ids == null)
+				ids = new ArrayList<ID>(4);
+			if (ref != ID_NEW) {
+				final long index = ref - 2;
+				if (index >= ids.size())
+					throw new StreamCorruptedException("Invalid ID reference " + ref); //$NON-NLS-1$
+				return ids.get((int) index);
+			}
+			ID id;
+			final int kind = readByte();
+			if (kind == ID_NAMED) {
+				final Namespace namespace = readNamespace();
+				final String name = readString();
+				try {
+					id = namespace.createInstance(new Object[] {namespace.getScheme() + Namespace.SCHEME_SEPARATOR + name});
+				} catch (final IDCreateException e) {
+					throw new IOException("Could not create ID " + name + " in namespace " + namespace.getName(), e); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			} else if (kind == ID_SERIALIZED) {
+				final Object obj = readObject(readBytes());
+				if (!(obj instanceof ID))
+					throw new InvalidObjectException("object " + obj + " not appropriate type"); //$NON-NLS-1$ //$NON-NLS-2$
+				id = (ID) obj;
+			} else
+				throw new StreamCorruptedException("Unknown ID kind " + kind); //$NON-NLS-1$
+			ids.add(id);
+			return id;
+		}
+
+		private Namespace readNamespace() throws IOException {
+			if (namespaces == null)
+				namespaces = new ArrayList<Namespace>(2);
+			final long ref = readVarLong();
+			if (ref != 0) {
+				if (ref > namespaces.size())
+					throw new StreamCorruptedException("Invalid namespace reference " + ref); //$NON-NLS-1$
+				return namespaces.get((int) ref - 1);
+			}
+			final String name = readString();
+			final Namespace namespace = IDFactory.getDefault().getNamespaceByName(name);
+			if (namespace == null)
+				throw new InvalidObjectException("Namespace " + name + " not found"); //$NON-NLS-1$ //$NON-NLS-2$
+			namespaces.add(namespace);
+			return namespace;
+		}
+
+		Serializable readValue() throws IOException {
+			final int kind = readByte();
+			switch (kind) {
+				case VALUE_NULL :
+					return null;
+				case VALUE_BYTES :
+					return readBytes();
+				case VALUE_SERIALIZED :
+					final Object obj = readObject(readBytes());
+					if (obj != null && !(obj instanceof Serializable))
+						throw new InvalidObjectException("object " + obj + " not appropriate type"); //$NON-NLS-1$ //$NON-NLS-2$
+					return (Serializable) obj;
+				default :
+					throw new StreamCorruptedException("Unknown value kind " + kind); //$NON-NLS-1$
+			}
+		}
+
+		private Object readObject(byte[] bytes) throws IOException {
+			final ObjectInputStream ois = ProviderPlugin.getDefault().createObjectInputStream(new ByteArrayInputStream(bytes));
+			try {
+				return ois.readObject();
+			} catch (final ClassNotFoundException e) {
+				throw new IOException("class not found on deserialize", e); //$NON-NLS-1$
+			} finally {
+				ois.close();
+			}
+		}
+	}
+}
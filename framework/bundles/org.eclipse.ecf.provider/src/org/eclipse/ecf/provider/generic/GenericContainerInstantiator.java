@@ -48,6 +48,12 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 
 	private static final String BINDADDRESS_PROP = "bindAddress"; //$NON-NLS-1$
 
+	/**
+	 * Container property selecting the transport: {@link TCPServerSOContainer#TRANSPORT_IO} or {@link TCPServerSOContainer#TRANSPORT_NIO}.
+	 * @since 4.10
+	 */
+	public static final String TRANSPORT_PROP = "transport"; //$NON-NLS-1$
+
 	public GenericContainerInstantiator() {
 		super();
 	}
@@ -88,6 +94,7 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 		ID id;
 		Integer keepAlive;
 		InetAddress bindAddress;
+		String transport = TCPServerSOContainer.DEFAULT_TRANSPORT;
 
 		public GenericContainerArgs(ID id, Integer keepAlive) {
 			this.id = id;
@@ -115,6 +122,23 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 		public InetAddress getBindAddress() {
 			return bindAddress;
 		}
+
+		/**
+		 * @return String the transport.  Will not be <code>null</code>
+		 * @since 4.10
+		 */
+		public String getTransport() {
+			return transport;
+		}
+
+		/**
+		 * @param transport the transport
+		 * @since 4.10
+		 */
+		public void setTransport(String transport) {
+			if (transport != null)
+				this.transport = transport;
+		}
 	}
 
 	/**
@@ -126,9 +150,11 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 	protected GenericContainerArgs getClientArgs(Object[] args) throws IDCreateException {
 		ID newID = null;
 		Integer ka = null;
+		String transport = null;
 		if (args != null && args.length > 0) {
 			if (args[0] instanceof Map) {
 				Map map = (Map) args[0];
+				transport = getTransportFromMap(map);
 				Object idVal = map.get(ID_PROP);
 				if (idVal == null)
 					idVal = IDFactory.getDefault().createGUID();
@@ -150,7 +176,26 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 			newID = IDFactory.getDefault().createStringID(IDFactory.getDefault().createGUID().getName());
 		if (ka == null)
 			ka = Integer.valueOf(TCPServerSOContainer.DEFAULT_KEEPALIVE);
-		return new GenericContainerArgs(newID, ka);
+		GenericContainerArgs result = new GenericContainerArgs(newID, ka);
+		result.setTransport(transport);
+		return result;
+	}
+
+	/**
+	 * @param map container properties
+	 * @return String the transport property value, or <code>null</code> if not present
+	 * @since 4.10
+	 */
+	protected String getTransportFromMap(Map map) {
+		Object o = map.get(TRANSPORT_PROP);
+		if (o == null)
+			return null;
+		if (!(o instanceof String))
+			throw new IllegalArgumentException("transport value must be of type String"); //$NON-NLS-1$
+		String transport = (String) o;
+		if (!TCPServerSOContainer.TRANSPORT_IO.equals(transport) && !TCPServerSOContainer.TRANSPORT_NIO.equals(transport))
+			throw new IllegalArgumentException("transport value must be one of " + TCPServerSOContainer.TRANSPORT_IO + " or " + TCPServerSOContainer.TRANSPORT_NIO); //$NON-NLS-1$ //$NON-NLS-2$
+		return transport;
 	}
 
 	protected boolean isClient(ContainerTypeDescription description) {
@@ -170,11 +215,13 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 		ID newID = null;
 		Integer ka = null;
 		InetAddress bindAddress = null;
+		String transport = null;
 		boolean privateIntent = false;
 		if (args != null && args.length > 0) {
 			if (args[0] instanceof Map) {
 				@SuppressWarnings("unchecked")
 				Map<String, Object> map = (Map<String, Object>) args[0];
+				transport = getTransportFromMap(map);
 				Object idVal = map.get(ID_PROP);
 				if (idVal != null) {
 					newID = getIDFromArg(idVal);
@@ -234,7 +281,9 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 		if (privateIntent)
 			ContainerInstantiatorUtils.checkPrivate(newID);
 
-		return new GenericContainerArgs(newID, ka, bindAddress);
+		GenericContainerArgs result = new GenericContainerArgs(newID, ka, bindAddress);
+		result.setTransport(transport);
+		return result;
 	}
 
 	private ID createTCPServerID(String hostname, int port, String path) {
@@ -293,7 +342,7 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 	 * @since 4.5
 	 */
 	protected IContainer createClientContainer(GenericContainerArgs gcargs) throws Exception {
-		return new TCPClientSOContainer(new SOContainerConfig(gcargs.getID()), gcargs.getKeepAlive().intValue());
+		return new TCPClientSOContainer(new SOContainerConfig(gcargs.getID()), gcargs.getKeepAlive().intValue(), gcargs.getTransport());
 	}
 
 	/**
@@ -303,7 +352,7 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 	 * @since 4.5
 	 */
 	protected IContainer createServerContainer(GenericContainerArgs gcargs) throws Exception {
-		return new TCPServerSOContainer(new SOContainerConfig(gcargs.getID()), gcargs.getBindAddress(), gcargs.getKeepAlive().intValue());
+		return new TCPServerSOContainer(new SOContainerConfig(gcargs.getID()), gcargs.getBindAddress(), gcargs.getKeepAlive().intValue(), gcargs.getTransport());
 	}
 
 	public IContainer createInstance(ContainerTypeDescription description, Object[] args) throws ContainerCreateException {
@@ -0,0 +1,47 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.generic;
+
+import java.io.IOException;
+
+/**
+ * Serializer for the {@link ContainerMessage} envelope exchanged between
+ * generic containers. The shared object payload inside the envelope is
+ * serialized separately by the container's
+ * {@link org.eclipse.ecf.core.sharedobject.util.ISharedObjectMessageSerializer}.
+ * <p>
+ * Both sides of a connection must be able to read what the other writes.
+ * Implementations should therefore also accept the default Java serialized
+ * form in {@link #deserializeContainerMessage(byte[])}.
+ *
+ * @see SOContainer#setContainerMessageSerializer(IContainerMessageSerializer)
+ * @see CompactContainerMessageSerializer
+ * @since 4.10
+ */
+public interface IContainerMessageSerializer {
+
+	/**
+	 * @param message the container message to serialize.  Will not be <code>null</code>.
+	 * @return byte[] the serialized message
+	 * @throws IOException if the message cannot be serialized
+	 */
+	public byte[] serializeContainerMessage(ContainerMessage message) throws IOException;
+
+	/**
+	 * @param bytes the serialized message.  Will not be <code>null</code>.
+	 * @return ContainerMessage the message, or <code>null</code> if the bytes
+	 * do not hold a valid container message
+	 * @throws IOException if the message cannot be deserialized
+	 */
+	public ContainerMessage deserializeContainerMessage(byte[] bytes) throws IOException;
+}
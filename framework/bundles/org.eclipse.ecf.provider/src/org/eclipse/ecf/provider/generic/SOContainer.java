@@ -15,6 +15,7 @@ import java.io.*;
 import java.security.*;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.AbstractContainer;
 import org.eclipse.ecf.core.ContainerConnectException;
@@ -187,6 +188,89 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 		return this.sharedObjectMessageSerializer;
 	}
 
+	/**
+	 * If true, containers use the {@link CompactContainerMessageSerializer}
+	 * for the container message envelope.  Default is false.  All peers must
+	 * be running a version of this provider that can read the compact form.
+	 * @since 4.10
+	 */
+	public static final boolean COMPACT_CONTAINER_MESSAGES = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.generic.compactMessages", "false")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * If true, shared objects do not get a thread each.  Their events are
+	 * queued in a lock-free mailbox that is drained on the executor returned by
+	 * {@link #getSharedObjectExecutor()}.  Events for one shared object are
+	 * still delivered one at a time and in order.  Default is false.  Shared
+	 * objects that block in {@link ISharedObject#handleEvent(org.eclipse.ecf.core.util.Event)}
+	 * hold on to a pool thread while blocked.  Containers may override
+	 * {@link #isSharedObjectMailbox()} to choose for themselves.
+	 * @since 4.10
+	 */
+	public static final boolean SHARED_OBJECT_MAILBOX = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.generic.sharedObjectMailbox", "false")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * Number of threads in the pool shared by all shared object mailboxes.
+	 * Default is the number of available processors.
+	 * @since 4.10
+	 */
+	public static final int SHARED_OBJECT_THREADS = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.generic.sharedObjectThreads", String.valueOf(Runtime.getRuntime().availableProcessors()))); //$NON-NLS-1$
+
+	/**
+	 * @since 4.10
+	 */
+	private final IContainerMessageSerializer defaultContainerMessageSerializer = new IContainerMessageSerializer() {
+
+		public byte[] serializeContainerMessage(ContainerMessage message) throws IOException {
+			return serialize(message);
+		}
+
+		public ContainerMessage deserializeContainerMessage(byte[] bytes) throws IOException {
+			// Peers may have enabled the compact form
+			if (CompactContainerMessageSerializer.isCompactMessage(bytes))
+				return new CompactContainerMessageSerializer().deserializeContainerMessage(bytes);
+			return SOContainer.deserializeContainerMessage(bytes);
+		}
+
+	};
+
+	/**
+	 * @since 4.10
+	 */
+	protected IContainerMessageSerializer containerMessageSerializer = COMPACT_CONTAINER_MESSAGES ? new CompactContainerMessageSerializer() : defaultContainerMessageSerializer;
+
+	/**
+	 * @param serializer the serializer for the container message envelope.
+	 * If <code>null</code>, the serializer is not changed.
+	 * @since 4.10
+	 */
+	public void setContainerMessageSerializer(IContainerMessageSerializer serializer) {
+		if (serializer == null)
+			return;
+		this.containerMessageSerializer = serializer;
+	}
+
+	/**
+	 * @return IContainerMessageSerializer the container message serializer
+	 * @since 4.10
+	 */
+	protected IContainerMessageSerializer getContainerMessageSerializer() {
+		return this.containerMessageSerializer;
+	}
+
+	boolean isDefaultContainerMessageSerializer() {
+		return getContainerMessageSerializer() == defaultContainerMessageSerializer;
+	}
+
+	/**
+	 * @param message the message to serialize
+	 * @return byte[] the message serialized by the container message serializer
+	 * @throws IOException if the message cannot be serialized
+	 * @since 4.10
+	 */
+	protected byte[] serializeContainerMessage(ContainerMessage message) throws IOException {
+		return getContainerMessageSerializer().serializeContainerMessage(message);
+	}
+
 	protected ISynchAsynchEventHandler receiver = new ISynchAsynchEventHandler() {
 		public Object handleSynchEvent(SynchEvent event) throws IOException {
 			return processSynch(event);
@@ -516,6 +600,31 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 		return new Thread(sharedObjectThreadGroup, runnable, sharedObjectID.getName() + ":run"); //$NON-NLS-1$
 	}
 
+	/**
+	 * Whether shared objects added to this container get their events from a
+	 * mailbox drained on {@link #getSharedObjectExecutor()} rather than from
+	 * a thread each.  The default implementation returns {@link #SHARED_OBJECT_MAILBOX}.
+	 *
+	 * @return boolean true if shared objects added from now on use a mailbox
+	 * @since 4.10
+	 */
+	protected boolean isSharedObjectMailbox() {
+		return SHARED_OBJECT_MAILBOX;
+	}
+
+	/**
+	 * Get the executor that delivers events to shared objects when
+	 * {@link #isSharedObjectMailbox()} is true.  The default implementation
+	 * returns a pool shared by all containers, which is shut down when this
+	 * bundle is stopped.
+	 *
+	 * @return Executor the executor for shared object mailboxes.  Must not be <code>null</code>.
+	 * @since 4.10
+	 */
+	protected Executor getSharedObjectExecutor() {
+		return ProviderPlugin.getDefault().getSharedObjectExecutor();
+	}
+
 	protected long getNextSequenceNumber() {
 		if (sequenceNumber == Long.MAX_VALUE) {
 			sequenceNumber = 0;
@@ -873,7 +982,7 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 				debug("Ignoring event without valid data " + event); //$NON-NLS-1$
 				return;
 			}
-			final ContainerMessage mess = validateContainerMessage(deserializeContainerMessage((byte[]) obj));
+			final ContainerMessage mess = validateContainerMessage(getContainerMessageSerializer().deserializeContainerMessage((byte[]) obj));
 			if (mess == null) {
 				debug("event not validated: " + event); //$NON-NLS-1$
 				return;
@@ -906,7 +1015,7 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 	protected abstract void processDisconnect(DisconnectEvent event);
 
 	protected Serializable processSynch(SynchEvent e) throws IOException {
-		final ContainerMessage mess = deserializeContainerMessage((byte[]) e.getData());
+		final ContainerMessage mess = getContainerMessageSerializer().deserializeContainerMessage((byte[]) e.getData());
 		final Serializable data = mess.getData();
 		// Must be non null
 		if (data != null && data instanceof ContainerMessage.LeaveGroupMessage)
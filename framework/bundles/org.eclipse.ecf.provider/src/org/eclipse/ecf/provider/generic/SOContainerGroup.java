@@ -21,7 +21,7 @@ import org.eclipse.ecf.internal.provider.ProviderPlugin;
 import org.eclipse.ecf.provider.comm.IConnectRequestHandler;
 import org.eclipse.ecf.provider.comm.tcp.*;
 
-public class SOContainerGroup implements ISocketAcceptHandler {
+public class SOContainerGroup implements ISocketAcceptHandler, IChannelAcceptHandler {
 
 	/**
 	 * @since 4.7
@@ -76,7 +76,7 @@ public class SOContainerGroup implements ISocketAcceptHandler {
 	 * @since 4.7
 	 */
 	protected ObjectOutputStream createObjectOutputStream(Socket aSocket) throws IOException {
-		return new ObjectOutputStream(aSocket.getOutputStream());
+		return new ObjectOutputStream(Client.createBufferedOutputStream(aSocket));
 	}
 
 	/**
@@ -144,4 +144,36 @@ public class SOContainerGroup implements ISocketAcceptHandler {
 		}
 	}
 
+	/**
+	 * Handle the connect request of a connection accepted by the NIO transport.
+	 * The handshake is the same as for {@link #handleAccept(Socket)}, but the
+	 * request has already been read by the connection.
+	 * @param newClient accepted connection
+	 * @param req connect request
+	 * @since 4.10
+	 */
+	public void handleConnectRequest(NIOClient newClient, ConnectRequestMessage req) throws Exception {
+		if (req == null)
+			throw new InvalidObjectException(INVALID_CONNECT + " Connect request message cannot be null"); //$NON-NLS-1$
+
+		final URI uri = req.getTarget();
+		if (uri == null)
+			throw new InvalidObjectException(INVALID_CONNECT + " URI connect target cannot be null"); //$NON-NLS-1$
+		final String path = uri.getPath();
+		if (path == null)
+			throw new InvalidObjectException(INVALID_CONNECT + " Path cannot be null"); //$NON-NLS-1$
+
+		final SOContainer srs = get(path);
+		if (srs == null)
+			throw new InvalidObjectException("Container not found for path=" + path); //$NON-NLS-1$
+
+		newClient.setEventHandler(srs.getMessageReceiver());
+		// No other threads can send until connect request handler has
+		// accepted or rejected connect request
+		synchronized (newClient.getOutputStreamLock()) {
+			final Serializable resp = ((IConnectRequestHandler) srs).handleConnectRequest(newClient.getSocket(), path, req.getData(), newClient);
+			newClient.sendConnectResult(resp);
+		}
+	}
+
 }
\ No newline at end of file
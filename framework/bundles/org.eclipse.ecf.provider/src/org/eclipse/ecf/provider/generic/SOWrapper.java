@@ -37,6 +37,7 @@ public class SOWrapper {
 	private SOContainer container;
 	private ID containerID;
 	private Thread thread;
+	private SharedObjectMailbox mailbox;
 	SimpleFIFOQueue queue;
 
 	protected SOWrapper(SOContainer.LoadingSharedObject obj, SOContainer cont) {
@@ -46,7 +47,7 @@ public class SOWrapper {
 		containerID = cont.getID();
 		sharedObjectConfig = null;
 		thread = null;
-		queue = new SimpleFIFOQueue();
+		queue = createQueue();
 	}
 
 	public SOWrapper(SOConfig aConfig, ISharedObject obj, SOContainer cont) {
@@ -56,7 +57,22 @@ public class SOWrapper {
 		container = cont;
 		containerID = cont.getID();
 		thread = null;
-		queue = new SimpleFIFOQueue();
+		queue = createQueue();
+	}
+
+	private SimpleFIFOQueue createQueue() {
+		if (!container.isSharedObjectMailbox())
+			return new SimpleFIFOQueue();
+		mailbox = new SharedObjectMailbox(container.getSharedObjectExecutor()) {
+			protected void process(Object event) {
+				dispatch((Event) event);
+			}
+		};
+		return mailbox;
+	}
+
+	private boolean isRunning() {
+		return (mailbox != null) ? mailbox.isStarted() : thread != null;
 	}
 
 	protected void init() throws SharedObjectInitException {
@@ -78,16 +94,20 @@ public class SOWrapper {
 	}
 
 	protected void activated() {
-		thread = (Thread) AccessController.doPrivileged(new PrivilegedAction() {
-			public Object run() {
-				Thread aThread = getThread();
-				return aThread;
-			}
-		});
+		if (mailbox == null)
+			thread = (Thread) AccessController.doPrivileged(new PrivilegedAction() {
+				public Object run() {
+					Thread aThread = getThread();
+					return aThread;
+				}
+			});
 		// Notify container and listeners
 		container.notifySharedObjectActivated(sharedObjectID);
-		// Start thread
-		thread.start();
+		// Start thread or mailbox delivery
+		if (mailbox == null)
+			thread.start();
+		else
+			mailbox.start();
 		// Send message
 		send(new SharedObjectActivatedEvent(containerID, sharedObjectID));
 	}
@@ -100,14 +120,14 @@ public class SOWrapper {
 
 	protected void destroyed() {
 		if (!queue.isStopped()) {
-			if (thread != null)
+			if (isRunning())
 				queue.enqueue(new DisposeEvent());
 			queue.close();
 		}
 	}
 
 	protected void otherChanged(ID otherID, boolean activated) {
-		if (activated && thread != null) {
+		if (activated && isRunning()) {
 			send(new SharedObjectActivatedEvent(containerID, otherID));
 		} else {
 			send(new SharedObjectDeactivatedEvent(containerID, otherID));
@@ -115,7 +135,7 @@ public class SOWrapper {
 	}
 
 	protected void memberChanged(Member m, boolean add) {
-		if (thread != null) {
+		if (isRunning()) {
 			if (add) {
 				send(new ContainerConnectedEvent(containerID, m.getID()));
 			} else {
@@ -135,17 +155,7 @@ public class SOWrapper {
 					evt = (Event) queue.dequeue();
 					if (Thread.currentThread().isInterrupted() || evt == null)
 						break;
-					try {
-						if (evt instanceof ProcEvent) {
-							SOWrapper.this.svc(((ProcEvent) evt).getEvent());
-						} else if (evt instanceof DisposeEvent) {
-							SOWrapper.this.doDestroy();
-						} else {
-							SOWrapper.this.svc(evt);
-						}
-					} catch (Throwable t) {
-						handleRuntimeException(t);
-					}
+					dispatch(evt);
 				}
 				if (Thread.currentThread().isInterrupted()) {
 					debug("runner(" + sharedObjectID //$NON-NLS-1$
@@ -158,6 +168,20 @@ public class SOWrapper {
 		});
 	}
 
+	private void dispatch(Event evt) {
+		try {
+			if (evt instanceof ProcEvent) {
+				svc(((ProcEvent) evt).getEvent());
+			} else if (evt instanceof DisposeEvent) {
+				doDestroy();
+			} else {
+				svc(evt);
+			}
+		} catch (Throwable t) {
+			handleRuntimeException(t);
+		}
+	}
+
 	private void send(Event evt) {
 		queue.enqueue(new ProcEvent(evt));
 	}
@@ -28,6 +28,13 @@ import org.eclipse.ecf.provider.generic.gmm.Member;
 
 public class ServerSOContainer extends SOContainer implements ISharedObjectContainerGroupManager {
 
+	/**
+	 * If true (the default), messages forwarded to several group members are
+	 * serialized once rather than once per member.
+	 * @since 4.10
+	 */
+	public static final boolean SERIALIZE_ONCE = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.generic.serializeOnce", "true")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+
 	protected IConnectHandlerPolicy connectHandlerPolicy;
 
 	public ServerSOContainer(ISharedObjectContainerConfig config) {
@@ -76,7 +83,7 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 			if (conn == null)
 				return;
 			try {
-				conn.sendSynch(memberID, serialize(ContainerMessage.createLeaveGroupMessage(getID(), memberID, getNextSequenceNumber(), reason)));
+				conn.sendSynch(memberID, serializeContainerMessage(ContainerMessage.createLeaveGroupMessage(getID(), memberID, getNextSequenceNumber(), reason)));
 			} catch (final Exception e) {
 				traceStack("Exception in ejectGroupMember.sendAsynch()", e); //$NON-NLS-1$
 			}
@@ -139,7 +146,7 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 		} else {
 			final IAsynchConnection conn = getConnectionForID(message.getToContainerID());
 			if (conn != null)
-				conn.sendAsynch(message.getToContainerID(), serialize(message));
+				conn.sendAsynch(message.getToContainerID(), serializeContainerMessage(message));
 		}
 	}
 
@@ -152,6 +159,9 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 			queueContainerMessage(new ContainerMessage(from, null, getNextSequenceNumber(), data.getData()));
 		} else {
 			final Object ms[] = groupManager.getMembers();
+			// Payload is serialized once and shared by all recipients
+			final boolean serializeOnce = SERIALIZE_ONCE && isDefaultContainerMessageSerializer();
+			SharedContainerMessage shared = null;
 			for (int i = 0; i < ms.length; i++) {
 				final Member m = (Member) ms[i];
 				final ID oldID = m.getID();
@@ -159,7 +169,13 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 					final IAsynchConnection conn = (IAsynchConnection) m.getData();
 					if (conn != null) {
 						try {
-							conn.sendAsynch(oldID, serialize(new ContainerMessage(from, oldID, getNextSequenceNumber(), data.getData())));
+							if (!serializeOnce)
+								conn.sendAsynch(oldID, serializeContainerMessage(new ContainerMessage(from, oldID, getNextSequenceNumber(), data.getData())));
+							else {
+								if (shared == null)
+									shared = new SharedContainerMessage(from, data.getData());
+								conn.sendAsynch(oldID, shared.encode(oldID, getNextSequenceNumber()));
+							}
 						} catch (final IOException e) {
 							traceStack("Exception in forwardExcluding from " //$NON-NLS-1$
 									+ from + " with oldID " + oldID, e); //$NON-NLS-1$
@@ -286,11 +302,15 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 
 	private final void queueToAll(ContainerMessage message) {
 		final Object[] members = groupManager.getMembers();
+		// Every member gets the same bytes
+		byte[] bytes = null;
 		for (int i = 0; i < members.length; i++) {
 			final IAsynchConnection conn = (IAsynchConnection) ((Member) members[i]).getData();
 			if (conn != null) {
 				try {
-					conn.sendAsynch(message.getToContainerID(), serialize(message));
+					if (bytes == null || !SERIALIZE_ONCE)
+						bytes = serializeContainerMessage(message);
+					conn.sendAsynch(message.getToContainerID(), bytes);
 				} catch (final IOException e) {
 					traceStack("Exception in queueToAll for ContainerMessage " + message, e); //$NON-NLS-1$
 				}
@@ -0,0 +1,140 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.generic;
+
+import java.io.*;
+import org.eclipse.ecf.core.identity.ID;
+
+/**
+ * A {@link ContainerMessage} serialized once for delivery to many group
+ * members.
+ * <p>
+ * The default serialized form of a container message is a fixed header (the
+ * stream header and the class descriptor), the sequence number and then the
+ * object fields in name order: the data, the from ID and the to ID. Every
+ * recipient gets the same header and the same data and from ID, encoded once,
+ * followed by its own sequence number and to ID. The result is readable by
+ * {@link SOContainer#deserializeContainerMessage(byte[])} on any peer.
+ * <p>
+ * Each part is written by its own {@link ObjectOutputStream}, after as many
+ * unreferenced objects as the parts before it hold handles. Back references
+ * in a part therefore resolve to its own objects on the receiving side.
+ */
+final class SharedContainerMessage {
+
+	private static final String[] OBJECT_FIELDS = {"data", "fromContainerID", "toContainerID"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+	private static byte[] header;
+	private static int headerHandles;
+
+	private final byte[] body;
+	private final int bodyHandles;
+
+	SharedContainerMessage(ID fromID, Serializable data) throws IOException {
+		initHeader();
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = newPaddedStream(bos, headerHandles);
+		final int start = bos.size();
+		oos.writeObject(data);
+		oos.writeObject(fromID);
+		oos.flush();
+		final int end = bos.size();
+		bodyHandles = nextHandle(oos, bos);
+		body = copy(bos.toByteArray(), start, end);
+	}
+
+	/**
+	 * @param toID the recipient.  May be <code>null</code>.
+	 * @param sequence the sequence number for this recipient
+	 * @return byte[] the serialized container message for the recipient
+	 * @throws IOException if the to ID cannot be serialized
+	 */
+	byte[] encode(ID toID, long sequence) throws IOException {
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream(header.length + 8 + body.length + 64);
+		bos.write(header);
+		final DataOutputStream dos = new DataOutputStream(bos);
+		dos.writeLong(sequence);
+		dos.flush();
+		bos.write(body);
+		bos.write(encodeToID(toID));
+		return bos.toByteArray();
+	}
+
+	private byte[] encodeToID(ID toID) throws IOException {
+		if (toID == null)
+			return new byte[] {ObjectStreamConstants.TC_NULL};
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = newPaddedStream(bos, bodyHandles);
+		final int start = bos.size();
+		oos.writeObject(toID);
+		oos.flush();
+		return copy(bos.toByteArray(), start, bos.size());
+	}
+
+	/**
+	 * The header is what a stream holds before the sequence number of a
+	 * container message, which is the same for every message.
+	 */
+	private static synchronized void initHeader() throws IOException {
+		if (header != null)
+			return;
+		final ObjectStreamField[] fields = ObjectStreamClass.lookup(ContainerMessage.class).getFields();
+		if (fields.length != OBJECT_FIELDS.length + 1 || fields[0].getType() != Long.TYPE)
+			throw new InvalidClassException(ContainerMessage.class.getName(), "Unexpected serializable fields"); //$NON-NLS-1$
+		for (int i = 0; i < OBJECT_FIELDS.length; i++)
+			if (!OBJECT_FIELDS[i].equals(fields[i + 1].getName()))
+				throw new InvalidClassException(ContainerMessage.class.getName(), "Unexpected serializable fields"); //$NON-NLS-1$
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(new ContainerMessage(null, null, 0, null));
+		oos.flush();
+		// Without the sequence number and the null object fields
+		final int end = bos.size() - 8 - OBJECT_FIELDS.length;
+		headerHandles = nextHandle(oos, bos);
+		header = copy(bos.toByteArray(), 0, end);
+	}
+
+	/**
+	 * @return a stream that has used the given number of handles for
+	 * unreferenced objects
+	 */
+	private static ObjectOutputStream newPaddedStream(ByteArrayOutputStream bos, int handles) throws IOException {
+		final ObjectOutputStream oos = new ObjectOutputStream(bos);
+		for (int i = 0; i < handles; i++)
+			oos.writeUnshared(""); //$NON-NLS-1$
+		oos.flush();
+		return oos;
+	}
+
+	/**
+	 * Writing the same new object twice makes the stream reveal the next
+	 * handle, which is the number of handles used so far.
+	 */
+	private static int nextHandle(ObjectOutputStream oos, ByteArrayOutputStream bos) throws IOException {
+		final String marker = new String();
+		oos.writeObject(marker);
+		oos.writeObject(marker);
+		oos.close();
+		final byte[] bytes = bos.toByteArray();
+		if (bytes[bytes.length - 5] != ObjectStreamConstants.TC_REFERENCE)
+			throw new StreamCorruptedException("Unexpected back reference"); //$NON-NLS-1$
+		final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes, bytes.length - 4, 4));
+		return dis.readInt() - ObjectStreamConstants.baseWireHandle;
+	}
+
+	private static byte[] copy(byte[] bytes, int start, int end) {
+		final byte[] result = new byte[end - start];
+		System.arraycopy(bytes, start, result, 0, result.length);
+		return result;
+	}
+}
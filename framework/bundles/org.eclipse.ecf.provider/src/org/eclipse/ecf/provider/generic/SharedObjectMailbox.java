@@ -0,0 +1,145 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.generic;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.ecf.core.sharedobject.util.SimpleFIFOQueue;
+
+/**
+ * Event queue for a shared object that is drained on a shared {@link Executor}
+ * rather than by a dedicated thread.
+ * <p>
+ * Events enqueued before {@link #start()} are held until it is called.
+ * Any number of threads may enqueue without locking. At most one drain task
+ * per mailbox is submitted to the executor at a time, so events are processed
+ * one at a time and in the order they were enqueued. A drain task processes at
+ * most {@link #MAX_DRAIN} events before giving up its worker thread, so that
+ * one busy shared object cannot starve the others.
+ * <p>
+ * The blocking methods of {@link SimpleFIFOQueue} do not block here: they
+ * return <code>null</code> if the mailbox is empty.
+ */
+abstract class SharedObjectMailbox extends SimpleFIFOQueue {
+
+	static final int MAX_DRAIN = 64;
+
+	private final ConcurrentLinkedQueue<Object> events = new ConcurrentLinkedQueue<Object>();
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private final Executor executor;
+	private volatile boolean started;
+
+	private final Runnable drain = new Runnable() {
+		public void run() {
+			Object event;
+			for (int i = 0; i < MAX_DRAIN && (event = events.poll()) != null; i++)
+				process(event);
+			scheduled.set(false);
+			// An event enqueued after the last poll found the drain still
+			// scheduled, so it is up to us to submit it
+			if (!events.isEmpty())
+				schedule();
+		}
+	};
+
+	SharedObjectMailbox(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Called on an executor thread for each event, in enqueue order.
+	 * Never called concurrently for the same mailbox.
+	 *
+	 * @param event the event dequeued.  Will not be <code>null</code>.
+	 */
+	protected abstract void process(Object event);
+
+	void start() {
+		started = true;
+		if (!events.isEmpty())
+			schedule();
+	}
+
+	boolean isStarted() {
+		return started;
+	}
+
+	private void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			try {
+				executor.execute(drain);
+			} catch (final RejectedExecutionException e) {
+				// Executor is shut down, so deliver on this thread instead.
+				// The scheduled flag is still held, so order is preserved
+				drain.run();
+			}
+		}
+	}
+
+	public boolean enqueue(Object obj) {
+		if (isStopped() || obj == null)
+			return false;
+		events.offer(obj);
+		if (started)
+			schedule();
+		return true;
+	}
+
+	public Object dequeue() {
+		return events.poll();
+	}
+
+	public Object peekQueue() {
+		return events.peek();
+	}
+
+	public Object peekQueue(long waitMS) {
+		return events.peek();
+	}
+
+	public Object[] peekQueue(int maxItems, long lingerNanos) {
+		if (events.isEmpty())
+			return null;
+		final Object[] all = events.toArray();
+		if (all.length <= maxItems)
+			return all;
+		final Object[] result = new Object[maxItems];
+		System.arraycopy(all, 0, result, 0, maxItems);
+		return result;
+	}
+
+	public Object removeHead() {
+		return events.poll();
+	}
+
+	public boolean isEmpty() {
+		return events.isEmpty();
+	}
+
+	public int size() {
+		return events.size();
+	}
+
+	public Object[] flush() {
+		final Object[] out = events.toArray();
+		events.clear();
+		close();
+		return out;
+	}
+
+	public String toString() {
+		final StringBuffer sb = new StringBuffer("SharedObjectMailbox["); //$NON-NLS-1$
+		sb.append(events).append("]"); //$NON-NLS-1$
+		return sb.toString();
+	}
+}
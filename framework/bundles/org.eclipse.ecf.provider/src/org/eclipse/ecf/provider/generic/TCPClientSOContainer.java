@@ -19,9 +19,11 @@ import org.eclipse.ecf.core.sharedobject.ISharedObjectContainerConfig;
 import org.eclipse.ecf.provider.comm.ConnectionCreateException;
 import org.eclipse.ecf.provider.comm.ISynchAsynchConnection;
 import org.eclipse.ecf.provider.comm.tcp.Client;
+import org.eclipse.ecf.provider.comm.tcp.NIOClient;
 
 public class TCPClientSOContainer extends ClientSOContainer {
 	int keepAlive = 0;
+	String transport = TCPServerSOContainer.DEFAULT_TRANSPORT;
 
 	public static final int DEFAULT_TCP_CONNECT_TIMEOUT = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.generic.TCPClientSOContainer.defaultConnectTimeout", "30000")); //$NON-NLS-1$ //$NON-NLS-2$
 
@@ -36,6 +38,18 @@ public class TCPClientSOContainer extends ClientSOContainer {
 		keepAlive = ka;
 	}
 
+	/**
+	 * @param config config
+	 * @param ka keep alive
+	 * @param transport one of {@link TCPServerSOContainer#TRANSPORT_IO} or {@link TCPServerSOContainer#TRANSPORT_NIO}
+	 * @since 4.10
+	 */
+	public TCPClientSOContainer(ISharedObjectContainerConfig config, int ka, String transport) {
+		this(config, ka);
+		if (transport != null)
+			this.transport = transport;
+	}
+
 	protected int getConnectTimeout() {
 		return DEFAULT_TCP_CONNECT_TIMEOUT;
 	}
@@ -48,6 +62,8 @@ public class TCPClientSOContainer extends ClientSOContainer {
 	 */
 	protected ISynchAsynchConnection createConnection(ID remoteSpace, Object data) throws ConnectionCreateException {
 		debug("createClientConnection:" + remoteSpace + ":" + data); //$NON-NLS-1$ //$NON-NLS-2$
+		if (TCPServerSOContainer.TRANSPORT_NIO.equals(transport))
+			return new NIOClient(receiver, keepAlive);
 		ISynchAsynchConnection conn = new Client(receiver, keepAlive);
 		return conn;
 	}
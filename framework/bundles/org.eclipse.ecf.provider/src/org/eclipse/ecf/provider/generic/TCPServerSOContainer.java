@@ -37,6 +37,25 @@ public class TCPServerSOContainer extends ServerSOContainer implements IConnectR
 	 */
 	public static final boolean DEFAULT_FALLBACK_PORT = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.generic.port.fallback", "true")).booleanValue(); //$NON-NLS-1$//$NON-NLS-2$
 
+	/**
+	 * Blocking socket transport with per-connection threads (the default).
+	 * @since 4.10
+	 */
+	public static final String TRANSPORT_IO = "io"; //$NON-NLS-1$
+
+	/**
+	 * Selector based transport, see {@link org.eclipse.ecf.provider.comm.tcp.NIOClient}.
+	 * It speaks the same object stream protocol as {@link #TRANSPORT_IO}, so
+	 * clients and servers using either transport can be mixed.
+	 * @since 4.10
+	 */
+	public static final String TRANSPORT_NIO = "nio"; //$NON-NLS-1$
+
+	/**
+	 * @since 4.10
+	 */
+	public static final String DEFAULT_TRANSPORT = System.getProperty("org.eclipse.ecf.provider.generic.transport", TRANSPORT_IO); //$NON-NLS-1$
+
 	static {
 		final Boolean useHostname = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.generic.host.useHostName", "true")); //$NON-NLS-1$ //$NON-NLS-2$
 		if (useHostname.booleanValue()) {
@@ -81,7 +100,9 @@ public class TCPServerSOContainer extends ServerSOContainer implements IConnectR
 		isSingle = true;
 		if (path == null)
 			throw new NullPointerException("path cannot be null"); //$NON-NLS-1$
+		this.keepAlive = keepAlive;
 		this.group = new TCPServerSOContainerGroup(TCPServerSOContainerGroup.DEFAULT_GROUP_NAME, null, Server.DEFAULT_BACKLOG, port, bindAddress);
+		this.group.setKeepAlive(keepAlive);
 		this.group.add(path, this);
 		this.group.putOnTheAir();
 	}
@@ -95,6 +116,19 @@ public class TCPServerSOContainer extends ServerSOContainer implements IConnectR
 	 * @since 4.4
 	 */
 	public TCPServerSOContainer(ISharedObjectContainerConfig config, InetAddress bindAddress, int keepAlive) throws IOException, URISyntaxException {
+		this(config, bindAddress, keepAlive, DEFAULT_TRANSPORT);
+	}
+
+	/**
+	 * @param config config
+	 * @param bindAddress bind address
+	 * @param keepAlive keep alive
+	 * @param transport one of {@link #TRANSPORT_IO} or {@link #TRANSPORT_NIO}
+	 * @throws IOException if some problem creating
+	 * @throws URISyntaxException if some problem creating
+	 * @since 4.10
+	 */
+	public TCPServerSOContainer(ISharedObjectContainerConfig config, InetAddress bindAddress, int keepAlive, String transport) throws IOException, URISyntaxException {
 		super(config);
 		isSingle = true;
 		URI actualURI = parseAndValidateURI();
@@ -102,7 +136,10 @@ public class TCPServerSOContainer extends ServerSOContainer implements IConnectR
 		String path = actualURI.getPath();
 		if (path == null)
 			throw new NullPointerException("path cannot be null"); //$NON-NLS-1$
+		this.keepAlive = keepAlive;
 		this.group = new TCPServerSOContainerGroup(TCPServerSOContainerGroup.DEFAULT_GROUP_NAME, null, port, Server.DEFAULT_BACKLOG, bindAddress);
+		this.group.setTransport(transport);
+		this.group.setKeepAlive(keepAlive);
 		this.group.add(path, this);
 		this.group.putOnTheAir();
 	}
@@ -117,6 +154,7 @@ public class TCPServerSOContainer extends ServerSOContainer implements IConnectR
 		if (grp == null) {
 			isSingle = true;
 			this.group = new TCPServerSOContainerGroup(urlPort);
+			this.group.setKeepAlive(keepAlive);
 		} else
 			this.group = grp;
 		group.add(path, this);
@@ -17,6 +17,7 @@ import java.net.InetAddress;
 import org.eclipse.ecf.core.util.Trace;
 import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
 import org.eclipse.ecf.internal.provider.ProviderPlugin;
+import org.eclipse.ecf.provider.comm.tcp.NIOServer;
 import org.eclipse.ecf.provider.comm.tcp.Server;
 
 public class TCPServerSOContainerGroup extends SOContainerGroup {
@@ -24,6 +25,9 @@ public class TCPServerSOContainerGroup extends SOContainerGroup {
 	public static final String DEFAULT_GROUP_NAME = TCPServerSOContainerGroup.class.getName();
 	private int port;
 	private Server listener;
+	private NIOServer nioListener;
+	private String transport = TCPServerSOContainer.DEFAULT_TRANSPORT;
+	private int keepAlive = TCPServerSOContainer.DEFAULT_KEEPALIVE;
 	private boolean isOnTheAir = false;
 	private final ThreadGroup threadGroup;
 
@@ -77,10 +81,53 @@ public class TCPServerSOContainerGroup extends SOContainerGroup {
 		Trace.catching(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.EXCEPTIONS_CATCHING, TCPServerSOContainerGroup.class, msg, e);
 	}
 
+	/**
+	 * Set the transport used by {@link #putOnTheAir()}.
+	 * @param transport one of {@link TCPServerSOContainer#TRANSPORT_IO} or {@link TCPServerSOContainer#TRANSPORT_NIO}.
+	 * If <code>null</code>, {@link TCPServerSOContainer#DEFAULT_TRANSPORT} is used.
+	 * @since 4.10
+	 */
+	public synchronized void setTransport(String transport) {
+		this.transport = (transport == null) ? TCPServerSOContainer.DEFAULT_TRANSPORT : transport;
+	}
+
+	/**
+	 * @return String the transport of this group
+	 * @since 4.10
+	 */
+	public synchronized String getTransport() {
+		return transport;
+	}
+
+	/**
+	 * Set the keep alive of the connections accepted by the
+	 * {@link TCPServerSOContainer#TRANSPORT_NIO} transport after the next
+	 * {@link #putOnTheAir()}.
+	 * @param keepAlive keep alive interval in ms.  If &lt;= 0, no pings are sent.
+	 * @since 4.10
+	 */
+	public synchronized void setKeepAlive(int keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	/**
+	 * @return int the keep alive of the connections accepted by the
+	 * {@link TCPServerSOContainer#TRANSPORT_NIO} transport
+	 * @since 4.10
+	 */
+	public synchronized int getKeepAlive() {
+		return keepAlive;
+	}
+
 	public synchronized void putOnTheAir() throws IOException {
-		trace("TCPServerSOContainerGroup at port " + port + " on the air"); //$NON-NLS-1$ //$NON-NLS-2$
-		listener = new Server(threadGroup, port, backlog, bindAddress, this);
-		port = listener.getLocalPort();
+		trace("TCPServerSOContainerGroup at port " + port + " on the air with transport " + transport); //$NON-NLS-1$ //$NON-NLS-2$
+		if (TCPServerSOContainer.TRANSPORT_NIO.equals(transport)) {
+			nioListener = new NIOServer(port, backlog, bindAddress, keepAlive, this);
+			port = nioListener.getLocalPort();
+		} else {
+			listener = new Server(threadGroup, port, backlog, bindAddress, this);
+			port = listener.getLocalPort();
+		}
 		isOnTheAir = true;
 	}
 
@@ -98,6 +145,15 @@ public class TCPServerSOContainerGroup extends SOContainerGroup {
 			}
 			listener = null;
 		}
+		if (nioListener != null) {
+			trace("Taking " + getName() + " off the air."); //$NON-NLS-1$ //$NON-NLS-2$
+			try {
+				nioListener.close();
+			} catch (final IOException e) {
+				traceStack("Exception in closeListener", e); //$NON-NLS-1$
+			}
+			nioListener = null;
+		}
 		isOnTheAir = false;
 	}
 
@@ -14,10 +14,12 @@ package org.eclipse.ecf.remoteservice.asyncproxy;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.equinox.concurrent.future.IFuture;
@@ -84,6 +86,53 @@ public class AsyncReturnUtil {
 		return null;
 	}
 
+	/**
+	 * Adapt an asynchronous return value to a {@link CompletableFuture} without
+	 * blocking. Unlike {@link #convertAsyncToReturn(Object, Class, long)} this
+	 * does not wait for the value, so the caller can act on completion instead.
+	 * 
+	 * @param returnObject the asynchronous return value. May be <code>null</code>.
+	 * @return CompletableFuture that completes with the value or failure of
+	 *         returnObject, or <code>null</code> if returnObject does not support
+	 *         completion callbacks (e.g. {@link Future} or {@link IFuture})
+	 * @since 2.2
+	 */
+	public static CompletableFuture<Object> toCompletableFuture(Object returnObject) {
+		final CompletableFuture<Object> result = new CompletableFuture<Object>();
+		if (returnObject instanceof CompletionStage) {
+			((CompletionStage<?>) returnObject).whenComplete(new BiConsumer<Object, Throwable>() {
+				public void accept(Object value, Throwable t) {
+					if (t == null)
+						result.complete(value);
+					else
+						result.completeExceptionally(
+								(t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t);
+				}
+			});
+			return result;
+		} else if (returnObject instanceof Promise) {
+			final Promise<?> promise = (Promise<?>) returnObject;
+			promise.onResolve(new Runnable() {
+				public void run() {
+					// The promise is resolved, so neither of these block
+					try {
+						final Throwable t = promise.getFailure();
+						if (t == null)
+							result.complete(promise.getValue());
+						else
+							result.completeExceptionally(t);
+					} catch (InvocationTargetException e) {
+						result.completeExceptionally(e.getCause());
+					} catch (InterruptedException e) {
+						result.completeExceptionally(e);
+					}
+				}
+			});
+			return result;
+		}
+		return null;
+	}
+
 	public static Object convertReturnToAsync(Object returnObject, Class<?> returnType) {
 		if (IFuture.class.isAssignableFrom(returnType)) {
 			return createIFuture(returnObject);
@@ -77,6 +77,38 @@ public class SimpleFIFOQueue implements ISimpleFIFOQueue {
 		return list.get(0);
 	}
 
+	/**
+	 * Wait until the queue is not empty, then return up to <code>maxItems</code>
+	 * items from the head of the queue without removing them. If fewer than
+	 * <code>maxItems</code> are queued, wait up to <code>lingerNanos</code> for
+	 * more to arrive.
+	 *
+	 * @param maxItems the maximum number of items to return.  Must be &gt; 0.
+	 * @param lingerNanos the time to wait for the batch to fill, in nanoseconds.
+	 * If 0, only the items already queued are returned.
+	 * @return Object[] the items at the head of the queue, or <code>null</code>
+	 * if the queue is stopped and empty or the calling thread is interrupted
+	 * @since 2.7
+	 */
+	public synchronized Object[] peekQueue(final int maxItems, final long lingerNanos) {
+		if (peekQueue() == null)
+			return null;
+		if (lingerNanos > 0) {
+			final long deadline = System.nanoTime() + lingerNanos;
+			long remaining = lingerNanos;
+			while (list.size() < maxItems && !stopped && remaining > 0) {
+				try {
+					wait(remaining / 1000000, (int) (remaining % 1000000));
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				remaining = deadline - System.nanoTime();
+			}
+		}
+		return list.subList(0, Math.min(maxItems, list.size())).toArray();
+	}
+
 	public synchronized Object removeHead() {
 		if (list.isEmpty())
 			return null;
@@ -14,6 +14,7 @@ package org.eclipse.ecf.core.util;
 import java.io.*;
 import java.lang.reflect.*;
 import java.util.*;
+import org.eclipse.ecf.core.util.OSGIObjectStreamClass.FieldAccessor;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.Version;
 import org.osgi.service.log.LogService;
@@ -32,6 +33,8 @@ public class OSGIObjectInputStream extends ObjectInputStream implements OSGIObje
 	 */
 	ClassLoader classLoader;
 
+	private List<String> names;
+
 	class ReplaceableObjectInputStream extends ObjectInputStream {
 		public ReplaceableObjectInputStream(InputStream ins) throws IOException {
 			super(ins);
@@ -44,15 +47,7 @@ public class OSGIObjectInputStream extends ObjectInputStream implements OSGIObje
 				return ((SerVersion) obj).toVersion();
 			}
 			if (obj instanceof SerDTO) {
-				SerDTO serDTO = (SerDTO) obj;
-				String className = serDTO.getClassname();
-				Class<?> clazz = null;
-				try {
-					clazz = loadClass(className);
-				} catch (Exception e) {
-					throw new IOException("Could not load class for instance of SerDTO with className=" + className); //$NON-NLS-1$
-				}
-				return serDTO.readObject(clazz);
+				return readDTO((SerDTO) obj);
 			}
 			return super.resolveObject(obj);
 		}
@@ -110,6 +105,22 @@ public class OSGIObjectInputStream extends ObjectInputStream implements OSGIObje
 		return (bundle == null) ? Class.forName(classname) : bundle.loadClass(classname);
 	}
 
+	private String readName() throws IOException {
+		if (names == null)
+			names = new ArrayList<String>();
+		final int index = in.readShort();
+		if (index >= 0) {
+			if (index >= names.size())
+				throw new StreamCorruptedException("Invalid name reference=" + index); //$NON-NLS-1$
+			return names.get(index);
+		}
+		final String name = in.readUTF();
+		// Mirrors the writer, which stops adding names at the same size
+		if (names.size() < OSGIObjectOutputStream.MAX_NAMES)
+			names.add(name);
+		return name;
+	}
+
 	protected Class<?> getClassForType(String type) throws ClassNotFoundException {
 		if (type.equals(byte.class.getName()))
 			return byte.class;
@@ -141,16 +152,18 @@ public class OSGIObjectInputStream extends ObjectInputStream implements OSGIObje
 			case C_VER : // Version
 				return Version.parseVersion(in.readUTF());
 			case C_ARRAY : // Object[]
+			case C_ARRAY_N :
 				// read array length
 				int ol = in.readInt();
 				// read component type and create array for that component type
-				Class<?> clazz = getClassForType(in.readUTF());
+				Class<?> clazz = getClassForType((type == C_ARRAY_N) ? readName() : in.readUTF());
 				Object oresult = Array.newInstance(clazz, ol);
 				for (int i = 0; i < ol; i++)
 					Array.set(oresult, i, readObjectOverride());
 				return oresult;
 			case C_DICT : // Dictionary
-				Class<?> dictClazz = loadClass(in.readUTF());
+			case C_DICT_N :
+				Class<?> dictClazz = loadClass((type == C_DICT_N) ? readName() : in.readUTF());
 				Dictionary dict = null;
 				Constructor cons;
 				try {
@@ -231,8 +244,21 @@ public class OSGIObjectInputStream extends ObjectInputStream implements OSGIObje
 				return in.readFloat();
 			case C_ENUM :
 				return Enum.valueOf(loadClass(in.readUTF()), in.readUTF());
+			case C_ENUM_N :
+				return Enum.valueOf(loadClass(readName()), readName());
 			case C_OBJECT :
 				return readNonSerializedObject();
+			case C_OBJECT_N :
+				return readNonSerializedObject(readName(), true);
+			case C_DTO_N :
+				final String dtoClassName = readName();
+				final int fieldCount = in.readInt();
+				final Map<String, Object> fields = new HashMap<String, Object>();
+				for (int i = 0; i < fieldCount; i++) {
+					final String fieldName = readName();
+					fields.put(fieldName, readObjectOverride());
+				}
+				return readDTO(new SerDTO(dtoClassName, fields));
 			default :
 				throw new IOException("Cannot deserialize object with type=" + type); //$NON-NLS-1$
 		}
@@ -242,17 +268,29 @@ public class OSGIObjectInputStream extends ObjectInputStream implements OSGIObje
 		return in.readObject();
 	}
 
+	Object readDTO(SerDTO serDTO) throws IOException {
+		String className = serDTO.getClassname();
+		Class<?> clazz = null;
+		try {
+			clazz = loadClass(className);
+		} catch (Exception e) {
+			throw new IOException("Could not load class for instance of SerDTO with className=" + className); //$NON-NLS-1$
+		}
+		return serDTO.readObject(clazz);
+	}
+
 	protected Object readFields(Class<?> clazz, Object inst) throws IOException {
+		return readFields(clazz, inst, false);
+	}
+
+	private Object readFields(Class<?> clazz, Object inst, boolean compactNames) throws IOException {
 		try {
 			int fieldCount = in.readInt();
 			while (fieldCount > -1) {
+				final OSGIObjectStreamClass desc = OSGIObjectStreamClass.lookup(clazz);
 				for (int i = 0; i < fieldCount; i++) {
-					final String fieldName = in.readUTF();
-					final Field field = clazz.getDeclaredField(fieldName);
-					final int mod = field.getModifiers();
-					if (!Modifier.isPublic(mod))
-						field.setAccessible(true);
-
+					final String fieldName = compactNames ? readName() : in.readUTF();
+					final FieldAccessor field = desc.getDeclaredField(fieldName);
 					//
 					final Object value = readObjectOverride();
 					field.set(inst, value);
@@ -270,7 +308,7 @@ public class OSGIObjectInputStream extends ObjectInputStream implements OSGIObje
 
 	protected Object createInstance(Class<?> clazz) throws IOException {
 		try {
-			return clazz.getDeclaredConstructor().newInstance();
+			return OSGIObjectStreamClass.lookup(clazz).newInstance();
 		} catch (Exception e) {
 			throw new IOException("Could create new instance of class=" + clazz.getName() + ".  Class must have public no-arg constructor"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
@@ -278,12 +316,15 @@ public class OSGIObjectInputStream extends ObjectInputStream implements OSGIObje
 
 	protected Object readNonSerializedObject() throws IOException, ClassNotFoundException {
 		// read object stream class
-		String className = in.readUTF();
+		return readNonSerializedObject(in.readUTF(), false);
+	}
+
+	private Object readNonSerializedObject(String className, boolean compactNames) throws IOException, ClassNotFoundException {
 		trace("readNonSerializedObject " + className); //$NON-NLS-1$
 		Class<?> clazz = loadClass(className);
 		// create instance
 		Object instance = createInstance(clazz);
-		return readFields(clazz, instance);
+		return readFields(clazz, instance, compactNames);
 	}
 
 	protected Object readSerializedObject() throws IOException, ClassNotFoundException {
@@ -14,6 +14,7 @@ package org.eclipse.ecf.core.util;
 import java.io.*;
 import java.lang.reflect.*;
 import java.util.*;
+import org.eclipse.ecf.core.util.OSGIObjectStreamClass.FieldAccessor;
 import org.osgi.framework.Version;
 import org.osgi.service.log.LogService;
 
@@ -22,9 +23,24 @@ import org.osgi.service.log.LogService;
  */
 public class OSGIObjectOutputStream extends ObjectOutputStream implements OSGIObjectStreamConstants {
 
+	/**
+	 * Default for {@link #setCompactNames(boolean)}.  Readers must be at least
+	 * version 3.12 of this bundle to read streams written with compact names.
+	 * @since 3.12
+	 */
+	public static final boolean DEFAULT_COMPACT_NAMES = Boolean.getBoolean("org.eclipse.ecf.core.util.OSGIObjectOutputStream.compactNames"); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of entries in the name table.  Names beyond this limit are
+	 * always written in full.
+	 */
+	static final int MAX_NAMES = Short.MAX_VALUE;
+
 	protected final ObjectOutputStream out;
 	protected LogService logger;
 	protected boolean allowNonSerializable = false;
+	private boolean compactNames = DEFAULT_COMPACT_NAMES;
+	private Map<String, Integer> names;
 
 	class ReplaceableObjectOutputStream extends ObjectOutputStream {
 
@@ -67,6 +83,34 @@ public class OSGIObjectOutputStream extends ObjectOutputStream implements OSGIOb
 		this.logger = log;
 	}
 
+	/**
+	 * If true, class names of arrays, dictionaries, enums and non-serializable
+	 * objects, enum constant names and field names are written in full only
+	 * the first time.  Later occurrences are written as a two byte reference.
+	 * The name table lives as long as the stream and is not cleared by
+	 * {@link #reset()}.
+	 *
+	 * @param value true to write compact names
+	 * @since 3.12
+	 */
+	public void setCompactNames(boolean value) {
+		this.compactNames = value;
+	}
+
+	private void writeName(String name) throws IOException {
+		if (names == null)
+			names = new HashMap<String, Integer>();
+		final Integer index = names.get(name);
+		if (index != null) {
+			out.writeShort(index.intValue());
+			return;
+		}
+		out.writeShort(-1);
+		out.writeUTF(name);
+		if (names.size() < MAX_NAMES)
+			names.put(name, Integer.valueOf(names.size()));
+	}
+
 	protected void writeExternalizable(Externalizable obj, Class<?> clazz) throws IOException {
 		out.writeObject(obj);
 	}
@@ -80,29 +124,21 @@ public class OSGIObjectOutputStream extends ObjectOutputStream implements OSGIOb
 	}
 
 	protected void writeFields(Object obj, Class<?> clazz) throws IOException {
-		while (clazz != Object.class) {
+		OSGIObjectStreamClass desc = (clazz == Object.class) ? null : OSGIObjectStreamClass.lookup(clazz);
+		while (desc != null) {
 			try {
-				final Field[] allFields = clazz.getDeclaredFields();
-				final int allFieldCount = allFields.length;
-				int actualFieldCount = 0;
-				for (int i = 0; i < allFieldCount; i++) {
-					final int mod = allFields[i].getModifiers();
-					if (!(Modifier.isStatic(mod) || Modifier.isTransient(mod)))
-						actualFieldCount++;
-				}
+				final FieldAccessor[] fields = desc.getDeclaredFields();
 				// write field count
-				out.writeInt(actualFieldCount);
-				for (int i = 0; i < allFieldCount; i++) {
-					final int mod = allFields[i].getModifiers();
-					if (Modifier.isStatic(mod) || Modifier.isTransient(mod))
-						continue;
-					else if (!Modifier.isPublic(mod))
-						allFields[i].setAccessible(true);
-					Object val = allFields[i].get(obj);
+				out.writeInt(fields.length);
+				for (int i = 0; i < fields.length; i++) {
+					Object val = fields[i].get(obj);
 					// Check to see it's not a circular ref
 					if (val != obj) {
 						// write field name
-						out.writeUTF(allFields[i].getName());
+						if (compactNames)
+							writeName(fields[i].getName());
+						else
+							out.writeUTF(fields[i].getName());
 						// field value
 						writeObjectOverride(val);
 					}
@@ -111,18 +147,41 @@ public class OSGIObjectOutputStream extends ObjectOutputStream implements OSGIOb
 				throw new NotSerializableException("Exception while serializing " + obj.toString() //$NON-NLS-1$
 						+ ":\n" + e.getMessage()); //$NON-NLS-1$ 
 			}
-			clazz = clazz.getSuperclass();
+			desc = desc.getSuperclass();
 		}
 		// Write out a terminator so reader can detect end of object
 		out.writeInt(-1);
 	}
 
+	/**
+	 * Write an object as its class name and fields, preceded by
+	 * {@link OSGIObjectStreamConstants#C_OBJECT_N} if the names go through the
+	 * compact name table and by {@link OSGIObjectStreamConstants#C_OBJECT}
+	 * otherwise, so that {@link OSGIObjectInputStream} reads them back either way.
+	 */
 	protected void writeNonSerializable(Object obj, Class<?> clazz) throws IOException {
-		// write class name
-		out.writeObject(clazz.getName());
+		// write type and class name
+		if (compactNames) {
+			out.writeByte(C_OBJECT_N);
+			writeName(clazz.getName());
+		} else {
+			out.writeByte(C_OBJECT);
+			out.writeUTF(clazz.getName());
+		}
 		writeFields(obj, clazz);
 	}
 
+	private void writeDTO(Object obj, Class<?> clazz) throws IOException {
+		out.writeByte(C_DTO_N);
+		writeName(clazz.getName());
+		final Map<String, Object> fields = new SerDTO(obj).getFields();
+		out.writeInt(fields.size());
+		for (Map.Entry<String, Object> field : fields.entrySet()) {
+			writeName(field.getKey());
+			writeObjectOverride(field.getValue());
+		}
+	}
+
 	protected void writeSerializable(Object obj, Class<?> clazz) throws IOException {
 		out.writeObject(obj);
 	}
@@ -135,12 +194,15 @@ public class OSGIObjectOutputStream extends ObjectOutputStream implements OSGIOb
 		}
 		Class<?> clazz = obj.getClass();
 		if (clazz.isArray()) {
-			out.writeByte(C_ARRAY);
+			out.writeByte(compactNames ? C_ARRAY_N : C_ARRAY);
 			int len = Array.getLength(obj);
 			// write length
 			out.writeInt(len);
 			// write component type
-			out.writeUTF(clazz.getComponentType().getName());
+			if (compactNames)
+				writeName(clazz.getComponentType().getName());
+			else
+				out.writeUTF(clazz.getComponentType().getName());
 			// write out each array entry
 			for (int i = 0; i < len; i++)
 				writeObjectOverride(Array.get(obj, i));
@@ -215,8 +277,13 @@ public class OSGIObjectOutputStream extends ObjectOutputStream implements OSGIOb
 			return;
 		} else if (obj instanceof Dictionary) {
 			trace("writing dictionary"); //$NON-NLS-1$
-			out.writeByte(C_DICT);
-			out.writeUTF(clazz.getName());
+			if (compactNames) {
+				out.writeByte(C_DICT_N);
+				writeName(clazz.getName());
+			} else {
+				out.writeByte(C_DICT);
+				out.writeUTF(clazz.getName());
+			}
 			Dictionary dict = (Dictionary) obj;
 			// write size
 			int ds = dict.size();
@@ -287,9 +354,15 @@ public class OSGIObjectOutputStream extends ObjectOutputStream implements OSGIOb
 				writeObjectOverride(item);
 			return;
 		} else if (obj instanceof Enum) {
-			out.writeByte(C_ENUM);
-			out.writeUTF(obj.getClass().getName());
-			out.writeUTF(((Enum) obj).name());
+			if (compactNames) {
+				out.writeByte(C_ENUM_N);
+				writeName(obj.getClass().getName());
+				writeName(((Enum) obj).name());
+			} else {
+				out.writeByte(C_ENUM);
+				out.writeUTF(obj.getClass().getName());
+				out.writeUTF(((Enum) obj).name());
+			}
 			return;
 		}
 		if (obj instanceof Externalizable) {
@@ -301,6 +374,8 @@ public class OSGIObjectOutputStream extends ObjectOutputStream implements OSGIOb
 			return;
 		} else if (obj instanceof Version) {
 			writeObjectOverride(new SerVersion((Version) obj));
+		} else if (compactNames) {
+			writeDTO(obj, clazz);
 		} else {
 			writeObjectOverride(new SerDTO(obj));
 			return;
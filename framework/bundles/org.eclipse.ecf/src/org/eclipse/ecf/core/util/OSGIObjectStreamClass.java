@@ -0,0 +1,213 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Cached reflective description of a class for {@link OSGIObjectOutputStream},
+ * {@link OSGIObjectInputStream} and {@link SerDTO}. The fields of a class are
+ * looked up, made accessible and bound to {@link MethodHandle}s once, instead
+ * of on every object written or read.
+ */
+final class OSGIObjectStreamClass {
+
+	private static final ClassValue<OSGIObjectStreamClass> CACHE = new ClassValue<OSGIObjectStreamClass>() {
+		@Override
+		protected OSGIObjectStreamClass computeValue(Class<?> type) {
+			return new OSGIObjectStreamClass(type);
+		}
+	};
+
+	private static final FieldAccessor[] NO_FIELDS = new FieldAccessor[0];
+
+	private final Class<?> clazz;
+	// Lazily computed.  Races only cause duplicate computation of equal values
+	private volatile FieldAccessor[] declaredFields;
+	private volatile Map<String, FieldAccessor> declaredFieldsByName;
+	private volatile FieldAccessor[] publicFields;
+	private volatile Map<String, FieldAccessor> publicFieldsByName;
+	private volatile Constructor<?> constructor;
+
+	private OSGIObjectStreamClass(Class<?> clazz) {
+		this.clazz = clazz;
+	}
+
+	static OSGIObjectStreamClass lookup(Class<?> clazz) {
+		return CACHE.get(clazz);
+	}
+
+	/**
+	 * @return OSGIObjectStreamClass for the superclass, or <code>null</code>
+	 * if the superclass is {@link Object} or there is none
+	 */
+	OSGIObjectStreamClass getSuperclass() {
+		final Class<?> sup = clazz.getSuperclass();
+		return (sup == null || sup == Object.class) ? null : lookup(sup);
+	}
+
+	/**
+	 * @return FieldAccessor[] the non-static, non-transient fields declared by
+	 * this class, in {@link Class#getDeclaredFields()} order
+	 */
+	FieldAccessor[] getDeclaredFields() {
+		FieldAccessor[] result = declaredFields;
+		if (result == null) {
+			result = createAccessors(clazz.getDeclaredFields());
+			declaredFieldsByName = index(result);
+			declaredFields = result;
+		}
+		return result;
+	}
+
+	/**
+	 * @param name the field name
+	 * @return FieldAccessor the declared field with the given name
+	 * @throws NoSuchFieldException if there is no such non-static, non-transient field
+	 */
+	FieldAccessor getDeclaredField(String name) throws NoSuchFieldException {
+		getDeclaredFields();
+		return get(declaredFieldsByName, name);
+	}
+
+	/**
+	 * @return FieldAccessor[] the non-static, non-transient public fields of
+	 * this class, including inherited ones
+	 */
+	FieldAccessor[] getPublicFields() {
+		FieldAccessor[] result = publicFields;
+		if (result == null) {
+			result = createAccessors(clazz.getFields());
+			publicFieldsByName = index(result);
+			publicFields = result;
+		}
+		return result;
+	}
+
+	/**
+	 * @param name the field name
+	 * @return FieldAccessor the public field with the given name, or <code>null</code>
+	 */
+	FieldAccessor getPublicField(String name) {
+		getPublicFields();
+		return publicFieldsByName.get(name);
+	}
+
+	/**
+	 * @return Object a new instance created with the declared no-arg constructor
+	 * @throws Exception if the class has no such constructor or it fails
+	 */
+	Object newInstance() throws Exception {
+		Constructor<?> cons = constructor;
+		if (cons == null) {
+			cons = clazz.getDeclaredConstructor();
+			constructor = cons;
+		}
+		return cons.newInstance();
+	}
+
+	private static FieldAccessor get(Map<String, FieldAccessor> fields, String name) throws NoSuchFieldException {
+		final FieldAccessor result = fields.get(name);
+		if (result == null)
+			throw new NoSuchFieldException(name);
+		return result;
+	}
+
+	private static FieldAccessor[] createAccessors(Field[] fields) {
+		final List<FieldAccessor> result = new ArrayList<FieldAccessor>(fields.length);
+		for (int i = 0; i < fields.length; i++) {
+			final int mod = fields[i].getModifiers();
+			if (!(Modifier.isStatic(mod) || Modifier.isTransient(mod)))
+				result.add(new FieldAccessor(fields[i]));
+		}
+		return result.isEmpty() ? NO_FIELDS : result.toArray(new FieldAccessor[result.size()]);
+	}
+
+	private static Map<String, FieldAccessor> index(FieldAccessor[] fields) {
+		final Map<String, FieldAccessor> result = new HashMap<String, FieldAccessor>(fields.length * 2);
+		for (int i = 0; i < fields.length; i++)
+			result.put(fields[i].getName(), fields[i]);
+		return result;
+	}
+
+	static final class FieldAccessor {
+
+		private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+		private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+		private final Field field;
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		FieldAccessor(Field field) {
+			this.field = field;
+			try {
+				field.setAccessible(true);
+			} catch (RuntimeException e) {
+				// Left to get and set to fail as Field would
+			}
+			this.getter = createGetter(field);
+			this.setter = createSetter(field);
+		}
+
+		private static MethodHandle createGetter(Field field) {
+			try {
+				return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+			} catch (Exception e) {
+				return null;
+			}
+		}
+
+		private static MethodHandle createSetter(Field field) {
+			try {
+				return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+			} catch (Exception e) {
+				return null;
+			}
+		}
+
+		String getName() {
+			return field.getName();
+		}
+
+		Object get(Object obj) throws Exception {
+			if (getter == null)
+				return field.get(obj);
+			try {
+				return getter.invokeExact(obj);
+			} catch (Exception e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		}
+
+		void set(Object obj, Object value) throws Exception {
+			if (setter == null) {
+				field.set(obj, value);
+				return;
+			}
+			try {
+				setter.invokeExact(obj, value);
+			} catch (Exception e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		}
+	}
+}
@@ -32,6 +32,34 @@ public interface OSGIObjectStreamConstants {
 	public static final byte C_OBJECT = 13; // Everything else
 	public static final byte C_DICT = 14; // Dictionary
 
+	/**
+	 * Same as {@link #C_ARRAY}, {@link #C_DICT} and {@link #C_ENUM}, except
+	 * that class and enum constant names are written as references into a
+	 * name table kept by the stream.
+	 * @since 3.12
+	 */
+	public static final byte C_ARRAY_N = 15; // array, name table
+	/**
+	 * @since 3.12
+	 */
+	public static final byte C_DICT_N = 16; // Dictionary, name table
+	/**
+	 * @since 3.12
+	 */
+	public static final byte C_ENUM_N = 17; // Enum, name table
+	/**
+	 * Object that is not serializable, written as its class name and the
+	 * names and values of its public fields, with names in the name table.
+	 * Read like a {@link SerDTO}.
+	 * @since 3.12
+	 */
+	public static final byte C_DTO_N = 18; // DTO, name table
+	/**
+	 * Same as {@link #C_OBJECT}, with class and field names in the name table.
+	 * @since 3.12
+	 */
+	public static final byte C_OBJECT_N = 19; // Everything else, name table
+
 	// primitive types
 	public static final byte C_LONG = 20; // primitive long
 	public static final byte C_INT = 21; // primitive int
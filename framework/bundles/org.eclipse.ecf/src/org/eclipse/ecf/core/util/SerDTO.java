@@ -13,10 +13,9 @@ package org.eclipse.ecf.core.util;
 
 import java.io.IOException;
 import java.io.Serializable;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
+import org.eclipse.ecf.core.util.OSGIObjectStreamClass.FieldAccessor;
 
 /**
  * @since 3.10
@@ -31,10 +30,7 @@ public class SerDTO implements Serializable {
 		Class<?> clazz = obj.getClass();
 		this.className = clazz.getName();
 		this.fields = new HashMap<String, Object>();
-		for (Field f : clazz.getFields()) {
-			final int mod = f.getModifiers();
-			if (Modifier.isStatic(mod) || Modifier.isTransient(mod))
-				continue;
+		for (FieldAccessor f : OSGIObjectStreamClass.lookup(clazz).getPublicFields()) {
 			Object value = null;
 			try {
 				value = f.get(obj);
@@ -47,6 +43,11 @@ public class SerDTO implements Serializable {
 		}
 	}
 
+	SerDTO(String className, Map<String, Object> fields) {
+		this.className = className;
+		this.fields = fields;
+	}
+
 	public String getClassname() {
 		return this.className;
 	}
@@ -59,12 +60,12 @@ public class SerDTO implements Serializable {
 		Object result = null;
 		try {
 			result = clazz.getConstructor(new Class[] {}).newInstance();
-			for (Field f : clazz.getFields()) {
-				Object v = fields.get(f.getName());
-				if (v != null) {
-					f.setAccessible(true);
+			final OSGIObjectStreamClass desc = OSGIObjectStreamClass.lookup(clazz);
+			for (Map.Entry<String, Object> entry : fields.entrySet()) {
+				final FieldAccessor f = desc.getPublicField(entry.getKey());
+				if (f != null) {
 					try {
-						f.set(result, v);
+						f.set(result, entry.getValue());
 					} catch (Exception e) {
 						// ignore
 					}
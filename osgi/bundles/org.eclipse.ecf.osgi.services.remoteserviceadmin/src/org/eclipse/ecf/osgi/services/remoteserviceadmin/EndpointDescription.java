@@ -286,6 +286,14 @@ public class EndpointDescription extends
 		return super.getProperties();
 	}
 
+	/**
+	 * @return Map the properties that {@link #matches(String)} is evaluated
+	 *         against, which do not include any overrides
+	 */
+	Map<String, Object> getMatchProperties() {
+		return super.getProperties();
+	}
+
 	private String convertInterfaceToAsync(String interfaceName) {
 		if (interfaceName == null)
 			return null;
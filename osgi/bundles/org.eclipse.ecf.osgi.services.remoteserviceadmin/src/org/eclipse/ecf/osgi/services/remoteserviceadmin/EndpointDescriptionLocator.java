@@ -35,6 +35,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.WeakHashMap;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -129,6 +130,11 @@ public class EndpointDescriptionLocator implements IEndpointDescriptionLocator {
 
 	private String frameworkUUID;
 
+	// Parsed endpoint.listener.scope by listener registration
+	private final Map<ServiceReference, EndpointListenerScope> listenerScopes = new WeakHashMap<ServiceReference, EndpointListenerScope>();
+	// Incremented, under the listenerScopes lock, whenever a scope is dropped
+	private long listenerScopeChanges;
+
 	private ServiceRegistration<IEndpointDescriptionLocator> endpointLocatorReg;
 
 	private String getFrameworkUUID() {
@@ -271,9 +277,11 @@ public class EndpointDescriptionLocator implements IEndpointDescriptionLocator {
 					}
 
 					public void modifiedService(ServiceReference reference, Object service) {
+						removeListenerScope(reference);
 					}
 
 					public void removedService(ServiceReference reference, Object service) {
+						removeListenerScope(reference);
 					}
 				});
 
@@ -308,9 +316,11 @@ public class EndpointDescriptionLocator implements IEndpointDescriptionLocator {
 					}
 
 					public void modifiedService(ServiceReference reference, Object service) {
+						removeListenerScope(reference);
 					}
 
 					public void removedService(ServiceReference reference, Object service) {
+						removeListenerScope(reference);
 					}
 				});
 
@@ -797,18 +807,18 @@ public class EndpointDescriptionLocator implements IEndpointDescriptionLocator {
 		if (refs == null)
 			return null;
 		List results = new ArrayList();
+		EndpointListenerScope.EndpointProperties properties = getMatchProperties(description);
 		for (int i = 0; i < refs.length; i++) {
-			EndpointEventListener listener = (EndpointEventListener) context.getService(refs[i]);
-			if (listener == null)
-				continue;
-			List<String> filters = PropertiesUtil.getStringPlusProperty(getMapFromProperties(refs[i]),
-					EndpointEventListener.ENDPOINT_LISTENER_SCOPE);
+			EndpointListenerScope scope = getListenerScope(refs[i]);
 			// Only proceed if there is a filter present
-			if (filters.size() > 0) {
-				String matchingFilter = isMatch(description, filters);
-				if (matchingFilter != null)
-					results.add(new EndpointEventListenerHolder(listener, description, matchingFilter, type));
-			}
+			if (scope.isEmpty())
+				continue;
+			String matchingFilter = scope.getMatchingFilter(properties);
+			if (matchingFilter == null)
+				continue;
+			EndpointEventListener listener = (EndpointEventListener) context.getService(refs[i]);
+			if (listener != null)
+				results.add(new EndpointEventListenerHolder(listener, description, matchingFilter, type));
 		}
 		return (EndpointEventListenerHolder[]) results.toArray(new EndpointEventListenerHolder[results.size()]);
 	}
@@ -818,34 +828,55 @@ public class EndpointDescriptionLocator implements IEndpointDescriptionLocator {
 		if (refs == null)
 			return null;
 		List results = new ArrayList();
+		EndpointListenerScope.EndpointProperties properties = getMatchProperties(description);
 		for (int i = 0; i < refs.length; i++) {
-			EndpointListener listener = (EndpointListener) context.getService(refs[i]);
-			if (listener == null)
+			EndpointListenerScope scope = getListenerScope(refs[i]);
+			if (scope.isEmpty())
 				continue;
-			List<String> filters = PropertiesUtil.getStringPlusProperty(getMapFromProperties(refs[i]),
-					EndpointListener.ENDPOINT_LISTENER_SCOPE);
-			if (filters.size() > 0) {
-				String matchingFilter = isMatch(description, filters);
-				if (matchingFilter != null)
-					results.add(new EndpointListenerHolder(listener, description, matchingFilter));
-			}
+			String matchingFilter = scope.getMatchingFilter(properties);
+			if (matchingFilter == null)
+				continue;
+			EndpointListener listener = (EndpointListener) context.getService(refs[i]);
+			if (listener != null)
+				results.add(new EndpointListenerHolder(listener, description, matchingFilter));
 		}
 		return (EndpointListenerHolder[]) results.toArray(new EndpointListenerHolder[results.size()]);
 	}
 
-	private String isMatch(EndpointDescription description, List<String> filters) {
-		for (String filter : filters) {
-			if (filter == null || "".equals(filter)) //$NON-NLS-1$
-				continue;
-			try {
-				if (description.matches(filter))
-					return filter;
-			} catch (IllegalArgumentException e) {
-				logError("isMatch", "invalid endpoint listener filter=" //$NON-NLS-1$ //$NON-NLS-2$
-						+ filters, e);
-			}
+	private EndpointListenerScope getListenerScope(ServiceReference ref) {
+		long changes;
+		synchronized (listenerScopes) {
+			EndpointListenerScope scope = listenerScopes.get(ref);
+			if (scope != null)
+				return scope;
+			changes = listenerScopeChanges;
+		}
+		// EndpointListener and EndpointEventListener use the same scope property
+		EndpointListenerScope scope = new EndpointListenerScope(PropertiesUtil
+				.getStringPlusProperty(getMapFromProperties(ref), EndpointEventListener.ENDPOINT_LISTENER_SCOPE));
+		synchronized (listenerScopes) {
+			// Not cached if a registration was modified meanwhile, since the
+			// scope may have been parsed from the properties before the change
+			if (changes == listenerScopeChanges)
+				listenerScopes.put(ref, scope);
+		}
+		return scope;
+	}
+
+	private void removeListenerScope(ServiceReference ref) {
+		synchronized (listenerScopes) {
+			listenerScopeChanges++;
+			listenerScopes.remove(ref);
 		}
-		return null;
+	}
+
+	private EndpointListenerScope.EndpointProperties getMatchProperties(EndpointDescription description) {
+		// The same properties as EndpointDescription.matches(String) uses
+		Map<String, Object> properties = (description instanceof org.eclipse.ecf.osgi.services.remoteserviceadmin.EndpointDescription)
+				? ((org.eclipse.ecf.osgi.services.remoteserviceadmin.EndpointDescription) description)
+						.getMatchProperties()
+				: description.getProperties();
+		return new EndpointListenerScope.EndpointProperties(properties);
 	}
 
 	private Map getMapFromProperties(ServiceReference ref) {
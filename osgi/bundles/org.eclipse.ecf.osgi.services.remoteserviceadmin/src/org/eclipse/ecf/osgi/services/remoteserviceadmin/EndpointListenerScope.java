@@ -0,0 +1,220 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *   Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.osgi.services.remoteserviceadmin;
+
+import java.util.*;
+import org.eclipse.ecf.internal.osgi.services.remoteserviceadmin.DebugOptions;
+import org.eclipse.ecf.internal.osgi.services.remoteserviceadmin.LogUtility;
+import org.osgi.framework.*;
+import org.osgi.service.remoteserviceadmin.RemoteConstants;
+
+/**
+ * The parsed <code>endpoint.listener.scope</code> of one endpoint listener
+ * registration.
+ * <p>
+ * Each scope filter is parsed once. Equality terms on <code>objectClass</code>
+ * and <code>endpoint.framework.uuid</code> that appear at the top level of a
+ * filter, alone or as direct children of an <code>&amp;</code>, are also
+ * extracted. An endpoint whose interfaces or framework uuid contradict these
+ * terms cannot match the filter, so the filter itself is not evaluated.
+ */
+final class EndpointListenerScope {
+
+	private static final String OBJECTCLASS_TERM = Constants.OBJECTCLASS.toLowerCase();
+	private static final String FRAMEWORK_UUID_TERM = RemoteConstants.ENDPOINT_FRAMEWORK_UUID.toLowerCase();
+
+	private final ScopeFilter[] filters;
+
+	EndpointListenerScope(List<String> scopes) {
+		final List<ScopeFilter> results = new ArrayList<ScopeFilter>(scopes.size());
+		for (String scope : scopes) {
+			if (scope == null || "".equals(scope)) //$NON-NLS-1$
+				continue;
+			try {
+				results.add(new ScopeFilter(scope));
+			} catch (InvalidSyntaxException e) {
+				LogUtility.logError("EndpointListenerScope", DebugOptions.ENDPOINT_DESCRIPTION_LOCATOR, //$NON-NLS-1$
+						EndpointListenerScope.class, "invalid endpoint listener filter=" + scopes, e); //$NON-NLS-1$
+			}
+		}
+		this.filters = results.toArray(new ScopeFilter[results.size()]);
+	}
+
+	boolean isEmpty() {
+		return filters.length == 0;
+	}
+
+	/**
+	 * @param properties the endpoint properties, as a case insensitive dictionary
+	 * @return String the first scope filter matching the properties, or
+	 * <code>null</code> if none match
+	 */
+	String getMatchingFilter(EndpointProperties properties) {
+		for (int i = 0; i < filters.length; i++)
+			if (filters[i].matches(properties))
+				return filters[i].scope;
+		return null;
+	}
+
+	/**
+	 * Read-only case insensitive dictionary view of endpoint properties, with
+	 * the interfaces and framework uuid looked up once for all filters.
+	 */
+	static final class EndpointProperties extends Dictionary<String, Object> {
+		private final Map<String, Object> properties;
+		private final Object objectClass;
+		private final Object frameworkUUID;
+
+		EndpointProperties(Map<String, Object> properties) {
+			this.properties = properties;
+			this.objectClass = properties.get(Constants.OBJECTCLASS);
+			this.frameworkUUID = properties.get(RemoteConstants.ENDPOINT_FRAMEWORK_UUID);
+		}
+
+		boolean hasObjectClass(String name) {
+			if (objectClass instanceof String[]) {
+				final String[] classes = (String[]) objectClass;
+				for (int i = 0; i < classes.length; i++)
+					if (name.equals(classes[i]))
+						return true;
+				return false;
+			}
+			if (objectClass instanceof Collection)
+				return ((Collection<?>) objectClass).contains(name);
+			return name.equals(objectClass);
+		}
+
+		/**
+		 * @return Boolean whether the framework uuid is the given value, or
+		 * <code>null</code> if the uuid is not a String
+		 */
+		Boolean isFrameworkUUID(String uuid) {
+			return (frameworkUUID instanceof String) ? Boolean.valueOf(uuid.equals(frameworkUUID)) : null;
+		}
+
+		public int size() {
+			return properties.size();
+		}
+
+		public boolean isEmpty() {
+			return properties.isEmpty();
+		}
+
+		public Enumeration<String> keys() {
+			return Collections.enumeration(properties.keySet());
+		}
+
+		public Enumeration<Object> elements() {
+			return Collections.enumeration(properties.values());
+		}
+
+		public Object get(Object key) {
+			return properties.get(key);
+		}
+
+		public Object put(String key, Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		public Object remove(Object key) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static final class ScopeFilter {
+		final String scope;
+		private final Filter filter;
+		private final List<String> requiredObjectClasses = new ArrayList<String>(1);
+		private String requiredFrameworkUUID;
+		private String excludedFrameworkUUID;
+
+		ScopeFilter(String scope) throws InvalidSyntaxException {
+			this.scope = scope;
+			this.filter = FrameworkUtil.createFilter(scope);
+			final String s = scope.trim();
+			if (s.startsWith("(&")) { //$NON-NLS-1$
+				final List<String> children = getChildren(s.substring(2, s.length() - 1));
+				if (children != null)
+					for (String child : children)
+						addTerm(child);
+			} else
+				addTerm(s);
+		}
+
+		/**
+		 * @return List the top level parenthesized terms of an and, or
+		 * <code>null</code> if it cannot be split
+		 */
+		private static List<String> getChildren(String s) {
+			final List<String> results = new ArrayList<String>();
+			int depth = 0;
+			int start = -1;
+			for (int i = 0; i < s.length(); i++) {
+				final char c = s.charAt(i);
+				if (c == '\\') {
+					i++;
+				} else if (c == '(') {
+					if (depth++ == 0)
+						start = i;
+				} else if (c == ')') {
+					if (--depth == 0)
+						results.add(s.substring(start, i + 1));
+					else if (depth < 0)
+						return null;
+				}
+			}
+			return (depth == 0) ? results : null;
+		}
+
+		private void addTerm(String term) {
+			boolean negated = false;
+			if (term.startsWith("(!(") && term.endsWith("))")) { //$NON-NLS-1$ //$NON-NLS-2$
+				negated = true;
+				term = term.substring(2, term.length() - 1);
+			}
+			// Only simple (attr=value) terms without escapes, wildcards or other operators
+			if (!term.startsWith("(") || !term.endsWith(")") || term.indexOf('\\') >= 0 || term.indexOf('*') >= 0) //$NON-NLS-1$ //$NON-NLS-2$
+				return;
+			final int eq = term.indexOf('=');
+			if (eq < 0 || term.indexOf('(', 1) >= 0)
+				return;
+			final char op = term.charAt(eq - 1);
+			if (op == '~' || op == '<' || op == '>')
+				return;
+			final String attr = term.substring(1, eq).trim().toLowerCase();
+			final String value = term.substring(eq + 1, term.length() - 1);
+			if (value.length() == 0 || !value.equals(value.trim()))
+				return;
+			if (OBJECTCLASS_TERM.equals(attr)) {
+				if (!negated)
+					requiredObjectClasses.add(value);
+			} else if (FRAMEWORK_UUID_TERM.equals(attr)) {
+				if (negated)
+					excludedFrameworkUUID = value;
+				else
+					requiredFrameworkUUID = value;
+			}
+		}
+
+		boolean matches(EndpointProperties properties) {
+			for (String objectClass : requiredObjectClasses)
+				if (!properties.hasObjectClass(objectClass))
+					return false;
+			if (requiredFrameworkUUID != null && Boolean.FALSE.equals(properties.isFrameworkUUID(requiredFrameworkUUID)))
+				return false;
+			if (excludedFrameworkUUID != null && Boolean.TRUE.equals(properties.isFrameworkUUID(excludedFrameworkUUID)))
+				return false;
+			return filter.matchCase(properties);
+		}
+	}
+}
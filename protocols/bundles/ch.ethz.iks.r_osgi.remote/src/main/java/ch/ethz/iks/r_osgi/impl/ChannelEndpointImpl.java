@@ -149,6 +149,33 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	private static final int TIMEOUT = Integer.parseInt(System.getProperty(
 			"ch.ethz.iks.r_osgi.channelEndpointImpl.timeout", "120000"));
 
+	/**
+	 * System property for the number of bytes of a remote stream that a
+	 * stream proxy keeps in flight. Reads are served from data requested
+	 * ahead of time, and writes are sent without waiting for each to be
+	 * acknowledged. The window is only used with peers that announce
+	 * {@link RemoteOSGiMessage#VERSION_ORDERED_STREAMS} in their lease, and is
+	 * 0 otherwise. The default of 0 performs every read and write as a
+	 * synchronous call.
+	 */
+	static final String STREAM_WINDOW_PROPERTY = "ch.ethz.iks.r_osgi.channelEndpointImpl.streamWindow"; //$NON-NLS-1$
+
+	/**
+	 * System property for the size of the chunks a stream proxy reads or
+	 * writes in when a stream window is used. Default is 8192.
+	 */
+	static final String STREAM_CHUNK_SIZE_PROPERTY = "ch.ethz.iks.r_osgi.channelEndpointImpl.streamChunkSize"; //$NON-NLS-1$
+
+	/**
+	 * the stream window agreed with the peer in the lease exchange.
+	 */
+	private volatile int streamWindow;
+
+	/**
+	 * the stream chunk size, read with the stream window.
+	 */
+	private volatile int streamChunkSize;
+
 	/**
 	 * the callback register
 	 */
@@ -198,6 +225,29 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 
 	private ArrayList workQueue = new ArrayList();
 
+	/**
+	 * the queue of this endpoint in the shared scheduler, or <code>null</code>
+	 * if the endpoint has worker threads of its own. Created before the
+	 * channel is bound, so that no message can arrive before it exists. If
+	 * the scheduler has been shut down, the endpoint is disposed, so that the
+	 * peer does not wait for replies that will never come.
+	 */
+	private final EndpointScheduler.Queue sharedQueue = EndpointScheduler.ENABLED ? EndpointScheduler
+			.createQueue(RemoteOSGiServiceImpl.MAX_THREADS_PER_ENDPOINT,
+					new Runnable() {
+						public void run() {
+							dispose();
+						}
+					})
+			: null;
+
+	/**
+	 * map of stream id -&gt; worker executing the requests for that stream in
+	 * the order they were received. A worker is removed as soon as it has no
+	 * more requests, since the protocol does not tell when a stream is closed.
+	 */
+	private final HashMap streamWorkers = new HashMap(0);
+
 	/**
 	 * used by the multiplexer and serves as a marker whether or not the channel
 	 * may dispose itself when the connection went down.
@@ -262,6 +312,9 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 * initialize the thread pool
 	 */
 	private void initThreadPool() {
+		if (sharedQueue != null) {
+			return;
+		}
 		// TODO: tradeoff, could as well be central for all endpoints...
 		final ThreadGroup threadPool = new ThreadGroup("WorkerThreads"
 				+ toString());
@@ -330,13 +383,60 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 					}
 				}
 			};
-			synchronized (workQueue) {
-				workQueue.add(r);
-				workQueue.notify();
+			if (msg instanceof StreamRequestMessage) {
+				executeStreamRequest(((StreamRequestMessage) msg)
+						.getStreamID(), r);
+			} else {
+				schedule(r);
 			}
 		}
 	}
 
+	/**
+	 * add a task to the work queue of the worker threads.
+	 * 
+	 * @param r
+	 *            the task.
+	 */
+	private void schedule(final Runnable r) {
+		if (sharedQueue != null) {
+			sharedQueue.execute(r);
+			return;
+		}
+		synchronized (workQueue) {
+			workQueue.add(r);
+			workQueue.notify();
+		}
+	}
+
+	/**
+	 * execute a request on a stream after the requests received before it
+	 * for the same stream.
+	 * 
+	 * @param streamID
+	 *            the stream id.
+	 * @param r
+	 *            the task.
+	 */
+	private void executeStreamRequest(final short streamID, final Runnable r) {
+		final Integer key = Integer.valueOf(streamID);
+		final StreamWorker worker;
+		synchronized (streamWorkers) {
+			StreamWorker w = (StreamWorker) streamWorkers.get(key);
+			if (w == null) {
+				w = new StreamWorker(key);
+				streamWorkers.put(key, w);
+			}
+			w.tasks.add(r);
+			if (w.scheduled) {
+				return;
+			}
+			w.scheduled = true;
+			worker = w;
+		}
+		schedule(worker);
+	}
+
 	/**
 	 * invoke a method on the remote host. This function is used by all proxy
 	 * bundles.
@@ -606,6 +706,12 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		proxiedServices.clear();
 		closeStreams();
 		streams.clear();
+		synchronized (streamWorkers) {
+			streamWorkers.clear();
+		}
+		if (sharedQueue != null) {
+			sharedQueue.clear();
+		}
 		handlerReg = null;
 		synchronized (callbacks) {
 			callbacks.notifyAll();
@@ -775,11 +881,27 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			final RemoteServiceRegistration[] myServices,
 			final String[] myTopics) {
 		final LeaseMessage l = new LeaseMessage();
+		l.setVersion(RemoteOSGiMessage.VERSION_ORDERED_STREAMS);
 		populateLease(l, myServices, myTopics);
 		final LeaseMessage lease = (LeaseMessage) sendAndWait(l);
+		setStreamWindow(lease);
 		return processLease(lease);
 	}
 
+	/**
+	 * use a stream window with peers that process stream requests in order.
+	 * 
+	 * @param lease
+	 *            the lease of the peer.
+	 */
+	private void setStreamWindow(final LeaseMessage lease) {
+		streamChunkSize = Integer.getInteger(STREAM_CHUNK_SIZE_PROPERTY, 8192)
+				.intValue();
+		streamWindow = lease.getVersion() >= RemoteOSGiMessage.VERSION_ORDERED_STREAMS ? Integer
+				.getInteger(STREAM_WINDOW_PROPERTY, 0).intValue()
+				: 0;
+	}
+
 	/**
 	 * send a lease update.
 	 * 
@@ -827,15 +949,27 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		// declarations for the bundle.
 		final DeliverServiceMessage deliv = (DeliverServiceMessage) sendAndWait(req);
 
-		// generate a proxy bundle for the service
-		final InputStream in = new ProxyGenerator().generateProxyBundle(ref
-				.getURI(), deliv);
+		// generate a proxy bundle for the service, unless the same bundle
+		// was generated before
+		final String cacheKey = ProxyBundleCache.isAvailable() ? ProxyBundleCache
+				.getKey(deliv)
+				: null;
+		byte[] proxyBundle = cacheKey == null ? null : ProxyBundleCache
+				.getProxyBundle(cacheKey, ref.getURI());
+		if (proxyBundle == null) {
+			proxyBundle = new ProxyGenerator().generateProxyJar(ref.getURI(),
+					deliv);
+			if (cacheKey != null) {
+				ProxyBundleCache.putProxyBundle(cacheKey, proxyBundle);
+			}
+		}
 
-		installResolveAndStartBundle(ref, in, true);
+		installResolveAndStartBundle(ref,
+				new ByteArrayInputStream(proxyBundle), true, cacheKey);
 	}
 
 	private void installResolveAndStartBundle(final RemoteServiceReference ref,
-			final InputStream in, final boolean isProxy) {
+			final InputStream in, final boolean isProxy, final String cacheKey) {
 		try {
 
 			final Bundle bundle = RemoteOSGiActivator.getActivator()
@@ -843,7 +977,7 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 
 			retrieveDependencies((String) bundle.getHeaders().get(
 					Constants.IMPORT_PACKAGE), (String) bundle.getHeaders()
-					.get(Constants.EXPORT_PACKAGE));
+					.get(Constants.EXPORT_PACKAGE), cacheKey);
 
 			if (isProxy) {
 				// store the bundle for state updates and cleanup
@@ -884,7 +1018,7 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		final byte[] bundleBytes = deliv.getDependencies()[0];
 
 		installResolveAndStartBundle(ref,
-				new ByteArrayInputStream(bundleBytes), false);
+				new ByteArrayInputStream(bundleBytes), false, null);
 	}
 
 	/**
@@ -920,9 +1054,12 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 *            the declared package imports
 	 * @param exportString
 	 *            the declared package exports
+	 * @param cacheKey
+	 *            the key of the proxy bundle in the {@link ProxyBundleCache},
+	 *            or <code>null</code>
 	 */
 	private void retrieveDependencies(final String importString,
-			final String exportString) {
+			final String exportString, final String cacheKey) {
 
 		final Set exports = new HashSet(Arrays.asList(getTokens(exportString)));
 		final Set imports = new HashSet(Arrays.asList(getTokens(importString)));
@@ -931,10 +1068,25 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 				imports, exports).toArray(new String[0]);
 
 		if (missing.length > 0) {
-			final RequestDependenciesMessage req = new RequestDependenciesMessage();
-			req.setPackages(missing);
-			final DeliverBundlesMessage deps = (DeliverBundlesMessage) sendAndWait(req);
-			final byte[][] depBytes = deps.getDependencies();
+			byte[][] depBytes = null;
+			String[] requirements = null;
+			if (cacheKey != null) {
+				Arrays.sort(missing);
+				requirements = ProxyBundleCache.getRequirements(importString,
+						missing);
+				depBytes = ProxyBundleCache.getDependencies(cacheKey,
+						requirements);
+			}
+			if (depBytes == null) {
+				final RequestDependenciesMessage req = new RequestDependenciesMessage();
+				req.setPackages(missing);
+				final DeliverBundlesMessage deps = (DeliverBundlesMessage) sendAndWait(req);
+				depBytes = deps.getDependencies();
+				if (cacheKey != null) {
+					ProxyBundleCache.putDependencies(cacheKey, requirements,
+							depBytes);
+				}
+			}
 			for (int i = 0; i < depBytes.length; i++) {
 				try {
 					RemoteOSGiActivator.getActivator().getContext()
@@ -1131,7 +1283,9 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		// requests
 		case RemoteOSGiMessage.LEASE: {
 			final LeaseMessage lease = (LeaseMessage) msg;
+			setStreamWindow(lease);
 			processLease(lease);
+			lease.setVersion(RemoteOSGiMessage.VERSION_ORDERED_STREAMS);
 
 			populateLease(lease, RemoteOSGiServiceImpl.getServices(networkChannel.getProtocol()),
 					RemoteOSGiServiceImpl.getTopics());
@@ -1432,6 +1586,17 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 * @return the result message.
 	 */
 	private RemoteOSGiMessage sendAndWait(final RemoteOSGiMessage msg) {
+		return waitFor(sendAsync(msg));
+	}
+
+	/**
+	 * send a message without waiting for the result.
+	 * 
+	 * @param msg
+	 *            the message.
+	 * @return the callback that receives the result message.
+	 */
+	private WaitingCallback sendAsync(final RemoteOSGiMessage msg) {
 		if (msg.getXID() == 0) {
 			msg.setXID(RemoteOSGiServiceImpl.nextXid());
 		}
@@ -1443,7 +1608,17 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		}
 
 		send(msg);
+		return blocking;
+	}
 
+	/**
+	 * wait for the result of a message sent with {@link #sendAsync}.
+	 * 
+	 * @param blocking
+	 *            the callback returned by sendAsync.
+	 * @return the result message.
+	 */
+	private RemoteOSGiMessage waitFor(final WaitingCallback blocking) {
 		// wait for the reply
 		synchronized (blocking) {
 			final long timeout = System.currentTimeMillis() + TIMEOUT;
@@ -1566,9 +1741,44 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 */
 	private StreamResultMessage doStreamOp(final StreamRequestMessage requestMsg)
 			throws IOException {
+		return awaitStreamOp(sendStreamOp(requestMsg), requestMsg);
+	}
+
+	/**
+	 * send a stream operation without waiting for its result. The requests
+	 * for one stream are executed by the peer in the order they are sent.
+	 * 
+	 * @param requestMsg
+	 *            the request message.
+	 * @return the pending operation, to be passed to
+	 *         {@link #awaitStreamOp(Object, StreamRequestMessage)}.
+	 */
+	public Object sendStreamOp(final StreamRequestMessage requestMsg) {
 		try {
-			// send the message and get a StreamResultMessage in return
-			final StreamResultMessage result = (StreamResultMessage) sendAndWait(requestMsg);
+			return sendAsync(requestMsg);
+		} catch (final RemoteOSGiException e) {
+			throw new RemoteOSGiException("Invocation of operation " //$NON-NLS-1$
+					+ requestMsg.getOp() + " on stream " //$NON-NLS-1$
+					+ requestMsg.getStreamID() + " failed.", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * wait for the result of a stream operation.
+	 * 
+	 * @param pending
+	 *            the pending operation returned by
+	 *            {@link #sendStreamOp(StreamRequestMessage)}.
+	 * @param requestMsg
+	 *            the request message.
+	 * @return the result message.
+	 * @throws IOException
+	 *             when the operation failed on the peer.
+	 */
+	public StreamResultMessage awaitStreamOp(final Object pending,
+			final StreamRequestMessage requestMsg) throws IOException {
+		try {
+			final StreamResultMessage result = (StreamResultMessage) waitFor((WaitingCallback) pending);
 			if (result.causedException()) {
 				throw result.getException();
 			}
@@ -1664,7 +1874,8 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 * @return the proxy for the input stream
 	 */
 	private InputStream getInputStreamProxy(final InputStreamHandle placeholder) {
-		return new InputStreamProxy(placeholder.getStreamID(), this);
+		return new InputStreamProxy(placeholder.getStreamID(), this,
+				streamWindow, streamChunkSize);
 	}
 
 	/**
@@ -1692,7 +1903,8 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 */
 	private OutputStream getOutputStreamProxy(
 			final OutputStreamHandle placeholder) {
-		return new OutputStreamProxy(placeholder.getStreamID(), this);
+		return new OutputStreamProxy(placeholder.getStreamID(), this,
+				streamWindow, streamChunkSize);
 	}
 
 	/**
@@ -1767,6 +1979,52 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		}
 	}
 
+	/**
+	 * executes the requests for one stream on the worker threads, one at a
+	 * time and in the order they were received. Requests sent ahead by a
+	 * stream proxy would otherwise be read or written out of order.
+	 */
+	final class StreamWorker implements Runnable {
+
+		private final Integer streamID;
+
+		// guarded by streamWorkers
+		final ArrayList tasks = new ArrayList(2);
+
+		// guarded by streamWorkers
+		boolean scheduled;
+
+		StreamWorker(final Integer streamID) {
+			this.streamID = streamID;
+		}
+
+		public void run() {
+			final Runnable r;
+			synchronized (streamWorkers) {
+				r = (Runnable) tasks.remove(0);
+			}
+			try {
+				r.run();
+			} finally {
+				// run the next request as a new task, so that a busy stream
+				// does not keep other messages from the worker threads
+				final boolean more;
+				synchronized (streamWorkers) {
+					more = !tasks.isEmpty();
+					scheduled = more;
+					if (!more && streamWorkers.get(streamID) == this) {
+						// a later request gets a new worker, which cannot
+						// run before this one since it has nothing left to do
+						streamWorkers.remove(streamID);
+					}
+				}
+				if (more) {
+					schedule(this);
+				}
+			}
+		}
+	}
+
 	/**
 	 * callback that signals when the result has become available.
 	 * 
@@ -0,0 +1,243 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.r_osgi.impl;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide scheduler for the messages received by all channel endpoints.
+ * <p>
+ * Each endpoint gets a {@link Queue} of its own, backed by a lock-free queue.
+ * At most <code>limit</code> tasks of one endpoint run at the same time, as
+ * with the worker threads an endpoint used to start for itself, and a queue
+ * gives up its thread after {@link #MAX_BATCH} tasks so that a busy endpoint
+ * cannot keep the others waiting. The tasks of all endpoints share one
+ * bounded pool of daemon threads, or run on virtual threads if requested and
+ * available.
+ * <p>
+ * Tasks are never run on the thread that adds them, which is the receiving
+ * thread of the channel. If the executor rejects a queue, which only happens
+ * once the scheduler has been shut down, its tasks are dropped and the owner
+ * of the queue is told, so that it can fail the invocations.
+ */
+public final class EndpointScheduler {
+
+	/**
+	 * use the shared scheduler instead of worker threads per endpoint.
+	 */
+	static final boolean ENABLED = Boolean.getBoolean("ch.ethz.iks.r_osgi.sharedThreadPool"); //$NON-NLS-1$
+
+	/**
+	 * the number of threads in the shared pool.
+	 */
+	static final int POOL_SIZE = Integer.getInteger(
+			"ch.ethz.iks.r_osgi.sharedThreadPool.size", //$NON-NLS-1$
+			Math.max(RemoteOSGiServiceImpl.MAX_THREADS_PER_ENDPOINT, Runtime
+					.getRuntime().availableProcessors() * 4)).intValue();
+
+	/**
+	 * run the tasks on virtual threads, on Java 21 and later. The pool size
+	 * then does not apply, only the limit per endpoint.
+	 */
+	static final boolean VIRTUAL_THREADS = Boolean.getBoolean("ch.ethz.iks.r_osgi.sharedThreadPool.virtual"); //$NON-NLS-1$
+
+	/**
+	 * the maximum number of tasks a queue runs before giving up its thread.
+	 */
+	static final int MAX_BATCH = 16;
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private static ExecutorService executor;
+
+	private EndpointScheduler() {
+		// static only
+	}
+
+	/**
+	 * create a queue for the tasks of one endpoint.
+	 *
+	 * @param limit
+	 *            the maximum number of tasks of the endpoint run at once.
+	 * @param rejected
+	 *            run when tasks are dropped because the scheduler was shut
+	 *            down.
+	 * @return the queue.
+	 */
+	static Queue createQueue(final int limit, final Runnable rejected) {
+		return new Queue(getExecutor(), limit, rejected);
+	}
+
+	static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			if (VIRTUAL_THREADS) {
+				executor = createVirtualThreadExecutor();
+			}
+			if (executor == null) {
+				final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+						POOL_SIZE, POOL_SIZE, KEEP_ALIVE_SECONDS,
+						TimeUnit.SECONDS, new LinkedBlockingQueue(),
+						new ThreadFactory() {
+							private final AtomicInteger count = new AtomicInteger();
+
+							public Thread newThread(final Runnable r) {
+								final Thread t = new Thread(r,
+										"r-OSGi WorkerThread" + count.incrementAndGet()); //$NON-NLS-1$
+								t.setDaemon(true);
+								return t;
+							}
+						});
+				pool.allowCoreThreadTimeOut(true);
+				executor = pool;
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Equivalent to <code>Executors.newVirtualThreadPerTaskExecutor()</code>,
+	 * looked up reflectively so that this class still loads on older Java
+	 * versions.
+	 */
+	private static ExecutorService createVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) java.util.concurrent.Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor").invoke(null); //$NON-NLS-1$
+		} catch (final Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * stop the shared pool. Queues created afterwards use a new pool.
+	 */
+	static synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	/**
+	 * the tasks of one endpoint.
+	 */
+	public static final class Queue {
+
+		private final ConcurrentLinkedQueue tasks = new ConcurrentLinkedQueue();
+
+		private final AtomicInteger running = new AtomicInteger();
+
+		private final ExecutorService executor;
+
+		private final int limit;
+
+		private final Runnable rejected;
+
+		private final Runnable drain = new Runnable() {
+			public void run() {
+				try {
+					Runnable r;
+					for (int i = 0; i < MAX_BATCH
+							&& (r = (Runnable) tasks.poll()) != null; i++) {
+						r.run();
+					}
+				} finally {
+					running.decrementAndGet();
+					// a task added while all drains were running found no
+					// free slot, so it is up to us to schedule it
+					if (!tasks.isEmpty()) {
+						schedule();
+					}
+				}
+			}
+		};
+
+		/**
+		 * create a queue.
+		 *
+		 * @param executor
+		 *            the executor to run the tasks on.
+		 * @param limit
+		 *            the maximum number of tasks run at once.
+		 * @param rejected
+		 *            run, on the thread that added or completed a task, when
+		 *            the executor rejected the queue and its tasks were
+		 *            dropped. May be <code>null</code>.
+		 */
+		public Queue(final ExecutorService executor, final int limit,
+				final Runnable rejected) {
+			this.executor = executor;
+			this.limit = Math.max(1, limit);
+			this.rejected = rejected;
+		}
+
+		/**
+		 * add a task. Never blocks, and never runs the task on the calling
+		 * thread.
+		 *
+		 * @param r
+		 *            the task.
+		 */
+		public void execute(final Runnable r) {
+			tasks.offer(r);
+			schedule();
+		}
+
+		private void schedule() {
+			while (true) {
+				final int n = running.get();
+				if (n >= limit || tasks.isEmpty()) {
+					return;
+				}
+				if (running.compareAndSet(n, n + 1)) {
+					break;
+				}
+			}
+			try {
+				executor.execute(drain);
+			} catch (final RejectedExecutionException e) {
+				// the scheduler was shut down and there is nothing to retry
+				// on. Running the tasks here instead would block the
+				// receiving thread on replies only it can receive.
+				running.decrementAndGet();
+				clear();
+				if (rejected != null) {
+					rejected.run();
+				}
+			}
+		}
+
+		/**
+		 * drop the tasks not started yet.
+		 */
+		public void clear() {
+			tasks.clear();
+		}
+
+		/**
+		 * get the number of tasks not started yet.
+		 *
+		 * @return the number of tasks.
+		 */
+		public int size() {
+			return tasks.size();
+		}
+	}
+}
@@ -0,0 +1,607 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.r_osgi.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.Version;
+import org.osgi.service.log.LogService;
+
+import ch.ethz.iks.r_osgi.URI;
+import ch.ethz.iks.r_osgi.messages.DeliverServiceMessage;
+
+/**
+ * Content-addressed on-disk cache of generated proxy bundles and of the
+ * dependency bundles delivered for them.
+ * <p>
+ * The key is a SHA-256 digest of the service description the proxy bundle is
+ * generated from: the interface names, the smart proxy class name, the
+ * package imports and exports and the bytecode of every injected class, which
+ * include the interfaces and the smart proxy. The service URI is not part of
+ * it, since the generated classes read it from the manifest, so the same
+ * service offered by another peer or under another service id hits the same
+ * entry. A hit skips the proxy generation and only rewrites the manifest for
+ * the service, see {@link #getProxyBundle(String, URI)}. The dependency
+ * bundles requested for a proxy
+ * bundle are stored under its key, so that a proxy installed again after a
+ * reconnect or a restart does not fetch them from the peer again. The entry
+ * records the requested packages with their import version ranges and a
+ * SHA-256 digest of every bundle, and is only used if the bundles are intact
+ * and still export every package in the requested range.
+ * <p>
+ * Disabled unless <code>ch.ethz.iks.r_osgi.proxyCache</code> is set to
+ * <code>true</code>. At most {@link #MAX_ENTRIES} keys are kept, and the
+ * least recently used are removed first.
+ */
+public final class ProxyBundleCache {
+
+	/**
+	 * whether the cache is used.
+	 */
+	static final boolean ENABLED = Boolean.getBoolean("ch.ethz.iks.r_osgi.proxyCache"); //$NON-NLS-1$
+
+	/**
+	 * the cache directory. Defaults to the data area of the R-OSGi bundle.
+	 */
+	public static final String DIR_PROPERTY = "ch.ethz.iks.r_osgi.proxyCache.dir"; //$NON-NLS-1$
+
+	/**
+	 * the maximum number of cached proxy bundles.
+	 */
+	static final int MAX_ENTRIES = Integer.getInteger(
+			"ch.ethz.iks.r_osgi.proxyCache.maxEntries", 256).intValue(); //$NON-NLS-1$
+
+	private static final String PROXY_SUFFIX = ".jar"; //$NON-NLS-1$
+
+	private static final String DEPS_SUFFIX = ".deps"; //$NON-NLS-1$
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+	private static final String VERSION_ATTRIBUTE = "version"; //$NON-NLS-1$
+
+	private static File dir;
+
+	private ProxyBundleCache() {
+		// static only
+	}
+
+	/**
+	 * check if the cache is enabled and has a directory.
+	 *
+	 * @return <code>true</code> if the cache can be used.
+	 */
+	static boolean isAvailable() {
+		return ENABLED && getDirectory() != null;
+	}
+
+	/**
+	 * compute the key of the proxy bundle for a service description.
+	 *
+	 * @param deliv
+	 *            the service description delivered by the peer.
+	 * @return the key, or <code>null</code> if it cannot be computed.
+	 */
+	public static String getKey(final DeliverServiceMessage deliv) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			final String[] interfaceNames = deliv.getInterfaceNames();
+			for (int i = 0; i < interfaceNames.length; i++) {
+				update(digest, interfaceNames[i]);
+			}
+			update(digest, deliv.getSmartProxyName());
+			update(digest, deliv.getImports());
+			update(digest, deliv.getExports());
+			update(digest, deliv.getOptionalImports());
+			final Map injections = deliv.getInjections();
+			final String[] names = (String[]) injections.keySet().toArray(
+					new String[injections.size()]);
+			Arrays.sort(names);
+			for (int i = 0; i < names.length; i++) {
+				update(digest, names[i]);
+				final byte[] data = (byte[]) injections.get(names[i]);
+				update(digest, data.length);
+				digest.update(data);
+			}
+			return toHex(digest.digest());
+		} catch (final NoSuchAlgorithmException e) {
+			return null;
+		} catch (final UnsupportedEncodingException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * get a cached proxy bundle, bound to a service.
+	 *
+	 * @param key
+	 *            the key.
+	 * @param service
+	 *            the service URI.
+	 * @return the bundle bytes, or <code>null</code> if not cached.
+	 */
+	public static byte[] getProxyBundle(final String key, final URI service) {
+		final byte[] bytes = read(new File(getDirectory(), key + PROXY_SUFFIX));
+		if (bytes == null) {
+			return null;
+		}
+		try {
+			return bind(bytes, service);
+		} catch (final IOException e) {
+			log(e);
+			return null;
+		}
+	}
+
+	/**
+	 * rewrite the manifest of a proxy bundle for another service of the
+	 * same description. The entries are copied unchanged.
+	 */
+	private static byte[] bind(final byte[] bundle, final URI service)
+			throws IOException {
+		final JarInputStream in = new JarInputStream(new ByteArrayInputStream(
+				bundle));
+		try {
+			final Manifest manifest = in.getManifest();
+			if (manifest == null) {
+				throw new IOException("Proxy bundle without manifest"); //$NON-NLS-1$
+			}
+			ProxyGenerator.setServiceURI(manifest, service);
+			final ByteArrayOutputStream bout = new ByteArrayOutputStream(
+					bundle.length + 64);
+			final JarOutputStream out = new JarOutputStream(bout, manifest);
+			final byte[] buffer = new byte[8192];
+			JarEntry entry;
+			while ((entry = in.getNextJarEntry()) != null) {
+				out.putNextEntry(new JarEntry(entry.getName()));
+				int len;
+				while ((len = in.read(buffer)) > -1) {
+					out.write(buffer, 0, len);
+				}
+				out.closeEntry();
+			}
+			out.close();
+			return bout.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * store a generated proxy bundle.
+	 *
+	 * @param key
+	 *            the key.
+	 * @param bundle
+	 *            the bundle bytes.
+	 */
+	public static void putProxyBundle(final String key, final byte[] bundle) {
+		evict();
+		write(new File(getDirectory(), key + PROXY_SUFFIX), bundle);
+	}
+
+	/**
+	 * get the requirements of a proxy bundle on the packages it is missing.
+	 *
+	 * @param importHeader
+	 *            the Import-Package header of the proxy bundle.
+	 * @param packages
+	 *            the missing packages.
+	 * @return the requirements, one <code>package;version="range"</code> per
+	 *         package, sorted.
+	 */
+	public static String[] getRequirements(final String importHeader,
+			final String[] packages) {
+		final String[][] imports = parseHeader(importHeader);
+		final String[] result = new String[packages.length];
+		for (int i = 0; i < packages.length; i++) {
+			String range = Version.emptyVersion.toString();
+			for (int j = 0; j < imports.length; j++) {
+				if (imports[j][0].equals(packages[i]) && imports[j][1] != null) {
+					range = imports[j][1];
+				}
+			}
+			result[i] = packages[i] + ";" + VERSION_ATTRIBUTE + "=\"" + range //$NON-NLS-1$ //$NON-NLS-2$
+					+ "\""; //$NON-NLS-1$
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * get the cached dependency bundles of a proxy bundle.
+	 *
+	 * @param key
+	 *            the key of the proxy bundle.
+	 * @param requirements
+	 *            the requirements the dependencies were requested for, see
+	 *            {@link #getRequirements(String, String[])}.
+	 * @return the dependency bundles, or <code>null</code> if none were
+	 *         cached for these requirements, or if a cached bundle was
+	 *         modified or no longer satisfies them.
+	 */
+	public static byte[][] getDependencies(final String key,
+			final String[] requirements) {
+		final byte[] bytes = read(new File(getDirectory(), key + DEPS_SUFFIX));
+		if (bytes == null) {
+			return null;
+		}
+		try {
+			final DataInputStream in = new DataInputStream(
+					new ByteArrayInputStream(bytes));
+			final String[] cached = new String[in.readInt()];
+			for (int i = 0; i < cached.length; i++) {
+				cached[i] = in.readUTF();
+			}
+			if (!Arrays.equals(cached, requirements)) {
+				return null;
+			}
+			final byte[][] result = new byte[in.readInt()][];
+			for (int i = 0; i < result.length; i++) {
+				final byte[] digest = new byte[in.readInt()];
+				in.readFully(digest);
+				result[i] = new byte[in.readInt()];
+				in.readFully(result[i]);
+				if (!MessageDigest.isEqual(digest, digest(result[i]))) {
+					return null;
+				}
+			}
+			return satisfies(result, requirements) ? result : null;
+		} catch (final IOException e) {
+			// truncated or from an incompatible version
+			return null;
+		} catch (final NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * store the dependency bundles delivered for a proxy bundle.
+	 *
+	 * @param key
+	 *            the key of the proxy bundle.
+	 * @param requirements
+	 *            the requirements the dependencies were requested for, see
+	 *            {@link #getRequirements(String, String[])}.
+	 * @param bundles
+	 *            the dependency bundles.
+	 */
+	public static void putDependencies(final String key, final String[] requirements,
+			final byte[][] bundles) {
+		try {
+			final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			final DataOutputStream out = new DataOutputStream(bout);
+			out.writeInt(requirements.length);
+			for (int i = 0; i < requirements.length; i++) {
+				out.writeUTF(requirements[i]);
+			}
+			out.writeInt(bundles.length);
+			for (int i = 0; i < bundles.length; i++) {
+				final byte[] digest = digest(bundles[i]);
+				out.writeInt(digest.length);
+				out.write(digest);
+				out.writeInt(bundles[i].length);
+				out.write(bundles[i]);
+			}
+			out.close();
+			write(new File(getDirectory(), key + DEPS_SUFFIX), bout
+					.toByteArray());
+		} catch (final IOException e) {
+			log(e);
+		} catch (final NoSuchAlgorithmException e) {
+			// not cached
+		}
+	}
+
+	/**
+	 * check that every required package is exported by one of the bundles in
+	 * the required version range.
+	 */
+	private static boolean satisfies(final byte[][] bundles,
+			final String[] requirements) throws IOException {
+		final List exports = new ArrayList();
+		for (int i = 0; i < bundles.length; i++) {
+			final JarInputStream jar = new JarInputStream(
+					new ByteArrayInputStream(bundles[i]));
+			final Manifest manifest = jar.getManifest();
+			jar.close();
+			if (manifest != null) {
+				exports.addAll(Arrays.asList(parseHeader(manifest
+						.getMainAttributes().getValue(Constants.EXPORT_PACKAGE))));
+			}
+		}
+		for (int i = 0; i < requirements.length; i++) {
+			final String[] requirement = parseHeader(requirements[i])[0];
+			boolean satisfied = false;
+			for (int j = 0; j < exports.size() && !satisfied; j++) {
+				final String[] export = (String[]) exports.get(j);
+				satisfied = export[0].equals(requirement[0])
+						&& includes(requirement[1],
+								export[1] == null ? Version.emptyVersion
+										: Version.parseVersion(export[1]));
+			}
+			if (!satisfied) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * check if a version is in an OSGi version range. A single version is the
+	 * floor of an unbounded range.
+	 */
+	public static boolean includes(final String range, final Version version) {
+		final String r = range.trim();
+		if (r.length() == 0
+				|| (r.charAt(0) != '[' && r.charAt(0) != '(')) {
+			return version.compareTo(Version.parseVersion(r)) >= 0;
+		}
+		final int comma = r.indexOf(',');
+		final char last = r.charAt(r.length() - 1);
+		if (comma < 0 || (last != ']' && last != ')')) {
+			throw new IllegalArgumentException("invalid version range " + r); //$NON-NLS-1$
+		}
+		final int low = version.compareTo(Version.parseVersion(r.substring(1,
+				comma)));
+		final int high = version.compareTo(Version.parseVersion(r.substring(
+				comma + 1, r.length() - 1)));
+		return (r.charAt(0) == '[' ? low >= 0 : low > 0)
+				&& (last == ']' ? high <= 0 : high < 0);
+	}
+
+	/**
+	 * parse a package header into the packages and their version attributes.
+	 * Commas and semicolons in quoted values, like in version ranges, do not
+	 * separate clauses.
+	 *
+	 * @param header
+	 *            the header, or <code>null</code>.
+	 * @return for each package, the name and the version attribute without
+	 *         quotes, or <code>null</code> if it has none.
+	 */
+	public static String[][] parseHeader(final String header) {
+		final List result = new ArrayList();
+		if (header == null) {
+			return new String[0][];
+		}
+		final String[] clauses = split(header, ',');
+		for (int i = 0; i < clauses.length; i++) {
+			final String[] parts = split(clauses[i], ';');
+			String version = null;
+			for (int j = 1; j < parts.length; j++) {
+				final int eq = parts[j].indexOf('=');
+				if (eq > 0
+						&& VERSION_ATTRIBUTE.equals(parts[j].substring(0, eq)
+								.trim())) {
+					version = parts[j].substring(eq + 1).trim();
+					if (version.length() > 1 && version.charAt(0) == '"'
+							&& version.charAt(version.length() - 1) == '"') {
+						version = version.substring(1, version.length() - 1);
+					}
+				}
+			}
+			// a clause can list several packages sharing the attributes
+			for (int j = 0; j < parts.length; j++) {
+				final String name = parts[j].trim();
+				if (name.length() == 0) {
+					continue;
+				}
+				if (name.indexOf('=') > -1) {
+					break;
+				}
+				result.add(new String[] { name, version });
+			}
+		}
+		return (String[][]) result.toArray(new String[result.size()][]);
+	}
+
+	private static String[] split(final String s, final char separator) {
+		final List result = new ArrayList();
+		boolean quoted = false;
+		int start = 0;
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (c == separator && !quoted) {
+				result.add(s.substring(start, i));
+				start = i + 1;
+			}
+		}
+		result.add(s.substring(start));
+		return (String[]) result.toArray(new String[result.size()]);
+	}
+
+	private static byte[] digest(final byte[] bytes)
+			throws NoSuchAlgorithmException {
+		return MessageDigest.getInstance("SHA-256").digest(bytes); //$NON-NLS-1$
+	}
+
+	private static synchronized File getDirectory() {
+		if (dir == null) {
+			final String path = System.getProperty(DIR_PROPERTY);
+			if (path != null) {
+				dir = new File(path);
+			} else {
+				final RemoteOSGiActivator activator = RemoteOSGiActivator
+						.getActivator();
+				final BundleContext context = activator == null ? null
+						: activator.getContext();
+				dir = context == null ? null : context
+						.getDataFile("proxyCache"); //$NON-NLS-1$
+			}
+			if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+				dir = null;
+			}
+		}
+		return dir;
+	}
+
+	/**
+	 * remove the least recently used proxy bundles and their dependencies
+	 * until there is room for one more.
+	 */
+	private static synchronized void evict() {
+		final File[] files = getDirectory().listFiles();
+		if (files == null) {
+			return;
+		}
+		int count = 0;
+		for (int i = 0; i < files.length; i++) {
+			if (files[i].getName().endsWith(PROXY_SUFFIX)) {
+				count++;
+			}
+		}
+		while (count >= MAX_ENTRIES && count > 0) {
+			File oldest = null;
+			for (int i = 0; i < files.length; i++) {
+				if (files[i] != null
+						&& files[i].getName().endsWith(PROXY_SUFFIX)
+						&& (oldest == null || files[i].lastModified() < oldest
+								.lastModified())) {
+					oldest = files[i];
+				}
+			}
+			for (int i = 0; i < files.length; i++) {
+				if (files[i] == oldest) {
+					files[i] = null;
+				}
+			}
+			final String name = oldest.getName();
+			oldest.delete();
+			new File(oldest.getParentFile(), name.substring(0, name.length()
+					- PROXY_SUFFIX.length())
+					+ DEPS_SUFFIX).delete();
+			count--;
+		}
+	}
+
+	private static byte[] read(final File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			final ByteArrayOutputStream out = new ByteArrayOutputStream(
+					(int) file.length());
+			final byte[] buffer = new byte[8192];
+			int len;
+			while ((len = in.read(buffer)) > -1) {
+				out.write(buffer, 0, len);
+			}
+			// mark as recently used
+			file.setLastModified(System.currentTimeMillis());
+			return out.toByteArray();
+		} catch (final IOException e) {
+			log(e);
+			return null;
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (final IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * write to a temporary file first, so that a concurrent reader or a crash
+	 * never leaves a partially written entry behind.
+	 */
+	private static void write(final File file, final byte[] bytes) {
+		final File tmp = new File(file.getParentFile(), file.getName() + "." //$NON-NLS-1$
+				+ Thread.currentThread().getId() + ".tmp"); //$NON-NLS-1$
+		FileOutputStream out = null;
+		try {
+			out = new FileOutputStream(tmp);
+			out.write(bytes);
+			out.close();
+			out = null;
+			if (!tmp.renameTo(file)) {
+				file.delete();
+				if (!tmp.renameTo(file)) {
+					tmp.delete();
+				}
+			}
+		} catch (final IOException e) {
+			log(e);
+			tmp.delete();
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (final IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	private static void update(final MessageDigest digest, final String s)
+			throws UnsupportedEncodingException {
+		if (s == null) {
+			update(digest, -1);
+		} else {
+			final byte[] bytes = s.getBytes("UTF-8"); //$NON-NLS-1$
+			update(digest, bytes.length);
+			digest.update(bytes);
+		}
+	}
+
+	private static void update(final MessageDigest digest, final int i) {
+		digest.update((byte) (i >>> 24));
+		digest.update((byte) (i >>> 16));
+		digest.update((byte) (i >>> 8));
+		digest.update((byte) i);
+	}
+
+	private static String toHex(final byte[] bytes) {
+		final char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+			chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+		}
+		return new String(chars);
+	}
+
+	private static void log(final IOException e) {
+		if (RemoteOSGiServiceImpl.log != null) {
+			RemoteOSGiServiceImpl.log.log(LogService.LOG_WARNING,
+					"Could not access the proxy bundle cache", e); //$NON-NLS-1$
+		}
+	}
+}
@@ -73,9 +73,18 @@ import ch.ethz.iks.r_osgi.types.ServiceUIComponent;
 class ProxyGenerator extends ClassVisitor implements Opcodes {
 
 	/**
-	 * sourceID.
+	 * the manifest header of a proxy bundle that holds the service URI. The
+	 * proxy reads it when it starts, so that the generated classes do not
+	 * depend on the service URI and a proxy bundle can be bound to another
+	 * service of the same description, see
+	 * {@link #setServiceURI(Manifest, URI)}.
 	 */
-	private String sourceID;
+	static final String SERVICE_URI_HEADER = "R-OSGi-Service-URI"; //$NON-NLS-1$
+
+	/**
+	 * the field of the proxy that holds the service URI.
+	 */
+	private static final String URI_FIELD = "endpointURI"; //$NON-NLS-1$
 
 	/**
 	 * interface class name.
@@ -87,11 +96,6 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 	 */
 	private String implName;
 
-	/**
-	 * the service uri.
-	 */
-	private String uri;
-
 	/**
 	 * the ASM class writer.
 	 */
@@ -155,12 +159,6 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 			"charValue", "byteValue", "shortValue", "intValue", "floatValue", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ 
 			"longValue", "doubleValue" }; //$NON-NLS-1$ //$NON-NLS-2$
 
-	/**
-	 * the character table for generating a signature from an IP address.
-	 */
-	private static final char[] CHAR_TABLE = new char[] { 'a', 'b', 'c', 'd',
-			'e', 'f', 'g', 'h', 'i', 'j' };
-
 	/**
 	 * remoting interface name.
 	 */
@@ -198,9 +196,22 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 	 */
 	protected InputStream generateProxyBundle(final URI service,
 			final DeliverServiceMessage deliv) throws IOException {
+		return new ByteArrayInputStream(generateProxyJar(service, deliv));
+	}
+
+	/**
+	 * 
+	 * @param service
+	 *            ServiceURL
+	 * @param deliv
+	 *            DeliverServiceMessage
+	 * @return the bytes of the proxy bundle
+	 * @throws IOException
+	 *             in case of proxy generation error
+	 */
+	byte[] generateProxyJar(final URI service,
+			final DeliverServiceMessage deliv) throws IOException {
 
-		uri = service.toString();
-		sourceID = generateSourceID(uri);
 		implemented = new HashSet();
 		injections = deliv.getInjections();
 		final byte[] bytes = deliv.getSmartProxyName() == null ? generateProxyClass(
@@ -220,8 +231,7 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 		attr.putValue("Created-By", "R-OSGi Proxy Generator"); //$NON-NLS-1$ //$NON-NLS-2$
 		attr.putValue("Bundle-Activator", className); //$NON-NLS-1$
 		attr.putValue("Bundle-Classpath", "."); //$NON-NLS-1$ //$NON-NLS-2$
-		attr.putValue(
-				"Bundle-SymbolicName", RemoteOSGiService.R_OSGi_PROXY_PREFIX + service.getHost()+"."+service.getPort()+"."+service.getFragment()); //$NON-NLS-1$ //$NON-NLS-2$
+		setServiceURI(mf, service);
 		attr.putValue(
 				"Import-Package", //$NON-NLS-1$
 				"org.osgi.framework, ch.ethz.iks.r_osgi, ch.ethz.iks.r_osgi.types, ch.ethz.iks.r_osgi.channels" //$NON-NLS-1$
@@ -301,7 +311,34 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 			// "Created Proxy Bundle " + file);
 		}
 
-		return new ByteArrayInputStream(bout.toByteArray());
+		return bout.toByteArray();
+	}
+
+	/**
+	 * set the headers of a proxy bundle that depend on the service.
+	 * 
+	 * @param mf
+	 *            the manifest of the proxy bundle.
+	 * @param service
+	 *            the service URI.
+	 */
+	static void setServiceURI(final Manifest mf, final URI service) {
+		final Attributes attr = mf.getMainAttributes();
+		attr.putValue(
+				"Bundle-SymbolicName", RemoteOSGiService.R_OSGi_PROXY_PREFIX + service.getHost()+"."+service.getPort()+"."+service.getFragment()); //$NON-NLS-1$ //$NON-NLS-2$
+		attr.putValue(SERVICE_URI_HEADER, service.toString());
+	}
+
+	/**
+	 * push the service URI of the proxy onto the stack.
+	 * 
+	 * @param method
+	 *            an instance method of the proxy class.
+	 */
+	private void loadServiceURI(final MethodVisitor method) {
+		method.visitVarInsn(ALOAD, 0);
+		method.visitFieldInsn(GETFIELD, implName, URI_FIELD,
+				"Ljava/lang/String;"); //$NON-NLS-1$
 	}
 
 	/**
@@ -317,7 +354,7 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 	private byte[] generateProxyClass(final String[] interfaceNames,
 			final byte[] interfaceClass) throws IOException {
 		serviceInterfaceNames = interfaceNames;
-		implName = "proxy/" + sourceID + "/" //$NON-NLS-1$ //$NON-NLS-2$
+		implName = "proxy/" //$NON-NLS-1$
 				+ interfaceNames[0].replace('.', '/') + "Impl"; //$NON-NLS-1$
 
 		final ClassReader reader = new ClassReader(interfaceClass);
@@ -348,7 +385,7 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 			final byte[] interfaceClass, final String proxyName,
 			final byte[] proxyClass) throws IOException {
 		serviceInterfaceNames = interfaceNames;
-		implName = "proxy/" + sourceID + "/" + proxyName.replace('.', '/') //$NON-NLS-1$ //$NON-NLS-2$
+		implName = "proxy/" + proxyName.replace('.', '/') //$NON-NLS-1$
 				+ "Impl"; //$NON-NLS-1$
 		smartProxyClassName = proxyName;
 		smartProxyClassNameDashed = smartProxyClassName.replace('.', '/');
@@ -497,12 +534,29 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 			field = writer.visitField(ACC_PRIVATE, "endpoint", "L" + ENDPOINT_I //$NON-NLS-1$ //$NON-NLS-2$
 					+ ";", null, null); //$NON-NLS-1$
 			field.visitEnd();
+			writer.visitField(ACC_PRIVATE, URI_FIELD, "Ljava/lang/String;", //$NON-NLS-1$
+					null, null).visitEnd();
 
 			{
 				method = writer.visitMethod(ACC_PUBLIC, "start", //$NON-NLS-1$
 						"(Lorg/osgi/framework/BundleContext;)V", null, //$NON-NLS-1$
 						new String[] { "java/lang/Exception" }); //$NON-NLS-1$
 				method.visitCode();
+				// the service URI from the manifest
+				method.visitVarInsn(ALOAD, 0);
+				method.visitVarInsn(ALOAD, 1);
+				method.visitMethodInsn(INVOKEINTERFACE,
+						"org/osgi/framework/BundleContext", //$NON-NLS-1$
+						"getBundle", "()Lorg/osgi/framework/Bundle;"); //$NON-NLS-1$ //$NON-NLS-2$
+				method.visitMethodInsn(INVOKEINTERFACE,
+						"org/osgi/framework/Bundle", //$NON-NLS-1$
+						"getHeaders", "()Ljava/util/Dictionary;"); //$NON-NLS-1$ //$NON-NLS-2$
+				method.visitLdcInsn(SERVICE_URI_HEADER);
+				method.visitMethodInsn(INVOKEVIRTUAL, "java/util/Dictionary", //$NON-NLS-1$
+						"get", "(Ljava/lang/Object;)Ljava/lang/Object;"); //$NON-NLS-1$ //$NON-NLS-2$
+				method.visitTypeInsn(CHECKCAST, "java/lang/String"); //$NON-NLS-1$
+				method.visitFieldInsn(PUTFIELD, implName, URI_FIELD,
+						"Ljava/lang/String;"); //$NON-NLS-1$
 				method.visitVarInsn(ALOAD, 1);
 				method.visitVarInsn(ALOAD, 1);
 				method.visitLdcInsn(Remoting.class.getName());
@@ -518,7 +572,7 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 				method.visitVarInsn(ASTORE, 2);
 				method.visitVarInsn(ALOAD, 0);
 				method.visitVarInsn(ALOAD, 2);
-				method.visitLdcInsn(uri);
+				loadServiceURI(method);
 				method.visitMethodInsn(INVOKEINTERFACE, REMOTING_I,
 						"getEndpoint", "(Ljava/lang/String;)L" + ENDPOINT_I //$NON-NLS-1$ //$NON-NLS-2$
 								+ ";"); //$NON-NLS-1$
@@ -527,7 +581,7 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 				method.visitVarInsn(ALOAD, 0);
 				method.visitFieldInsn(GETFIELD, implName, "endpoint", "L" //$NON-NLS-1$ //$NON-NLS-2$
 						+ ENDPOINT_I + ";"); //$NON-NLS-1$
-				method.visitLdcInsn(uri);
+				loadServiceURI(method);
 				method.visitVarInsn(ALOAD, 1);
 
 				final int len = serviceInterfaceNames.length;
@@ -553,7 +607,7 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 				method.visitVarInsn(ALOAD, 0);
 				method.visitFieldInsn(GETFIELD, implName, "endpoint", "L" //$NON-NLS-1$ //$NON-NLS-2$
 						+ ENDPOINT_I + ";"); //$NON-NLS-1$
-				method.visitLdcInsn(uri);
+				loadServiceURI(method);
 				method.visitMethodInsn(INVOKEINTERFACE, ENDPOINT_I,
 						"getProperties", //$NON-NLS-1$
 						"(Ljava/lang/String;)Ljava/util/Dictionary;"); //$NON-NLS-1$
@@ -568,7 +622,7 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 				method.visitVarInsn(ALOAD, 0);
 				method.visitFieldInsn(GETFIELD, implName, "endpoint", "L" //$NON-NLS-1$ //$NON-NLS-2$
 						+ ENDPOINT_I + ";"); //$NON-NLS-1$
-				method.visitLdcInsn(uri);
+				loadServiceURI(method);
 				method.visitMethodInsn(INVOKEINTERFACE, ENDPOINT_I,
 						"getProperties", //$NON-NLS-1$
 						"(Ljava/lang/String;)Ljava/util/Dictionary;"); //$NON-NLS-1$
@@ -599,7 +653,7 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 				method.visitVarInsn(ALOAD, 0);
 				method.visitFieldInsn(GETFIELD, implName, "endpoint", "L" //$NON-NLS-1$ //$NON-NLS-2$
 						+ ENDPOINT_I + ";"); //$NON-NLS-1$
-				method.visitLdcInsn(uri);
+				loadServiceURI(method);
 				method.visitMethodInsn(INVOKEINTERFACE, ENDPOINT_I,
 						"getPresentationProperties", //$NON-NLS-1$
 						"(Ljava/lang/String;)Ljava/util/Dictionary;"); //$NON-NLS-1$
@@ -628,7 +682,7 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 				method.visitVarInsn(ALOAD, 0);
 				method.visitFieldInsn(GETFIELD, implName, "endpoint", "L" //$NON-NLS-1$//$NON-NLS-2$
 						+ ENDPOINT_I + ";"); //$NON-NLS-1$
-				method.visitLdcInsn(uri);
+				loadServiceURI(method);
 				method.visitMethodInsn(INVOKEINTERFACE, ENDPOINT_I,
 						"untrackRegistration", "(Ljava/lang/String;)V"); //$NON-NLS-1$ //$NON-NLS-2$
 				method.visitVarInsn(ALOAD, 0);
@@ -784,7 +838,7 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 			method.visitVarInsn(ALOAD, 0);
 			method.visitFieldInsn(GETFIELD, implName, "endpoint", "L" //$NON-NLS-1$ //$NON-NLS-2$
 					+ ENDPOINT_I + ";"); //$NON-NLS-1$
-			method.visitLdcInsn(uri);
+			loadServiceURI(method);
 			method.visitLdcInsn(name + desc);
 			if (args.length < 5) {
 				method.visitInsn(ICONST[args.length]);
@@ -1123,35 +1177,6 @@ class ProxyGenerator extends ClassVisitor implements Opcodes {
 
 	}
 
-	/**
-	 * generate a source id from IP or host name.
-	 * 
-	 * @param id
-	 *            id
-	 * @return sourceID
-	 */
-	private static String generateSourceID(final String id) {
-		final int pos1 = id.indexOf("://"); //$NON-NLS-1$
-		final char[] chars = id.substring(pos1 + 3).replace('/', '_')
-				.replace(':', '_').replace('-', '_').toCharArray();
-		final StringBuffer buffer = new StringBuffer();
-		for (int i = 0; i < chars.length; i++) {
-			if (chars[i] == '.') {
-				buffer.append('o');
-				continue;
-			}
-			if (chars[i] > 47 && chars[i] < 58) {
-				buffer.append(CHAR_TABLE[chars[i] - 48]);
-				continue;
-			}
-			if (chars[i] == '#') {
-				continue;
-			}
-			buffer.append(chars[i]);
-		}
-		return buffer.toString();
-	}
-
 	String checkRewrite(final String clazzName) {
 		if (smartProxyClassNameDashed == null) {
 			return clazzName;
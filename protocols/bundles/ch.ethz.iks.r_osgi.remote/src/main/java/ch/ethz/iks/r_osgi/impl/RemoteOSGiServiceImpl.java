@@ -993,6 +993,7 @@ final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
 		serviceDiscoveryHandlerTracker.close();
 		remoteServiceListenerTracker.close();
 		networkChannelFactoryTracker.close();
+		EndpointScheduler.shutdown();
 	}
 
 	/**
@@ -117,7 +117,21 @@ public abstract class RemoteOSGiMessage {
 	 */
 	public static final short DELIVER_BUNDLES = 14;
 
-	
+	/**
+	 * the protocol version of peers that run the stream requests for a stream
+	 * one at a time and in the order received, so that stream proxies may
+	 * keep requests in flight. Older peers send version 1 and ignore the
+	 * version they receive.
+	 * 
+	 * @since 1.1
+	 */
+	public static final byte VERSION_ORDERED_STREAMS = 2;
+
+	/**
+	 * the protocol version in the header.
+	 */
+	private byte version = 1;
+
 	/**
 	 * the type code or functionID in SLP notation.
 	 */
@@ -135,6 +149,27 @@ public abstract class RemoteOSGiMessage {
 		this.funcID = funcID;
 	}
 
+	/**
+	 * get the protocol version of the message.
+	 * 
+	 * @return the version.
+	 * @since 1.1
+	 */
+	public final byte getVersion() {
+		return version;
+	}
+
+	/**
+	 * set the protocol version of the message.
+	 * 
+	 * @param version
+	 *            the version.
+	 * @since 1.1
+	 */
+	public final void setVersion(final byte version) {
+		this.version = version;
+	}
+
 	/**
 	 * get the transaction ID.
 	 * 
@@ -191,7 +226,7 @@ public abstract class RemoteOSGiMessage {
 	 */
 	public static RemoteOSGiMessage parse(final ObjectInputStream input)
 			throws IOException, ClassNotFoundException {
-		input.readByte(); // version, currently unused
+		final byte version = input.readByte();
 		final short funcID = input.readByte();
 		final int xid = input.readInt();
 		RemoteOSGiMessage msg;
@@ -239,6 +274,7 @@ public abstract class RemoteOSGiMessage {
 			throw new RemoteOSGiException("funcID " + funcID //$NON-NLS-1$
 					+ " not supported."); //$NON-NLS-1$ 
 		}
+		msg.version = version;
 		msg.funcID = funcID;
 		msg.xid = xid;
 		return msg;
@@ -254,7 +290,7 @@ public abstract class RemoteOSGiMessage {
 	 */
 	public final void send(final ObjectOutputStream out) throws IOException {
 		synchronized (out) {
-			out.write(1);
+			out.write(version);
 			out.write(funcID);
 			out.writeInt(xid);
 			writeBody(out);
@@ -30,11 +30,22 @@ package ch.ethz.iks.r_osgi.streams;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.LinkedList;
 
 import ch.ethz.iks.r_osgi.impl.ChannelEndpointImpl;
+import ch.ethz.iks.r_osgi.messages.StreamRequestMessage;
+import ch.ethz.iks.r_osgi.messages.StreamResultMessage;
 
 /**
  * Proxy object for input streams.
+ * <p>
+ * If created with a window, the proxy reads ahead: it keeps up to
+ * <code>window</code> bytes requested from the remote stream, in chunks of
+ * <code>chunkSize</code>, and buffers the results until they are read. Credit
+ * for a further chunk is given whenever a chunk has been consumed, so the
+ * amount of data in flight or buffered stays within the window. Like
+ * {@link java.io.BufferedInputStream}, the remote stream is then read beyond
+ * the data consumed through the proxy.
  * 
  * @author Michael Duller, ETH Zurich
  */
@@ -50,6 +61,46 @@ public class InputStreamProxy extends InputStream {
 	 */
 	private final ChannelEndpointImpl endpoint;
 
+	/**
+	 * the maximum number of bytes requested ahead, or 0.
+	 */
+	private final int window;
+
+	/**
+	 * the number of bytes per read-ahead request.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * the read-ahead requests in the order sent.
+	 */
+	private final LinkedList pendingRequests = new LinkedList();
+
+	/**
+	 * the pending operations, in the same order as the requests.
+	 */
+	private final LinkedList pendingOps = new LinkedList();
+
+	/**
+	 * the data of the chunk currently being read.
+	 */
+	private byte[] buf;
+
+	/**
+	 * the position of the next byte in buf.
+	 */
+	private int pos;
+
+	/**
+	 * the number of valid bytes in buf.
+	 */
+	private int count;
+
+	/**
+	 * whether the end of the remote stream has been reached.
+	 */
+	private boolean eof;
+
 	/**
 	 * Create a new input stream proxy.
 	 * 
@@ -60,8 +111,29 @@ public class InputStreamProxy extends InputStream {
 	 */
 	public InputStreamProxy(final short streamID,
 			final ChannelEndpointImpl endpoint) {
+		this(streamID, endpoint, 0, 0);
+	}
+
+	/**
+	 * Create a new input stream proxy that reads ahead.
+	 * 
+	 * @param streamID
+	 *            the stream id.
+	 * @param endpoint
+	 *            the channel endpoint.
+	 * @param window
+	 *            the maximum number of bytes requested ahead. If 0, every
+	 *            read is a synchronous call to the remote stream.
+	 * @param chunkSize
+	 *            the number of bytes per request.
+	 */
+	public InputStreamProxy(final short streamID,
+			final ChannelEndpointImpl endpoint, final int window,
+			final int chunkSize) {
 		this.streamID = streamID;
 		this.endpoint = endpoint;
+		this.chunkSize = Math.max(1, Math.min(chunkSize, window));
+		this.window = window;
 	}
 
 	/**
@@ -70,7 +142,15 @@ public class InputStreamProxy extends InputStream {
 	 * @see java.io.InputStream#read()
 	 */
 	public int read() throws IOException {
-		return endpoint.readStream(streamID);
+		if (window <= 0) {
+			return endpoint.readStream(streamID);
+		}
+		synchronized (this) {
+			if (pos >= count && !fill()) {
+				return -1;
+			}
+			return buf[pos++] & 0xff;
+		}
 	}
 
 	/**
@@ -80,7 +160,92 @@ public class InputStreamProxy extends InputStream {
 	 */
 	public int read(final byte[] b, final int off, final int len)
 			throws IOException {
-		return endpoint.readStream(streamID, b, off, len);
+		if (window <= 0) {
+			return endpoint.readStream(streamID, b, off, len);
+		}
+		if (b == null) {
+			throw new NullPointerException();
+		}
+		if ((off < 0) || (len < 0) || (len + off > b.length)) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		synchronized (this) {
+			if (pos >= count && !fill()) {
+				return -1;
+			}
+			final int n = Math.min(len, count - pos);
+			System.arraycopy(buf, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+	}
+
+	/**
+	 * @see java.io.InputStream#available()
+	 */
+	public synchronized int available() throws IOException {
+		return count - pos;
+	}
+
+	/**
+	 * Discard the data read ahead. The remote stream is not closed.
+	 * 
+	 * @see java.io.InputStream#close()
+	 */
+	public synchronized void close() throws IOException {
+		pendingRequests.clear();
+		pendingOps.clear();
+		buf = null;
+		pos = count = 0;
+		eof = true;
+	}
+
+	/**
+	 * fill the buffer with the next chunk, sending further read-ahead requests
+	 * for the credit that is available.
+	 * 
+	 * @return false if the end of the stream has been reached.
+	 * @throws IOException
+	 *             if the remote read failed.
+	 */
+	private boolean fill() throws IOException {
+		while (!eof) {
+			// the chunk just consumed is no longer buffered, so its credit
+			// can be used for new requests
+			while (!eof && (pendingRequests.size() + 1) * chunkSize <= window) {
+				final StreamRequestMessage requestMsg = new StreamRequestMessage();
+				requestMsg.setOp(StreamRequestMessage.READ_ARRAY);
+				requestMsg.setStreamID(streamID);
+				requestMsg.setLenOrVal(chunkSize);
+				pendingOps.add(endpoint.sendStreamOp(requestMsg));
+				pendingRequests.add(requestMsg);
+			}
+			final StreamRequestMessage requestMsg = (StreamRequestMessage) pendingRequests
+					.removeFirst();
+			final StreamResultMessage resultMsg;
+			try {
+				resultMsg = endpoint.awaitStreamOp(pendingOps.removeFirst(),
+						requestMsg);
+			} catch (final IOException e) {
+				// the results of later requests no longer follow on
+				close();
+				throw e;
+			}
+			final int length = resultMsg.getLen();
+			if (length > 0) {
+				buf = resultMsg.getData();
+				pos = 0;
+				count = length;
+				return true;
+			} else if (length < 0) {
+				// requests still in flight can only return EOF as well
+				close();
+			}
+		}
+		return false;
 	}
 
 }
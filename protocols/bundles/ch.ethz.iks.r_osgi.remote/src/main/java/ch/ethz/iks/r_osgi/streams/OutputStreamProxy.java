@@ -30,11 +30,20 @@ package ch.ethz.iks.r_osgi.streams;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.LinkedList;
 
 import ch.ethz.iks.r_osgi.impl.ChannelEndpointImpl;
+import ch.ethz.iks.r_osgi.messages.StreamRequestMessage;
 
 /**
  * Output stream proxy.
+ * <p>
+ * If created with a window, the proxy collects written bytes into chunks of
+ * <code>chunkSize</code> and sends each chunk without waiting for the remote
+ * write to complete. A write blocks only while more than <code>window</code>
+ * bytes are unacknowledged. {@link #flush()} and {@link #close()} send the
+ * remaining bytes and wait for all of them to be written, and report any
+ * failure of an earlier write.
  * 
  * @author Michael Duller, ETH Zurich.
  */
@@ -50,6 +59,41 @@ public class OutputStreamProxy extends OutputStream {
 	 */
 	private final ChannelEndpointImpl endpoint;
 
+	/**
+	 * the maximum number of unacknowledged bytes, or 0.
+	 */
+	private final int window;
+
+	/**
+	 * the bytes not sent yet.
+	 */
+	private final byte[] buf;
+
+	/**
+	 * the number of valid bytes in buf.
+	 */
+	private int count;
+
+	/**
+	 * the unacknowledged write requests in the order sent.
+	 */
+	private final LinkedList pendingRequests = new LinkedList();
+
+	/**
+	 * the pending operations, in the same order as the requests.
+	 */
+	private final LinkedList pendingOps = new LinkedList();
+
+	/**
+	 * the number of unacknowledged bytes.
+	 */
+	private int inFlight;
+
+	/**
+	 * whether the proxy has been closed.
+	 */
+	private volatile boolean closed;
+
 	/**
 	 * create a new output stream proxy.
 	 * 
@@ -60,8 +104,30 @@ public class OutputStreamProxy extends OutputStream {
 	 */
 	public OutputStreamProxy(final short streamID,
 			final ChannelEndpointImpl endpoint) {
+		this(streamID, endpoint, 0, 0);
+	}
+
+	/**
+	 * create a new output stream proxy that keeps writes in flight.
+	 * 
+	 * @param streamID
+	 *            the stream ID.
+	 * @param endpoint
+	 *            the endpoint.
+	 * @param window
+	 *            the maximum number of unacknowledged bytes. If 0, every
+	 *            write is a synchronous call to the remote stream.
+	 * @param chunkSize
+	 *            the number of bytes per request.
+	 */
+	public OutputStreamProxy(final short streamID,
+			final ChannelEndpointImpl endpoint, final int window,
+			final int chunkSize) {
 		this.streamID = streamID;
 		this.endpoint = endpoint;
+		this.window = window;
+		this.buf = window > 0 ? new byte[Math.max(1, Math.min(chunkSize,
+				window))] : null;
 	}
 
 	/**
@@ -73,7 +139,17 @@ public class OutputStreamProxy extends OutputStream {
 	 *             in case of IO failures.
 	 */
 	public void write(final int b) throws IOException {
-		endpoint.writeStream(streamID, b);
+		ensureOpen();
+		if (window <= 0) {
+			endpoint.writeStream(streamID, b);
+			return;
+		}
+		synchronized (this) {
+			if (count == buf.length) {
+				sendBuffer();
+			}
+			buf[count++] = (byte) b;
+		}
 	}
 
 	/**
@@ -88,7 +164,115 @@ public class OutputStreamProxy extends OutputStream {
 	 */
 	public void write(final byte[] b, final int off, final int len)
 			throws IOException {
-		endpoint.writeStream(streamID, b, off, len);
+		ensureOpen();
+		if (window <= 0) {
+			endpoint.writeStream(streamID, b, off, len);
+			return;
+		}
+		if (b == null) {
+			throw new NullPointerException();
+		}
+		if ((off < 0) || (len < 0) || (len + off > b.length)) {
+			throw new IndexOutOfBoundsException();
+		}
+		synchronized (this) {
+			int written = 0;
+			while (written < len) {
+				if (count == buf.length) {
+					sendBuffer();
+				}
+				final int n = Math.min(len - written, buf.length - count);
+				System.arraycopy(b, off + written, buf, count, n);
+				count += n;
+				written += n;
+			}
+		}
+	}
+
+	/**
+	 * send the remaining bytes and wait until all of them have been written
+	 * to the remote stream. The remote stream is not flushed.
+	 * 
+	 * @see java.io.OutputStream#flush()
+	 */
+	public void flush() throws IOException {
+		if (window <= 0) {
+			return;
+		}
+		synchronized (this) {
+			if (count > 0) {
+				sendBuffer();
+			}
+			awaitWrites(0);
+		}
+	}
+
+	/**
+	 * send the remaining bytes and wait until all of them have been written
+	 * to the remote stream, then refuse further writes. The remote stream is
+	 * not closed.
+	 * 
+	 * @see java.io.OutputStream#close()
+	 */
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			flush();
+		} finally {
+			closed = true;
+		}
+	}
+
+	/**
+	 * fail writes after the proxy has been closed.
+	 */
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+	/**
+	 * send the buffered bytes as one write request, then wait until the
+	 * unacknowledged bytes fit into the window.
+	 */
+	private void sendBuffer() throws IOException {
+		final byte[] data = new byte[count];
+		System.arraycopy(buf, 0, data, 0, count);
+		final StreamRequestMessage requestMsg = new StreamRequestMessage();
+		requestMsg.setOp(StreamRequestMessage.WRITE_ARRAY);
+		requestMsg.setStreamID(streamID);
+		requestMsg.setData(data);
+		requestMsg.setLenOrVal(count);
+		pendingOps.add(endpoint.sendStreamOp(requestMsg));
+		pendingRequests.add(requestMsg);
+		inFlight += count;
+		count = 0;
+		awaitWrites(window);
+	}
+
+	/**
+	 * wait for acknowledgements until at most <code>limit</code> bytes are
+	 * unacknowledged.
+	 */
+	private void awaitWrites(final int limit) throws IOException {
+		while (inFlight > limit) {
+			final StreamRequestMessage requestMsg = (StreamRequestMessage) pendingRequests
+					.removeFirst();
+			inFlight -= requestMsg.getLenOrVal();
+			try {
+				endpoint.awaitStreamOp(pendingOps.removeFirst(), requestMsg);
+			} catch (final IOException e) {
+				// later writes were sent after a failed one, so the
+				// stream is left in an unknown state
+				pendingRequests.clear();
+				pendingOps.clear();
+				inFlight = 0;
+				throw e;
+			}
+		}
 	}
 
 }
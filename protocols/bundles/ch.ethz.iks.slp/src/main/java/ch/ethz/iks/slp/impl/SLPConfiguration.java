@@ -116,6 +116,14 @@ class SLPConfiguration {
 	private static final String CONVERGENCE_FAILERCOUNT_PROP = "net.slp.failercount";
 	
 	private static final String DEBUG_ENABLED_PROP = "ch.ethz.iks.slp.debug";
+
+	private static final String WORKER_THREADS_PROP = "ch.ethz.iks.slp.workerThreads";
+
+	private static final String WORKER_THREADS_DEFAULT = "0";
+
+	private static final String FILTER_CACHE_SIZE_PROP = "ch.ethz.iks.slp.filterCacheSize";
+
+	private static final String FILTER_CACHE_SIZE_DEFAULT = "64";
 	
 	private static String[] INTERFACES;
 
@@ -160,6 +168,10 @@ class SLPConfiguration {
 	private static int CONVERGENCE_FAILERCOUNT;
 
 	private static boolean DEBUG_ENABLED;
+
+	private static int WORKER_THREADS;
+
+	private static int FILTER_CACHE_SIZE;
 	
 	/**
 	 * create a new SLPConfiguration from properties.
@@ -246,6 +258,12 @@ class SLPConfiguration {
 
 		DEBUG_ENABLED = new Boolean(props.getProperty(DEBUG_ENABLED_PROP,
 		"false")).booleanValue();
+
+		WORKER_THREADS = Integer.parseInt(props.getProperty(
+				WORKER_THREADS_PROP, WORKER_THREADS_DEFAULT));
+
+		FILTER_CACHE_SIZE = Integer.parseInt(props.getProperty(
+				FILTER_CACHE_SIZE_PROP, FILTER_CACHE_SIZE_DEFAULT));
 		
 		if (SECURITY_ENABLED) {
 			PUBLIC_KEY_CACHE = new HashMap(0);
@@ -507,6 +525,25 @@ class SLPConfiguration {
 		return DEBUG_ENABLED;
 	}
 
+	/**
+	 * get the number of threads that handle the requests received by
+	 * multicast. With 0, the multicast receiver thread handles them itself.
+	 * 
+	 * @return the number of worker threads.
+	 */
+	int getWorkerThreads() {
+		return WORKER_THREADS;
+	}
+
+	/**
+	 * get the number of parsed request predicates that are kept for reuse.
+	 * 
+	 * @return the size of the filter cache, 0 if filters are not cached.
+	 */
+	int getFilterCacheSize() {
+		return FILTER_CACHE_SIZE;
+	}
+
 	/**
 	 * @return int defining when a TCP send should time out
 	 */
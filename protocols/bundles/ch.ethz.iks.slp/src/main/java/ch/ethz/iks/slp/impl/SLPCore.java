@@ -39,6 +39,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import ch.ethz.iks.slp.ServiceLocationException;
 import ch.ethz.iks.slp.ServiceType;
@@ -143,6 +147,17 @@ public abstract class SLPCore {
 	 */
 	private static MulticastSocket mtcSocket;
 
+	/**
+	 * the maximum number of multicast requests waiting for a worker thread.
+	 */
+	private static final int REQUEST_QUEUE_SIZE = 256;
+
+	/**
+	 * the workers handling multicast requests, <code>null</code> if the
+	 * multicast thread handles them itself.
+	 */
+	private static volatile ThreadPoolExecutor requestExecutor;
+
 	/**
 	 * the next free XID.
 	 */
@@ -330,6 +345,8 @@ public abstract class SLPCore {
 	// a pure UA doesn't need a multicast listener which is only required by a SA or DA
 	protected static void initMulticastSocket() {
 		if(isMulticastSocketInitialized) {
+			// the workers are stopped with the bundle, the multicast thread is not
+			startRequestWorkers();
 			return;
 		}
 		isMulticastSocketInitialized = true;
@@ -362,20 +379,30 @@ public abstract class SLPCore {
 					try {
 						packet = new DatagramPacket(bytes, bytes.length);
 						mtcSocket.receive(packet);
-						final SLPMessage reply = handleMessage(SLPMessage
+						final SLPMessage msg = SLPMessage
 								.parse(packet.getAddress(), packet.getPort(),
 										new DataInputStream(
 												new ByteArrayInputStream(packet
-														.getData())), false));
-						if (reply != null) {
-							final byte[] repbytes = reply.getBytes();
-							DatagramPacket datagramPacket = new DatagramPacket(
-									repbytes, repbytes.length, reply.address,
-									reply.port);
-							mtcSocket.send(datagramPacket);
-							platform.logDebug("SEND (" + reply.address
-										+ ":" + reply.port + ") "
-										+ reply.toString());
+														.getData())), false);
+						final ThreadPoolExecutor executor = requestExecutor;
+						if (executor != null
+								&& msg instanceof RequestMessage) {
+							// match the request on a worker thread and
+							// return to receiving
+							executor.execute(new Runnable() {
+								public void run() {
+									try {
+										handleMulticastMessage(msg);
+									} catch (Exception e) {
+										platform
+											.logError(
+													"Exception in Multicast Request Worker",
+													e);
+									}
+								}
+							});
+						} else {
+							handleMulticastMessage(msg);
 						}
 					} catch (Exception e) {
 						platform
@@ -386,6 +413,7 @@ public abstract class SLPCore {
 				}
 			}
 		};
+		startRequestWorkers();
 		multicastThread.start();
 		
 		// check, if there is already a SLP daemon runnung on port 427
@@ -401,6 +429,65 @@ public abstract class SLPCore {
 		}
 	}
 
+	/**
+	 * start the workers handling multicast requests, if configured and not
+	 * running yet.
+	 */
+	private static synchronized void startRequestWorkers() {
+		final int workers = CONFIG.getWorkerThreads();
+		if (workers <= 0 || requestExecutor != null) {
+			return;
+		}
+		// requests that come in while all workers are busy are dropped
+		// oldest first, the requesters repeat them anyway
+		requestExecutor = new ThreadPoolExecutor(workers, workers, 0L,
+				TimeUnit.MILLISECONDS, new LinkedBlockingQueue(
+						REQUEST_QUEUE_SIZE), new ThreadFactory() {
+					private int count;
+
+					public synchronized Thread newThread(final Runnable r) {
+						final Thread thread = new Thread(r,
+								"jSLP multicast request worker " + (++count));
+						thread.setDaemon(true);
+						return thread;
+					}
+				}, new ThreadPoolExecutor.DiscardOldestPolicy());
+	}
+
+	/**
+	 * stop the workers handling multicast requests. The queued requests are
+	 * dropped, the requesters repeat them anyway. Until the workers are
+	 * started again, the multicast thread handles the requests itself.
+	 */
+	static synchronized void stopRequestWorkers() {
+		if (requestExecutor != null) {
+			requestExecutor.shutdownNow();
+			requestExecutor = null;
+		}
+	}
+
+	/**
+	 * handle a message received by multicast and send the reply, if there is
+	 * one.
+	 * 
+	 * @param msg
+	 *            the message.
+	 * @throws Exception
+	 *             if handling fails.
+	 */
+	private static void handleMulticastMessage(final SLPMessage msg)
+			throws Exception {
+		final SLPMessage reply = handleMessage(msg);
+		if (reply != null) {
+			final byte[] repbytes = reply.getBytes();
+			DatagramPacket datagramPacket = new DatagramPacket(repbytes,
+					repbytes.length, reply.address, reply.port);
+			mtcSocket.send(datagramPacket);
+			platform.logDebug("SEND (" + reply.address + ":" + reply.port
+					+ ") " + reply.toString());
+		}
+	}
+
 	/**
 	 * get my own IP.
 	 * 
@@ -58,6 +58,14 @@ public final class SLPDaemonImpl implements SLPDaemon {
 	 */
 	private Map registeredServices = new HashMap();
 
+	/**
+	 * Index of the registered services by type, guarded by
+	 * <code>registeredServices</code>:
+	 * 
+	 * String scope -> ServiceIndex services.
+	 */
+	private Map serviceIndex = new HashMap();
+
 	/**
 	 * Sorted set for disposal of services which lifetimes have expired:
 	 * 
@@ -95,6 +103,12 @@ public final class SLPDaemonImpl implements SLPDaemon {
 			scope = scope.toLowerCase();
 			synchronized (registeredServices) {
 				SLPUtils.addValue(registeredServices, scope, service);
+				ServiceIndex index = (ServiceIndex) serviceIndex.get(scope);
+				if (index == null) {
+					index = new ServiceIndex();
+					serviceIndex.put(scope, index);
+				}
+				index.add(service);
 			}
 			if (reg.url.getLifetime() > ServiceURL.LIFETIME_PERMANENT) {
 				synchronized (serviceDisposalQueue) {
@@ -216,6 +230,14 @@ public final class SLPDaemonImpl implements SLPDaemon {
 					synchronized (registeredServices) {
 						SLPUtils.removeValue(registeredServices, scopes[i],
 								services[j]);
+						final ServiceIndex index = (ServiceIndex) serviceIndex
+								.get(scopes[i]);
+						if (index != null) {
+							index.remove(services[j]);
+						}
+						if (!registeredServices.containsKey(scopes[i])) {
+							serviceIndex.remove(scopes[i]);
+						}
 					}
 					break;
 				}
@@ -223,6 +245,23 @@ public final class SLPDaemonImpl implements SLPDaemon {
 		}
 	}
 
+	/**
+	 * get a copy of the services registered in a scope, which can be iterated
+	 * while services are registered and deregistered.
+	 * 
+	 * @param scope
+	 *            the scope.
+	 * @return a new List of Services, or <code>null</code> if there are no
+	 *         services in the scope.
+	 */
+	private List getRegisteredServices(final String scope) {
+		synchronized (registeredServices) {
+			final List services = (List) registeredServices.get(scope
+					.toLowerCase());
+			return services == null ? null : new ArrayList(services);
+		}
+	}
+
 	/**
 	 * all incoming messages are handled here.
 	 * 
@@ -253,9 +292,15 @@ public final class SLPDaemonImpl implements SLPDaemon {
 			List results = new ArrayList();
 			for (Iterator scopes = req.scopeList.iterator(); scopes.hasNext();) {
 				String scope = (String) scopes.next();
-				List services = (List) registeredServices.get(scope.toLowerCase());
-				if (services == null) {
-					continue;
+				List services;
+				synchronized (registeredServices) {
+					// only the services of the requested type
+					ServiceIndex index = (ServiceIndex) serviceIndex.get(scope
+							.toLowerCase());
+					if (index == null) {
+						continue;
+					}
+					services = index.find(req.serviceType);
 				}
 
 				for (Iterator srvs = services.iterator(); srvs.hasNext();) {
@@ -296,7 +341,7 @@ public final class SLPDaemonImpl implements SLPDaemon {
 			for (Iterator scopes = attreq.scopeList.iterator(); scopes
 					.hasNext();) {
 				String scope = (String) scopes.next();
-				List services = (List) registeredServices.get(scope.toLowerCase());
+				List services = getRegisteredServices(scope);
 				if (services == null) {
 					continue;
 				}
@@ -342,8 +387,7 @@ public final class SLPDaemonImpl implements SLPDaemon {
 
 				// iterate over the registered services
 				String scope = (String) scopeIter.next();
-				List services = ((List) registeredServices
-						.get(scope.toLowerCase()));
+				List services = getRegisteredServices(scope);
 				if (services == null) {
 					continue;
 				}
@@ -407,7 +451,7 @@ public final class SLPDaemonImpl implements SLPDaemon {
 		// so find all services within the scopes of the new DA:
 		for (Iterator iter = advert.scopeList.iterator(); iter.hasNext();) {
 			String scope = (String) iter.next();
-			List services = (List) registeredServices.get(scope.toLowerCase());
+			List services = getRegisteredServices(scope);
 			if (services != null) {
 				for (Iterator serviceIter = services.iterator(); serviceIter
 						.hasNext();) {
@@ -0,0 +1,99 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.slp.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import ch.ethz.iks.slp.ServiceType;
+
+/**
+ * index of the services registered in one scope by their service type. Finds
+ * the services matching a requested service type without iterating over all
+ * services of the scope. Not synchronized.
+ *
+ * @since 1.4
+ */
+class ServiceIndex {
+
+	/**
+	 * ServiceType type -> List of Services of exactly this type.
+	 */
+	private final Map byType = new HashMap();
+
+	/**
+	 * String abstract type name -> List of Services of a concrete type of
+	 * this abstract type.
+	 */
+	private final Map byAbstractType = new HashMap();
+
+	/**
+	 * add a service to the index.
+	 *
+	 * @param service
+	 *            the service.
+	 */
+	void add(final Service service) {
+		final ServiceType type = service.url.getServiceType();
+		SLPUtils.addValue(byType, type, service);
+		if (type.isAbstractType()) {
+			SLPUtils.addValue(byAbstractType, type.getAbstractTypeName(),
+					service);
+		}
+	}
+
+	/**
+	 * remove a service from the index.
+	 *
+	 * @param service
+	 *            the service.
+	 */
+	void remove(final Service service) {
+		final ServiceType type = service.url.getServiceType();
+		SLPUtils.removeValue(byType, type, service);
+		if (type.isAbstractType()) {
+			SLPUtils.removeValue(byAbstractType, type.getAbstractTypeName(),
+					service);
+		}
+	}
+
+	/**
+	 * get the services whose type matches a requested type, in the sense of
+	 * <code>ServiceType.matches</code>.
+	 *
+	 * @param type
+	 *            the requested type.
+	 * @return a new List of Services.
+	 */
+	List find(final ServiceType type) {
+		final List result = new ArrayList();
+		final List exact = (List) byType.get(type);
+		if (exact != null) {
+			result.addAll(exact);
+		}
+		final List concrete = (List) byAbstractType.get(type.toString());
+		if (concrete != null) {
+			for (Iterator iter = concrete.iterator(); iter.hasNext();) {
+				final Service service = (Service) iter.next();
+				// already added if the type is exactly the requested one
+				if (!service.url.getServiceType().equals(type)) {
+					result.add(service);
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -18,8 +18,10 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import ch.ethz.iks.slp.ServiceLocationException;
 import ch.ethz.iks.slp.ServiceType;
@@ -48,6 +50,19 @@ class ServiceRequest extends RequestMessage {
 	 */
 	String spi;
 
+	/**
+	 * the most recently used filters:
+	 * 
+	 * String predicate -> Filter filter.
+	 */
+	private static final Map FILTER_CACHE = new LinkedHashMap(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(final Map.Entry eldest) {
+			return size() > SLPCore.CONFIG.getFilterCacheSize();
+		}
+	};
+
 	/**
 	 * creates a new ServiceRequest for a ServiceType.
 	 * 
@@ -96,8 +111,7 @@ class ServiceRequest extends RequestMessage {
 		scopeList = stringToList(input.readUTF(), ",");
 		try {
 			final String filterStr = input.readUTF();
-			predicate = "".equals(filterStr) ? null : SLPCore.platform
-					.createFilter(filterStr);
+			predicate = "".equals(filterStr) ? null : getFilter(filterStr);
 		} catch (IllegalArgumentException ise) {
 			SLPCore.platform.logError("Invalid filter in incoming message "
 						+ xid, ise);
@@ -105,6 +119,34 @@ class ServiceRequest extends RequestMessage {
 		spi = input.readUTF();
 	}
 
+	/**
+	 * get the parsed filter for a predicate String. Requests are usually
+	 * repeated with the same predicate, so the most recently used filters
+	 * are kept and reused instead of parsing the predicate of every request.
+	 * 
+	 * @param filterStr
+	 *            a filter String, RFC 1960 compliant.
+	 * @return the filter.
+	 * @throws IllegalArgumentException
+	 *             if the filter String is not valid.
+	 */
+	static Filter getFilter(final String filterStr) {
+		if (SLPCore.CONFIG.getFilterCacheSize() <= 0) {
+			return SLPCore.platform.createFilter(filterStr);
+		}
+		Filter filter;
+		synchronized (FILTER_CACHE) {
+			filter = (Filter) FILTER_CACHE.get(filterStr);
+		}
+		if (filter == null) {
+			filter = SLPCore.platform.createFilter(filterStr);
+			synchronized (FILTER_CACHE) {
+				FILTER_CACHE.put(filterStr, filter);
+			}
+		}
+		return filter;
+	}
+
 	/**
 	 * get the bytes of the message body in the following RFC 2608 compliant
 	 * format:
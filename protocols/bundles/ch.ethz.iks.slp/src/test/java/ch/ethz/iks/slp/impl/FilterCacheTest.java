@@ -0,0 +1,126 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.slp.impl;
+
+import java.util.Dictionary;
+
+import ch.ethz.iks.slp.impl.filter.Filter;
+import junit.framework.TestCase;
+
+public class FilterCacheTest extends TestCase {
+
+	/**
+	 * counts the filters created.
+	 */
+	static class CountingPlatform implements PlatformAbstraction {
+		int created;
+
+		public Filter createFilter(final String filterString) {
+			created++;
+			return new Filter() {
+				public boolean match(final Dictionary values) {
+					return true;
+				}
+
+				public String toString() {
+					return filterString;
+				}
+			};
+		}
+
+		public void logDebug(final String message) {
+		}
+
+		public void logDebug(final String message, final Throwable exception) {
+		}
+
+		public void logTraceMessage(final String string) {
+		}
+
+		public void logTraceReg(final String string) {
+		}
+
+		public void logTraceDrop(final String string) {
+		}
+
+		public void logWarning(final String message) {
+		}
+
+		public void logWarning(final String message, final Throwable exception) {
+		}
+
+		public void logError(final String message) {
+		}
+
+		public void logError(final String message, final Throwable exception) {
+		}
+	}
+
+	private PlatformAbstraction previous;
+
+	private CountingPlatform platform;
+
+	public FilterCacheTest() {
+		super("FilterCacheTest");
+		System.setProperty("net.slp.port", "10427");
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		previous = SLPCore.platform;
+		platform = new CountingPlatform();
+		SLPCore.platform = platform;
+	}
+
+	protected void tearDown() throws Exception {
+		SLPCore.platform = previous;
+		super.tearDown();
+	}
+
+	public void testReused() {
+		final Filter filter = ServiceRequest.getFilter("(reused=1)");
+		assertEquals(1, platform.created);
+		assertSame(filter, ServiceRequest.getFilter("(reused=1)"));
+		assertEquals(1, platform.created);
+		assertEquals("(reused=1)", filter.toString());
+	}
+
+	public void testDistinctPredicates() {
+		final Filter first = ServiceRequest.getFilter("(distinct=1)");
+		final Filter second = ServiceRequest.getFilter("(distinct=2)");
+		assertNotSame(first, second);
+		assertEquals(2, platform.created);
+		assertSame(first, ServiceRequest.getFilter("(distinct=1)"));
+		assertSame(second, ServiceRequest.getFilter("(distinct=2)"));
+		assertEquals(2, platform.created);
+	}
+
+	public void testLeastRecentlyUsedEvicted() {
+		final int size = SLPCore.CONFIG.getFilterCacheSize();
+		final Filter used = ServiceRequest.getFilter("(evicted=used)");
+		final Filter unused = ServiceRequest.getFilter("(evicted=unused)");
+		// one less than fills the cache, and use the first one in between
+		for (int i = 0; i < size - 1; i++) {
+			ServiceRequest.getFilter("(evicted=" + i + ")");
+			if (i == size / 2) {
+				assertSame(used, ServiceRequest.getFilter("(evicted=used)"));
+			}
+		}
+		assertEquals(size + 1, platform.created);
+		assertSame(used, ServiceRequest.getFilter("(evicted=used)"));
+		assertEquals(size + 1, platform.created);
+		// the least recently used one was dropped and is parsed again
+		assertNotSame(unused, ServiceRequest.getFilter("(evicted=unused)"));
+		assertEquals(size + 2, platform.created);
+	}
+}
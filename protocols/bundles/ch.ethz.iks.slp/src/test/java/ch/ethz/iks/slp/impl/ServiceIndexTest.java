@@ -0,0 +1,138 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.slp.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import ch.ethz.iks.slp.ServiceType;
+import ch.ethz.iks.slp.ServiceURL;
+import junit.framework.TestCase;
+
+public class ServiceIndexTest extends TestCase {
+
+	private static final String[] TYPES = new String[] {
+			"service:printer:lpr", "service:printer:ipp", "service:printer",
+			"service:test", "service:test.ecf", "service:other:lpr" };
+
+	public ServiceIndexTest() {
+		super("ServiceIndexTest");
+		System.setProperty("net.slp.port", "10427");
+	}
+
+	private static Service createService(final String type, final String host)
+			throws Exception {
+		final ServiceURL url = new ServiceURL(type + "://" + host, 0);
+		return new Service(new ServiceRegistration(url, url.getServiceType(),
+				null, null, null));
+	}
+
+	/**
+	 * the services a walk over all services of the scope finds for a type.
+	 */
+	private static HashSet matching(final List services, final ServiceType type) {
+		final HashSet result = new HashSet();
+		for (Iterator iter = services.iterator(); iter.hasNext();) {
+			final Service service = (Service) iter.next();
+			if (service.url.getServiceType().matches(type)) {
+				result.add(service);
+			}
+		}
+		return result;
+	}
+
+	private static void assertFound(final List services, final ServiceIndex index) {
+		for (int i = 0; i < TYPES.length; i++) {
+			final ServiceType type = new ServiceType(TYPES[i]);
+			final List found = index.find(type);
+			assertEquals(TYPES[i], matching(services, type), new HashSet(found));
+			// every service once
+			assertEquals(TYPES[i], new HashSet(found).size(), found.size());
+		}
+	}
+
+	public void testEmpty() throws Exception {
+		final ServiceIndex index = new ServiceIndex();
+		assertTrue(index.find(new ServiceType("service:printer")).isEmpty());
+	}
+
+	public void testFindExactType() throws Exception {
+		final ServiceIndex index = new ServiceIndex();
+		final Service test = createService("service:test", "host1");
+		final Service other = createService("service:test.ecf", "host1");
+		index.add(test);
+		index.add(other);
+		assertEquals(Arrays.asList(new Object[] { test }), index
+				.find(new ServiceType("service:test")));
+		assertEquals(Arrays.asList(new Object[] { other }), index
+				.find(new ServiceType("service:test.ecf")));
+		assertTrue(index.find(new ServiceType("service:unknown")).isEmpty());
+	}
+
+	public void testFindAbstractType() throws Exception {
+		final ServiceIndex index = new ServiceIndex();
+		final Service lpr = createService("service:printer:lpr", "host1");
+		final Service ipp = createService("service:printer:ipp", "host1");
+		final Service other = createService("service:other:lpr", "host1");
+		index.add(lpr);
+		index.add(ipp);
+		index.add(other);
+		// the abstract type finds all its concrete types
+		assertEquals(new HashSet(Arrays.asList(new Object[] { lpr, ipp })),
+				new HashSet(index.find(new ServiceType("service:printer"))));
+		// a concrete type only itself
+		assertEquals(Arrays.asList(new Object[] { lpr }), index
+				.find(new ServiceType("service:printer:lpr")));
+	}
+
+	public void testMatchesWalkOverAllServices() throws Exception {
+		final ServiceIndex index = new ServiceIndex();
+		final List services = new ArrayList();
+		for (int i = 0; i < TYPES.length; i++) {
+			for (int j = 0; j < 3; j++) {
+				final Service service = createService(TYPES[i], "host" + j);
+				services.add(service);
+				index.add(service);
+			}
+		}
+		assertFound(services, index);
+		// remove every other service
+		for (int i = services.size() - 1; i >= 0; i -= 2) {
+			index.remove((Service) services.remove(i));
+		}
+		assertFound(services, index);
+	}
+
+	public void testRemove() throws Exception {
+		final ServiceIndex index = new ServiceIndex();
+		final Service lpr = createService("service:printer:lpr", "host1");
+		final Service lpr2 = createService("service:printer:lpr", "host2");
+		index.add(lpr);
+		index.add(lpr2);
+		index.remove(lpr);
+		assertEquals(Arrays.asList(new Object[] { lpr2 }), index
+				.find(new ServiceType("service:printer:lpr")));
+		assertEquals(Arrays.asList(new Object[] { lpr2 }), index
+				.find(new ServiceType("service:printer")));
+		index.remove(lpr2);
+		assertTrue(index.find(new ServiceType("service:printer:lpr"))
+				.isEmpty());
+		assertTrue(index.find(new ServiceType("service:printer")).isEmpty());
+		// removing a service not in the index changes nothing
+		index.remove(lpr);
+		assertTrue(index.find(new ServiceType("service:printer")).isEmpty());
+	}
+}
@@ -0,0 +1,65 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.datashare.nio;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedList;
+
+/**
+ * A pool of direct buffers for reading from sockets. Direct buffers are
+ * expensive to allocate and are only released by the garbage collector, so
+ * they are reused across the selector threads of all channels and
+ * containers.
+ */
+final class BufferPool {
+
+	static final int BUFFER_SIZE = 16384;
+
+	private static final int MAX_POOLED = 16;
+
+	private static final LinkedList pool = new LinkedList();
+
+	private BufferPool() {
+		// static only
+	}
+
+	/**
+	 * Returns a cleared direct buffer of {@link #BUFFER_SIZE} bytes.
+	 *
+	 * @return a buffer, never <code>null</code>
+	 */
+	static ByteBuffer acquire() {
+		synchronized (pool) {
+			if (!pool.isEmpty()) {
+				return (ByteBuffer) pool.removeFirst();
+			}
+		}
+		return ByteBuffer.allocateDirect(BUFFER_SIZE);
+	}
+
+	/**
+	 * Returns a buffer to the pool. The buffer must not be used afterwards.
+	 *
+	 * @param buffer
+	 *            a buffer obtained from {@link #acquire()}
+	 */
+	static void release(ByteBuffer buffer) {
+		buffer.clear();
+		synchronized (pool) {
+			if (pool.size() < MAX_POOLED) {
+				pool.add(buffer);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,356 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.datashare.nio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import org.eclipse.ecf.core.identity.ID;
+
+/**
+ * The state of one non-blocking socket: the bytes read but not yet consumed
+ * and the buffers still to be written.
+ * <p>
+ * Every message is sent as a <code>byte[]</code> serialized on an
+ * <code>ObjectOutputStream</code> of its own. For a <code>byte[]</code> this
+ * is a fixed prefix, the length and the bytes, so messages are framed by
+ * writing the prefix and length followed by the message bytes with a single
+ * gathering write, and parsed back without deserialization once all of their
+ * bytes have arrived.
+ * </p>
+ */
+final class Connection {
+
+	/**
+	 * The serialized form of a <code>byte[]</code>, up to its length.
+	 */
+	private static final byte[] FRAME_PREFIX;
+
+	static {
+		byte[] empty;
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			ObjectOutputStream oos = new ObjectOutputStream(baos);
+			oos.writeObject(new byte[0]);
+			oos.flush();
+			empty = baos.toByteArray();
+		} catch (IOException e) {
+			// cannot happen with a ByteArrayOutputStream
+			throw new IllegalStateException(e.getMessage());
+		}
+		FRAME_PREFIX = new byte[empty.length - 4];
+		System.arraycopy(empty, 0, FRAME_PREFIX, 0, FRAME_PREFIX.length);
+	}
+
+	private static final int HEADER_LENGTH = FRAME_PREFIX.length + 4;
+
+	/**
+	 * The maximum number of buffers passed to one gathering write.
+	 */
+	private static final int MAX_GATHER = 64;
+
+	/**
+	 * The number of bytes after which no more buffers are added to a
+	 * gathering write, and the size of the chunks messages are queued in.
+	 * The socket copies every byte it is handed from a heap buffer, so
+	 * handing it a whole large message while its send buffer is full would
+	 * copy the message again on every attempt.
+	 */
+	private static final int MAX_WRITE = 65536;
+
+	private final SocketChannel socketChannel;
+
+	private SelectionKey key;
+
+	private ID peerId;
+
+	private byte[] input = new byte[256];
+
+	private int inputStart;
+
+	private int inputEnd;
+
+	private int mark;
+
+	private final LinkedList output = new LinkedList();
+
+	Connection(SocketChannel socketChannel) {
+		this.socketChannel = socketChannel;
+	}
+
+	SocketChannel getSocketChannel() {
+		return socketChannel;
+	}
+
+	SelectionKey getKey() {
+		return key;
+	}
+
+	void setKey(SelectionKey key) {
+		this.key = key;
+	}
+
+	/**
+	 * Returns the ID of the peer at the other end, once the handshake has
+	 * completed.
+	 *
+	 * @return the peer's ID, or <code>null</code> during the handshake
+	 */
+	ID getPeerId() {
+		return peerId;
+	}
+
+	void setPeerId(ID peerId) {
+		this.peerId = peerId;
+	}
+
+	/**
+	 * Reads the bytes available on the socket.
+	 *
+	 * @param buffer
+	 *            the buffer to read with
+	 * @return <code>false</code> if the socket has reached end-of-stream
+	 * @throws IOException
+	 *             if reading fails
+	 */
+	boolean read(ByteBuffer buffer) throws IOException {
+		buffer.clear();
+		int read = socketChannel.read(buffer);
+		if (read == -1) {
+			return false;
+		}
+		buffer.flip();
+		ensureCapacity(read);
+		buffer.get(input, inputEnd, read);
+		inputEnd += read;
+		return true;
+	}
+
+	/**
+	 * Adds bytes that were read from the socket elsewhere.
+	 *
+	 * @param bytes
+	 *            the bytes, may be <code>null</code>
+	 */
+	void append(byte[] bytes) {
+		if (bytes != null) {
+			ensureCapacity(bytes.length);
+			System.arraycopy(bytes, 0, input, inputEnd, bytes.length);
+			inputEnd += bytes.length;
+		}
+	}
+
+	/**
+	 * Returns the bytes read but not consumed yet.
+	 *
+	 * @return the remaining bytes, or <code>null</code> if there are none
+	 */
+	byte[] remaining() {
+		if (inputEnd == inputStart) {
+			return null;
+		}
+		byte[] bytes = new byte[inputEnd - inputStart];
+		System.arraycopy(input, inputStart, bytes, 0, bytes.length);
+		inputStart = inputEnd;
+		return bytes;
+	}
+
+	void mark() {
+		mark = inputStart;
+	}
+
+	void reset() {
+		inputStart = mark;
+	}
+
+	/**
+	 * Deserializes the next object, if all of its bytes have been read.
+	 *
+	 * @return the object, or <code>null</code> if more bytes are needed
+	 * @throws IOException
+	 *             if the bytes are not a serialized object
+	 * @throws ClassNotFoundException
+	 *             if the class of the object cannot be found
+	 */
+	Object nextObject() throws IOException, ClassNotFoundException {
+		if (inputEnd == inputStart) {
+			return null;
+		}
+		ByteArrayInputStream bais = new ByteArrayInputStream(input,
+				inputStart, inputEnd - inputStart);
+		try {
+			Object object = new ObjectInputStream(bais).readObject();
+			inputStart = inputEnd - bais.available();
+			return object;
+		} catch (EOFException e) {
+			// incomplete, wait for more
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the next message, if all of its bytes have been read.
+	 *
+	 * @return the message, or <code>null</code> if more bytes are needed
+	 * @throws IOException
+	 *             if the bytes are not a serialized message
+	 * @throws ClassNotFoundException
+	 *             if a peer sent an object of an unknown class
+	 */
+	byte[] nextMessage() throws IOException, ClassNotFoundException {
+		while (true) {
+			int available = inputEnd - inputStart;
+			if (available == 0) {
+				return null;
+			}
+			int prefix = Math.min(available, FRAME_PREFIX.length);
+			if (startsWith(FRAME_PREFIX, prefix)) {
+				if (available < HEADER_LENGTH) {
+					return null;
+				}
+				int offset = inputStart + FRAME_PREFIX.length;
+				int length = ((input[offset] & 0xff) << 24)
+						| ((input[offset + 1] & 0xff) << 16)
+						| ((input[offset + 2] & 0xff) << 8)
+						| (input[offset + 3] & 0xff);
+				if (length < 0) {
+					throw new StreamCorruptedException(
+							"Invalid message length " + length); //$NON-NLS-1$
+				}
+				if (available - HEADER_LENGTH < length) {
+					return null;
+				}
+				byte[] message = new byte[length];
+				System.arraycopy(input, inputStart + HEADER_LENGTH, message, 0,
+						length);
+				inputStart += HEADER_LENGTH + length;
+				return message;
+			}
+			// not framed like a byte[] on a stream of its own, so
+			// deserialize it and skip anything that is not a byte[]
+			Object object = nextObject();
+			if (object == null || object instanceof byte[]) {
+				return (byte[]) object;
+			}
+		}
+	}
+
+	private boolean startsWith(byte[] prefix, int length) {
+		for (int i = 0; i < length; i++) {
+			if (input[inputStart + i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void ensureCapacity(int length) {
+		if (inputStart == inputEnd) {
+			inputStart = inputEnd = 0;
+		}
+		if (inputEnd + length <= input.length) {
+			return;
+		}
+		int used = inputEnd - inputStart;
+		byte[] target = input;
+		if (used + length > input.length) {
+			target = new byte[Math.max(input.length * 2, used + length)];
+		}
+		System.arraycopy(input, inputStart, target, 0, used);
+		mark -= inputStart;
+		input = target;
+		inputStart = 0;
+		inputEnd = used;
+	}
+
+	/**
+	 * Queues a message, framed as a serialized <code>byte[]</code>.
+	 *
+	 * @param message
+	 *            the message bytes
+	 */
+	void enqueueMessage(byte[] message) {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+		header.put(FRAME_PREFIX);
+		header.putInt(message.length);
+		header.flip();
+		output.add(header);
+		enqueue(message);
+	}
+
+	/**
+	 * Queues bytes to be written as they are.
+	 *
+	 * @param bytes
+	 *            the bytes
+	 */
+	void enqueue(byte[] bytes) {
+		for (int offset = 0; offset < bytes.length; offset += MAX_WRITE) {
+			output.add(ByteBuffer.wrap(bytes, offset, Math.min(MAX_WRITE,
+					bytes.length - offset)));
+		}
+	}
+
+	boolean hasOutput() {
+		return !output.isEmpty();
+	}
+
+	/**
+	 * Writes as much of the queued output as the socket accepts without
+	 * blocking.
+	 *
+	 * @return <code>true</code> if all output has been written
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	boolean flush() throws IOException {
+		while (!output.isEmpty()) {
+			int count = 0;
+			int bytes = 0;
+			for (Iterator it = output.iterator(); it.hasNext()
+					&& count < MAX_GATHER && bytes < MAX_WRITE; count++) {
+				bytes += ((ByteBuffer) it.next()).remaining();
+			}
+			ByteBuffer[] buffers = new ByteBuffer[count];
+			Iterator it = output.iterator();
+			for (int i = 0; i < buffers.length; i++) {
+				buffers[i] = (ByteBuffer) it.next();
+			}
+			socketChannel.write(buffers);
+			for (int i = 0; i < buffers.length; i++) {
+				if (buffers[i].hasRemaining()) {
+					// the socket's send buffer is full
+					return false;
+				}
+				output.removeFirst();
+			}
+		}
+		return true;
+	}
+
+	void close() {
+		output.clear();
+		Util.closeChannel(socketChannel);
+	}
+
+}
@@ -12,24 +12,23 @@
  *****************************************************************************/
 package org.eclipse.ecf.provider.datashare.nio;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.ServerSocket;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ISafeRunnable;
@@ -107,14 +106,21 @@ public abstract class NIOChannel implements IChannel {
 	 */
 	private final int localPort;
 
+	/**
+	 * The selector notifying the processing thread of incoming connections
+	 * and of sockets that are ready for reading or writing.
+	 */
+	private final Selector selector;
+
 	/**
 	 * A map of <code>ID</code>s to their corresponding
-	 * <code>SocketChannel</code>s.
+	 * <code>Connection</code>s.
 	 */
 	private Map connectedSockets;
 
 	/**
-	 * A list of sockets that is waiting to handshake with remote peers.
+	 * A list of connections established by the datashare container that
+	 * still need to be registered with the selector.
 	 */
 	private List pendingSockets;
 
@@ -186,6 +192,15 @@ public abstract class NIOChannel implements IChannel {
 
 		localPort = serverSocketChannel.socket().getLocalPort();
 
+		try {
+			selector = Selector.open();
+			serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			Util.closeChannel(serverSocketChannel);
+			throw new ECFException(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+					"Could not open selector", e)); //$NON-NLS-1$
+		}
+
 		connectedSockets = new HashMap();
 		pendingSockets = new ArrayList();
 		messages = new LinkedList();
@@ -280,208 +295,225 @@ public abstract class NIOChannel implements IChannel {
 	}
 
 	/**
-	 * Sends any pending messages we may have queued up.
+	 * Queues any pending messages we may have for the sockets of their
+	 * targets and writes them out. Messages to targets without a socket
+	 * are kept until one is established.
 	 */
 	private void sendPendingMessages() {
-		Collection deadSockets = null;
-		Collection processedMessages = null;
+		Set written = null;
 
 		for (Iterator it = messages.iterator(); it.hasNext();) {
 			ChannelMessage message = (ChannelMessage) it.next();
-			ID id = message.getId();
-			SocketChannel channel = (SocketChannel) connectedSockets.get(id);
+			Connection connection;
+			synchronized (connectedSockets) {
+				connection = (Connection) connectedSockets.get(message.getId());
+			}
 			// check if we have a socket for the target of this message
-			if (channel != null) {
-				byte[] data = message.getData();
-
-				try {
-					// flush the data directly with regular IO, this method
-					// saves us the extra work of having to constantly flip and
-					// clear a ByteBuffer and in a way ensures the message is
-					// sent in one piece instead of chunks
-					channel.configureBlocking(true);
-					channel.socket().getOutputStream().write(data);
-					channel.socket().getOutputStream().flush();
-					// turn off blocking
-					channel.configureBlocking(false);
-				} catch (IOException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"Error occurred while sending message", e)); //$NON-NLS-1$
-					if (deadSockets == null) {
-						deadSockets = new HashSet();
-					}
-					deadSockets.add(id);
+			if (connection != null) {
+				connection.enqueueMessage(message.getData());
+				if (written == null) {
+					written = new HashSet();
 				}
-
-				if (processedMessages == null) {
-					processedMessages = new LinkedList();
-				}
-				// store the processed message
-				processedMessages.add(message);
+				written.add(connection);
+				it.remove();
 			}
 		}
 
-		// remove all messages that have been processed
-		if (processedMessages != null) {
-			messages.removeAll(processedMessages);
+		if (written != null) {
+			for (Iterator it = written.iterator(); it.hasNext();) {
+				write((Connection) it.next());
+			}
 		}
+	}
 
-		if (deadSockets != null) {
-			for (Iterator it = deadSockets.iterator(); it.hasNext();) {
-				ID id = (ID) it.next();
-				SocketChannel channel = (SocketChannel) connectedSockets
-						.remove(id);
-				Util.closeChannel(channel);
+	/**
+	 * Writes the queued output of a connection, and asks the selector for
+	 * notification when the socket can take more if not all of it could be
+	 * written.
+	 * 
+	 * @param connection
+	 *            the connection to write to
+	 */
+	private void write(Connection connection) {
+		SelectionKey key = connection.getKey();
+		if (key == null) {
+			// not registered yet, written once it is
+			return;
+		}
+		try {
+			if (connection.flush()) {
+				key.interestOps(SelectionKey.OP_READ);
+			} else {
+				key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
 			}
+		} catch (IOException e) {
+			log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+					"Error occurred while sending message", e)); //$NON-NLS-1$
+			close(connection);
 		}
 	}
 
 	/**
-	 * Reads in any incoming messages from remote clients.
+	 * Reads the data available on a connection and processes the complete
+	 * messages, or the handshake if the connection has not been established
+	 * yet.
 	 * 
+	 * @param connection
+	 *            the connection to read from
 	 * @param buffer
 	 *            the buffer to use for reading the socket
-	 * @throws IOException
-	 *             if an error occurs while reading from the socket
 	 */
-	private void processIncomingMessages(ByteBuffer buffer) throws IOException {
-		Collection deadSockets = null;
-
-		for (Iterator it = connectedSockets.entrySet().iterator(); it.hasNext();) {
-			Map.Entry entry = (Map.Entry) it.next();
-			SocketChannel socketChannel = (SocketChannel) entry.getValue();
-
-			try {
-				if (!processIncomingMessages(socketChannel, buffer)) {
-					if (deadSockets == null) {
-						deadSockets = new HashSet();
-					}
-					deadSockets.add(entry.getKey());
-				}
-			} catch (IOException e) {
-				log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-						"Error occurred while sending message", e)); //$NON-NLS-1$
-				if (deadSockets == null) {
-					deadSockets = new HashSet();
-				}
-				deadSockets.add(entry.getKey());
+	private void read(Connection connection, ByteBuffer buffer) {
+		try {
+			if (!connection.read(buffer)) {
+				// end-of-stream
+				close(connection);
+				return;
 			}
-		}
-
-		if (deadSockets != null) {
-			for (Iterator it = deadSockets.iterator(); it.hasNext();) {
-				ID id = (ID) it.next();
-				SocketChannel channel = (SocketChannel) connectedSockets
-						.remove(id);
-				Util.closeChannel(channel);
+			if (connection.getPeerId() == null && !handshake(connection)) {
+				return;
 			}
+			processIncomingMessages(connection);
+		} catch (ClassNotFoundException e) {
+			log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+					"Could not deserialize", e)); //$NON-NLS-1$
+			close(connection);
+		} catch (IOException e) {
+			log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+					"Error occurred while reading message", e)); //$NON-NLS-1$
+			close(connection);
 		}
 	}
 
 	/**
-	 * Processes any incoming messages from the specified channel by reading it
-	 * into the specified buffer and returns whether the channel has reached
-	 * end-of-stream.
+	 * Notifies the listener of every complete message read from the
+	 * connection.
 	 * 
-	 * @param socketChannel
-	 *            the channel to read messages from
-	 * @param buffer
-	 *            the buffer to use to read the messages into
-	 * @return <code>true</code> if the channel is still active,
-	 *         <code>false</code> has reached end-of-stream
+	 * @param connection
+	 *            the connection the messages were read from
+	 * @throws ClassNotFoundException
+	 *             if the peer sent an object of an unknown class
 	 * @throws IOException
-	 *             if an error occurred while trying to read from the channel
+	 *             if the data read is not a valid message
 	 */
-	private boolean processIncomingMessages(SocketChannel socketChannel,
-			ByteBuffer buffer) throws IOException {
-		ChannelData channelData = Util.read(socketChannel, buffer);
-		byte[] message = channelData.getData();
-
-		if (message != null) {
-			processIncomingMessage(socketChannel, message);
+	private void processIncomingMessages(Connection connection)
+			throws ClassNotFoundException, IOException {
+		byte[] message;
+		while ((message = connection.nextMessage()) != null) {
+			IChannelListener listener = getListener();
+			if (listener != null) {
+				fireChannelEvent(listener, createMessageEvent(connection
+						.getPeerId(), message));
+			}
 		}
-		return channelData.isOpen();
 	}
 
 	/**
-	 * Processes the message that has been received from the specified channel.
+	 * Closes a connection and forgets about it.
 	 * 
-	 * @param socketChannel
-	 *            the channel that the message was from
-	 * @param message
-	 *            the message that was received
+	 * @param connection
+	 *            the connection to close
 	 */
-	void processIncomingMessage(SocketChannel socketChannel, byte[] message) {
-		// we read something, need to notify
-		IChannelListener listener = getListener();
-		if (listener != null) {
-			// we have a listener, convert our data and then notify
-			byte[][] messages = convert(message);
-			if (messages != null) {
-				fireMessageEvents(listener, socketChannel, messages);
+	private void close(Connection connection) {
+		ID peerId = connection.getPeerId();
+		if (peerId != null) {
+			synchronized (connectedSockets) {
+				if (connectedSockets.get(peerId) == connection) {
+					connectedSockets.remove(peerId);
+				}
 			}
 		}
+		connection.close();
 	}
 
 	/**
-	 * Converts the data that has been read from the socket into separate byte[]
-	 * instances.
+	 * Accepts an incoming connection. The remote peer is expected to
+	 * handshake first.
 	 * 
-	 * @param message
-	 *            the data read from the socket
-	 * @return a byte[][] containing the individual messages
+	 * @throws IOException
+	 *             if the connection could not be accepted
 	 */
-	private byte[][] convert(byte[] message) {
-		try {
-			// back the read in data with a ByteArrayInputStream
-			ByteArrayInputStream bais = new ByteArrayInputStream(message);
-			// instantiate an ObjectInputStream and read the individual
-			// byte[]
-			byte[] bytes = (byte[]) new ObjectInputStream(bais).readObject();
-
-			if (bais.available() == 0) {
-				return new byte[][] { bytes };
-			}
-
-			Collection c = new ArrayList();
-			c.add(bytes);
+	private void accept() throws IOException {
+		SocketChannel socketChannel = serverSocketChannel.accept();
+		if (socketChannel != null) {
+			socketChannel.configureBlocking(false);
+			Connection connection = new Connection(socketChannel);
+			connection.setKey(socketChannel.register(selector,
+					SelectionKey.OP_READ, connection));
+		}
+	}
 
-			while (bais.available() != 0) {
-				// instantiate an ObjectInputStream and read the individual
-				// byte[]
-				bytes = (byte[]) new ObjectInputStream(bais).readObject();
-				// store it
-				c.add(bytes);
+	/**
+	 * Registers the connections established by the datashare container with
+	 * the selector.
+	 */
+	private void registerPendingSockets() {
+		Connection[] connections;
+		synchronized (pendingSockets) {
+			if (pendingSockets.isEmpty()) {
+				return;
 			}
+			connections = (Connection[]) pendingSockets
+					.toArray(new Connection[pendingSockets.size()]);
+			pendingSockets.clear();
+		}
 
-			// return all the individual byte[]s
-			return (byte[][]) c.toArray(new byte[c.size()][]);
-		} catch (IOException e) {
-			return null;
-		} catch (ClassNotFoundException e) {
-			return null;
+		for (int i = 0; i < connections.length; i++) {
+			Connection connection = connections[i];
+			try {
+				connection.setKey(connection.getSocketChannel().register(
+						selector, SelectionKey.OP_READ, connection));
+				// the container may have read messages with the handshake
+				processIncomingMessages(connection);
+				if (connection.hasOutput()) {
+					write(connection);
+				}
+			} catch (ClassNotFoundException e) {
+				log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+						"Could not deserialize", e)); //$NON-NLS-1$
+				close(connection);
+			} catch (IOException e) {
+				log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+						"An IO error occurred", e)); //$NON-NLS-1$
+				close(connection);
+			}
 		}
 	}
 
 	/**
-	 * Fires message events to the specified listener for each of the message
-	 * that was received.
+	 * Creates and returns a message event corresponding to the specified
+	 * peer and the data that was read.
 	 * 
-	 * @param listener
-	 *            the listener to notify
-	 * @param socketChannel
-	 *            the socket that the message was read from
-	 * @param messages
-	 *            the messages that have been received
+	 * @param fromId
+	 *            the peer that the message was from
+	 * @param data
+	 *            the message from the remote peer
+	 * @return a message event describing the received message
 	 */
-	private void fireMessageEvents(IChannelListener listener,
-			SocketChannel socketChannel, byte[][] messages) {
-		for (int i = 0; i < messages.length; i++) {
-			IChannelEvent event = createMessageEvent(socketChannel, messages[i]);
-			if (event != null) {
-				fireChannelEvent(listener, event);
+	private IChannelEvent createMessageEvent(final ID fromId,
+			final byte[] data) {
+		return new IChannelMessageEvent() {
+			public byte[] getData() {
+				return data;
 			}
-		}
+
+			public ID getFromContainerID() {
+				return fromId;
+			}
+
+			public ID getChannelID() {
+				return id;
+			}
+
+			public String toString() {
+				StringBuffer buffer = new StringBuffer();
+				buffer.append("IChannelMessageEvent["); //$NON-NLS-1$
+				buffer.append("container=").append(fromId); //$NON-NLS-1$
+				buffer.append(",channel=").append(id); //$NON-NLS-1$
+				buffer.append(",data=").append(data).append(']'); //$NON-NLS-1$
+				return buffer.toString();
+			}
+		};
 	}
 
 	/**
@@ -510,52 +542,6 @@ public abstract class NIOChannel implements IChannel {
 		});
 	}
 
-	/**
-	 * Creates and returns a message event corresponding to the specified
-	 * channel and the data that was read.
-	 * 
-	 * @param channel
-	 *            the socket channel that the message was from
-	 * @param data
-	 *            the message from the remote peer
-	 * @return a message event describing the received message, may be
-	 *         <code>null</code> if the channel could not be identified
-	 */
-	private IChannelEvent createMessageEvent(SocketChannel channel,
-			final byte[] data) {
-		// search for the id of the corresponding channel
-		for (Iterator it = connectedSockets.entrySet().iterator(); it.hasNext();) {
-			Map.Entry entry = (Map.Entry) it.next();
-			if (channel == entry.getValue()) {
-				final ID fromId = (ID) entry.getKey();
-
-				return new IChannelMessageEvent() {
-					public byte[] getData() {
-						return data;
-					}
-
-					public ID getFromContainerID() {
-						return fromId;
-					}
-
-					public ID getChannelID() {
-						return id;
-					}
-
-					public String toString() {
-						StringBuffer buffer = new StringBuffer();
-						buffer.append("IChannelMessageEvent["); //$NON-NLS-1$
-						buffer.append("container=").append(fromId); //$NON-NLS-1$
-						buffer.append(",channel=").append(id); //$NON-NLS-1$
-						buffer.append(",data=").append(data).append(']'); //$NON-NLS-1$
-						return buffer.toString();
-					}
-				};
-			}
-		}
-		return null;
-	}
-
 	/**
 	 * Stores the specified ID with its corresponding socket into this channel.
 	 * The socket will now be actively used for reading and sending messages.
@@ -563,105 +549,59 @@ public abstract class NIOChannel implements IChannel {
 	 * @param id
 	 *            the target that the socket is connected with
 	 * @param socketChannel
-	 *            the socket channel to be stored
+	 *            the non-blocking socket channel to be stored, must not be
+	 *            registered with a selector
+	 * @param received
+	 *            data already read from the socket after the handshake, may
+	 *            be <code>null</code>
 	 */
-	void put(ID id, SocketChannel socketChannel) {
-		connectedSockets.put(id, socketChannel);
+	void put(ID id, SocketChannel socketChannel, byte[] received) {
+		Connection connection = new Connection(socketChannel);
+		connection.setPeerId(id);
+		connection.append(received);
+		synchronized (connectedSockets) {
+			connectedSockets.put(id, connection);
+		}
+		synchronized (pendingSockets) {
+			pendingSockets.add(connection);
+		}
+		selector.wakeup();
 	}
 
 	/**
-	 * Accept the socket as a potential client and attempt to handshake with it.
-	 * 
-	 * @param socketChannel
-	 *            the socket to establish a connection with
-	 * @throws ClassNotFoundException
-	 *             if the class of an object being deserialized could not be
-	 *             found
-	 * @throws IOException
-	 *             if a networking error occurs with the socket while
-	 *             reading/sending messages
-	 */
-	// private boolean accept2(SocketChannel socketChannel, ByteBuffer buffer)
-	// throws ClassNotFoundException, IOException {
-	// int read = socketChannel.read(buffer);
-	// buffer.flip();
-	// byte[] bytes = new byte[read];
-	// buffer.get(bytes);
-	// buffer.clear();
-	//
-	// ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(
-	// bytes));
-	// Object object = ois.readObject();
-	//
-	// if (object instanceof ID) {
-	// bytes = serialize(id);
-	// socketChannel.socket().getOutputStream().write(bytes);
-	//
-	// bytes = serialize(containerId);
-	// socketChannel.socket().getOutputStream().write(bytes);
-	// socketChannel.socket().getOutputStream().flush();
-	//
-	// socketChannel.configureBlocking(false);
-	// put((ID) object, socketChannel);
-	// }
-	// return true;
-	// }
-
-	/**
-	 * Performs a handshake with a remote peer via the provided socket channel
-	 * and returns whether <code>true</code> if no further attempts are
-	 * required. Note that <code>true</code> does not indicate that the
-	 * handshake has been successful.
-	 * <p>
-	 * For example, if the remote peer has closed this channel then
-	 * <code>true</code> would be returned as no further attempts should be
-	 * attempted.
-	 * </p>
+	 * Performs a handshake with a remote peer that has connected to this
+	 * channel. The peer sends its ID, and this channel responds with its own
+	 * ID and the ID of its container.
 	 * 
-	 * @param socketChannel
-	 *            the channel to use to handshake with the remote peer
-	 * @param buffer
-	 *            the buffer to use for reading and writing data from the
-	 *            channel
-	 * @return <code>true</code> if no further handshake attempts are required,
-	 *         <code>false</code> otherwise
+	 * @param connection
+	 *            the connection to handshake on
+	 * @return <code>true</code> if the handshake has completed,
+	 *         <code>false</code> if more data is needed or the connection
+	 *         has been closed
 	 * @throws ClassNotFoundException
 	 *             if deserialization failed during the handshake
 	 * @throws IOException
 	 *             if an IO error occurred while performing the handshake
 	 */
-	private boolean handshake(SocketChannel socketChannel, ByteBuffer buffer)
+	private boolean handshake(Connection connection)
 			throws ClassNotFoundException, IOException {
-		ChannelData data = Util.read(socketChannel, buffer);
-		if (!data.isOpen()) {
-			// this channel is dead, close it
-			Util.closeChannel(socketChannel);
-			return true;
+		Object object = connection.nextObject();
+		if (object == null) {
+			return false;
 		}
 
-		byte[] bytes = data.getData();
-		if (bytes == null) {
+		if (!(object instanceof ID)) {
+			close(connection);
 			return false;
 		}
 
-		ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(
-				bytes));
-		Object object = ois.readObject();
-
-		if (object instanceof ID) {
-			socketChannel.configureBlocking(true);
-			byte[] one = Util.serialize(id);
-			byte[] two = Util.serialize(containerId);
-			bytes = new byte[one.length + two.length];
-			System.arraycopy(one, 0, bytes, 0, one.length);
-			System.arraycopy(two, 0, bytes, one.length, two.length);
-
-			socketChannel.socket().getOutputStream().write(bytes);
-			socketChannel.socket().getOutputStream().flush();
-
-			socketChannel.configureBlocking(false);
-			put((ID) object, socketChannel);
+		connection.enqueue(Util.serialize(id));
+		connection.enqueue(Util.serialize(containerId));
+		connection.setPeerId((ID) object);
+		synchronized (connectedSockets) {
+			connectedSockets.put(object, connection);
 		}
+		write(connection);
 		return true;
 	}
 
@@ -725,7 +665,11 @@ public abstract class NIOChannel implements IChannel {
 		Assert.isNotNull(message, "Message cannot be null"); //$NON-NLS-1$
 
 		// check if we already have a socket for this receiver
-		if (!connectedSockets.containsKey(receiver)) {
+		boolean connected;
+		synchronized (connectedSockets) {
+			connected = connectedSockets.containsKey(receiver);
+		}
+		if (!connected) {
 			// send a request to the receiver for establishing a socket
 			// connection
 			sendRequest(receiver);
@@ -735,6 +679,7 @@ public abstract class NIOChannel implements IChannel {
 			// enqueue the message for processing
 			messages.add(new ChannelMessage(receiver, message));
 		}
+		selector.wakeup();
 	}
 
 	/**
@@ -760,8 +705,8 @@ public abstract class NIOChannel implements IChannel {
 			// close all connections
 			for (Iterator it = connectedSockets.values().iterator(); it
 					.hasNext();) {
-				SocketChannel socket = (SocketChannel) it.next();
-				Util.closeChannel(socket);
+				Connection connection = (Connection) it.next();
+				connection.close();
 			}
 
 			connectedSockets.clear();
@@ -794,52 +739,60 @@ public abstract class NIOChannel implements IChannel {
 	private final class ProcessingRunnable implements Runnable {
 
 		public void run() {
-			ByteBuffer buffer = ByteBuffer.allocate(1024);
-			while (true) {
-				try {
-					Thread.sleep(50);
-
-					if (Thread.currentThread().isInterrupted()) {
-						return;
-					}
-
-					// perform handshaking for any pending sockets
-					for (int i = 0; i < pendingSockets.size(); i++) {
-						SocketChannel channel = (SocketChannel) pendingSockets
-								.get(i);
-						if (handshake(channel, buffer)) {
-							// remove if handled
-							pendingSockets.remove(i);
-							i--;
+			ByteBuffer buffer = BufferPool.acquire();
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					try {
+						// block until a socket is ready, or until woken up
+						// for a new message or connection
+						selector.select();
+
+						registerPendingSockets();
+
+						// check if we have pending messages to send
+						synchronized (messages) {
+							if (!messages.isEmpty()) {
+								sendPendingMessages();
+							}
 						}
-					}
-
-					processIncomingMessages(buffer);
 
-					// check if we have pending messages to send
-					synchronized (messages) {
-						if (!messages.isEmpty()) {
-							sendPendingMessages();
+						for (Iterator it = selector.selectedKeys().iterator(); it
+								.hasNext();) {
+							SelectionKey key = (SelectionKey) it.next();
+							it.remove();
+
+							if (!key.isValid()) {
+								continue;
+							} else if (key.isAcceptable()) {
+								accept();
+								continue;
+							}
+
+							Connection connection = (Connection) key
+									.attachment();
+							if (key.isReadable()) {
+								read(connection, buffer);
+							}
+							if (key.isValid() && key.isWritable()) {
+								write(connection);
+							}
 						}
+					} catch (ClosedSelectorException e) {
+						return;
+					} catch (IOException e) {
+						log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+								"An IO error occurred", e)); //$NON-NLS-1$
+					} catch (RuntimeException e) {
+						log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+								"A runtime error occurred", e)); //$NON-NLS-1$
 					}
-
-					SocketChannel socketChannel = serverSocketChannel.accept();
-					if (socketChannel != null) {
-						socketChannel.configureBlocking(false);
-						pendingSockets.add(socketChannel);
-					}
-				} catch (InterruptedException e) {
-					Thread.interrupted();
-					return;
-				} catch (ClassNotFoundException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"Could not deserialize", e)); //$NON-NLS-1$
+				}
+			} finally {
+				BufferPool.release(buffer);
+				try {
+					selector.close();
 				} catch (IOException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"An IO error occurred", e)); //$NON-NLS-1$
-				} catch (RuntimeException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"A runtime error occurred", e)); //$NON-NLS-1$
+					// ignored
 				}
 			}
 		}
@@ -850,20 +803,10 @@ public abstract class NIOChannel implements IChannel {
 		private ID fromId;
 		private byte[] data;
 
-		ChannelMessage(ID fromId, byte[] data) throws ECFException {
+		ChannelMessage(ID fromId, byte[] data) {
 			this.fromId = fromId;
-			this.data = convert(data);
-		}
-
-		private byte[] convert(byte[] data) throws ECFException {
-			try {
-				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				ObjectOutputStream oos = new ObjectOutputStream(baos);
-				oos.writeObject(data);
-				return baos.toByteArray();
-			} catch (IOException e) {
-				throw new ECFException(e);
-			}
+			// copy, the message is sent later
+			this.data = (byte[]) data.clone();
 		}
 
 		public ID getId() {
@@ -12,11 +12,12 @@
  *****************************************************************************/
 package org.eclipse.ecf.provider.datashare.nio;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -91,13 +92,19 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 	 */
 	private Thread connectionThread;
 
+	/**
+	 * The selector of the connection thread, notifying it of connections that
+	 * have been established and of handshake responses.
+	 */
+	private Selector selector;
+
 	/**
 	 * A list of IP addresses that should be connected to.
 	 */
 	private LinkedList pendingConnections;
 
 	/**
-	 * A list of socket channels that needs to be processed for handshaking with
+	 * A list of connections that needs to be processed for handshaking with
 	 * the remote peer.
 	 */
 	private List pendingSockets;
@@ -281,19 +288,21 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 	}
 
 	private void disconnect() {
-		if (connectionThread != null) {
-			connectionThread.interrupt();
-			connectionThread = null;
-		}
-		
 		synchronized (pendingConnections) {
+			if (connectionThread != null) {
+				// interrupting also wakes up the selector
+				connectionThread.interrupt();
+				connectionThread = null;
+				selector = null;
+			}
+
 			pendingConnections.clear();
 		}
 		
 		synchronized (pendingSockets) {
 			for (int i = 0; i < pendingSockets.size(); i++) {
-				SocketChannel channel = (SocketChannel) pendingSockets.get(i);
-				Util.closeChannel(channel);
+				Connection connection = (Connection) pendingSockets.get(i);
+				connection.close();
 			}
 			
 			pendingSockets.clear();
@@ -321,35 +330,51 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 	}
 
 	/**
-	 * Attempts to connect to a remote address that has been enqueued to this
-	 * channel container for processing via the {@link #enqueue(SocketAddress)}
-	 * method.
+	 * Starts connecting to the remote addresses that have been enqueued to
+	 * this channel container for processing via the
+	 * {@link #enqueue(SocketAddress)} method. The ID of the parent container
+	 * is queued up to be sent as soon as a connection is established.
 	 * 
-	 * @param buffer
-	 *            the buffer to use for reading and writing data
-	 * @throws IOException
-	 *             if an IO error occurs while attempting to contact the peer
+	 * @param selector
+	 *            the selector to register the new sockets with
 	 */
-	private void connect(ByteBuffer buffer) throws IOException {
-		while (!pendingConnections.isEmpty()) {
-			// retrieve an IP address to connect to
-			SocketAddress remote = (SocketAddress) pendingConnections
-					.removeFirst();
-
-			// open a socket channel to the remote address
-			SocketChannel socketChannel = SocketChannel.open(remote);
-
-			byte[] bytes = Util.serialize(container.getConnectedID());
-			if (bytes == null) {
-				// serialization failed, close the socket
-				Util.closeChannel(socketChannel);
-				return;
+	private void connect(Selector selector) {
+		while (true) {
+			SocketAddress remote;
+			synchronized (pendingConnections) {
+				if (pendingConnections.isEmpty()) {
+					return;
+				}
+				// retrieve an IP address to connect to
+				remote = (SocketAddress) pendingConnections.removeFirst();
 			}
 
-			socketChannel.configureBlocking(false);
-			Util.write(socketChannel, buffer, bytes);
+			SocketChannel socketChannel = null;
+			try {
+				// open a socket channel to the remote address
+				socketChannel = SocketChannel.open();
+				socketChannel.configureBlocking(false);
+
+				Connection connection = new Connection(socketChannel);
+				connection.enqueue(Util.serialize(container.getConnectedID()));
+				synchronized (pendingSockets) {
+					pendingSockets.add(connection);
+				}
 
-			pendingSockets.add(socketChannel);
+				if (socketChannel.connect(remote)) {
+					connection.setKey(socketChannel.register(selector,
+							SelectionKey.OP_WRITE, connection));
+				} else {
+					connection.setKey(socketChannel.register(selector,
+							SelectionKey.OP_CONNECT, connection));
+				}
+			} catch (IOException e) {
+				log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+						"Could not connect to " + remote, e)); //$NON-NLS-1$
+				if (socketChannel != null) {
+					Util.closeChannel(socketChannel);
+				}
+			}
 		}
 	}
 
@@ -364,115 +389,128 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 	public void enqueue(SocketAddress address) {
 		Assert.isNotNull(address, "Socket address cannot be null"); //$NON-NLS-1$
 
-		if (connectionThread == null) {
-			connectionThread = new Thread(new ConnectionRunnable(), getClass()
-					.getName()
-					+ "Thread-" + container.getID().toString()); //$NON-NLS-1$
-			connectionThread.start();
-		}
+		synchronized (pendingConnections) {
+			if (connectionThread == null) {
+				try {
+					selector = Selector.open();
+				} catch (IOException e) {
+					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+							"Could not open selector", e)); //$NON-NLS-1$
+					return;
+				}
+				connectionThread = new Thread(new ConnectionRunnable(selector),
+						getClass().getName()
+								+ "Thread-" + container.getID().toString()); //$NON-NLS-1$
+				connectionThread.start();
+			}
 
-		pendingConnections.add(address);
+			pendingConnections.add(address);
+			selector.wakeup();
+		}
 	}
 
 	/**
-	 * Performs a handshake operation with the remote peer.
+	 * Performs a handshake operation with the remote peer. Once the remote
+	 * peer has responded with the channel's id and its own id, the socket is
+	 * handed over to the corresponding channel along with any messages that
+	 * have already been read.
 	 * 
-	 * @param socketChannel
-	 *            the socket channel to handshake with
-	 * @param data
-	 *            the data sent from the channel thus far
+	 * @param connection
+	 *            the connection to handshake with
+	 * @return <code>true</code> if the handshake has completed,
+	 *         <code>false</code> if the response is incomplete
 	 * @throws ClassNotFoundException
 	 *             if a deserialization error occurs
 	 * @throws IOException
-	 *             if an IO error occurs while reading or writing data
+	 *             if an IO error occurs while reading data
 	 */
-	private void handshake(SocketChannel socketChannel, ChannelData data)
+	private boolean handshake(Connection connection)
 			throws ClassNotFoundException, IOException {
-		// retrieve the data that was sent
-		byte[] message = data.getData();
-
-		// read in the response
-		ByteArrayInputStream bais = new ByteArrayInputStream(message);
-		ObjectInputStream ois = new ObjectInputStream(bais);
+		connection.mark();
+
+		// first response should be the channel id, each object is serialized
+		// separately
+		Object channelId = connection.nextObject();
+		// next id is the id of the remote user
+		Object peerId = channelId == null ? null : connection.nextObject();
+		if (peerId == null) {
+			// wait for the rest of the response
+			connection.reset();
+			return false;
+		}
 
-		// first response should be the channel id
-		ID channelId = (ID) ois.readObject();
+		// the socket is handed over to the channel's selector
+		connection.getKey().cancel();
+		synchronized (pendingSockets) {
+			pendingSockets.remove(connection);
+		}
 
 		synchronized (channels) {
 			// retrieve the channel that corresponds to that id
-			IChannel channel = getChannel(channelId);
-			if (channel == null) {
+			IChannel channel = channelId instanceof ID ? getChannel((ID) channelId)
+					: null;
+			if (channel == null || !(peerId instanceof ID)) {
 				// can't find a channel that corresponds to the id, close the
 				// socket
-				Util.closeChannel(socketChannel);
+				connection.close();
 			} else {
-				// open another ObjectInputStream because each object is
-				// serialized separately
-				ois = new ObjectInputStream(bais);
-
-				// next id is the id of the remote user
-				ID peerId = (ID) ois.readObject();
-
 				// store the peer id and the corresponding socket in the
-				// retrieved NIO channel
+				// retrieved NIO channel, if there are extra bytes that means
+				// this is data that the sender has sent to us, the channel
+				// must process these messages
 				NIOChannel datashare = (NIOChannel) channel;
-				datashare.put(peerId, socketChannel);
-
-				// check if we have any bytes left to read
-				int available = bais.available();
-				if (available != 0) {
-					// if there are extra bytes that means this is data that
-					// the sender has sent to us, we must process these messages
-					byte[] received = new byte[available];
-					// copy the remaining information
-					System.arraycopy(message, message.length - available,
-							received, 0, available);
-					// process the received data
-					datashare.processIncomingMessage(socketChannel, received);
-				}
+				datashare.put((ID) peerId, connection.getSocketChannel(),
+						connection.remaining());
 			}
 		}
+		return true;
 	}
 
 	/**
-	 * Processes any pending sockets that are currently queued up in this
-	 * channel container and is waiting to initiate the handshake process with
-	 * the remote peer.
+	 * Processes a socket that is waiting to initiate or complete the
+	 * handshake process with the remote peer.
 	 * 
+	 * @param key
+	 *            the selected key of the socket
 	 * @param buffer
-	 *            the buffer to use for reading and writing data
+	 *            the buffer to use for reading data
 	 * @throws ClassNotFoundException
-	 *             if a serialization or deserialization operation encountered
-	 *             errors
+	 *             if a deserialization operation encountered errors
 	 * @throws IOException
 	 *             if an IO error occurs while reading or writing data
 	 */
-	private void processPendingSockets(ByteBuffer buffer)
+	private void processPendingSocket(SelectionKey key, ByteBuffer buffer)
 			throws ClassNotFoundException, IOException {
-		for (int i = 0; i < pendingSockets.size(); i++) {
-			SocketChannel socketChannel = (SocketChannel) pendingSockets.get(i);
+		Connection connection = (Connection) key.attachment();
+		if (key.isConnectable()) {
+			if (!connection.getSocketChannel().finishConnect()) {
+				return;
+			}
+			key.interestOps(SelectionKey.OP_WRITE);
+		}
 
-			buffer.clear();
-			// read in the response
-			ChannelData data = Util.read(socketChannel, buffer);
-			if (!data.isOpen()) {
+		if (key.isWritable() || key.isConnectable()) {
+			if (connection.flush()) {
+				// the id has been sent, wait for the response
+				key.interestOps(SelectionKey.OP_READ);
+			}
+		} else if (key.isReadable()) {
+			if (!connection.read(buffer)) {
 				// the channel isn't open, we should close it on our end also
-				Util.closeChannel(socketChannel);
-				// remove this channel
-				pendingSockets.remove(i);
-				i--;
-			} else if (data.getData() != null) {
-				try {
-					handshake(socketChannel, data);
-				} finally {
-					// this socket has been processed, remove it
-					pendingSockets.remove(i);
-					i--;
-				}
+				close(connection);
+			} else {
+				handshake(connection);
 			}
 		}
 	}
 
+	private void close(Connection connection) {
+		synchronized (pendingSockets) {
+			pendingSockets.remove(connection);
+		}
+		connection.close();
+	}
+
 	/**
 	 * Creates a new NIO-capable channel within this container.
 	 * 
@@ -577,37 +615,58 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 
 	private class ConnectionRunnable implements Runnable {
 
-		public void run() {
-			ByteBuffer buffer = ByteBuffer.allocate(1024);
-			while (true) {
-				try {
-					buffer.clear();
+		private final Selector selector;
 
-					if (Thread.currentThread().isInterrupted()) {
-						return;
-					}
+		ConnectionRunnable(Selector selector) {
+			this.selector = selector;
+		}
 
-					synchronized (pendingConnections) {
-						if (!pendingConnections.isEmpty()) {
-							connect(buffer);
-						}	
+		public void run() {
+			ByteBuffer buffer = BufferPool.acquire();
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					try {
+						// block until a socket is ready, or until woken up
+						// for a new address
+						selector.select();
+
+						connect(selector);
+
+						for (Iterator it = selector.selectedKeys().iterator(); it
+								.hasNext();) {
+							SelectionKey key = (SelectionKey) it.next();
+							it.remove();
+							if (!key.isValid()) {
+								continue;
+							}
+							try {
+								processPendingSocket(key, buffer);
+							} catch (ClassNotFoundException e) {
+								log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+										"Could not deserialize", e)); //$NON-NLS-1$
+								close((Connection) key.attachment());
+							} catch (IOException e) {
+								log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+										"An IO error occurred", e)); //$NON-NLS-1$
+								close((Connection) key.attachment());
+							}
+						}
+					} catch (ClosedSelectorException e) {
+						return;
+					} catch (IOException e) {
+						log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+								"An IO error occurred", e)); //$NON-NLS-1$
+					} catch (RuntimeException e) {
+						log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+								"A runtime error occurred", e)); //$NON-NLS-1$
 					}
-
-					processPendingSockets(buffer);
-
-					Thread.sleep(50);
-				} catch (InterruptedException e) {
-					Thread.interrupted();
-					return;
-				} catch (ClassNotFoundException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"Could not deserialize", e)); //$NON-NLS-1$
+				}
+			} finally {
+				BufferPool.release(buffer);
+				try {
+					selector.close();
 				} catch (IOException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"An IO error occurred", e)); //$NON-NLS-1$
-				} catch (RuntimeException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"A runtime error occurred", e)); //$NON-NLS-1$
+					// ignored
 				}
 			}
 		}
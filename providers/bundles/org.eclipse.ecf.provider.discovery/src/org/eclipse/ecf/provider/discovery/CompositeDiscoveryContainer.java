@@ -14,6 +14,7 @@ package org.eclipse.ecf.provider.discovery;
 
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.*;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.core.ContainerConnectException;
 import org.eclipse.ecf.core.IContainer;
@@ -38,6 +39,7 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		 * @see org.eclipse.ecf.discovery.IServiceListener#serviceDiscovered(org.eclipse.ecf.discovery.IServiceEvent)
 		 */
 		public void serviceDiscovered(final IServiceEvent event) {
+			rememberService(event.getLocalContainerID(), event.getServiceInfo());
 			final Collection col = getListeners(event.getServiceInfo().getServiceID().getServiceTypeID());
 			if (!col.isEmpty()) {
 				for (final Iterator itr = col.iterator(); itr.hasNext();) {
@@ -58,6 +60,7 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		 * @see org.eclipse.ecf.discovery.IServiceListener#serviceUndiscovered(org.eclipse.ecf.discovery.IServiceEvent)
 		 */
 		public void serviceUndiscovered(final IServiceEvent event) {
+			forgetService(event.getLocalContainerID(), event.getServiceInfo());
 			final Collection col = getListeners(event.getServiceInfo().getServiceID().getServiceTypeID());
 			if (!col.isEmpty()) {
 				for (final Iterator itr = col.iterator(); itr.hasNext();) {
@@ -119,6 +122,29 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 
 	protected static final String METHODS_TRACING = Activator.PLUGIN_ID + "/debug/methods/tracing"; //$NON-NLS-1$
 
+	/**
+	 * Maximum number of threads querying child containers in parallel, shared
+	 * by all composite containers
+	 */
+	private static final int QUERY_THREADS = Integer.getInteger("org.eclipse.ecf.provider.discovery.queryThreads", 4).intValue(); //$NON-NLS-1$
+
+	private static ExecutorService queryExecutor;
+
+	/**
+	 * A query of a single child container. Queries with the same key return
+	 * the same result, so a pending one is waited for instead of running it
+	 * again.
+	 */
+	private abstract static class LocatorQuery {
+		final String key;
+
+		LocatorQuery(final String key) {
+			this.key = key;
+		}
+
+		abstract Object[] run(IDiscoveryLocator idca);
+	}
+
 	protected final CompositeContainerServiceListener ccsl = new CompositeContainerServiceListener();
 	protected final CompositeContainerServiceTypeListener ccstl = new CompositeContainerServiceTypeListener();
 
@@ -131,6 +157,51 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 
 	protected final Collection containers;
 
+	/**
+	 * The services last known from each child container, updated from query
+	 * results and discovery events.
+	 * 
+	 * Maps the container ID to a Map of IServiceID to IServiceInfo
+	 */
+	private final Map knownServices = new HashMap();
+
+	/**
+	 * The number of changes of the known services of each child container, so
+	 * that a query result does not replace changes made while it was running.
+	 * Guarded by knownServices.
+	 * 
+	 * Maps the container ID to a Long
+	 */
+	private final Map knownChanges = new HashMap();
+
+	/**
+	 * All known services wrapped with the ID of their child container, or
+	 * <code>null</code> after the known services changed. Guarded by
+	 * knownServices.
+	 */
+	private IServiceInfo[] mergedServices;
+
+	/**
+	 * The queries that are running or waiting for a thread, so that a child
+	 * that does not respond is not queried again and again.
+	 * 
+	 * Maps a List of the container ID and the query key to the Future
+	 */
+	private final Map pendingQueries = new HashMap();
+
+	/**
+	 * Query the child containers in parallel rather than one after the other,
+	 * so that a slow child does not delay the results of the others. Set to
+	 * false to query on the calling thread.
+	 */
+	private final boolean parallelQueries = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.discovery.parallelQueries", "true")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * Time in milliseconds a parallel query waits for a child container, after
+	 * which the services last known from it are used instead
+	 */
+	private final long queryTimeout = Long.getLong("org.eclipse.ecf.provider.discovery.queryTimeout", 5000).longValue(); //$NON-NLS-1$
+
 	private ID targetID;
 
 	/**
@@ -191,6 +262,11 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		synchronized (registeredServices) {
 			registeredServices.clear();
 		}
+		synchronized (knownServices) {
+			knownServices.clear();
+			knownChanges.clear();
+			mergedServices = null;
+		}
 		synchronized (allServiceListeners) {
 			allServiceListeners.clear();
 		}
@@ -310,24 +386,239 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		return new ServiceInfo(serviceId.getLocation(), aSi.getServiceName(), serviceTypeID, aSi.getPriority(), aSi.getWeight(), aSi.getServiceProperties());
 	}
 
+	private IDiscoveryLocator[] getLocators() {
+		synchronized (containers) {
+			return (IDiscoveryLocator[]) containers.toArray(new IDiscoveryLocator[containers.size()]);
+		}
+	}
+
+	private static synchronized ExecutorService getQueryExecutor() {
+		if (queryExecutor == null) {
+			final ThreadPoolExecutor executor = new ThreadPoolExecutor(QUERY_THREADS, QUERY_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue(), new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					final Thread thread = new Thread(r, "CompositeDiscoveryContainer query"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			executor.allowCoreThreadTimeOut(true);
+			queryExecutor = executor;
+		}
+		return queryExecutor;
+	}
+
+	/**
+	 * @return the pending query of the given child container, or a new one
+	 * that has been submitted
+	 */
+	private Future submit(final IDiscoveryLocator idca, final LocatorQuery query) {
+		final List key = Arrays.asList(new Object[] {((IContainer) idca).getID(), query.key});
+		synchronized (pendingQueries) {
+			final Future pending = (Future) pendingQueries.get(key);
+			if (pending != null && !pending.isDone()) {
+				return pending;
+			}
+			final FutureTask task = new FutureTask(new Callable() {
+				public Object call() throws Exception {
+					return query.run(idca);
+				}
+			}) {
+				protected void done() {
+					synchronized (pendingQueries) {
+						if (pendingQueries.get(key) == this) {
+							pendingQueries.remove(key);
+						}
+					}
+				}
+			};
+			pendingQueries.put(key, task);
+			getQueryExecutor().execute(task);
+			return task;
+		}
+	}
+
+	/**
+	 * Runs the query on each of the given child containers. The containers lock
+	 * is not held while the children are queried, so that a slow child does not
+	 * block other queries or the adding and removing of children.
+	 * 
+	 * With parallel queries enabled (the default), all children are queried at the same time
+	 * on a bounded pool and waited for up to queryTimeout milliseconds in
+	 * total. A child that still has the same query pending is not queried
+	 * again, the pending query is waited for instead.
+	 * 
+	 * @return the result of each child, or <code>null</code> for the children
+	 * that failed or did not respond in time
+	 */
+	private Object[][] query(final IDiscoveryLocator[] locators, final LocatorQuery query) {
+		final Object[][] results = new Object[locators.length][];
+		if (!parallelQueries || locators.length < 2) {
+			for (int i = 0; i < locators.length; i++) {
+				results[i] = query.run(locators[i]);
+			}
+			return results;
+		}
+
+		final Future[] futures = new Future[locators.length];
+		for (int i = 0; i < locators.length; i++) {
+			futures[i] = submit(locators[i], query);
+		}
+
+		final long deadline = System.currentTimeMillis() + queryTimeout;
+		for (int i = 0; i < futures.length; i++) {
+			try {
+				results[i] = (Object[]) futures[i].get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (final TimeoutException e) {
+				// the query keeps running, a late result still updates the known services
+				Trace.catching(Activator.PLUGIN_ID, METHODS_CATCHING, this.getClass(), "query", e); //$NON-NLS-1$
+			} catch (final ExecutionException e) {
+				Trace.catching(Activator.PLUGIN_ID, METHODS_CATCHING, this.getClass(), "query", e.getCause()); //$NON-NLS-1$
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @return the number of changes of the known services of the given child
+	 * container, to be passed to {@link #rememberServices(ID, IServiceInfo[], long)}
+	 * with the result of a query started now
+	 */
+	private long getChanges(final ID containerId) {
+		synchronized (knownServices) {
+			final Long changes = (Long) knownChanges.get(containerId);
+			if (changes == null) {
+				knownChanges.put(containerId, Long.valueOf(0));
+				return 0;
+			}
+			return changes.longValue();
+		}
+	}
+
+	private void changed(final ID containerId) {
+		final Long changes = (Long) knownChanges.get(containerId);
+		knownChanges.put(containerId, Long.valueOf(changes == null ? 1 : changes.longValue() + 1));
+		mergedServices = null;
+	}
+
+	/**
+	 * Adds the given services to the services known from a child container.
+	 * The merged view is only rebuilt if this changes the known services.
+	 * 
+	 * @param since the number of changes when the query that returned all
+	 * services of the child was started, or -1 if the services are not all.
+	 * The known services are replaced only if they did not change since, a
+	 * result that arrives after a discovery event or a newer query is merged
+	 * instead. The result of a child that has been removed meanwhile is
+	 * dropped.
+	 */
+	private void rememberServices(final ID containerId, final IServiceInfo[] services, final long since) {
+		synchronized (knownServices) {
+			final Long changes = (Long) knownChanges.get(containerId);
+			if (since >= 0 && changes == null) {
+				return;
+			}
+			final Map known = (Map) knownServices.get(containerId);
+			if (known == null || (changes != null && changes.longValue() == since)) {
+				final Map replaced = new HashMap();
+				for (int i = 0; i < services.length; i++) {
+					replaced.put(services[i].getServiceID(), services[i]);
+				}
+				if (!replaced.equals(known)) {
+					knownServices.put(containerId, replaced);
+					changed(containerId);
+				}
+				return;
+			}
+			boolean modified = false;
+			for (int i = 0; i < services.length; i++) {
+				if (!services[i].equals(known.put(services[i].getServiceID(), services[i]))) {
+					modified = true;
+				}
+			}
+			if (modified) {
+				changed(containerId);
+			}
+		}
+	}
+
+	private void rememberService(final ID containerId, final IServiceInfo service) {
+		if (containerId != null && service != null) {
+			rememberServices(containerId, new IServiceInfo[] {service}, -1);
+		}
+	}
+
+	private void forgetService(final ID containerId, final IServiceInfo service) {
+		if (containerId != null && service != null) {
+			synchronized (knownServices) {
+				final Map known = (Map) knownServices.get(containerId);
+				if (known != null && known.remove(service.getServiceID()) != null) {
+					changed(containerId);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the services last known from the given child container, of the
+	 * given type or all if the type is <code>null</code>
+	 */
+	private IServiceInfo[] getKnownServices(final ID containerId, final IServiceTypeID type) {
+		synchronized (knownServices) {
+			final Map known = (Map) knownServices.get(containerId);
+			if (known == null) {
+				return new IServiceInfo[0];
+			}
+			final List result = new ArrayList(known.size());
+			for (final Iterator itr = known.values().iterator(); itr.hasNext();) {
+				final IServiceInfo service = (IServiceInfo) itr.next();
+				if (type == null || type.equals(service.getServiceID().getServiceTypeID())) {
+					result.add(service);
+				}
+			}
+			return (IServiceInfo[]) result.toArray(new IServiceInfo[result.size()]);
+		}
+	}
+
+	/**
+	 * @return all known services of the child containers, wrapped with the ID
+	 * of their container. Built once after each change of the known services.
+	 */
+	private IServiceInfo[] getMergedServices() {
+		synchronized (knownServices) {
+			if (mergedServices == null) {
+				final List merged = new ArrayList();
+				for (final Iterator itr = knownServices.entrySet().iterator(); itr.hasNext();) {
+					final Map.Entry entry = (Map.Entry) itr.next();
+					final ID containerId = (ID) entry.getKey();
+					for (final Iterator itr2 = ((Map) entry.getValue()).values().iterator(); itr2.hasNext();) {
+						merged.add(new CompositeServiceInfoWrapper((IServiceInfo) itr2.next(), containerId));
+					}
+				}
+				mergedServices = (IServiceInfo[]) merged.toArray(new IServiceInfo[merged.size()]);
+			}
+			return (IServiceInfo[]) mergedServices.clone();
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.ecf.discovery.IDiscoveryContainerAdapter#getServices()
 	 */
 	public IServiceInfo[] getServices() {
-		final Set set = new HashSet();
-		synchronized (containers) {
-			for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-				final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
+		// each child replaces its known services with the result, a child
+		// that fails or misses the deadline keeps the services last known
+		query(getLocators(), new LocatorQuery("services") { //$NON-NLS-1$
+			Object[] run(IDiscoveryLocator idca) {
 				final ID containerId = ((IContainer) idca).getID();
+				final long since = getChanges(containerId);
 				final IServiceInfo[] services = idca.getServices();
-				for (int i = 0; i < services.length; i++) {
-					IServiceInfo iServiceInfo = services[i];
-					services[i] = new CompositeServiceInfoWrapper(iServiceInfo, containerId);
-				}
-				set.addAll(Arrays.asList(services));
+				rememberServices(containerId, services, since);
+				return services;
 			}
-		}
-		return (IServiceInfo[]) set.toArray(new IServiceInfo[set.size()]);
+		});
+		return getMergedServices();
 	}
 
 	/* (non-Javadoc)
@@ -336,12 +627,21 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 	public IServiceInfo[] getServices(final IServiceTypeID type) {
 		Assert.isNotNull(type);
 		final Set set = new HashSet();
-		synchronized (containers) {
-			for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-				final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
+		final IDiscoveryLocator[] locators = getLocators();
+		final Object[][] results = query(locators, new LocatorQuery("services " + type.getName()) { //$NON-NLS-1$
+			Object[] run(IDiscoveryLocator idca) {
 				final IServiceTypeID isti = getServiceTypeIDForDiscoveryContainer(type, idca);
 				final IServiceInfo[] services = idca.getServices(isti);
-				set.addAll(Arrays.asList(services));
+				rememberServices(((IContainer) idca).getID(), services, -1);
+				return services;
+			}
+		});
+		for (int i = 0; i < locators.length; i++) {
+			if (results[i] != null) {
+				set.addAll(Arrays.asList(results[i]));
+			} else {
+				final IServiceTypeID isti = getServiceTypeIDForDiscoveryContainer(type, locators[i]);
+				set.addAll(Arrays.asList(getKnownServices(((IContainer) locators[i]).getID(), isti)));
 			}
 		}
 		return (IServiceInfo[]) set.toArray(new IServiceInfo[set.size()]);
@@ -360,11 +660,21 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 	 */
 	public IServiceTypeID[] getServiceTypes() {
 		final Set set = new HashSet();
-		synchronized (containers) {
-			for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-				final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
-				final IServiceTypeID[] services = idca.getServiceTypes();
-				set.addAll(Arrays.asList(services));
+		final IDiscoveryLocator[] locators = getLocators();
+		final Object[][] results = query(locators, new LocatorQuery("types") { //$NON-NLS-1$
+			Object[] run(IDiscoveryLocator idca) {
+				return idca.getServiceTypes();
+			}
+		});
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] != null) {
+				set.addAll(Arrays.asList(results[i]));
+			} else {
+				// the types of the services last known from the child
+				final IServiceInfo[] services = getKnownServices(((IContainer) locators[i]).getID(), null);
+				for (int j = 0; j < services.length; j++) {
+					set.add(services[j].getServiceID().getServiceTypeID());
+				}
 			}
 		}
 		return (IServiceTypeID[]) set.toArray(new IServiceTypeID[set.size()]);
@@ -489,6 +799,12 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		final IDiscoveryLocator idca = (IDiscoveryLocator) object;
 		idca.removeServiceListener(ccsl);
 		idca.removeServiceTypeListener(ccstl);
+		synchronized (knownServices) {
+			knownChanges.remove(((IContainer) object).getID());
+			if (knownServices.remove(((IContainer) object).getID()) != null) {
+				mergedServices = null;
+			}
+		}
 		synchronized (containers) {
 			Trace.trace(Activator.PLUGIN_ID, METHODS_TRACING, this.getClass(), "removeContainer(Object)", "removeContainer " //$NON-NLS-1$ //$NON-NLS-2$
 					+ object.toString());
@@ -0,0 +1,120 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.dnssd;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.xbill.DNS.Cache;
+import org.xbill.DNS.Credibility;
+import org.xbill.DNS.DClass;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.Name;
+import org.xbill.DNS.Rcode;
+import org.xbill.DNS.Record;
+import org.xbill.DNS.Resolver;
+import org.xbill.DNS.ResolverListener;
+import org.xbill.DNS.SetResponse;
+
+/**
+ * Sends the queries for several names and types at the same time and adds the
+ * responses to a {@link Cache}. The records are then read with
+ * {@link org.xbill.DNS.Lookup}s on the same cache, which answer from memory
+ * instead of waiting for one round trip after the other.
+ * <p>
+ * Queries whose answer is still cached are not sent. A query that fails is
+ * simply not cached, so that the lookup sends it again and reports the error
+ * as before.
+ */
+class ConcurrentLookup implements ResolverListener {
+
+	private final Resolver resolver;
+	private final Cache cache;
+	private final int maxOutstanding;
+
+	// guarded by this
+	private int outstanding;
+
+	ConcurrentLookup(Resolver aResolver, Cache aCache, int aMaxOutstanding) {
+		resolver = aResolver;
+		cache = aCache;
+		maxOutstanding = Math.max(1, aMaxOutstanding);
+	}
+
+	/**
+	 * Queries all combinations of the given names and types that are not
+	 * cached yet, and returns once all of them have been answered or have
+	 * failed.
+	 *
+	 * @param names the names to query
+	 * @param types the record types to query for each name
+	 */
+	void prefetch(Name[] names, int[] types) {
+		final List queries = new ArrayList();
+		final Set seen = new HashSet();
+		for (int i = 0; i < names.length; i++) {
+			for (int j = 0; j < types.length; j++) {
+				if (seen.add(names[i] + "/" + types[j]) && !isCached(names[i], types[j])) { //$NON-NLS-1$
+					queries.add(Message.newQuery(Record.newRecord(names[i], types[j], DClass.IN)));
+				}
+			}
+		}
+		synchronized (this) {
+			try {
+				for (Iterator itr = queries.iterator(); itr.hasNext();) {
+					while (outstanding >= maxOutstanding) {
+						wait();
+					}
+					outstanding++;
+					resolver.sendAsync((Message) itr.next(), this);
+				}
+				while (outstanding > 0) {
+					wait();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private boolean isCached(Name name, int type) {
+		final SetResponse response = cache.lookupRecords(name, type, Credibility.NORMAL);
+		return response.isSuccessful() || response.isNXDOMAIN() || response.isNXRRSET();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.xbill.DNS.ResolverListener#receiveMessage(java.lang.Object, org.xbill.DNS.Message)
+	 */
+	public void receiveMessage(Object id, Message m) {
+		final int rcode = m.getRcode();
+		if (rcode == Rcode.NOERROR || rcode == Rcode.NXDOMAIN) {
+			cache.addMessage(m);
+		}
+		done();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.xbill.DNS.ResolverListener#handleException(java.lang.Object, java.lang.Exception)
+	 */
+	public void handleException(Object id, Exception e) {
+		done();
+	}
+
+	private synchronized void done() {
+		outstanding--;
+		notifyAll();
+	}
+}
@@ -236,8 +236,7 @@ public class DnsSdDiscoveryAdvertiser extends DnsSdDiscoveryContainerAdapter {
 		
 		//query for NS records
 		Lookup query = new Lookup(zone, Type.NS);
-		query.setResolver(resolver);
-		Record[] queryResult = query.run();
+		Record[] queryResult = run(query);
 		//TODO file bug upstream that queryResult may never be null
 		int length = queryResult == null ? 0 : queryResult.length;
 		for (int j = 0; j < length; j++) {
@@ -251,8 +250,7 @@ public class DnsSdDiscoveryAdvertiser extends DnsSdDiscoveryContainerAdapter {
 		
 		//query for primary ns in SOA record (may overwrite/be equal to one of the ns records)
 		query = new Lookup(zone, Type.SOA);
-		query.setResolver(resolver);
-		queryResult = query.run();
+		queryResult = run(query);
 		//TODO file bug upstream that queryResult may never be null
 		length = queryResult == null ? 0 : queryResult.length;
 		for (int j = 0; j < length; j++) {
@@ -17,8 +17,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -34,12 +36,17 @@ import org.eclipse.ecf.discovery.DiscoveryContainerConfig;
 import org.eclipse.ecf.discovery.IServiceInfo;
 import org.eclipse.ecf.discovery.identity.IServiceID;
 import org.eclipse.ecf.discovery.identity.IServiceTypeID;
+import org.xbill.DNS.Cache;
+import org.xbill.DNS.DClass;
 import org.xbill.DNS.Lookup;
 import org.xbill.DNS.Name;
 import org.xbill.DNS.PTRRecord;
+import org.xbill.DNS.RRset;
 import org.xbill.DNS.Record;
 import org.xbill.DNS.Resolver;
+import org.xbill.DNS.SOARecord;
 import org.xbill.DNS.SRVRecord;
+import org.xbill.DNS.SetResponse;
 import org.xbill.DNS.SimpleResolver;
 import org.xbill.DNS.TSIG;
 import org.xbill.DNS.Type;
@@ -47,14 +54,35 @@ import org.xbill.DNS.Type;
 public abstract class DnsSdDiscoveryContainerAdapter extends
 		AbstractDiscoveryContainerAdapter {
 
+	/**
+	 * System property with the maximum number of DNS queries sent at the same
+	 * time. The default of 1 sends one query after the other.
+	 */
+	private static final String CONCURRENT_LOOKUPS_PROP = "org.eclipse.ecf.provider.dnssd.concurrentLookups"; //$NON-NLS-1$
+
 	protected Resolver resolver;
 	protected DnsSdServiceTypeID targetID;
 
+	// TTL respecting cache for all lookups of this container, so that records
+	// from different resolvers are not mixed
+	final Cache recordCache = new RecordCache();
+
+	private final int maxConcurrentLookups = Integer.getInteger(CONCURRENT_LOOKUPS_PROP, 1).intValue();
+
 	public DnsSdDiscoveryContainerAdapter(String aNamespaceName,
 			DiscoveryContainerConfig aConfig) {
 		super(aNamespaceName, aConfig);
 	}
 
+	/**
+	 * @return the current time in milliseconds, against which the TTL of the
+	 *         cached records is checked
+	 * @since 1.3
+	 */
+	protected long getCurrentTime() {
+		return System.currentTimeMillis();
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.ecf.provider.dnssd.DnsSdDiscoveryLocator#getServiceInfo(org.eclipse.ecf.discovery.identity.IServiceID)
 	 */
@@ -139,6 +167,7 @@ public abstract class DnsSdDiscoveryContainerAdapter extends
 		fireContainerEvent(new ContainerDisconnectingEvent(this.getID(),
 				getConnectedID()));
 		targetID = null;
+		recordCache.clearCache();
 		fireContainerEvent(new ContainerDisconnectedEvent(this.getID(),
 				getConnectedID()));
 	}
@@ -189,9 +218,7 @@ public abstract class DnsSdDiscoveryContainerAdapter extends
 		final List result = new ArrayList();
 		final Lookup[] queries = serviceTypeId.getInternalQueries();
 		for (int i = 0; i < queries.length; i++) {
-			final Lookup query = queries[i];
-			query.setResolver(resolver);
-			final Record[] queryResult = query.run();
+			final Record[] queryResult = run(queries[i]);
 			if(queryResult != null) {
 				result.addAll(Arrays.asList(queryResult));
 			}
@@ -213,19 +240,20 @@ public abstract class DnsSdDiscoveryContainerAdapter extends
 
 	protected SortedSet getSRVRecord(Lookup query, Comparator aComparator) {
 		final SortedSet srvRecords = new TreeSet(aComparator);
-		query.setResolver(resolver);
-		final Record[] queryResult = query.run();
+		final Record[] queryResult = run(query);
 		//TODO file bug upstream that queryResult may never be null
 		final int length = queryResult == null ? 0 : queryResult.length;
+		prefetchTargets(queryResult, Type.SRV);
 		for (int j = 0; j < length; j++) {
 			Record[] srvQueryResult = null;
 			final Record record = queryResult[j];
 			if(record instanceof PTRRecord) {
 				final PTRRecord ptrRecord = (PTRRecord) record;
 				final Name target = ptrRecord.getTarget();
-				final Lookup srvQuery = new Lookup(target, Type.SRV);
-				srvQuery.setResolver(resolver);
-				srvQueryResult = srvQuery.run();
+				srvQueryResult = run(new Lookup(target, Type.SRV));
+				if(srvQueryResult == null) {
+					srvQueryResult = new SRVRecord[0];
+				}
 			} else if (record instanceof SRVRecord) {
 				srvQueryResult = new SRVRecord[]{(SRVRecord) record};
 			} else {
@@ -237,6 +265,111 @@ public abstract class DnsSdDiscoveryContainerAdapter extends
 		return srvRecords;
 	}
 
+	/**
+	 * Runs the query with this container's resolver and record cache.
+	 * 
+	 * @param query the query to run
+	 * @return the records found, may be <code>null</code>
+	 */
+	Record[] run(final Lookup query) {
+		query.setResolver(resolver);
+		query.setCache(recordCache);
+		return query.run();
+	}
+
+	/**
+	 * Sends the queries for the given names and types at the same time, if
+	 * enabled, so that {@link #run(Lookup)} answers them from the record cache
+	 * afterwards.
+	 * 
+	 * @param names the names to look up
+	 * @param types the record types to look up for each name
+	 */
+	void prefetch(final Name[] names, final int[] types) {
+		if(maxConcurrentLookups > 1 && names.length * types.length > 1) {
+			new ConcurrentLookup(resolver, recordCache, maxConcurrentLookups).prefetch(names, types);
+		}
+	}
+
+	private void prefetchTargets(final Record[] records, final int type) {
+		if(records == null) {
+			return;
+		}
+		final List targets = new ArrayList();
+		for (int i = 0; i < records.length; i++) {
+			if(records[i] instanceof PTRRecord) {
+				targets.add(((PTRRecord) records[i]).getTarget());
+			}
+		}
+		prefetch((Name[]) targets.toArray(new Name[targets.size()]), new int[] {type});
+	}
+
+	/**
+	 * Expires the cached records by {@link DnsSdDiscoveryContainerAdapter#getCurrentTime()}
+	 * in addition to the system clock, against which dnsjava checks them.
+	 */
+	private class RecordCache extends Cache {
+
+		// maps a List of the name and type to the time the records expire at
+		private final Map expiries = new HashMap();
+
+		RecordCache() {
+			super(DClass.IN);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.xbill.DNS.Cache#addRRset(org.xbill.DNS.RRset, int)
+		 */
+		public synchronized void addRRset(RRset rrset, int cred) {
+			super.addRRset(rrset, cred);
+			setTTL(rrset.getName(), rrset.getType(), rrset.getTTL());
+		}
+
+		/* (non-Javadoc)
+		 * @see org.xbill.DNS.Cache#addNegative(org.xbill.DNS.Name, int, org.xbill.DNS.SOARecord, int)
+		 */
+		public synchronized void addNegative(Name name, int type, SOARecord soa, int cred) {
+			super.addNegative(name, type, soa, cred);
+			setTTL(name, type, soa == null ? 0 : Math.min(soa.getMinimum(), soa.getTTL()));
+		}
+
+		/* (non-Javadoc)
+		 * @see org.xbill.DNS.Cache#lookupRecords(org.xbill.DNS.Name, int, int)
+		 */
+		public synchronized SetResponse lookupRecords(Name name, int type, int minCred) {
+			// a name that does not exist is cached with type 0
+			expire(name, type);
+			expire(name, 0);
+			return super.lookupRecords(name, type, minCred);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.xbill.DNS.Cache#clearCache()
+		 */
+		public synchronized void clearCache() {
+			super.clearCache();
+			expiries.clear();
+		}
+
+		private void setTTL(Name name, int type, long ttl) {
+			final List key = Arrays.asList(new Object[] {name, Integer.valueOf(type)});
+			if (ttl > 0) {
+				expiries.put(key, Long.valueOf(getCurrentTime() + ttl * 1000));
+			} else {
+				expiries.remove(key);
+			}
+		}
+
+		private void expire(Name name, int type) {
+			final List key = Arrays.asList(new Object[] {name, Integer.valueOf(type)});
+			final Long expiry = (Long) expiries.get(key);
+			if (expiry != null && getCurrentTime() >= expiry.longValue()) {
+				expiries.remove(key);
+				flushSet(name, type);
+			}
+		}
+	}
+
 	// compares SRV records based on priority and weight
 	protected class SRVRecordComparator implements Comparator {
 
@@ -284,6 +417,7 @@ public abstract class DnsSdDiscoveryContainerAdapter extends
 	public void setResolver(String aResolver) {
 		try {
 			resolver = new SimpleResolver(aResolver);
+			recordCache.clearCache();
 		} catch (UnknownHostException e) {
 			throw new DnsSdDiscoveryException(e);
 		}
@@ -135,6 +135,13 @@ public class DnsSdDiscoveryLocator extends DnsSdDiscoveryContainerAdapter {
 	
 	private List getServiceInfos(Collection srvQueryResult) {
 		List infos = new ArrayList();
+		// query for the attributes of all services at once
+		Name[] names = new Name[srvQueryResult.size()];
+		int i = 0;
+		for (Iterator iterator = srvQueryResult.iterator(); iterator.hasNext();) {
+			names[i++] = ((Record) iterator.next()).getName();
+		}
+		prefetch(names, new int[] {Type.TXT});
 		for (Iterator iterator = srvQueryResult.iterator(); iterator.hasNext();) {
 			SRVRecord srvRecord = (SRVRecord) iterator.next();
 			long ttl = srvRecord.getTTL();
@@ -149,9 +156,7 @@ public class DnsSdDiscoveryLocator extends DnsSdDiscoveryContainerAdapter {
 			
 			// query for txt records (attributes)
 			Properties props = new Properties();
-			Lookup txtQuery = new Lookup(srvRecord.getName(), Type.TXT);
-			txtQuery.setResolver(resolver);
-			Record[] txtQueryResults = txtQuery.run();
+			Record[] txtQueryResults = run(new Lookup(srvRecord.getName(), Type.TXT));
 			int length = txtQueryResults == null ? 0 : txtQueryResults.length;
 			for (int l = 0; l < length; l++) {
 				TXTRecord txtResult = (TXTRecord) txtQueryResults[l];
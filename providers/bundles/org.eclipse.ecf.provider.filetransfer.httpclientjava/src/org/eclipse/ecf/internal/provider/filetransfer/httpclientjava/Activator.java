@@ -101,6 +101,10 @@ public class Activator implements BundleActivator {
 
 	private static final String USE_SHARED_CLIENT_DEFAULT = "true"; //$NON-NLS-1$
 
+	public static final String USE_CLIENT_POOL = PLUGIN_ID + ".clientPool"; //$NON-NLS-1$
+
+	private static final String USE_CLIENT_POOL_DEFAULT = "false"; //$NON-NLS-1$
+
 	// The shared instance
 	private static Activator plugin;
 	private BundleContext context = null;
@@ -119,6 +123,10 @@ public class Activator implements BundleActivator {
 
 	private boolean useSharedClient;
 
+	private boolean useClientPool;
+
+	private final HttpClientPool httpClientPool = new HttpClientPool();
+
 	/**
 	 * The constructor
 	 */
@@ -135,6 +143,7 @@ public class Activator implements BundleActivator {
 		plugin = this;
 		this.context = ctxt;
 		useSharedClient = Boolean.parseBoolean(System.getProperty(USE_SHARED_CLIENT, USE_SHARED_CLIENT_DEFAULT));
+		useClientPool = Boolean.parseBoolean(System.getProperty(USE_CLIENT_POOL, USE_CLIENT_POOL_DEFAULT));
 		applyDebugOptions(ctxt);
 	}
 
@@ -178,6 +187,7 @@ public class Activator implements BundleActivator {
 		if (ntlmProxyHandlerTracker != null) {
 			ntlmProxyHandlerTracker.close();
 		}
+		httpClientPool.clear();
 		this.context = null;
 		plugin = null;
 	}
@@ -206,6 +216,18 @@ public class Activator implements BundleActivator {
 		return useSharedClient;
 	}
 
+	public boolean isUseClientPool() {
+		return useClientPool;
+	}
+
+	/**
+	 * @return the pool of the clients used if {@link #isUseClientPool()}, which
+	 *         also keeps the reuse statistics
+	 */
+	public HttpClientPool getHttpClientPool() {
+		return httpClientPool;
+	}
+
 	public void log(IStatus status) {
 		LogService logService = getLogService();
 		if (logService != null) {
@@ -262,7 +284,7 @@ public class Activator implements BundleActivator {
 				service = registerHttpClient();
 			}
 		} else {
-			service = getHttpClientFactory().newClient().build();
+			service = newHttpClient();
 		}
 		return service;
 	}
@@ -280,11 +302,18 @@ public class Activator implements BundleActivator {
 				service = registerHttpClient();
 			}
 		} else {
-			service = getHttpClientFactory().newClient().build();
+			service = newHttpClient();
 		}
 		return service;
 	}
 
+	private HttpClient newHttpClient() {
+		if (isUseClientPool()) {
+			return httpClientPool.getClient(getHttpClientFactory(), getModifierIds());
+		}
+		return getHttpClientFactory().newClient().build();
+	}
+
 	private HttpClient registerHttpClient() {
 		HttpClient client = getHttpClientFactory().newClient().build();
 
@@ -323,6 +352,14 @@ public class Activator implements BundleActivator {
 		return modifiedValue;
 	}
 
+	private List<Long> getModifierIds() {
+		List<Long> ids = new ArrayList<Long>();
+		for (ServiceReference<IHttpClientModifier> serviceReference : getModifierReferences()) {
+			ids.add((Long) serviceReference.getProperty(Constants.SERVICE_ID));
+		}
+		return ids;
+	}
+
 	private List<ServiceReference<IHttpClientModifier>> getModifierReferences() {
 		Collection<ServiceReference<IHttpClientModifier>> serviceReferences;
 		try {
@@ -16,6 +16,7 @@ package org.eclipse.ecf.internal.provider.filetransfer.httpclientjava;
 import java.net.Authenticator;
 import java.net.http.HttpClient;
 import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
 import java.net.http.HttpRequest;
 import java.time.Duration;
 import java.util.Arrays;
@@ -46,6 +47,8 @@ public class ECFHttpClientFactory implements IHttpClientFactory {
 	public HttpClient.Builder newClient() {
 
 		HttpClient.Builder builder = HttpClient.newBuilder().followRedirects(Redirect.NORMAL);
+		// HTTP/2 is used where the server supports it, otherwise the client falls back to HTTP/1.1
+		builder.version(HttpClientOptions.HTTP2_ENABLED ? Version.HTTP_2 : Version.HTTP_1_1);
 		builder = Activator.getDefault().runModifiers(builder, new ModifierRunner<HttpClient.Builder>() {
 			@Override
 			public HttpClient.Builder run(IHttpClientModifier modifier, HttpClient.Builder value) {
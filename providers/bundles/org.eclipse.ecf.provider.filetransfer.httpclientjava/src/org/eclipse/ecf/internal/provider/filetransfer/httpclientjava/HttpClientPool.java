@@ -0,0 +1,177 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.internal.provider.filetransfer.httpclientjava;
+
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+
+import org.eclipse.ecf.core.util.Trace;
+import org.eclipse.ecf.internal.provider.filetransfer.DebugOptions;
+
+/**
+ * Hands out one long-lived {@link HttpClient} to all browse and retrieve
+ * operations, so that they share the connections of the client instead of
+ * opening and handshaking new ones for every operation. With HTTP/2 the
+ * requests to one server are multiplexed over a single connection.
+ * <p>
+ * The client is built for a configuration made up of the client factory, the
+ * {@link IHttpClientModifier} services and the JRE default proxy selector and
+ * SSL context, which a client captures when it is built. When any of them
+ * changes, the next operation gets a new client, and the previous one is
+ * released once the operations using it are done.
+ * <p>
+ * The client never gets an authenticator from the pool. Credentials of an
+ * operation stay in the {@link IHttpClientContext} of that operation, so
+ * operations with different credentials can safely share the client.
+ * <p>
+ * The JDK client does not tell whether a request went over a new or an open
+ * connection, so the pool cannot count actual connection reuse. It counts the
+ * clients it builds and hands out again, and the responses received by its
+ * clients by protocol version. Responses from clients the pool did not build
+ * are not counted.
+ */
+@SuppressWarnings("restriction")
+public class HttpClientPool {
+
+	private Key key;
+	private HttpClient client;
+
+	// the clients built by the pool, including previous ones still in use
+	private final Set<HttpClient> built = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	private final AtomicLong created = new AtomicLong();
+	private final AtomicLong reused = new AtomicLong();
+	private final AtomicLong http2Responses = new AtomicLong();
+	private final AtomicLong http11Responses = new AtomicLong();
+
+	public synchronized HttpClient getClient(IHttpClientFactory factory, List<Long> modifierIds) {
+		Key current = new Key(factory, modifierIds, ProxySelector.getDefault(), getDefaultSSLContext());
+		if (client != null && current.equals(key)) {
+			reused.incrementAndGet();
+			return client;
+		}
+		client = factory.newClient().build();
+		key = current;
+		built.add(client);
+		created.incrementAndGet();
+		Trace.trace(Activator.PLUGIN_ID, "new pooled client version=" + client.version() + " " + this); //$NON-NLS-1$ //$NON-NLS-2$
+		return client;
+	}
+
+	private static SSLContext getDefaultSSLContext() {
+		try {
+			return SSLContext.getDefault();
+		} catch (NoSuchAlgorithmException e) {
+			Trace.catching(Activator.PLUGIN_ID, DebugOptions.EXCEPTIONS_CATCHING, HttpClientPool.class, "getDefaultSSLContext", e); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	/**
+	 * Counts a response by its protocol version if the client was built by the
+	 * pool. HTTP/2 responses from one client to one server are multiplexed
+	 * over a single connection, but the counts are no measure of how often an
+	 * open connection was actually reused.
+	 *
+	 * @param httpClient the client that sent the request
+	 * @param response the response received
+	 */
+	public void responseReceived(HttpClient httpClient, HttpResponse<?> response) {
+		if (!built.contains(httpClient)) {
+			return;
+		}
+		if (response.version() == HttpClient.Version.HTTP_2) {
+			http2Responses.incrementAndGet();
+		} else {
+			http11Responses.incrementAndGet();
+		}
+	}
+
+	public synchronized void clear() {
+		client = null;
+		key = null;
+		built.clear();
+	}
+
+	/**
+	 * @return the number of clients built by the pool
+	 */
+	public long getClientsCreated() {
+		return created.get();
+	}
+
+	/**
+	 * @return the number of operations that got a client built before
+	 */
+	public long getClientsReused() {
+		return reused.get();
+	}
+
+	/**
+	 * @return the number of HTTP/2 responses received by pooled clients
+	 */
+	public long getHttp2Responses() {
+		return http2Responses.get();
+	}
+
+	/**
+	 * @return the number of HTTP/1.1 responses received by pooled clients
+	 */
+	public long getHttp11Responses() {
+		return http11Responses.get();
+	}
+
+	@Override
+	public String toString() {
+		return "HttpClientPool[created=" + created + ",reused=" + reused + ",http2Responses=" + http2Responses //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ",http11Responses=" + http11Responses + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static final class Key {
+		private final IHttpClientFactory factory;
+		private final List<Long> modifierIds;
+		private final ProxySelector proxySelector;
+		private final SSLContext sslContext;
+
+		Key(IHttpClientFactory factory, List<Long> modifierIds, ProxySelector proxySelector, SSLContext sslContext) {
+			this.factory = factory;
+			this.modifierIds = modifierIds;
+			this.proxySelector = proxySelector;
+			this.sslContext = sslContext;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return factory == other.factory && modifierIds.equals(other.modifierIds) && proxySelector == other.proxySelector && sslContext == other.sslContext;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(factory, modifierIds, proxySelector, sslContext);
+		}
+	}
+}
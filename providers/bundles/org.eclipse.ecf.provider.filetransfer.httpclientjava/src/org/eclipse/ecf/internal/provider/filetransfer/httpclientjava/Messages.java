@@ -37,6 +37,8 @@ public class Messages extends NLS {
 	public static String HttpClientRetrieveFileTransfer_INVALID_LAST_MODIFIED_TIME;
 	public static String HttpClientRetrieveFileTransfer_INVALID_SERVER_RESPONSE_TO_PARTIAL_RANGE_REQUEST;
 	public static String HttpClientRetrieveFileTransfer_RESUME_START_ERROR;
+	public static String HttpClientRetrieveFileTransfer_SEGMENT_RANGE_NOT_RETURNED;
+	public static String HttpClientRetrieveFileTransfer_SEGMENT_INCOMPLETE;
 
 	static {
 		// initialize resource bundle
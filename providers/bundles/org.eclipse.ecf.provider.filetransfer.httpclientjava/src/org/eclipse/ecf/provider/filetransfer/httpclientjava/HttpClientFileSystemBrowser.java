@@ -259,6 +259,7 @@ public class HttpClientFileSystemBrowser extends AbstractFileSystemBrowser {
 
 			asyncRequest = httpClient.sendAsync(request, BodyHandlers.discarding());
 			HttpResponse<Void> response = asyncRequest.join();
+			Activator.getDefault().getHttpClientPool().responseReceived(httpClient, response);
 			code = response.statusCode();
 
 			Trace.trace(Activator.PLUGIN_ID, "browse resp=" + code); //$NON-NLS-1$
@@ -30,6 +30,23 @@ public interface HttpClientOptions {
 	int RETRIEVE_DEFAULT_READ_TIMEOUT = Integer.parseInt(System.getProperty(RETRIEVE_READ_TIMEOUT_PROP, "120000")); //$NON-NLS-1$
 	int BROWSE_DEFAULT_CONNECTION_TIMEOUT = Integer.parseInt(System.getProperty(BROWSE_CONNECTION_TIMEOUT_PROP, "120000")); //$NON-NLS-1$
 
+	// The number of connections used to download a single file with range
+	// requests, 1 to download over a single connection. Also accepted as a
+	// retrieve option.
+	String RETRIEVE_SEGMENTS_PROP = "org.eclipse.ecf.provider.filetransfer.httpclientjava.retrieve.segments"; //$NON-NLS-1$
+	// The minimum number of bytes downloaded by one connection of a segmented
+	// download
+	String RETRIEVE_MIN_SEGMENT_SIZE_PROP = "org.eclipse.ecf.provider.filetransfer.httpclientjava.retrieve.minSegmentSize"; //$NON-NLS-1$
+
+	int RETRIEVE_DEFAULT_SEGMENTS = Integer.parseInt(System.getProperty(RETRIEVE_SEGMENTS_PROP, "1")); //$NON-NLS-1$
+	int RETRIEVE_DEFAULT_MIN_SEGMENT_SIZE = Integer.parseInt(System.getProperty(RETRIEVE_MIN_SEGMENT_SIZE_PROP, "4194304")); //$NON-NLS-1$
+
+	// Set to false to send all requests with HTTP/1.1 instead of negotiating
+	// HTTP/2 with servers that support it
+	String HTTP2_PROP = "org.eclipse.ecf.provider.filetransfer.httpclientjava.http2"; //$NON-NLS-1$
+
+	boolean HTTP2_ENABLED = Boolean.parseBoolean(System.getProperty(HTTP2_PROP, "true")); //$NON-NLS-1$
+
 	int NTLM_PROXY_RESPONSE_CODE = 477;
 	String FORCE_NTLM_PROP = "org.eclipse.ecf.provider.filetransfer.httpclient4.options.ForceNTLMProxy"; //$NON-NLS-1$
 
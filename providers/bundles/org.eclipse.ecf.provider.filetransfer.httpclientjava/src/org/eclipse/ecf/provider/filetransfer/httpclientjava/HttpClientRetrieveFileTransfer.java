@@ -18,9 +18,12 @@
  *****************************************************************************/
 package org.eclipse.ecf.provider.filetransfer.httpclientjava;
 
+import java.io.EOFException;
+import java.io.File;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.net.Authenticator;
 import java.net.HttpURLConnection;
 import java.net.URI;
@@ -30,11 +33,20 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.Builder;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.zip.GZIPInputStream;
 
@@ -96,6 +108,14 @@ public class HttpClientRetrieveFileTransfer extends AbstractRetrieveFileTransfer
 
 	private static final String RANGE = "Range";
 
+	private static final String IF_RANGE = "If-Range";
+
+	private static final String ACCEPT_RANGES_HEADER = "Accept-Ranges";
+
+	private static final String CONTENT_RANGE_HEADER = "Content-Range";
+
+	private static final String ETAG_HEADER = "ETag";
+
 	private static final String USERNAME_PREFIX = Messages.HttpClientRetrieveFileTransfer_Username_Prefix;
 
 	protected static final int HTTP_PORT = 80;
@@ -141,6 +161,14 @@ public class HttpClientRetrieveFileTransfer extends AbstractRetrieveFileTransfer
 
 	private HttpRequest httpRequest;
 
+	// number of connections for the current download, 1 if not segmented
+	private int segments = 1;
+
+	// file that a segmented download is written to, null if not segmented
+	private File segmentedFile;
+
+	private final Set<InputStream> segmentStreams = new HashSet<>();
+
 	public HttpClientRetrieveFileTransfer(HttpClient client) {
 		Assert.isNotNull(client);
 		this.httpClient = client;
@@ -183,6 +211,7 @@ public class HttpClientRetrieveFileTransfer extends AbstractRetrieveFileTransfer
 			httpResponse.cancel(true);
 		}
 		hardClose();
+		closeSegmentStreams();
 		if (fireDoneEvent) {
 			fireTransferReceiveDoneEvent();
 		}
@@ -270,6 +299,8 @@ public class HttpClientRetrieveFileTransfer extends AbstractRetrieveFileTransfer
 		clearProxy();
 		httpRequest = null;
 		requestConfigBuilder = null;
+		segments = 1;
+		segmentedFile = null;
 
 		super.resetDoneAndException();
 	}
@@ -595,6 +626,7 @@ public class HttpClientRetrieveFileTransfer extends AbstractRetrieveFileTransfer
 					}
 				}
 				setInputStream(body);
+				segments = getSegmentCount(code, response);
 				fireReceiveStartEvent();
 			} else if (code == HttpURLConnection.HTTP_NOT_FOUND) {
 				consume(httpResponse);
@@ -765,7 +797,8 @@ public class HttpClientRetrieveFileTransfer extends AbstractRetrieveFileTransfer
 	 */
 	@Override
 	protected boolean doPause() {
-		if (isPaused() || !isConnected() || isDone())
+		// a segmented download cannot be resumed from bytesReceived
+		if (isPaused() || !isConnected() || isDone() || segmentedFile != null)
 			return false;
 		this.paused = true;
 		return this.paused;
@@ -1002,7 +1035,9 @@ public class HttpClientRetrieveFileTransfer extends AbstractRetrieveFileTransfer
 			if (monitor.isCanceled())
 				throw newUserCancelledException();
 			httpResponse = httpClient.sendAsync(httpRequest, BodyHandlers.ofInputStream());
-			responseCode = httpResponse.get(getConnectTimeout(),TimeUnit.MILLISECONDS).statusCode();
+			HttpResponse<InputStream> response = httpResponse.get(getConnectTimeout(),TimeUnit.MILLISECONDS);
+			Activator.getDefault().getHttpClientPool().responseReceived(httpClient, response);
+			responseCode = response.statusCode();
 		} catch (final Exception e) {
 			Trace.catching(Activator.PLUGIN_ID, DebugOptions.EXCEPTIONS_CATCHING, this.getClass(), "performConnect", e); //$NON-NLS-1$
 			if (!isDone()) {
@@ -1015,6 +1050,247 @@ public class HttpClientRetrieveFileTransfer extends AbstractRetrieveFileTransfer
 
 	}
 
+	private int getIntOption(String key, int defaultValue) {
+		Map<?, ?> localOptions = getOptions();
+		if (localOptions != null) {
+			Object o = localOptions.get(key);
+			if (o instanceof Number) {
+				return ((Number) o).intValue();
+			} else if (o instanceof String) {
+				try {
+					return Integer.parseInt(((String) o).trim());
+				} catch (NumberFormatException e) {
+					Trace.catching(Activator.PLUGIN_ID, DebugOptions.EXCEPTIONS_CATCHING, HttpClientRetrieveFileTransfer.class, "getIntOption", e); //$NON-NLS-1$
+				}
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * @return int the number of connections to download the file of the
+	 *         given response with, 1 if it cannot or should not be segmented
+	 */
+	private int getSegmentCount(int code, HttpResponse<InputStream> response) {
+		int maxSegments = getIntOption(HttpClientOptions.RETRIEVE_SEGMENTS_PROP, HttpClientOptions.RETRIEVE_DEFAULT_SEGMENTS);
+		long minSegmentSize = Math.max(1, getIntOption(HttpClientOptions.RETRIEVE_MIN_SEGMENT_SIZE_PROP, HttpClientOptions.RETRIEVE_DEFAULT_MIN_SEGMENT_SIZE));
+		if (maxSegments <= 1 || code != HttpURLConnection.HTTP_OK || getFileRangeSpecification() != null)
+			return 1;
+		HttpHeaders headers = response.headers();
+		// ranges refer to the encoded content, so only identity content can
+		// be split up
+		String contentEncoding = headers.firstValue(CONTENT_ENCODING_HEADER).orElse(IDENTITY_ENCODING);
+		if (!IDENTITY_ENCODING.equalsIgnoreCase(contentEncoding))
+			return 1;
+		if (!"bytes".equalsIgnoreCase(headers.firstValue(ACCEPT_RANGES_HEADER).orElse(null))) //$NON-NLS-1$
+			return 1;
+		long count = Math.min(maxSegments, fileLength / minSegmentSize);
+		return (count > 1) ? (int) count : 1;
+	}
+
+	@Override
+	protected void setOutputFile(File localFileToSave) throws IOException {
+		if (segments > 1) {
+			// written with positional writes by the segmented transfer
+			segmentedFile = localFileToSave;
+			return;
+		}
+		super.setOutputFile(localFileToSave);
+	}
+
+	@Override
+	protected IFileTransferRunnable getFileTransferRunnable() {
+		return (segmentedFile != null) ? segmentedTransferRunnable : super.getFileTransferRunnable();
+	}
+
+	/**
+	 * Downloads the file over {@link #segments} connections. The first segment
+	 * is read from the response to the initial request, the others are
+	 * requested with range requests. All segments are written into the
+	 * preallocated local file at their position, and reported as one stream
+	 * of receive data events.
+	 */
+	private final IFileTransferRunnable segmentedTransferRunnable = new IFileTransferRunnable() {
+		@Override
+		public IStatus performFileTransfer(IProgressMonitor monitor) {
+			transferStartTime = System.currentTimeMillis();
+			final double factor = (fileLength > Integer.MAX_VALUE) ? (((double) Integer.MAX_VALUE) / ((double) fileLength)) : 1.0;
+			final int work = (fileLength > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) fileLength;
+			monitor.beginTask(getRemoteFileURL().toString(), work);
+			final int count = segments;
+			final long segmentLength = (fileLength + count - 1) / count;
+			final ExecutorService executor = Executors.newFixedThreadPool(count - 1, r -> {
+				Thread t = new Thread(r, createJobName() + " segment"); //$NON-NLS-1$
+				t.setDaemon(true);
+				return t;
+			});
+			try (RandomAccessFile file = new RandomAccessFile(segmentedFile, "rw"); //$NON-NLS-1$
+					FileChannel channel = file.getChannel()) {
+				if (remoteFileContents == null)
+					throw new IOException("input stream cannot be null"); //$NON-NLS-1$
+				file.setLength(fileLength);
+				final List<Future<?>> futures = new ArrayList<>();
+				for (int i = 1; i < count; i++) {
+					final long start = i * segmentLength;
+					final long end = Math.min(fileLength, start + segmentLength) - 1;
+					futures.add(executor.submit(() -> {
+						downloadSegment(channel, start, end, factor, monitor);
+						return null;
+					}));
+				}
+				final InputStream first = remoteFileContents;
+				addSegmentStream(first);
+				try {
+					readSegment(first, channel, 0, segmentLength - 1, factor, monitor);
+				} finally {
+					// the rest of the body belongs to the other segments
+					removeSegmentStream(first);
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+				if (!isDone()) {
+					if (bytesReceived != fileLength)
+						throw new IOException(NLS.bind(Messages.HttpClientRetrieveFileTransfer_SEGMENT_INCOMPLETE, "0-" + (fileLength - 1))); //$NON-NLS-1$
+					setDone(true);
+				}
+			} catch (Exception e) {
+				Throwable t = (e instanceof ExecutionException && e.getCause() != null) ? e.getCause() : e;
+				if (!isDone()) {
+					setDoneException((t instanceof Exception) ? (Exception) t : e);
+				}
+			} finally {
+				executor.shutdownNow();
+				closeSegmentStreams();
+				hardClose();
+				monitor.done();
+				try {
+					fireTransferReceiveDoneEvent();
+				} catch (Exception e) {
+					Activator.getDefault().log(new Status(IStatus.ERROR, Activator.PLUGIN_ID, IStatus.ERROR, "fireTransferReceiveDoneEvent", e)); //$NON-NLS-1$
+				}
+			}
+			return getFinalStatus(exception);
+		}
+	};
+
+	void downloadSegment(FileChannel channel, long start, long end, double factor, IProgressMonitor monitor) throws Exception {
+		if (isDone())
+			return;
+		final String range = start + "-" + end; //$NON-NLS-1$
+		Builder builder = getRequestConfigBuilder().copy();
+		builder.setHeader(ACCEPT_ENCODING_HEADER, IDENTITY_ENCODING);
+		builder.setHeader(RANGE, "bytes=" + range); //$NON-NLS-1$
+		// make sure that all segments come from the same version of the file
+		HttpHeaders headers = getHeader();
+		String validator = headers.firstValue(ETAG_HEADER).filter(etag -> !etag.startsWith("W/")).orElse(headers.firstValue(HttpClientFileSystemBrowser.LAST_MODIFIED_HEADER).orElse(null)); //$NON-NLS-1$
+		if (validator != null)
+			builder.setHeader(IF_RANGE, validator);
+		HttpResponse<InputStream> response = httpClient.send(builder.build(), BodyHandlers.ofInputStream());
+		Activator.getDefault().getHttpClientPool().responseReceived(httpClient, response);
+		InputStream body = response.body();
+		addSegmentStream(body);
+		try {
+			String contentRange = response.headers().firstValue(CONTENT_RANGE_HEADER).orElse(""); //$NON-NLS-1$
+			if (response.statusCode() == HttpURLConnection.HTTP_PARTIAL && contentRange.startsWith("bytes " + range + "/")) { //$NON-NLS-1$ //$NON-NLS-2$
+				readSegment(body, channel, start, end, factor, monitor);
+			} else if (response.statusCode() == HttpURLConnection.HTTP_OK && isSameFile(response.headers(), validator)) {
+				// the server ignored the range, so the segment is taken from
+				// the whole file
+				skipFully(body, start);
+				readSegment(body, channel, start, end, factor, monitor);
+			} else
+				throw new IOException(NLS.bind(Messages.HttpClientRetrieveFileTransfer_SEGMENT_RANGE_NOT_RETURNED, range, Integer.valueOf(response.statusCode())));
+		} finally {
+			removeSegmentStream(body);
+		}
+	}
+
+	/**
+	 * @return true if a full response has the length and validator of the
+	 *         file of the initial response
+	 */
+	private boolean isSameFile(HttpHeaders headers, String validator) {
+		if (headers.firstValueAsLong(HttpClientFileSystemBrowser.CONTENT_LENGTH_HEADER).orElse(-1) != fileLength)
+			return false;
+		if (validator == null)
+			return false;
+		return validator.equals(headers.firstValue(ETAG_HEADER).orElse(null)) || validator.equals(headers.firstValue(HttpClientFileSystemBrowser.LAST_MODIFIED_HEADER).orElse(null));
+	}
+
+	private static void skipFully(InputStream in, long count) throws IOException {
+		long remaining = count;
+		while (remaining > 0) {
+			long skipped = in.skip(remaining);
+			if (skipped <= 0) {
+				if (in.read() == -1)
+					throw new EOFException();
+				skipped = 1;
+			}
+			remaining -= skipped;
+		}
+	}
+
+	void readSegment(InputStream in, FileChannel channel, long start, long end, double factor, IProgressMonitor monitor) throws IOException {
+		final byte[] buf = new byte[buff_length];
+		final ByteBuffer buffer = ByteBuffer.wrap(buf);
+		long position = start;
+		while (position <= end && !isDone()) {
+			if (monitor.isCanceled())
+				throw newUserCancelledException();
+			int bytes = in.read(buf, 0, (int) Math.min(buf.length, end - position + 1));
+			if (bytes == -1) {
+				if (isDone())
+					return;
+				throw new IOException(NLS.bind(Messages.HttpClientRetrieveFileTransfer_SEGMENT_INCOMPLETE, start + "-" + end)); //$NON-NLS-1$
+			}
+			buffer.clear().limit(bytes);
+			while (buffer.hasRemaining()) {
+				position += channel.write(buffer, position);
+			}
+			handleSegmentData(bytes, factor, monitor);
+		}
+	}
+
+	private synchronized void handleSegmentData(int bytes, double factor, IProgressMonitor monitor) {
+		bytesReceived += bytes;
+		downloadRateBytesPerSecond = (bytesReceived / ((System.currentTimeMillis() + 1 - transferStartTime) / 1000.0));
+		monitor.worked((int) Math.round(factor * bytes));
+		fireTransferReceiveDataEvent();
+	}
+
+	private void addSegmentStream(InputStream in) {
+		synchronized (segmentStreams) {
+			segmentStreams.add(in);
+		}
+	}
+
+	private void removeSegmentStream(InputStream in) {
+		synchronized (segmentStreams) {
+			segmentStreams.remove(in);
+		}
+		try {
+			in.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+
+	private void closeSegmentStreams() {
+		List<InputStream> streams;
+		synchronized (segmentStreams) {
+			streams = new ArrayList<>(segmentStreams);
+			segmentStreams.clear();
+		}
+		for (InputStream in : streams) {
+			try {
+				in.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
 	@Override
 	protected void fireReceiveResumedEvent() {
 		Trace.entering(Activator.PLUGIN_ID, DebugOptions.METHODS_ENTERING, this.getClass(), "fireReceiveResumedEvent len=" + fileLength + ";rcvd=" + bytesReceived); //$NON-NLS-1$ //$NON-NLS-2$
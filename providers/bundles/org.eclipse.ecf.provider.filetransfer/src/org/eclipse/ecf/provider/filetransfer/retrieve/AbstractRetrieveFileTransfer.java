@@ -270,6 +270,37 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 		localFileContents = outs;
 	}
 
+	/**
+	 * Set the local file that the received data is saved to. The default
+	 * implementation opens a buffered output stream on the file. Subclasses
+	 * may override to write to the file differently, together with
+	 * {@link #getFileTransferRunnable()}.
+	 * 
+	 * @param localFileToSave
+	 *            the file to save the received data to. Will not be
+	 *            <code>null</code>.
+	 * @throws IOException
+	 *             if the file cannot be opened for writing
+	 * @since 3.4
+	 */
+	protected void setOutputFile(File localFileToSave) throws IOException {
+		setOutputStream(new BufferedOutputStream(new FileOutputStream(localFileToSave)));
+	}
+
+	/**
+	 * Get the runnable that performs the transfer once the receiver has been
+	 * chosen. The default implementation copies the remote input stream to
+	 * the local output stream. Subclasses may override to transfer the data
+	 * differently.
+	 * 
+	 * @return IFileTransferRunnable the runnable for the transfer job. Must
+	 *         not be <code>null</code>.
+	 * @since 3.4
+	 */
+	protected IFileTransferRunnable getFileTransferRunnable() {
+		return fileTransferRunnable;
+	}
+
 	protected void setCloseOutputStream(boolean close) {
 		closeOutputStream = close;
 	}
@@ -658,7 +689,7 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 			fileTransferJob = new FileTransferJob(createJobName());
 		}
 		// Now set to our runnable
-		fileTransferJob.setFileTransferRunnable(fileTransferRunnable);
+		fileTransferJob.setFileTransferRunnable(getFileTransferRunnable());
 		fileTransferJob.setFileTransfer(this);
 		if (isDone()) {
 			return;
@@ -711,7 +742,7 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 			 * org.eclipse.ecf.filetransfer.FileTransferJob)
 			 */
 			public IIncomingFileTransfer receive(File localFileToSave, FileTransferJob fileTransferJob) throws IOException {
-				setOutputStream(new BufferedOutputStream(new FileOutputStream(localFileToSave)));
+				setOutputFile(localFileToSave);
 				setupAndScheduleJob(fileTransferJob);
 				return AbstractRetrieveFileTransfer.this;
 			}
@@ -43,16 +43,26 @@ public class DNSCache {
 	// cleaner implementation
 
 	/**
-	 * The number of DNSEntry's in the cache.
+	 * The number of shards of the caches created by JmDNS, set with the system
+	 * property <code>net.mdns.cacheShards</code>. With more than one shard,
+	 * entries of different names are mostly stored and looked up under
+	 * different locks.
 	 */
-	private int size;
+	static final int SHARDS = Math.max(1, Integer.getInteger("net.mdns.cacheShards", 1).intValue());
 
 	/**
-	 * The hashtable used internally to store the entries of the cache. Keys are
-	 * instances of String. The String contains an unqualified service name.
-	 * Values are linked lists of CacheNode instances.
+	 * The hashtables used internally to store the entries of the cache. Keys
+	 * are instances of String. The String contains an unqualified service
+	 * name. Values are linked lists of CacheNode instances. An entry is stored
+	 * in the hashtable selected by the hash code of its name.
 	 */
-	private final HashMap hashtable;
+	private final HashMap[] shards;
+
+	/**
+	 * The locks guarding the hashtables. With a single hashtable this is the
+	 * cache itself, like before it was sharded.
+	 */
+	private final Object[] locks;
 
 	/**
 	 * Cache nodes are used to implement storage of multiple DNSEntry's of the
@@ -61,7 +71,8 @@ public class DNSCache {
 	public static class CacheNode {
 		//        private static Logger logger = Logger.getLogger(CacheNode.class.getName());
 		private final DNSEntry value;
-		private CacheNode next;
+		// volatile, because lists are walked without holding the lock
+		private volatile CacheNode next;
 
 		public CacheNode(DNSEntry value) {
 			this.value = value;
@@ -80,61 +91,86 @@ public class DNSCache {
 	 * Create a table with a given initial size.
 	 */
 	public DNSCache(final int size) {
-		hashtable = new HashMap(size);
+		this(size, 1);
+	}
+
+	/**
+	 * Create a table with a given initial size, split into the given number of
+	 * independently locked shards.
+	 */
+	public DNSCache(final int size, final int shardCount) {
+		shards = new HashMap[Math.max(1, shardCount)];
+		locks = new Object[shards.length];
+		for (int i = 0; i < shards.length; i++) {
+			shards[i] = new HashMap(Math.max(16, size / shards.length));
+			locks[i] = (shards.length == 1) ? this : new Object();
+		}
+	}
+
+	private int shard(String name) {
+		return (name.hashCode() & 0x7fffffff) % shards.length;
 	}
 
 	/**
 	 * Clears the cache.
 	 */
-	public synchronized void clear() {
-		hashtable.clear();
-		size = 0;
+	public void clear() {
+		for (int i = 0; i < shards.length; i++) {
+			synchronized (locks[i]) {
+				shards[i].clear();
+			}
+		}
 	}
 
 	/**
 	 * Adds an entry to the table.
 	 */
-	public synchronized void add(final DNSEntry entry) {
+	public void add(final DNSEntry entry) {
 		// logger.log("DNSCache.add("+entry.getName()+")");
+		final int shard = shard(entry.getName());
 		final CacheNode newValue = new CacheNode(entry);
-		final CacheNode node = (CacheNode) hashtable.get(entry.getName());
-		if (node == null) {
-			hashtable.put(entry.getName(), newValue);
-		} else {
-			newValue.next = node.next;
-			node.next = newValue;
+		synchronized (locks[shard]) {
+			final HashMap hashtable = shards[shard];
+			final CacheNode node = (CacheNode) hashtable.get(entry.getName());
+			if (node == null) {
+				hashtable.put(entry.getName(), newValue);
+			} else {
+				newValue.next = node.next;
+				node.next = newValue;
+			}
 		}
-		size++;
 	}
 
 	/**
 	 * Remove a specific entry from the table. Returns true if the entry was
 	 * found.
 	 */
-	public synchronized boolean remove(DNSEntry entry) {
-		CacheNode node = (CacheNode) hashtable.get(entry.getName());
-		if (node != null) {
-			if (node.value == entry) {
-				if (node.next == null) {
-					hashtable.remove(entry.getName());
-				} else {
-					hashtable.put(entry.getName(), node.next);
-				}
-				size--;
-				return true;
-			}
-
-			CacheNode previous = node;
-			node = node.next;
-			while (node != null) {
+	public boolean remove(DNSEntry entry) {
+		final int shard = shard(entry.getName());
+		synchronized (locks[shard]) {
+			final HashMap hashtable = shards[shard];
+			CacheNode node = (CacheNode) hashtable.get(entry.getName());
+			if (node != null) {
 				if (node.value == entry) {
-					previous.next = node.next;
-					size--;
+					if (node.next == null) {
+						hashtable.remove(entry.getName());
+					} else {
+						hashtable.put(entry.getName(), node.next);
+					}
 					return true;
 				}
-				previous = node;
+
+				CacheNode previous = node;
 				node = node.next;
-			};
+				while (node != null) {
+					if (node.value == entry) {
+						previous.next = node.next;
+						return true;
+					}
+					previous = node;
+					node = node.next;
+				}
+			}
 		}
 		return false;
 	}
@@ -143,7 +179,7 @@ public class DNSCache {
 	 * Get a matching DNS entry from the table (using equals). Returns the entry
 	 * that was found.
 	 */
-	public synchronized DNSEntry get(DNSEntry entry) {
+	public DNSEntry get(DNSEntry entry) {
 		for (CacheNode node = find(entry.getName()); node != null; node = node.next) {
 			if (node.value.equals(entry)) {
 				return node.value;
@@ -155,7 +191,7 @@ public class DNSCache {
 	/**
 	 * Get a matching DNS entry from the table.
 	 */
-	public synchronized DNSEntry get(String name, int type, int clazz) {
+	public DNSEntry get(String name, int type, int clazz) {
 		for (CacheNode node = find(name); node != null; node = node.next) {
 			if (node.value.type == type && node.value.clazz == clazz) {
 				return node.value;
@@ -170,8 +206,14 @@ public class DNSCache {
 	 * list. To retrieve all entries, one must iterate over this linked list.
 	 * See code snippets in the header of the class.
 	 */
-	public synchronized Iterator iterator() {
-		return new ArrayList(hashtable.values()).iterator();
+	public Iterator iterator() {
+		final List nodes = new ArrayList();
+		for (int i = 0; i < shards.length; i++) {
+			synchronized (locks[i]) {
+				nodes.addAll(shards[i].values());
+			}
+		}
+		return nodes.iterator();
 	}
 
 	/**
@@ -180,14 +222,17 @@ public class DNSCache {
 	 * node of a linked list. To retrieve all entries, one must iterate over
 	 * this linked list.
 	 */
-	public synchronized CacheNode find(String name) {
-		return (CacheNode) hashtable.get(name);
+	public CacheNode find(String name) {
+		final int shard = shard(name);
+		synchronized (locks[shard]) {
+			return (CacheNode) shards[shard].get(name);
+		}
 	}
 
 	/**
 	 * List all entries for debugging.
 	 */
-	public synchronized void print() {
+	public void print() {
 		for (final Iterator i = iterator(); i.hasNext();) {
 			for (CacheNode n = (CacheNode) i.next(); n != null; n = n.next) {
 				System.out.println(n.value);
@@ -195,7 +240,7 @@ public class DNSCache {
 		}
 	}
 
-	public synchronized String toString() {
+	public String toString() {
 		final StringBuffer aLog = new StringBuffer();
 		aLog.append("\t---- cache ----");
 		for (final Iterator i = iterator(); i.hasNext();) {
@@ -98,10 +98,23 @@ public class JmDNSImpl extends JmDNS {
 
 	/**
 	 * The timer is used to dispatch all outgoing messages of JmDNS. It is also
-	 * used to dispatch maintenance tasks for the DNS cache.
+	 * used to dispatch maintenance tasks for the DNS cache. Not used if the
+	 * timer is shared with other instances.
 	 */
 	Timer timer;
 
+	/**
+	 * True if this instance runs its tasks on the {@link SharedTimer}.
+	 */
+	private boolean sharedTimer;
+
+	/**
+	 * The tasks this instance scheduled, if the timer is shared with other
+	 * instances. The tasks are the keys, weakly referenced so that finished
+	 * tasks are dropped.
+	 */
+	private final Map sharedTimerTasks = new WeakHashMap();
+
 	/**
 	 * The source for random values. This is used to introduce random delays in
 	 * responses. This reduces the potential for collisions on the network.
@@ -212,7 +225,7 @@ public class JmDNSImpl extends JmDNS {
 		// localHost to IP address binding
 		localHost = new HostInfo(address, name);
 
-		cache = new DNSCache(100);
+		cache = new DNSCache(100, DNSCache.SHARDS);
 
 		listeners = Collections.synchronizedList(new ArrayList());
 		serviceListeners = new HashMap();
@@ -221,12 +234,17 @@ public class JmDNSImpl extends JmDNS {
 		services = new Hashtable(20);
 		serviceTypes = new Hashtable(20);
 
-		// REMIND: If I could pass in a name for the Timer thread,
-		// I would pass' JmDNS.Timer'.
-		timer = new Timer();
-		new RecordReaper(this).start(timer);
-		shutdown = new Thread(new Shutdown(), "JmDNS.Shutdown");
-		Runtime.getRuntime().addShutdownHook(shutdown);
+		sharedTimer = SharedTimer.isEnabled();
+		if (sharedTimer) {
+			SharedTimer.acquire(this);
+		} else {
+			// REMIND: If I could pass in a name for the Timer thread,
+			// I would pass' JmDNS.Timer'.
+			timer = new Timer();
+			shutdown = new Thread(new Shutdown(), "JmDNS.Shutdown");
+			Runtime.getRuntime().addShutdownHook(shutdown);
+		}
+		new RecordReaper(this).start();
 
 		incomingListener = new Thread(new SocketListener(this), "JmDNS.SocketListener");
 
@@ -238,7 +256,7 @@ public class JmDNSImpl extends JmDNS {
 	private void start(Collection serviceInfos) {
 		setState(DNSState.PROBING_1);
 		incomingListener.start();
-		new Prober(this).start(timer);
+		new Prober(this).start();
 		for (final Iterator iterator = serviceInfos.iterator(); iterator.hasNext();) {
 			try {
 				registerService(new ServiceInfoImpl((ServiceInfoImpl) iterator.next()));
@@ -351,7 +369,7 @@ public class JmDNSImpl extends JmDNS {
 	 */
 	public ServiceInfo getServiceInfo(String type, String name, int timeout) {
 		final ServiceInfoImpl info = new ServiceInfoImpl(type, name);
-		new ServiceInfoResolver(this, info).start(timer);
+		new ServiceInfoResolver(this, info).start();
 
 		try {
 			final long end = System.currentTimeMillis() + timeout;
@@ -383,7 +401,7 @@ public class JmDNSImpl extends JmDNS {
 	public void requestServiceInfo(String type, String name, int timeout) {
 		registerServiceType(type);
 		final ServiceInfoImpl info = new ServiceInfoImpl(type, name);
-		new ServiceInfoResolver(this, info).start(timer);
+		new ServiceInfoResolver(this, info).start();
 
 		try {
 			final long end = System.currentTimeMillis() + timeout;
@@ -432,7 +450,7 @@ public class JmDNSImpl extends JmDNS {
 			listener.serviceTypeAdded(new ServiceEventImpl(this, (String) iterator.next(), null, null));
 		}
 
-		new TypeResolver(this).start(timer);
+		new TypeResolver(this).start();
 	}
 
 	/**
@@ -482,7 +500,7 @@ public class JmDNSImpl extends JmDNS {
 			listener.serviceAdded((ServiceEventImpl) i.next());
 		}
 		// Create/start ServiceResolver
-		new ServiceResolver(this, type).start(timer);
+		new ServiceResolver(this, type).start();
 	}
 
 	/**
@@ -520,7 +538,7 @@ public class JmDNSImpl extends JmDNS {
 			services.put(info.getQualifiedName().toLowerCase(), info);
 		}
 
-		new /* Service */Prober(this).start(timer);
+		new /* Service */Prober(this).start();
 		try {
 			synchronized (info) {
 				while (info.getState().compareTo(DNSState.ANNOUNCED) < 0) {
@@ -555,7 +573,7 @@ public class JmDNSImpl extends JmDNS {
 		// Remind: We get a deadlock here, if the Canceler does not run!
 		try {
 			synchronized (lock) {
-				new Canceler(this, info, lock).start(timer);
+				new Canceler(this, info, lock).start();
 				lock.wait();
 			}
 		} catch (final InterruptedException e) {
@@ -582,7 +600,7 @@ public class JmDNSImpl extends JmDNS {
 		}
 
 		final Object lock = new Object();
-		new Canceler(this, list, lock).start(timer);
+		new Canceler(this, list, lock).start();
 		// Remind: We get a livelock here, if the Canceler does not run!
 		try {
 			synchronized (lock) {
@@ -854,7 +872,7 @@ public class JmDNSImpl extends JmDNS {
 		}
 
 		if (hostConflictDetected || serviceConflictDetected) {
-			new Prober(this).start(timer);
+			new Prober(this).start();
 		}
 	}
 
@@ -887,7 +905,7 @@ public class JmDNSImpl extends JmDNS {
 		}
 
 		if (hostConflictDetected || serviceConflictDetected) {
-			new Prober(this).start(timer);
+			new Prober(this).start();
 		}
 	}
 
@@ -936,17 +954,62 @@ public class JmDNSImpl extends JmDNS {
 
 	public void startAnnouncer() {
 		if (getState() != DNSState.CANCELED)
-			new Announcer(this).start(timer);
+			new Announcer(this).start();
 	}
 
 	public void startRenewer() {
 		if (getState() != DNSState.CANCELED)
-			new Renewer(this).start(timer);
+			new Renewer(this).start();
 	}
 
 	public void schedule(TimerTask task, int delay) {
-		if (getState() != DNSState.CANCELED)
-			timer.schedule(task, delay);
+		if (getState() != DNSState.CANCELED) {
+			if (sharedTimer) {
+				addTask(task);
+				SharedTimer.schedule(task, delay, 0);
+			} else {
+				timer.schedule(task, delay);
+			}
+		}
+	}
+
+	/**
+	 * Schedule a task for repeated execution, until it cancels itself.
+	 */
+	public void schedule(TimerTask task, long delay, long period) {
+		if (sharedTimer) {
+			addTask(task);
+			SharedTimer.schedule(task, delay, period);
+		} else {
+			timer.schedule(task, delay, period);
+		}
+	}
+
+	private void addTask(TimerTask task) {
+		synchronized (sharedTimerTasks) {
+			sharedTimerTasks.put(task, null);
+		}
+	}
+
+	/**
+	 * Called when the shared timer died and was replaced. The periodic
+	 * maintenance of the cache ran on the dead timer, so it is restarted.
+	 */
+	void timerReplaced() {
+		if (getState() != DNSState.CANCELED) {
+			new RecordReaper(this).start();
+		}
+	}
+
+	private void cancelTasks() {
+		final List tasks;
+		synchronized (sharedTimerTasks) {
+			tasks = new ArrayList(sharedTimerTasks.keySet());
+			sharedTimerTasks.clear();
+		}
+		for (final Iterator i = tasks.iterator(); i.hasNext();) {
+			((TimerTask) i.next()).cancel();
+		}
 	}
 
 	// REMIND: Why is this not an anonymous inner class?
@@ -1016,8 +1079,13 @@ public class JmDNSImpl extends JmDNS {
 
 				unregisterAllServices();
 
-				// Stop the timer
-				timer.cancel();
+				// Stop the timer, or our tasks if it is shared
+				if (sharedTimer) {
+					cancelTasks();
+					SharedTimer.release(this);
+				} else {
+					timer.cancel();
+				}
 
 				disposeServiceCollectors();
 
@@ -0,0 +1,170 @@
+//Copyright 2026 Composent, Inc. and others
+//Licensed under Apache License version 2.0
+
+package javax.jmdns.impl;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * A timer and a shutdown hook shared by all JmDNS instances. Used instead of a
+ * timer thread and a shutdown hook per instance if the system property
+ * <code>net.mdns.sharedTimer</code> is <code>true</code> when an instance is
+ * created, which saves a thread per instance on hosts that run JmDNS on
+ * several interfaces. <p> The timer runs the tasks of all instances. An
+ * instance cancels its own tasks when it is closed, and the timer is stopped
+ * when the last instance is closed. <p> A task that lets an exception through
+ * kills the timer thread, and with it the tasks of all instances. The JmDNS
+ * tasks catch everything they throw, but if the timer dies anyway, it is
+ * replaced by a new one when the next task is scheduled, and the open
+ * instances restart their maintenance tasks on it.
+ */
+public final class SharedTimer {
+
+	public static final String PROPERTY = "net.mdns.sharedTimer";
+
+	private static Timer timer;
+
+	/**
+	 * The number of times a dead timer was replaced.
+	 */
+	private static int replaced;
+
+	/**
+	 * The open instances, which are closed by the shutdown hook.
+	 */
+	private static final Set instances = new HashSet();
+
+	private static Thread shutdown;
+
+	private SharedTimer() {
+		// static only
+	}
+
+	/**
+	 * Returns true if instances created now share the timer.
+	 */
+	public static boolean isEnabled() {
+		return Boolean.getBoolean(PROPERTY);
+	}
+
+	/**
+	 * Registers an instance, starting the timer if necessary.
+	 */
+	static synchronized void acquire(JmDNSImpl jmDNSImpl) {
+		if (timer == null) {
+			timer = new Timer(true);
+		}
+		if (shutdown == null) {
+			shutdown = new Thread(new Runnable() {
+				public void run() {
+					closeAll();
+				}
+			}, "JmDNS.Shutdown");
+			Runtime.getRuntime().addShutdownHook(shutdown);
+		}
+		instances.add(jmDNSImpl);
+	}
+
+	/**
+	 * Called when an instance is closed. Stops the timer if it was the last
+	 * one.
+	 */
+	static synchronized void release(JmDNSImpl jmDNSImpl) {
+		if (instances.remove(jmDNSImpl) && instances.isEmpty()) {
+			timer.cancel();
+			timer = null;
+			if (shutdown != null) {
+				Runtime.getRuntime().removeShutdownHook(shutdown);
+				shutdown = null;
+			}
+		}
+	}
+
+	/**
+	 * Schedules a task on the shared timer, replacing the timer if its thread
+	 * has died. A period of 0 runs the task once.
+	 */
+	static void schedule(TimerTask task, long delay, long period) {
+		final JmDNSImpl[] open;
+		synchronized (SharedTimer.class) {
+			if (timer == null) {
+				// all instances are closed
+				return;
+			}
+			try {
+				schedule(timer, task, delay, period);
+				return;
+			} catch (IllegalStateException e) {
+				if (isAlive(timer)) {
+					// the task was scheduled before
+					throw e;
+				}
+			}
+			// a task has killed the timer thread
+			timer = new Timer(true);
+			replaced++;
+			schedule(timer, task, delay, period);
+			open = (JmDNSImpl[]) instances.toArray(new JmDNSImpl[instances.size()]);
+		}
+		for (int i = 0; i < open.length; i++) {
+			open[i].timerReplaced();
+		}
+	}
+
+	private static void schedule(Timer aTimer, TimerTask task, long delay, long period) {
+		if (period > 0) {
+			aTimer.schedule(task, delay, period);
+		} else {
+			aTimer.schedule(task, delay);
+		}
+	}
+
+	private static boolean isAlive(Timer aTimer) {
+		try {
+			aTimer.schedule(new TimerTask() {
+				public void run() {
+					// probe only
+				}
+			}, 0);
+			return true;
+		} catch (IllegalStateException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the number of open instances sharing the timer.
+	 */
+	public static synchronized int getInstanceCount() {
+		return instances.size();
+	}
+
+	/**
+	 * Returns true if the timer has been started and not stopped since.
+	 */
+	public static synchronized boolean isRunning() {
+		return timer != null;
+	}
+
+	/**
+	 * Returns the number of times a dead timer was replaced.
+	 */
+	public static synchronized int getReplacedCount() {
+		return replaced;
+	}
+
+	static void closeAll() {
+		final JmDNSImpl[] open;
+		synchronized (SharedTimer.class) {
+			// the hook is running, so it must not be removed any more
+			shutdown = null;
+			open = (JmDNSImpl[]) instances.toArray(new JmDNSImpl[instances.size()]);
+		}
+		for (int i = 0; i < open.length; i++) {
+			open[i].close();
+		}
+	}
+}
@@ -7,7 +7,6 @@ package javax.jmdns.impl.tasks;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Timer;
 import java.util.TimerTask;
 //import java.util.logging.Level;
 //import java.util.logging.Logger;
@@ -60,9 +59,9 @@ public class Announcer extends TimerTask
         }
     }
 
-    public void start(Timer timer)
+    public void start()
     {
-        timer.schedule(this, DNSConstants.ANNOUNCE_WAIT_INTERVAL, DNSConstants.ANNOUNCE_WAIT_INTERVAL);
+        this.jmDNSImpl.schedule(this, DNSConstants.ANNOUNCE_WAIT_INTERVAL, DNSConstants.ANNOUNCE_WAIT_INTERVAL);
     }
 
     public boolean cancel()
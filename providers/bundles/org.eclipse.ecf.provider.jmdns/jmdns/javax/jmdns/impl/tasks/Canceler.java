@@ -5,7 +5,6 @@
 package javax.jmdns.impl.tasks;
 
 import java.util.Collection;
-import java.util.Timer;
 import java.util.TimerTask;
 //import java.util.logging.Level;
 //import java.util.logging.Logger;
@@ -73,9 +72,9 @@ public class Canceler extends TimerTask
         this.lock = lock;
     }
 
-    public void start(Timer timer)
+    public void start()
     {
-        timer.schedule(this, 0, DNSConstants.ANNOUNCE_WAIT_INTERVAL);
+        this.jmDNSImpl.schedule(this, 0, DNSConstants.ANNOUNCE_WAIT_INTERVAL);
     }
 
     public void run()
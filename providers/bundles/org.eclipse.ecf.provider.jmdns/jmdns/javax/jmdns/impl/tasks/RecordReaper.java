@@ -7,7 +7,6 @@ package javax.jmdns.impl.tasks;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Timer;
 import java.util.TimerTask;
 //import java.util.logging.Logger;
 
@@ -37,9 +36,9 @@ public class RecordReaper extends TimerTask
         this.jmDNSImpl = jmDNSImpl;
     }
 
-    public void start(Timer timer)
+    public void start()
     {
-        timer.schedule(this, DNSConstants.RECORD_REAPER_INTERVAL, DNSConstants.RECORD_REAPER_INTERVAL);
+        this.jmDNSImpl.schedule(this, DNSConstants.RECORD_REAPER_INTERVAL, DNSConstants.RECORD_REAPER_INTERVAL);
     }
 
     public void run()
@@ -48,36 +47,46 @@ public class RecordReaper extends TimerTask
         {
             if (this.jmDNSImpl.getState() == DNSState.CANCELED)
             {
+                cancel();
                 return;
             }
 //            logger.finest("run() JmDNS reaping cache");
 
-            // Remove expired answers from the cache
-            // -------------------------------------
-            // To prevent race conditions, we defensively copy all cache
-            // entries into a list.
-            List list = new ArrayList();
-            synchronized (this.jmDNSImpl.getCache())
+            try
             {
-                for (Iterator i = this.jmDNSImpl.getCache().iterator(); i.hasNext();)
+                // Remove expired answers from the cache
+                // -------------------------------------
+                // To prevent race conditions, we defensively copy all cache
+                // entries into a list.
+                List list = new ArrayList();
+                synchronized (this.jmDNSImpl.getCache())
                 {
-                    for (DNSCache.CacheNode n = (DNSCache.CacheNode) i.next(); n != null; n = n.next())
+                    for (Iterator i = this.jmDNSImpl.getCache().iterator(); i.hasNext();)
                     {
-                        list.add(n.getValue());
+                        for (DNSCache.CacheNode n = (DNSCache.CacheNode) i.next(); n != null; n = n.next())
+                        {
+                            list.add(n.getValue());
+                        }
                     }
                 }
-            }
-            // Now, we remove them.
-            long now = System.currentTimeMillis();
-            for (Iterator i = list.iterator(); i.hasNext();)
-            {
-                DNSRecord c = (DNSRecord) i.next();
-                if (c.isExpired(now))
+                // Now, we remove them.
+                long now = System.currentTimeMillis();
+                for (Iterator i = list.iterator(); i.hasNext();)
                 {
-                    this.jmDNSImpl.updateRecord(now, c);
-                    this.jmDNSImpl.getCache().remove(c);
+                    DNSRecord c = (DNSRecord) i.next();
+                    if (c.isExpired(now))
+                    {
+                        this.jmDNSImpl.updateRecord(now, c);
+                        this.jmDNSImpl.getCache().remove(c);
+                    }
                 }
             }
+            catch (Throwable e)
+            {
+                // the timer may be shared with other instances, so nothing
+                // must get through to it
+//                logger.log(Level.WARNING, "run() exception ", e);
+            }
         }
     }
 }
\ No newline at end of file
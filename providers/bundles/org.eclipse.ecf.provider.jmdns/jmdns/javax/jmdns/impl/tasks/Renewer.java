@@ -7,7 +7,6 @@ package javax.jmdns.impl.tasks;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Timer;
 import java.util.TimerTask;
 //import java.util.logging.Level;
 //import java.util.logging.Logger;
@@ -56,9 +55,9 @@ public class Renewer extends TimerTask
         }
     }
 
-    public void start(Timer timer)
+    public void start()
     {
-        timer.schedule(this, DNSConstants.ANNOUNCED_RENEWAL_TTL_INTERVAL, DNSConstants.ANNOUNCED_RENEWAL_TTL_INTERVAL);
+        this.jmDNSImpl.schedule(this, DNSConstants.ANNOUNCED_RENEWAL_TTL_INTERVAL, DNSConstants.ANNOUNCED_RENEWAL_TTL_INTERVAL);
     }
 
     public boolean cancel()
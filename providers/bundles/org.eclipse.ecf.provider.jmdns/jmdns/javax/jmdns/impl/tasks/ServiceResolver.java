@@ -6,7 +6,6 @@ package javax.jmdns.impl.tasks;
 
 import java.io.IOException;
 import java.util.Iterator;
-import java.util.Timer;
 import java.util.TimerTask;
 //import java.util.logging.Level;
 //import java.util.logging.Logger;
@@ -47,9 +46,9 @@ public class ServiceResolver extends TimerTask
         this.type = type;
     }
 
-    public void start(Timer timer)
+    public void start()
     {
-        timer.schedule(this, DNSConstants.QUERY_WAIT_INTERVAL, DNSConstants.QUERY_WAIT_INTERVAL);
+        this.jmDNSImpl.schedule(this, DNSConstants.QUERY_WAIT_INTERVAL, DNSConstants.QUERY_WAIT_INTERVAL);
     }
 
     public void run()
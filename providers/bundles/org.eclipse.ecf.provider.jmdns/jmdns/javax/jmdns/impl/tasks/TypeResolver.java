@@ -5,7 +5,6 @@
 package javax.jmdns.impl.tasks;
 
 import java.util.Iterator;
-import java.util.Timer;
 import java.util.TimerTask;
 //import java.util.logging.Level;
 //import java.util.logging.Logger;
@@ -42,9 +41,9 @@ public class TypeResolver extends TimerTask
         this.jmDNSImpl = jmDNSImpl;
     }
 
-    public void start(Timer timer)
+    public void start()
     {
-        timer.schedule(this, DNSConstants.QUERY_WAIT_INTERVAL, DNSConstants.QUERY_WAIT_INTERVAL);
+        this.jmDNSImpl.schedule(this, DNSConstants.QUERY_WAIT_INTERVAL, DNSConstants.QUERY_WAIT_INTERVAL);
     }
 
     /**
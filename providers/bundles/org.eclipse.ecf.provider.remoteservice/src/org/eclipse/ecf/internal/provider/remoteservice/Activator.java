@@ -12,6 +12,8 @@
 package org.eclipse.ecf.internal.provider.remoteservice;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.identity.Namespace;
 import org.eclipse.ecf.core.util.*;
@@ -47,6 +49,8 @@ public class Activator implements BundleActivator {
 
 	private List rscAdapterFactories;
 
+	private ScheduledThreadPoolExecutor requestTimeoutScheduler;
+
 	private static IAdapterManager getAdapterManager(BundleContext ctx) {
 		AdapterManagerTracker t = new AdapterManagerTracker(ctx);
 		t.open();
@@ -95,14 +99,50 @@ public class Activator implements BundleActivator {
 			}
 			rscAdapterFactories = null;
 		}
+		synchronized (this) {
+			if (requestTimeoutScheduler != null) {
+				requestTimeoutScheduler.shutdownNow();
+				requestTimeoutScheduler = null;
+			}
+		}
 		this.context = null;
 		plugin = null;
 	}
 
+	/**
+	 * @return ScheduledExecutorService a single daemon timer thread shared by
+	 * all remote service registries for expiring outstanding call requests
+	 */
+	public synchronized ScheduledExecutorService getRequestTimeoutScheduler() {
+		if (requestTimeoutScheduler == null) {
+			requestTimeoutScheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "ECF remote service request timeout-" + count.incrementAndGet()); //$NON-NLS-1$
+					t.setDaemon(true);
+					return t;
+				}
+			});
+			// Most requests complete long before they time out
+			requestTimeoutScheduler.setRemoveOnCancelPolicy(true);
+		}
+		return requestTimeoutScheduler;
+	}
+
 	public BundleContext getContext() {
 		return context;
 	}
 
+	/**
+	 * @return Bundle this bundle, or <code>null</code> if not started in an
+	 * OSGi framework
+	 */
+	public Bundle getBundle() {
+		final BundleContext ctx = context;
+		return (ctx == null) ? null : ctx.getBundle();
+	}
+
 	/**
 	 * Returns the shared instance
 	 * 
@@ -124,6 +164,8 @@ public class Activator implements BundleActivator {
 	}
 
 	protected LogService getLogService() {
+		if (context == null)
+			return new SystemLogService(PLUGIN_ID);
 		if (logServiceTracker == null) {
 			logServiceTracker = new ServiceTracker(this.context, LogService.class.getName(), null);
 			logServiceTracker.open();
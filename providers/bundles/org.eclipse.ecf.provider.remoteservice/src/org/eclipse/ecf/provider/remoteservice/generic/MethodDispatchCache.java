@@ -0,0 +1,178 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.remoteservice.generic;
+
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.eclipse.ecf.core.util.reflection.ClassUtil;
+
+/**
+ * Per registration cache from method name and argument types to the resolved
+ * service method. Resolution with {@link ClassUtil#getMethod(Class, String, Class[])}
+ * is done once for each distinct signature, and the method is invoked through
+ * a {@link MethodHandle} rather than {@link Method#invoke(Object, Object...)}.
+ */
+final class MethodDispatchCache {
+
+	/**
+	 * Upper bound on cached signatures.  Argument types are the runtime classes
+	 * of the arguments, so callers passing many different implementation
+	 * classes could otherwise grow the cache without limit.
+	 */
+	private static final int MAX_ENTRIES = 256;
+
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	private final Class serviceClass;
+	private final ConcurrentMap<Key, Target> targets = new ConcurrentHashMap<Key, Target>();
+
+	MethodDispatchCache(Class serviceClass) {
+		this.serviceClass = serviceClass;
+	}
+
+	Target getTarget(String methodName, Class[] argTypes) throws Exception {
+		final Key key = new Key(methodName, argTypes);
+		Target target = targets.get(key);
+		if (target == null) {
+			target = new Target(ClassUtil.getMethod(serviceClass, methodName, argTypes), argTypes);
+			if (targets.size() < MAX_ENTRIES) {
+				final Target existing = targets.putIfAbsent(key, target);
+				if (existing != null)
+					target = existing;
+			}
+		}
+		return target;
+	}
+
+	void clear() {
+		targets.clear();
+	}
+
+	static final class Target {
+		private final Method method;
+		private final MethodHandle handle;
+		// Parameter types with primitives boxed, to check arguments before
+		// invoking the handle
+		private final Class[] paramTypes;
+		private final boolean[] primitive;
+
+		Target(final Method method, Class[] argTypes) throws Exception {
+			this.method = method;
+			AccessController.doPrivileged(new PrivilegedAction() {
+				public Object run() {
+					try {
+						method.setAccessible(true);
+					} catch (RuntimeException e) {
+						// Not accessible, so no handle either.  Reflection
+						// reports the failure on invoke
+					}
+					return null;
+				}
+			});
+			this.handle = createHandle(method, argTypes);
+			final Class[] types = method.getParameterTypes();
+			this.paramTypes = new Class[types.length];
+			this.primitive = new boolean[types.length];
+			for (int i = 0; i < types.length; i++) {
+				primitive[i] = types[i].isPrimitive();
+				paramTypes[i] = primitive[i] ? MethodType.methodType(types[i]).wrap().returnType() : types[i];
+			}
+		}
+
+		private static MethodHandle createHandle(Method method, Class[] argTypes) {
+			final Class[] paramTypes = method.getParameterTypes();
+			// Leave null arguments for primitive parameters to reflection, so
+			// that they fail with the same IllegalArgumentException
+			for (int i = 0; i < paramTypes.length; i++)
+				if (argTypes[i] == null && paramTypes[i].isPrimitive())
+					return null;
+			try {
+				MethodHandle mh = MethodHandles.lookup().unreflect(method).asFixedArity();
+				if (Modifier.isStatic(method.getModifiers()))
+					mh = MethodHandles.dropArguments(mh, 0, Object.class);
+				return mh.asType(MethodType.genericMethodType(paramTypes.length + 1)).asSpreader(Object[].class, paramTypes.length).asType(INVOKER_TYPE);
+			} catch (IllegalAccessException e) {
+				return null;
+			} catch (RuntimeException e) {
+				return null;
+			}
+		}
+
+		Method getMethod() {
+			return method;
+		}
+
+		/**
+		 * @return Object the result of invoking the method on the service
+		 * @throws IllegalArgumentException if the service or the arguments do
+		 * not match the method, as for {@link Method#invoke(Object, Object...)}
+		 * @throws InvocationTargetException if the method throws, as for
+		 * {@link Method#invoke(Object, Object...)}
+		 */
+		Object invoke(Object service, Object[] args) throws Exception {
+			// Arguments are checked first, so that a ClassCastException from
+			// the handle can only come from the method itself.  Reflection
+			// rejects, or converts, arguments that do not match exactly
+			if (handle == null || !matches(service, args))
+				return method.invoke(service, args);
+			try {
+				return handle.invokeExact(service, args);
+			} catch (WrongMethodTypeException e) {
+				throw new IllegalArgumentException(e.getMessage());
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		}
+
+		private boolean matches(Object service, Object[] args) {
+			if (!Modifier.isStatic(method.getModifiers()) && !method.getDeclaringClass().isInstance(service))
+				return false;
+			if (args.length != paramTypes.length)
+				return false;
+			for (int i = 0; i < args.length; i++)
+				if (args[i] == null ? primitive[i] : !paramTypes[i].isInstance(args[i]))
+					return false;
+			return true;
+		}
+	}
+
+	static final class Key {
+		private final String methodName;
+		private final Class[] argTypes;
+		private final int hash;
+
+		Key(String methodName, Class[] argTypes) {
+			this.methodName = methodName;
+			this.argTypes = argTypes;
+			this.hash = 31 * methodName.hashCode() + Arrays.hashCode(argTypes);
+		}
+
+		public int hashCode() {
+			return hash;
+		}
+
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			final Key other = (Key) obj;
+			return hash == other.hash && methodName.equals(other.methodName) && Arrays.equals(argTypes, other.argTypes);
+		}
+	}
+}
@@ -0,0 +1,232 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.remoteservice.generic;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.equinox.concurrent.future.*;
+
+/**
+ * Executor for remote call requests backed by a bounded
+ * {@link ThreadPoolExecutor}, or by a virtual thread per request. At most
+ * <code>maxThreads</code> requests run at once, at most <code>queueSize</code>
+ * more wait to run, and any further request is either run on the calling
+ * thread or rejected.
+ * <p>
+ * A rejected request completes its future with a
+ * {@link RejectedExecutionException}.
+ *
+ * @since 4.7
+ */
+public class PooledRequestExecutor extends AbstractExecutor {
+
+	/**
+	 * Run requests that cannot be queued on the thread calling
+	 * {@link #execute(IProgressRunnable, IProgressMonitor)}.  This slows the
+	 * reading of further requests from the connection.
+	 */
+	public static final String CALLER_RUNS = "callerRuns"; //$NON-NLS-1$
+
+	/**
+	 * Fail requests that cannot be queued with a {@link RejectedExecutionException}.
+	 */
+	public static final String ABORT = "abort"; //$NON-NLS-1$
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private final ThreadPoolExecutor pool;
+	private final boolean callerRuns;
+
+	// Virtual threads: one per request, with admitted bounding the running
+	// and waiting requests and running bounding the running ones
+	private final ExecutorService virtualThreads;
+	private final int maxRunning;
+	private final int maxAdmitted;
+	private final Semaphore admitted;
+	private final Semaphore running;
+
+	/**
+	 * @param threadFactory factory for pool threads.  Must not be <code>null</code>.
+	 * @param maxThreads maximum number of requests run concurrently.  Must be &gt; 0.
+	 * @param queueSize maximum number of requests waiting for a thread.  If 0,
+	 * requests are only accepted when a thread is free.
+	 * @param rejectionPolicy one of {@link #CALLER_RUNS} or {@link #ABORT}
+	 */
+	public PooledRequestExecutor(ThreadFactory threadFactory, int maxThreads, int queueSize, String rejectionPolicy) {
+		Assert.isNotNull(threadFactory);
+		Assert.isLegal(maxThreads > 0);
+		final BlockingQueue<Runnable> queue = (queueSize > 0) ? new ArrayBlockingQueue<Runnable>(queueSize) : new SynchronousQueue<Runnable>();
+		this.pool = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue, threadFactory, new ThreadPoolExecutor.AbortPolicy());
+		this.pool.allowCoreThreadTimeOut(true);
+		this.callerRuns = !ABORT.equals(rejectionPolicy);
+		this.virtualThreads = null;
+		this.maxRunning = maxThreads;
+		this.maxAdmitted = maxThreads + Math.max(queueSize, 0);
+		this.admitted = null;
+		this.running = null;
+	}
+
+	private PooledRequestExecutor(ExecutorService virtualThreads, int maxConcurrency, int queueSize, String rejectionPolicy) {
+		Assert.isLegal(maxConcurrency > 0);
+		this.pool = null;
+		this.callerRuns = !ABORT.equals(rejectionPolicy);
+		this.virtualThreads = virtualThreads;
+		this.maxRunning = maxConcurrency;
+		this.maxAdmitted = maxConcurrency + Math.max(queueSize, 0);
+		this.admitted = new Semaphore(maxAdmitted);
+		this.running = new Semaphore(maxConcurrency);
+	}
+
+	/**
+	 * Create an executor with a pool of daemon platform threads.
+	 *
+	 * @param name prefix for thread names
+	 * @param maxThreads maximum number of requests run concurrently
+	 * @param queueSize maximum number of requests waiting for a thread
+	 * @param rejectionPolicy one of {@link #CALLER_RUNS} or {@link #ABORT}
+	 * @return PooledRequestExecutor the new executor.  Will not be <code>null</code>.
+	 */
+	public static PooledRequestExecutor createThreadPool(final String name, int maxThreads, int queueSize, String rejectionPolicy) {
+		return new PooledRequestExecutor(new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable r) {
+				final Thread t = new Thread(r, name + "-" + count.incrementAndGet()); //$NON-NLS-1$
+				t.setDaemon(true);
+				return t;
+			}
+		}, maxThreads, queueSize, rejectionPolicy);
+	}
+
+	/**
+	 * Create an executor that runs each request on a virtual thread.  Virtual
+	 * threads are only available on Java 21 and later.  Requests beyond
+	 * <code>maxConcurrency</code> wait on their virtual thread.
+	 *
+	 * @param name not used, virtual threads are unnamed
+	 * @param maxConcurrency maximum number of requests run concurrently
+	 * @param queueSize maximum number of requests waiting to run
+	 * @param rejectionPolicy one of {@link #CALLER_RUNS} or {@link #ABORT}
+	 * @return PooledRequestExecutor the new executor, or <code>null</code> if
+	 * virtual threads are not available
+	 */
+	public static PooledRequestExecutor createVirtualThreads(String name, int maxConcurrency, int queueSize, String rejectionPolicy) {
+		final ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+		return (virtualThreads == null) ? null : new PooledRequestExecutor(virtualThreads, maxConcurrency, queueSize, rejectionPolicy);
+	}
+
+	/**
+	 * <code>Executors.newVirtualThreadPerTaskExecutor()</code>, looked up
+	 * reflectively so that this class still loads on Java 8.
+	 */
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class)).invoke(); //$NON-NLS-1$
+		} catch (Throwable t) {
+			// Not available, or a preview feature that is not enabled
+			return null;
+		}
+	}
+
+	protected AbstractFuture createFuture(IProgressMonitor progressMonitor) {
+		return new SingleOperationFuture(progressMonitor);
+	}
+
+	public IFuture execute(final IProgressRunnable runnable, IProgressMonitor monitor) {
+		Assert.isNotNull(runnable);
+		final AbstractFuture sof = createFuture(monitor);
+		final Runnable task = new Runnable() {
+			public void run() {
+				// First check to make sure things haven't been canceled
+				if (!sof.isCanceled())
+					sof.runWithProgress(runnable);
+			}
+		};
+		try {
+			if (pool != null)
+				pool.execute(task);
+			else
+				executeVirtual(task);
+		} catch (final RejectedExecutionException e) {
+			if (callerRuns && !isShutdown())
+				task.run();
+			else
+				sof.runWithProgress(new IProgressRunnable() {
+					public Object run(IProgressMonitor m) throws Exception {
+						throw e;
+					}
+				});
+		}
+		return sof;
+	}
+
+	private void executeVirtual(final Runnable task) {
+		if (virtualThreads.isShutdown() || !admitted.tryAcquire())
+			throw new RejectedExecutionException("Too many requests"); //$NON-NLS-1$
+		try {
+			virtualThreads.execute(new Runnable() {
+				public void run() {
+					try {
+						running.acquireUninterruptibly();
+						try {
+							task.run();
+						} finally {
+							running.release();
+						}
+					} finally {
+						admitted.release();
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			admitted.release();
+			throw e;
+		}
+	}
+
+	private boolean isShutdown() {
+		return (pool != null) ? pool.isShutdown() : virtualThreads.isShutdown();
+	}
+
+	/**
+	 * @return int the number of requests waiting for a thread
+	 */
+	public int getQueuedCount() {
+		if (pool != null)
+			return pool.getQueue().size();
+		return Math.max(0, (maxAdmitted - admitted.availablePermits()) - getActiveCount());
+	}
+
+	/**
+	 * @return int the number of requests currently running
+	 */
+	public int getActiveCount() {
+		if (pool != null)
+			return pool.getActiveCount();
+		return maxRunning - running.availablePermits();
+	}
+
+	/**
+	 * Stop accepting requests.  Requests already queued are still run.
+	 */
+	public void shutdown() {
+		if (pool != null)
+			pool.shutdown();
+		else
+			virtualThreads.shutdown();
+	}
+}
@@ -16,6 +16,14 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.ContainerConnectException;
 import org.eclipse.ecf.core.events.*;
@@ -79,11 +87,17 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 * @since 3.0
 	 */
 	protected int addRegistrationRequestTimeout = ADD_REGISTRATION_REQUEST_TIMEOUT;
+
+	private final ConcurrentMap<Long, Request> pendingRequests = new ConcurrentHashMap<Long, Request>();
+
 	/**
 	 * List of invocation requests...instances of Request
+	 * @deprecated Pending requests are kept by request id.  This is a view of
+	 * them, use {@link #addRequest(Request)}, {@link #getRequest(long)} and
+	 * {@link #removeRequest(Request)} instead.
 	 */
-	@SuppressWarnings("unchecked")
-	protected List requests = Collections.synchronizedList(new ArrayList());
+	@SuppressWarnings("rawtypes")
+	protected List requests = new PendingRequestList();
 
 	/**
 	 * Connect context to be used for connect.
@@ -130,11 +144,19 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	private Hashtable pendingUpdateContainers = new Hashtable();
 	private List registryUpdateRequests = new ArrayList();
 
-	// system property allowing the executorType to be configured.  Currently types are:  jobs, threads, immediate.
+	// system property allowing the executorType to be configured.  Currently types are:  jobs, threads, immediate, pool, virtual.
 	private static final String DEFAULT_EXECUTOR_TYPE = System.getProperty("org.eclipse.ecf.provider.remoteservice.executorType", "jobs"); //$NON-NLS-1$ //$NON-NLS-2$
 
+	// maximum concurrent requests, waiting requests and rejection policy for the pool and virtual executor types
+	private static final String EXECUTOR_MAX_THREADS = System.getProperty("org.eclipse.ecf.provider.remoteservice.executor.maxThreads"); //$NON-NLS-1$
+	private static final int EXECUTOR_QUEUE_SIZE = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.remoteservice.executor.queueSize", "1024")); //$NON-NLS-1$ //$NON-NLS-2$
+	private static final String EXECUTOR_REJECTION_POLICY = System.getProperty("org.eclipse.ecf.provider.remoteservice.executor.rejectionPolicy", PooledRequestExecutor.CALLER_RUNS); //$NON-NLS-1$
+
 	private IExecutor requestExecutor;
 
+	// system property to disable sending responses for osgi.async services from the completion of the async result
+	private static final boolean ASYNC_COMPLETION = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.remoteservice.asyncCompletion", "true")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+
 	private Object remoteServiceCallPolicyLock = new Object();
 	private IRemoteServiceCallPolicy remoteServiceCallPolicy;
 
@@ -383,11 +405,9 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		waitForPendingUpdates(new ID[] {containerID});
 		ID localContainerID = getLocalContainerID();
 		if (containerID.equals(localContainerID)) {
-			synchronized (localRegistry) {
-				registration = localRegistry.findRegistrationForServiceId(serviceId.getContainerRelativeID());
-				if (registration != null)
-					return registration.getReference();
-			}
+			registration = localRegistry.findRegistrationForServiceId(serviceId.getContainerRelativeID());
+			if (registration != null)
+				return registration.getReference();
 		} else {
 			synchronized (remoteRegistrys) {
 				final ArrayList registrys = new ArrayList(remoteRegistrys.values());
@@ -408,11 +428,9 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			return null;
 		ID localContainerID = getLocalContainerID();
 		if (containerId.equals(localContainerID)) {
-			synchronized (localRegistry) {
-				RemoteServiceRegistrationImpl reg = localRegistry.findRegistrationForServiceId(containerRelativeId);
-				if (reg != null)
-					return reg.getID();
-			}
+			RemoteServiceRegistrationImpl reg = localRegistry.findRegistrationForServiceId(containerRelativeId);
+			if (reg != null)
+				return reg.getID();
 		} else {
 			synchronized (remoteRegistrys) {
 				@SuppressWarnings("unchecked")
@@ -489,8 +507,10 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		synchronized (addRegistrationRequests) {
 			addRegistrationRequests.clear();
 		}
-		synchronized (requests) {
-			requests.clear();
+		for (Iterator<Request> i = pendingRequests.values().iterator(); i.hasNext();) {
+			Request request = i.next();
+			if (removeRequest(request))
+				failRequest(request, new ECFException("Remote service registry disposed")); //$NON-NLS-1$
 		}
 		synchronized (pendingUpdateContainers) {
 			pendingUpdateContainers.clear();
@@ -504,6 +524,8 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		synchronized (localRegistryUnregistrationTargets) {
 			localRegistryUnregistrationTargets.clear();
 		}
+		if (requestExecutor instanceof PooledRequestExecutor)
+			((PooledRequestExecutor) requestExecutor).shutdown();
 		super.dispose(containerID);
 	}
 
@@ -939,36 +961,27 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	}
 
 	protected Object callSynch(RemoteServiceRegistrationImpl registration, IRemoteCall call) throws ECFException {
-		boolean doneWaiting = false;
 		Response response = null;
 		try {
-			// First send request
+			// Send request.  The request timeout is scheduled on the shared timer
+			// and completes the response future if no response arrives in time
 			final Request request = sendCallRequest(registration, call);
-			long requestId = request.getRequestId();
-			// Then get the specified timeout and calculate when we should
-			// timeout in real time
-			final long timeout = call.getTimeout() + System.currentTimeMillis();
-			// Now loop until timeout time has elapsed
-			while ((timeout - System.currentTimeMillis()) > 0 && !doneWaiting) {
-				synchronized (request) {
-					if (request.isDone()) {
-						doneWaiting = true;
-						response = request.getResponse();
-						if (response == null)
-							throw new ECFException("Invalid response for requestId=" + requestId); //$NON-NLS-1$
-					} else {
-						request.wait(RESPONSE_WAIT_INTERVAL);
-					}
-				}
-			}
-			if (!doneWaiting)
-				throw new ServiceException("Request timed out after " + Long.toString(call.getTimeout()) + "ms", ServiceException.REMOTE, new TimeoutException(call.getTimeout())); //$NON-NLS-1$ //$NON-NLS-2$
+			response = request.getResponseFuture().get();
+			if (response == null)
+				throw new ECFException("Invalid response for requestId=" + request.getRequestId()); //$NON-NLS-1$
 		} catch (final IOException e) {
 			log(CALL_REQUEST_ERROR_CODE, CALL_REQUEST_ERROR_MESSAGE, e);
 			throw new ECFException("Error sending request", e); //$NON-NLS-1$
 		} catch (final InterruptedException e) {
 			log(CALL_REQUEST_TIMEOUT_ERROR_CODE, CALL_REQUEST_TIMEOUT_ERROR_MESSAGE, e);
 			throw new ECFException("Wait for response interrupted", e); //$NON-NLS-1$
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof TimeoutException)
+				throw new ServiceException("Request timed out after " + Long.toString(call.getTimeout()) + "ms", ServiceException.REMOTE, cause); //$NON-NLS-1$ //$NON-NLS-2$
+			if (cause instanceof ECFException)
+				throw (ECFException) cause;
+			throw new ECFException("Exception waiting for response", cause); //$NON-NLS-1$
 		}
 		// Success...now get values and return
 		if (response.hadException())
@@ -1106,8 +1119,6 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 
 	private static final int REQUEST_NOT_FOUND_ERROR_CODE = 211;
 
-	private static final long RESPONSE_WAIT_INTERVAL = 500;
-
 	private static final String ADD_REGISTRATION = "handleAddRegistration"; //$NON-NLS-1$
 
 	private static final String ADD_REGISTRATIONS = "handleAddRegistrations"; //$NON-NLS-1$
@@ -1417,9 +1428,44 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			removeRequest(request);
 			throw e;
 		}
+		scheduleRequestTimeout(request, call.getTimeout());
 		return request;
 	}
 
+	private void scheduleRequestTimeout(final Request request, final long timeout) {
+		request.setTimeoutFuture(Activator.getDefault().getRequestTimeoutScheduler().schedule(new Runnable() {
+			public void run() {
+				// Only time out if the response has not already removed the request
+				if (removeRequest(request))
+					failRequest(request, new TimeoutException(timeout));
+			}
+		}, Math.max(0L, timeout), TimeUnit.MILLISECONDS));
+	}
+
+	private void failRequest(Request request, Throwable exception) {
+		request.cancelTimeout();
+		final IRemoteCallListener listener = request.getListener();
+		if (listener != null)
+			fireCallCompleteEvent(listener, request.getRequestId(), null, true, exception);
+		else
+			request.getResponseFuture().completeExceptionally(exception);
+	}
+
+	private void completeRequest(Request request, Response response) {
+		request.cancelTimeout();
+		final IRemoteCallListener listener = request.getListener();
+		if (listener != null) {
+			fireCallCompleteEvent(listener, request.getRequestId(), response.getResponse(), response.hadException(), response.getException());
+			return;
+		}
+		synchronized (request) {
+			request.setResponse(response);
+			request.setDone(true);
+			request.notify();
+		}
+		request.getResponseFuture().complete(response);
+	}
+
 	/**
 	 * @since 4.6
 	 */
@@ -1455,16 +1501,14 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			return AccessController.doPrivileged(new PrivilegedExceptionAction<Request>() {
 				@Override
 				public Request run() throws Exception {
-					OSGIObjectInputStream oins = new OSGIObjectInputStream(Activator.getDefault().getContext().getBundle(), new ByteArrayInputStream(requestBytes));
+					OSGIObjectInputStream oins = new OSGIObjectInputStream(Activator.getDefault().getBundle(), new ByteArrayInputStream(requestBytes));
 					long svcId = oins.readLong();
 					RemoteServiceRegistrationImpl reg = null;
 					// Find registration for this call request
-					synchronized (localRegistry) {
-						reg = localRegistry.findRegistrationForServiceId(svcId);
-						if (reg == null) {
-							oins.close();
-							throw new IOException("Remote service with id=" + svcId + " cannot be found in local registry"); //$NON-NLS-1$ //$NON-NLS-2$
-						}
+					reg = localRegistry.findRegistrationForServiceId(svcId);
+					if (reg == null) {
+						oins.close();
+						throw new IOException("Remote service with id=" + svcId + " cannot be found in local registry"); //$NON-NLS-1$ //$NON-NLS-2$
 					}
 					// Use classloader assigned to registration to get classLoader
 					oins.setClassLoader(reg.getClassLoader());
@@ -1522,7 +1566,7 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			return AccessController.doPrivileged(new PrivilegedExceptionAction<Response>() {
 				@Override
 				public Response run() throws Exception {
-					OSGIObjectInputStream oins = new OSGIObjectInputStream(Activator.getDefault().getContext().getBundle(), new ByteArrayInputStream(responseBytes));
+					OSGIObjectInputStream oins = new OSGIObjectInputStream(Activator.getDefault().getBundle(), new ByteArrayInputStream(responseBytes));
 
 					ID targetContainerID;
 					try {
@@ -1591,30 +1635,107 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 					return "Remote Request Handler - " + request.getCall().getMethod() + ":" + request.getRequestId(); //$NON-NLS-1$ //$NON-NLS-2$
 				}
 			};
+		} else if (DEFAULT_EXECUTOR_TYPE.equals("virtual")) { //$NON-NLS-1$
+			executor = PooledRequestExecutor.createVirtualThreads("Remote Request Handler", getExecutorMaxThreads(1024), EXECUTOR_QUEUE_SIZE, EXECUTOR_REJECTION_POLICY); //$NON-NLS-1$
+			// Virtual threads need Java 21, so fall back to pooled platform threads
+			if (executor == null)
+				executor = PooledRequestExecutor.createThreadPool("Remote Request Handler", getExecutorMaxThreads(4 * Runtime.getRuntime().availableProcessors()), EXECUTOR_QUEUE_SIZE, EXECUTOR_REJECTION_POLICY); //$NON-NLS-1$
+		} else if (DEFAULT_EXECUTOR_TYPE.equals("pool")) { //$NON-NLS-1$
+			executor = PooledRequestExecutor.createThreadPool("Remote Request Handler", getExecutorMaxThreads(4 * Runtime.getRuntime().availableProcessors()), EXECUTOR_QUEUE_SIZE, EXECUTOR_REJECTION_POLICY); //$NON-NLS-1$
 		}
 		return executor;
 	}
 
+	private static int getExecutorMaxThreads(int defaultMaxThreads) {
+		return (EXECUTOR_MAX_THREADS == null) ? defaultMaxThreads : Integer.parseInt(EXECUTOR_MAX_THREADS);
+	}
+
 	/**
+	 * Invoke the service method for the call, waiting for the value of any
+	 * asynchronous result.  Requests to osgi.async services are not invoked
+	 * through this method unless the org.eclipse.ecf.provider.remoteservice.asyncCompletion
+	 * system property is set to false, so that they do not hold a request
+	 * thread until their result is available.
+	 * 
 	 * @since 4.4
 	 */
 	protected Object invokeLocal(RemoteServiceRegistrationImpl reg, RemoteCallImpl call) throws InvocationTargetException, Exception, NoClassDefFoundError {
+		return invokeService(reg, call, true);
+	}
+
+	/**
+	 * @param waitForAsync if true, wait for the value of the CompletableFuture,
+	 * CompletionStage or Promise returned by an osgi.async service.  If false,
+	 * an {@link AsyncResult} is returned for it instead
+	 */
+	private Object invokeService(RemoteServiceRegistrationImpl reg, RemoteCallImpl call, boolean waitForAsync) throws InvocationTargetException, Exception, NoClassDefFoundError {
 		Object[] callArgs = call.getParameters();
 		Object[] args = (callArgs == null) ? SharedObjectMsg.nullArgs : callArgs;
 		Object service = reg.getService();
-		// Find appropriate method on service
-		final Method method = ClassUtil.getMethod(service.getClass(), call.getMethod(), SharedObjectMsg.getTypesForParameters(args));
-		// Actually invoke method on service object
-		Object result = method.invoke(service, args);
+		final Method method;
+		Object result;
+		if (RemoteServiceRegistrationImpl.DISPATCH_CACHE) {
+			// Find appropriate method on service, cached per registration
+			final MethodDispatchCache.Target target = reg.getDispatchTarget(call.getMethod(), args);
+			method = target.getMethod();
+			result = target.invoke(service, args);
+		} else {
+			// Find appropriate method on service
+			method = ClassUtil.getMethod(service.getClass(), call.getMethod(), SharedObjectMsg.getTypesForParameters(args));
+			// Actually invoke method on service object
+			result = method.invoke(service, args);
+		}
 		if (result != null) {
 			Class returnType = method.getReturnType();
 			// provider must expose osgi.async property and must be async return type
-			if (AsyncUtil.isOSGIAsync(reg.getReference()) && AsyncReturnUtil.isAsyncType(returnType))
+			if (AsyncUtil.isOSGIAsync(reg.getReference()) && AsyncReturnUtil.isAsyncType(returnType)) {
+				if (!waitForAsync) {
+					final CompletableFuture<Object> future = AsyncReturnUtil.toCompletableFuture(result);
+					if (future != null)
+						return new AsyncResult(future);
+				}
 				return AsyncReturnUtil.convertAsyncToReturn(result, returnType, call.getTimeout());
+			}
 		}
 		return result;
 	}
 
+	/**
+	 * Result of an osgi.async service that is not yet available
+	 */
+	private static final class AsyncResult {
+		final CompletableFuture<Object> future;
+
+		AsyncResult(CompletableFuture<Object> future) {
+			this.future = future;
+		}
+	}
+
+	private void respondOnCompletion(final Request request, final ID responseTarget, final CompletableFuture<Object> future, final long timeout, final boolean respond) {
+		final ScheduledFuture<?> timeoutFuture = (timeout > 0) ? Activator.getDefault().getRequestTimeoutScheduler().schedule(new Runnable() {
+			public void run() {
+				future.completeExceptionally(new java.util.concurrent.TimeoutException("Async result not available within timeout=" + timeout)); //$NON-NLS-1$
+			}
+		}, timeout, TimeUnit.MILLISECONDS) : null;
+		future.whenComplete(new BiConsumer<Object, Throwable>() {
+			public void accept(Object value, Throwable t) {
+				if (timeoutFuture != null)
+					timeoutFuture.cancel(false);
+				Response response = null;
+				if (t == null)
+					response = new Response(request.getRequestId(), value);
+				else {
+					// Report failures as waiting on the result with a timeout would
+					final Throwable e = (t instanceof java.util.concurrent.TimeoutException) ? t : new ExecutionException(t);
+					response = new Response(request.getRequestId(), getSerializableException(e));
+					logRemoteCallException("Unexpected exception invoking remote service.  Remote request=" + request, e); //$NON-NLS-1$
+				}
+				if (respond)
+					sendCallResponse(responseTarget, response);
+			}
+		});
+	}
+
 	/**
 	 * @param executor executor to use to execute request
 	 * @param request the request to execute
@@ -1637,7 +1758,12 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 					if (callPolicy != null)
 						callPolicy.checkRemoteCall(responseTarget, localRegistration, call);
 
-					result = invokeLocal(localRegistration, call);
+					result = (ASYNC_COMPLETION && AsyncUtil.isOSGIAsync(localRegistration.getReference())) ? invokeService(localRegistration, call, false) : invokeLocal(localRegistration, call);
+					if (result instanceof AsyncResult) {
+						// Respond when the result is available rather than holding this thread
+						respondOnCompletion(request, responseTarget, ((AsyncResult) result).future, call.getTimeout(), respond);
+						return null;
+					}
 
 					response = new Response(request.getRequestId(), result);
 					// Invocation target exception happens if the local method being invoked throws (cause)
@@ -1659,7 +1785,10 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			}
 		};
 		// Now actually execute the runnable asynchronously using the executor
-		executor.execute(runnable, new NullProgressMonitor());
+		IFuture future = executor.execute(runnable, new NullProgressMonitor());
+		// A bounded executor may refuse the request, in which case the requestor is told so
+		if (respond && future.isDone() && future.getStatus().getException() instanceof RejectedExecutionException)
+			sendErrorResponse(responseTarget, request.getRequestId(), "Remote request rejected by executor.  Remote request=" + request, future.getStatus().getException()); //$NON-NLS-1$
 	}
 
 	private void sendErrorResponse(ID responseTarget, long requestId, String message, Throwable e) {
@@ -1764,6 +1893,7 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		try {
 			addRequest(request);
 			sendSharedObjectMsgTo(remoteRegistration.getContainerID(), SharedObjectMsg.createMsg(CALL_REQUEST_BYTES, serializeCallRequest(request)));
+			scheduleRequestTimeout(request, call.getTimeout());
 		} catch (final IOException e) {
 			log(CALL_REQUEST_ERROR_CODE, CALL_REQUEST_ERROR_MESSAGE, e);
 			removeRequest(request);
@@ -1799,17 +1929,9 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			log(REQUEST_NOT_FOUND_ERROR_CODE, REQUEST_NOT_FOUND_ERROR_MESSAGE, new NullPointerException());
 			return;
 		}
-		removeRequest(request);
-		final IRemoteCallListener listener = request.getListener();
-		if (listener != null) {
-			fireCallCompleteEvent(listener, request.getRequestId(), response.getResponse(), response.hadException(), response.getException());
-			return;
-		}
-		synchronized (request) {
-			request.setResponse(response);
-			request.setDone(true);
-			request.notify();
-		}
+		// If not removed here the request has already timed out
+		if (removeRequest(request))
+			completeRequest(request, response);
 	}
 
 	/**
@@ -1830,17 +1952,9 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			log(REQUEST_NOT_FOUND_ERROR_CODE, REQUEST_NOT_FOUND_ERROR_MESSAGE, new NullPointerException());
 			return;
 		}
-		removeRequest(request);
-		final IRemoteCallListener listener = request.getListener();
-		if (listener != null) {
-			fireCallCompleteEvent(listener, request.getRequestId(), response.getResponse(), response.hadException(), response.getException());
-			return;
-		}
-		synchronized (request) {
-			request.setResponse(response);
-			request.setDone(true);
-			request.notify();
-		}
+		// If not removed here the request has already timed out
+		if (removeRequest(request))
+			completeRequest(request, response);
 	}
 
 	protected Request sendFireRequest(RemoteServiceRegistrationImpl remoteRegistration, IRemoteCall call) throws ECFException {
@@ -2061,9 +2175,8 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 * @since 3.2
 	 */
 	protected RemoteServiceRegistrationImpl getLocalRegistrationForRequest(Request request) {
-		synchronized (localRegistry) {
-			return localRegistry.findRegistrationForServiceId(request.getServiceId());
-		}
+		// The registry index may be read without holding the registry lock
+		return localRegistry.findRegistrationForServiceId(request.getServiceId());
 	}
 
 	/**
@@ -2071,11 +2184,8 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 * @return true if added, false if not added
 	 * @since 3.2
 	 */
-	@SuppressWarnings("unchecked")
 	protected boolean addRequest(Request request) {
-		synchronized (requests) {
-			return requests.add(request);
-		}
+		return pendingRequests.putIfAbsent(Long.valueOf(request.getRequestId()), request) == null;
 	}
 
 	/**
@@ -2084,16 +2194,7 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 * @since 3.2
 	 */
 	protected Request getRequest(long requestId) {
-		synchronized (requests) {
-			for (final Iterator i = requests.iterator(); i.hasNext();) {
-				final Request req = (Request) i.next();
-				final long reqId = req.getRequestId();
-				if (reqId == requestId) {
-					return req;
-				}
-			}
-		}
-		return null;
+		return pendingRequests.get(Long.valueOf(requestId));
 	}
 
 	/**
@@ -2102,8 +2203,47 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 * @since 3.2
 	 */
 	protected boolean removeRequest(Request request) {
-		synchronized (requests) {
-			return requests.remove(request);
+		return pendingRequests.remove(Long.valueOf(request.getRequestId()), request);
+	}
+
+	/**
+	 * List view of the pending requests.  Adding and removing go through the
+	 * map, so requests can be looked up by id either way.
+	 */
+	@SuppressWarnings("rawtypes")
+	private class PendingRequestList extends AbstractList {
+
+		public Object get(int index) {
+			for (Iterator<Request> i = pendingRequests.values().iterator(); i.hasNext(); index--) {
+				Request request = i.next();
+				if (index == 0)
+					return request;
+			}
+			throw new IndexOutOfBoundsException();
+		}
+
+		public int size() {
+			return pendingRequests.size();
+		}
+
+		public boolean add(Object o) {
+			return addRequest((Request) o);
+		}
+
+		public boolean remove(Object o) {
+			return (o instanceof Request) && removeRequest((Request) o);
+		}
+
+		public boolean contains(Object o) {
+			return pendingRequests.containsValue(o);
+		}
+
+		public Iterator iterator() {
+			return pendingRequests.values().iterator();
+		}
+
+		public void clear() {
+			pendingRequests.clear();
 		}
 	}
 
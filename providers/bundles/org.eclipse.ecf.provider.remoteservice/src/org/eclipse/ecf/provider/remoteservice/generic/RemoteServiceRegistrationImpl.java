@@ -56,6 +56,14 @@ public class RemoteServiceRegistrationImpl implements IRemoteServiceRegistration
 
 	protected transient RegistrySharedObject sharedObject = null;
 
+	/**
+	 * If true (the default), resolved service methods are cached per
+	 * registration rather than looked up on every call.
+	 */
+	static final boolean DISPATCH_CACHE = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.remoteservice.dispatchCache", "true")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private transient volatile MethodDispatchCache dispatchCache;
+
 	/**
 	 * @since 3.0
 	 */
@@ -133,6 +141,7 @@ public class RemoteServiceRegistrationImpl implements IRemoteServiceRegistration
 		if (sharedObject != null) {
 			sharedObject.sendUnregister(this);
 		}
+		clearDispatchCache();
 		this.classLoader = null;
 	}
 
@@ -419,6 +428,8 @@ public class RemoteServiceRegistrationImpl implements IRemoteServiceRegistration
 	@SuppressWarnings("unchecked")
 	public Object callService(RemoteCallImpl call) throws Exception {
 		Object[] args = (call.getParameters() == null) ? SharedObjectMsg.nullArgs : call.getParameters();
+		if (DISPATCH_CACHE)
+			return getDispatchTarget(call.getMethod(), args).invoke(service, args);
 		final Method method = ClassUtil.getMethod(service.getClass(), call.getMethod(), SharedObjectMsg.getTypesForParameters(args));
 		AccessController.doPrivileged(new PrivilegedExceptionAction() {
 			public Object run() throws Exception {
@@ -430,6 +441,26 @@ public class RemoteServiceRegistrationImpl implements IRemoteServiceRegistration
 		return method.invoke(service, args);
 	}
 
+	/**
+	 * Resolve, and cache for subsequent calls, the service method for the
+	 * given method name and arguments.
+	 */
+	MethodDispatchCache.Target getDispatchTarget(String methodName, Object[] args) throws Exception {
+		MethodDispatchCache cache = dispatchCache;
+		if (cache == null) {
+			cache = new MethodDispatchCache(service.getClass());
+			dispatchCache = cache;
+		}
+		return cache.getTarget(methodName, SharedObjectMsg.getTypesForParameters(args));
+	}
+
+	void clearDispatchCache() {
+		final MethodDispatchCache cache = dispatchCache;
+		dispatchCache = null;
+		if (cache != null)
+			cache.clear();
+	}
+
 	public String toString() {
 		StringBuffer buf = new StringBuffer("RemoteServiceRegistrationImpl["); //$NON-NLS-1$
 		buf.append("remoteServiceID=").append(getID()).append(";"); //$NON-NLS-1$ //$NON-NLS-2$
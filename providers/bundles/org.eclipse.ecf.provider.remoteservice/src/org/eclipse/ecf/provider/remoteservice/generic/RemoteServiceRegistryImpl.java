@@ -11,7 +11,7 @@
  *****************************************************************************/
 package org.eclipse.ecf.provider.remoteservice.generic;
 
-import java.io.Serializable;
+import java.io.*;
 import java.util.*;
 import org.eclipse.ecf.core.identity.ID;
 import org.eclipse.ecf.core.identity.IDFactory;
@@ -35,14 +35,25 @@ public class RemoteServiceRegistryImpl implements Serializable {
 
 	/**
 	 * Published services by class name. Key is a String class name; Value is a
-	 * ArrayList of IRemoteServiceRegistrations
+	 * ArrayList of IRemoteServiceRegistrations.  Only modified while holding
+	 * the registry lock.
 	 */
 	protected HashMap publishedServicesByClass = new HashMap(50);
 
 	protected ID containerID;
 
-	/** All published services */
-	protected ArrayList allPublishedServices = new ArrayList(50);
+	/**
+	 * All published services.  Only modified while holding the registry lock.
+	 * Lookups are answered from this list, through a snapshot that is rebuilt
+	 * whenever the list changes.
+	 */
+	protected ArrayList allPublishedServices = new PublishedServices(50);
+
+	/**
+	 * Snapshot of allPublishedServices, may be read without holding the
+	 * registry lock.  <code>null</code> if it must be rebuilt.
+	 */
+	private transient volatile Snapshot snapshot;
 
 	public RemoteServiceRegistryImpl(ID localContainerID) {
 		this();
@@ -66,7 +77,7 @@ public class RemoteServiceRegistryImpl implements Serializable {
 	}
 
 	@SuppressWarnings("unchecked")
-	public void publishService(RemoteServiceRegistrationImpl serviceReg) {
+	public synchronized void publishService(RemoteServiceRegistrationImpl serviceReg) {
 
 		// Add the ServiceRegistration to the list of Services published by
 		// Class Name.
@@ -88,9 +99,11 @@ public class RemoteServiceRegistryImpl implements Serializable {
 
 		// Add the ServiceRegistration to the list of all published Services.
 		allPublishedServices.add(serviceReg);
+
+		snapshot = null;
 	}
 
-	public void unpublishService(RemoteServiceRegistrationImpl serviceReg) {
+	public synchronized void unpublishService(RemoteServiceRegistrationImpl serviceReg) {
 
 		// Remove the ServiceRegistration from the list of Services published by
 		// Class Name.
@@ -109,40 +122,34 @@ public class RemoteServiceRegistryImpl implements Serializable {
 		// Services.
 		allPublishedServices.remove(serviceReg);
 
+		snapshot = null;
 	}
 
-	public void unpublishServices() {
+	public synchronized void unpublishServices() {
 		publishedServicesByClass.clear();
 		allPublishedServices.clear();
+		snapshot = null;
 	}
 
 	@SuppressWarnings("unchecked")
 	public IRemoteServiceReference[] lookupServiceReferences(String clazz, IRemoteFilter filter) {
-		int size;
 		ArrayList references;
-		ArrayList serviceRegs;
+		final Snapshot current = getSnapshot();
+		RemoteServiceRegistrationImpl[] serviceRegs;
 		if (clazz == null) {
-			serviceRegs = allPublishedServices;
+			serviceRegs = current.all;
 		} else {
 			/* services registered under the class name */
-			serviceRegs = (ArrayList) publishedServicesByClass.get(clazz);
+			serviceRegs = current.byClass.get(clazz);
 		}
 
-		if (serviceRegs == null) {
+		if (serviceRegs == null || serviceRegs.length == 0) {
 			return (null);
 		}
 
-		size = serviceRegs.size();
-
-		if (size == 0) {
-			return (null);
-		}
-
-		references = new ArrayList(size);
-		for (int i = 0; i < size; i++) {
-			final IRemoteServiceRegistration registration = (IRemoteServiceRegistration) serviceRegs.get(i);
-
-			final IRemoteServiceReference reference = registration.getReference();
+		references = new ArrayList(serviceRegs.length);
+		for (int i = 0; i < serviceRegs.length; i++) {
+			final IRemoteServiceReference reference = serviceRegs[i].getReference();
 			if ((filter == null) || filter.match(reference)) {
 				references.add(reference);
 			}
@@ -158,42 +165,31 @@ public class RemoteServiceRegistryImpl implements Serializable {
 
 	@SuppressWarnings("unchecked")
 	public IRemoteServiceReference[] lookupServiceReferences() {
-		int size;
 		ArrayList references;
-		size = allPublishedServices.size();
-
-		if (size == 0) {
+		final RemoteServiceRegistrationImpl[] all = getSnapshot().all;
+		if (all.length == 0) {
 			return (null);
 		}
 
-		references = new ArrayList(size);
-		for (int i = 0; i < size; i++) {
-			final IRemoteServiceRegistration registration = (IRemoteServiceRegistration) allPublishedServices.get(i);
-
-			final IRemoteServiceReference reference = registration.getReference();
-			references.add(reference);
-		}
-
-		if (references.size() == 0) {
-			return null;
+		references = new ArrayList(all.length);
+		for (int i = 0; i < all.length; i++) {
+			references.add(all[i].getReference());
 		}
 
 		return (IRemoteServiceReference[]) references.toArray(new RemoteServiceReferenceImpl[references.size()]);
 	}
 
-	@SuppressWarnings("unchecked")
 	protected RemoteServiceRegistrationImpl[] getRegistrations() {
-		return (RemoteServiceRegistrationImpl[]) allPublishedServices.toArray(new RemoteServiceRegistrationImpl[allPublishedServices.size()]);
+		return getSnapshot().all.clone();
 	}
 
+	/**
+	 * May be called without holding the registry lock.
+	 * @param serviceId container relative id of the registration to find
+	 * @return RemoteServiceRegistrationImpl the registration, or <code>null</code> if not found
+	 */
 	protected RemoteServiceRegistrationImpl findRegistrationForServiceId(long serviceId) {
-		for (final Iterator i = allPublishedServices.iterator(); i.hasNext();) {
-			final RemoteServiceRegistrationImpl reg = (RemoteServiceRegistrationImpl) i.next();
-			if (serviceId == reg.getServiceId()) {
-				return reg;
-			}
-		}
-		return null;
+		return getSnapshot().byId.get(Long.valueOf(serviceId));
 	}
 
 	/**
@@ -202,17 +198,38 @@ public class RemoteServiceRegistryImpl implements Serializable {
 	 * @since 3.0
 	 */
 	protected RemoteServiceRegistrationImpl findRegistrationForRemoteServiceId(IRemoteServiceID remoteServiceID) {
-		for (final Iterator i = allPublishedServices.iterator(); i.hasNext();) {
-			final RemoteServiceRegistrationImpl reg = (RemoteServiceRegistrationImpl) i.next();
-			if (remoteServiceID.equals(reg.getID()))
-				return reg;
+		final Snapshot current = getSnapshot();
+		final RemoteServiceRegistrationImpl reg = current.byId.get(Long.valueOf(remoteServiceID.getContainerRelativeID()));
+		if (reg != null && remoteServiceID.equals(reg.getID()))
+			return reg;
+		for (int i = 0; i < current.all.length; i++) {
+			if (remoteServiceID.equals(current.all[i].getID()))
+				return current.all[i];
 		}
 		return null;
 	}
 
+	/**
+	 * @return the snapshot of allPublishedServices, rebuilt if the list has
+	 * changed since it was taken
+	 */
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		if (current != null && current.isCurrent(allPublishedServices))
+			return current;
+		synchronized (this) {
+			current = snapshot;
+			if (current == null || !current.isCurrent(allPublishedServices)) {
+				current = new Snapshot(allPublishedServices);
+				snapshot = current;
+			}
+			return current;
+		}
+	}
+
 	public String toString() {
 		final StringBuffer buf = new StringBuffer("RemoteServiceRegistryImpl["); //$NON-NLS-1$
-		buf.append("all=").append(allPublishedServices).append(";").append("byclass=").append(publishedServicesByClass).append("]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		buf.append("all=").append(Arrays.asList(getSnapshot().all)).append(";").append("byclass=").append(publishedServicesByClass).append("]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 		return buf.toString();
 	}
 
@@ -225,4 +242,96 @@ public class RemoteServiceRegistryImpl implements Serializable {
 		return (IRemoteServiceID) IDFactory.getDefault().createID(IDFactory.getDefault().getNamespaceByName(RemoteServiceNamespace.NAME), new Object[] {getContainerID(), new Long(serviceid)});
 	}
 
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		// Same serialized form as a plain ArrayList of services
+		final ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("publishedServicesByClass", publishedServicesByClass); //$NON-NLS-1$
+		fields.put("containerID", containerID); //$NON-NLS-1$
+		fields.put("allPublishedServices", (allPublishedServices == null) ? null : new ArrayList(allPublishedServices)); //$NON-NLS-1$
+		out.writeFields();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		if (allPublishedServices != null)
+			allPublishedServices = new PublishedServices(allPublishedServices);
+	}
+
+	/**
+	 * Exposes the modification count, so that a snapshot can tell whether
+	 * the list has changed, including changes made by subclasses.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final class PublishedServices extends ArrayList {
+
+		private static final long serialVersionUID = 2787420941404316347L;
+
+		PublishedServices(int initialCapacity) {
+			super(initialCapacity);
+		}
+
+		@SuppressWarnings("unchecked")
+		PublishedServices(Collection c) {
+			super(c);
+		}
+
+		@SuppressWarnings("unchecked")
+		public Object set(int index, Object element) {
+			modCount++;
+			return super.set(index, element);
+		}
+
+		int getModCount() {
+			return modCount;
+		}
+	}
+
+	/**
+	 * Published services by class name and by container relative id, taken
+	 * from allPublishedServices while holding the registry lock.
+	 */
+	private static final class Snapshot {
+
+		private final List source;
+		private final int modCount;
+
+		final RemoteServiceRegistrationImpl[] all;
+		final Map<String, RemoteServiceRegistrationImpl[]> byClass = new HashMap<String, RemoteServiceRegistrationImpl[]>();
+		final Map<Long, RemoteServiceRegistrationImpl> byId = new HashMap<Long, RemoteServiceRegistrationImpl>();
+
+		Snapshot(List source) {
+			this.source = source;
+			this.modCount = (source instanceof PublishedServices) ? ((PublishedServices) source).getModCount() : -1;
+			this.all = (source == null) ? new RemoteServiceRegistrationImpl[0] : (RemoteServiceRegistrationImpl[]) source.toArray(new RemoteServiceRegistrationImpl[source.size()]);
+			final Map<String, List<RemoteServiceRegistrationImpl>> classes = new HashMap<String, List<RemoteServiceRegistrationImpl>>();
+			for (int i = 0; i < all.length; i++) {
+				final String[] clazzes = (String[]) all[i].getReference().getProperty(REMOTEOBJECTCLASS);
+				for (int j = 0; j < clazzes.length; j++) {
+					List<RemoteServiceRegistrationImpl> services = classes.get(clazzes[j]);
+					if (services == null) {
+						services = new ArrayList<RemoteServiceRegistrationImpl>(4);
+						classes.put(clazzes[j], services);
+					}
+					services.add(all[i]);
+				}
+				// First published wins, as for a search of allPublishedServices
+				final Long serviceId = Long.valueOf(all[i].getServiceId());
+				if (!byId.containsKey(serviceId))
+					byId.put(serviceId, all[i]);
+			}
+			for (final Iterator<Map.Entry<String, List<RemoteServiceRegistrationImpl>>> i = classes.entrySet().iterator(); i.hasNext();) {
+				final Map.Entry<String, List<RemoteServiceRegistrationImpl>> entry = i.next();
+				byClass.put(entry.getKey(), entry.getValue().toArray(new RemoteServiceRegistrationImpl[entry.getValue().size()]));
+			}
+		}
+
+		/**
+		 * A list that is not a {@link PublishedServices}, as set by a
+		 * subclass, is never current, so lookups see every change.
+		 */
+		boolean isCurrent(List list) {
+			return list == source && modCount >= 0 && ((PublishedServices) list).getModCount() == modCount;
+		}
+	}
+
 }
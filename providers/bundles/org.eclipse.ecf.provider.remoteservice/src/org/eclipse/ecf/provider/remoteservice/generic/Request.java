@@ -12,6 +12,8 @@
 package org.eclipse.ecf.provider.remoteservice.generic;
 
 import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 import org.eclipse.ecf.core.identity.ID;
 import org.eclipse.ecf.remoteservice.IRemoteCallListener;
 
@@ -35,6 +37,10 @@ public class Request implements Serializable {
 
 	transient IRemoteCallListener listener = null;
 
+	private transient CompletableFuture<Response> responseFuture;
+
+	private transient ScheduledFuture<?> timeoutFuture;
+
 	private synchronized static long getNextRequestId() {
 		long result = nextRequestId;
 		nextRequestId = (nextRequestId == Long.MAX_VALUE) ? 0L : nextRequestId + 1;
@@ -89,6 +95,28 @@ public class Request implements Serializable {
 		return listener;
 	}
 
+	/**
+	 * @return CompletableFuture completed with the response for this request,
+	 * or exceptionally if the request times out
+	 * @since 4.7
+	 */
+	protected synchronized CompletableFuture<Response> getResponseFuture() {
+		if (responseFuture == null)
+			responseFuture = new CompletableFuture<Response>();
+		return responseFuture;
+	}
+
+	synchronized void setTimeoutFuture(ScheduledFuture<?> future) {
+		this.timeoutFuture = future;
+	}
+
+	synchronized void cancelTimeout() {
+		if (timeoutFuture != null) {
+			timeoutFuture.cancel(false);
+			timeoutFuture = null;
+		}
+	}
+
 	public String toString() {
 		final StringBuffer buf = new StringBuffer("Request["); //$NON-NLS-1$
 		buf.append("requestId=").append(requestId).append(";cont=").append( //$NON-NLS-1$ //$NON-NLS-2$
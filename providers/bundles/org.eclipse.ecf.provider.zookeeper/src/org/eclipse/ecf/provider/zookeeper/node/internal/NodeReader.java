@@ -18,10 +18,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.Map;
 
-import org.apache.zookeeper.WatchedEvent;
-import org.apache.zookeeper.Watcher;
-import org.apache.zookeeper.Watcher.Event.EventType;
-import org.apache.zookeeper.Watcher.Event.KeeperState;
 import org.apache.zookeeper.ZooKeeper;
 import org.apache.zookeeper.data.Stat;
 import org.eclipse.core.runtime.Assert;
@@ -32,7 +28,7 @@ import org.eclipse.ecf.provider.zookeeper.util.Logger;
 import org.eclipse.ecf.provider.zookeeper.util.PrettyPrinter;
 import org.osgi.service.log.LogService;
 
-public class NodeReader implements Watcher,
+public class NodeReader implements
 		org.apache.zookeeper.AsyncCallback.DataCallback {
 
 	private String path;
@@ -50,8 +46,11 @@ public class NodeReader implements Watcher,
 		this.path = path;
 		this.zookeeper = readRoot.getReadKeeper();
 		this.ip = readRoot.getIp();
-		this.zookeeper.getData(getAbsolutePath(), this, this, null);
-		this.zookeeper.exists(getAbsolutePath(), this, null, null);
+		/*
+		 * no watch, the ReadRoot watches the children of the root and disposes
+		 * this reader when the node is deleted or the connection is lost
+		 */
+		this.zookeeper.getData(getAbsolutePath(), false, this, null);
 	}
 
 	public void setPath(String path) {
@@ -68,7 +67,8 @@ public class NodeReader implements Watcher,
 
 	public synchronized void processResult(int rc, String p, Object ctx,
 			byte[] data, Stat stat) {
-		if (p == null || !p.equals(getAbsolutePath()) || data == null) {
+		if (isDisposed || p == null || !p.equals(getAbsolutePath())
+				|| data == null) {
 			return;
 		}
 		ObjectInputStream objin = null;
@@ -122,33 +122,16 @@ public class NodeReader implements Watcher,
 		return this.ip;
 	}
 
-	public void process(WatchedEvent event) {
-
-		if (this.isDisposed) {
-			// Already disposed
-			return;
-		}
-		if (event.getState() == KeeperState.Disconnected
-				|| event.getState() == KeeperState.Expired
-				|| event.getType() == EventType.NodeDeleted) {
-			/*
-			 * This node is deleted or the connection with the server we're
-			 * reading from is down. This discovered service wrapped by this
-			 * node is no more available.
-			 */
-			dispose();
-		}
-
-	}
-
 	public synchronized void dispose() {
-		if (isDisposed || discovered == null)
+		if (isDisposed)
 			return;
-		if (null != readRoot.getDiscoverdServices().remove(
-				this.discovered.getServiceID().getServiceTypeID().getName())) {
+		/* also when the data has not been read yet, so it is ignored then */
+		isDisposed = true;
+		if (discovered != null
+				&& null != readRoot.getDiscoverdServices().remove(
+						this.discovered.getServiceID().getServiceTypeID()
+								.getName())) {
 			this.discovered.dispose();
-			isDisposed = true;
-
 		}
 	}
 
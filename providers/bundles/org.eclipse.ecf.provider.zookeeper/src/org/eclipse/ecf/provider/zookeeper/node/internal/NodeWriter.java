@@ -16,7 +16,6 @@ package org.eclipse.ecf.provider.zookeeper.node.internal;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.ZooDefs.Ids;
-import org.apache.zookeeper.data.Stat;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.provider.zookeeper.core.AdvertisedService;
 import org.eclipse.ecf.provider.zookeeper.core.internal.Localizer;
@@ -52,59 +51,97 @@ public class NodeWriter {
 
 	public synchronized void publish() {
 		try {
-			String parentPath = this.getNode().getAbsolutePath();
-			Stat stat = this.writeRoot.getWriteKeeper().exists(parentPath,
-					false);
-			if (stat == null) {
-				this.writeRoot.getWriteKeeper()
-						.create(parentPath,
-								((AdvertisedService) this.getNode()
-										.getWrappedService())
-										.getPropertiesAsBytes(),
-								Ids.OPEN_ACL_UNSAFE, CreateMode.EPHEMERAL);
-			}
-			Logger.log(LogService.LOG_INFO, PrettyPrinter.prompt(PrettyPrinter.PUBLISHED, this.getNode().getWrappedService()), null);
+			this.writeRoot.getWriteKeeper().create(
+					this.getNode().getAbsolutePath(),
+					((AdvertisedService) this.getNode().getWrappedService())
+							.getPropertiesAsBytes(), Ids.OPEN_ACL_UNSAFE,
+					CreateMode.EPHEMERAL);
+			published(KeeperException.Code.OK);
 		} catch (KeeperException e) {
-			if (e.code() == KeeperException.Code.CONNECTIONLOSS) {
-				Logger.log(LogService.LOG_ERROR, "Can't connect to server! "
-						+ e.getMessage(), e);
-			}
+			published(e.code());
 		} catch (InterruptedException e) {
 			// ignore
 		}
 	}
 
+	/**
+	 * Sends the create request of this node without waiting for the reply. A
+	 * node that already exists is left as it is, so no separate request is
+	 * needed to check for it first.
+	 */
+	void publish(WriteBatch<NodeWriter> batch) {
+		batch.sent();
+		this.writeRoot.getWriteKeeper().create(
+				this.getNode().getAbsolutePath(),
+				((AdvertisedService) this.getNode().getWrappedService())
+						.getPropertiesAsBytes(), Ids.OPEN_ACL_UNSAFE,
+				CreateMode.EPHEMERAL, batch, this);
+	}
+
+	void published(KeeperException.Code code) {
+		if (code == KeeperException.Code.OK
+				|| code == KeeperException.Code.NODEEXISTS) {
+			Logger.log(LogService.LOG_INFO, PrettyPrinter.prompt(PrettyPrinter.PUBLISHED, this.getNode().getWrappedService()), null);
+		} else if (code == KeeperException.Code.CONNECTIONLOSS) {
+			KeeperException e = KeeperException.create(code);
+			Logger.log(LogService.LOG_ERROR, "Can't connect to server! "
+					+ e.getMessage(), e);
+		}
+	}
+
 	public synchronized void remove() {
 		if (this.writeRoot.isConnected()) {
 			try {
-				String nodePath = this.getNode().getAbsolutePath();
-				Stat stat = this.writeRoot.getWriteKeeper().exists(nodePath,
-						false);
-				if (stat == null) {
-					// nothing to remove
-					return;
-				}
-				// delete node
-				this.writeRoot.getWriteKeeper().delete(nodePath, -1);
-				Localizer.getSingleton().localize(
-						new Notification(this.getNode().getWrappedService(),
-								Notification.UNAVAILABLE));
-				Logger.log(LogService.LOG_INFO, PrettyPrinter.prompt(PrettyPrinter.UNPUBLISHED, this.getNode().getWrappedService()), null);
-
+				this.writeRoot.getWriteKeeper().delete(
+						this.getNode().getAbsolutePath(), -1);
+				removed(KeeperException.Code.OK);
 			} catch (KeeperException e) {
-				// ignore
+				removed(e.code());
 			} catch (InterruptedException e) {
 				// ignore
 			}
-		} else if (!this.writeRoot.isConnected()
-				&& writeRoot.getWatchManager().getConfig().isCentralized()) {
+		} else {
+			disconnected();
+		}
+	}
+
+	/**
+	 * Sends the delete request of this node without waiting for the reply, if
+	 * connected. A node that does not exist is reported as
+	 * {@link KeeperException.Code#NONODE}, so no separate request is needed to
+	 * check for it first.
+	 * 
+	 * @return <code>true</code> if the request was sent
+	 */
+	boolean remove(WriteBatch<NodeWriter> batch) {
+		if (this.writeRoot.isConnected()) {
+			batch.sent();
+			this.writeRoot.getWriteKeeper().delete(
+					this.getNode().getAbsolutePath(), -1, batch, this);
+			return true;
+		}
+		disconnected();
+		return false;
+	}
+
+	private void disconnected() {
+		if (writeRoot.getWatchManager().getConfig().isCentralized()) {
 			/*
 			 * connection lost to the central ZooDiscovery where our services
 			 * are published to.
 			 */
 			Logger.log(LogService.LOG_INFO, PrettyPrinter.prompt(PrettyPrinter.UNPUBLISHED, this.getNode().getWrappedService()), null);
 		}
+	}
 
+	void removed(KeeperException.Code code) {
+		if (code == KeeperException.Code.OK) {
+			Localizer.getSingleton().localize(
+					new Notification(this.getNode().getWrappedService(),
+							Notification.UNAVAILABLE));
+			Logger.log(LogService.LOG_INFO, PrettyPrinter.prompt(PrettyPrinter.UNPUBLISHED, this.getNode().getWrappedService()), null);
+		}
+		// nothing removed otherwise
 	}
 
 	public INode getNode() {
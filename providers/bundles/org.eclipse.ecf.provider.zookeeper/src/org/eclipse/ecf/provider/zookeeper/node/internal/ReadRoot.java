@@ -16,13 +16,17 @@ package org.eclipse.ecf.provider.zookeeper.node.internal;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import org.apache.zookeeper.AsyncCallback.ChildrenCallback;
+import org.apache.zookeeper.AsyncCallback.Children2Callback;
 import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.Watcher.Event.EventType;
 import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.provider.zookeeper.core.DiscoverdService;
 import org.eclipse.ecf.provider.zookeeper.core.ZooDiscoveryContainer;
@@ -30,7 +34,7 @@ import org.eclipse.ecf.provider.zookeeper.util.Geo;
 import org.eclipse.ecf.provider.zookeeper.util.Logger;
 import org.osgi.service.log.LogService;
 
-public class ReadRoot implements Watcher, ChildrenCallback {
+public class ReadRoot implements Watcher, Children2Callback {
 	ZooKeeper readKeeper;
 	String ip;
 	private final WatchManager watchManager;
@@ -40,6 +44,12 @@ public class ReadRoot implements Watcher, ChildrenCallback {
 	private final Map<String, DiscoverdService> discoverdServices;
 	private final Map<String, List<DiscoverdService>> perTypeDiscoverdServices;
 	private final Object connectionLock = new Object();
+	/*
+	 * The child version of the root of the children applied last, guarded by
+	 * connectionLock. The replies are applied on a thread pool, so a reply to
+	 * an earlier read can come after the reply to a later one.
+	 */
+	private int appliedCversion = -1;
 
 	ReadRoot(String ip, WatchManager watchManager) {
 		Assert.isNotNull(ip);
@@ -62,12 +72,18 @@ public class ReadRoot implements Watcher, ChildrenCallback {
 
 					switch (event.getState()) {
 					case Disconnected:
+						/*
+						 * The services read from the server we lost are no
+						 * more available.
+						 */
+						disposeNodeReaders();
 						if (!ReadRoot.this.readKeeper.getState().isAlive()) {
 							ReadRoot.this.isConnected = false;
 							connect();
 						}
 						break;
 					case Expired:
+						disposeNodeReaders();
 						ReadRoot.this.isConnected = false;
 						connect();
 						break;
@@ -80,18 +96,19 @@ public class ReadRoot implements Watcher, ChildrenCallback {
 									ReadRoot.this, null, null);
 							ReadRoot.this.readKeeper.getChildren(INode.ROOT,
 									ReadRoot.this, ReadRoot.this, null);
+						} else if (event.getType() == EventType.None) {
+							/*
+							 * reconnected within the session, read again what
+							 * was disposed when disconnected
+							 */
+							ReadRoot.this.readKeeper.getChildren(INode.ROOT,
+									ReadRoot.this, ReadRoot.this, null);
 						}
 						break;
 
 					// ignore @deprecated cases
 					}
 					switch (event.getType()) {
-					case NodeDeleted:
-						if (event.getPath() == null
-								|| event.getPath().equals(INode.ROOT))
-							break;
-						ReadRoot.this.nodeReaders.remove(event.getPath());
-						break;
 					case NodeChildrenChanged:
 						if (ReadRoot.this.isConnected) {
 							ReadRoot.this.readKeeper.exists(INode.ROOT,
@@ -111,7 +128,7 @@ public class ReadRoot implements Watcher, ChildrenCallback {
 			if (this.isConnected || watchManager.isDisposed())
 				return;
 
-			this.nodeReaders.clear();
+			disposeNodeReaders();
 			if (this.readKeeper != null) {
 				// discard the current stale reader
 				try {
@@ -136,29 +153,53 @@ public class ReadRoot implements Watcher, ChildrenCallback {
 		}
 	}
 
+	/**
+	 * Called with the children of the root, which are watched with a single
+	 * watch for any child added or removed. The service nodes are not watched
+	 * one by one: a node is only ever created and deleted, never changed, so
+	 * its data is read once and it is gone when it is no more a child.
+	 * <p>
+	 * A list of children older than the one applied last, by the child
+	 * version of the root, is dropped.
+	 */
 	public void processResult(int rc, final String path, Object ctx,
-			final List<String> children) {
+			final List<String> children, final Stat stat) {
 		ZooDiscoveryContainer.CACHED_THREAD_POOL.execute(new Runnable() {
 			public void run() {
 				synchronized (connectionLock) {
 					if (watchManager.isDisposed())
 						return;
-					if (path == null || children == null
-							|| children.size() == 0) {
+					if (path == null || children == null || stat == null) {
 						return;
 					}
+					if (stat.getCversion() < ReadRoot.this.appliedCversion) {
+						return;
+					}
+					ReadRoot.this.appliedCversion = stat.getCversion();
+					/* dispose the readers of the nodes deleted */
+					Set<String> deleted;
+					synchronized (ReadRoot.this.nodeReaders) {
+						deleted = new HashSet<String>(
+								ReadRoot.this.nodeReaders.keySet());
+					}
+					deleted.removeAll(children);
+					for (String p : deleted) {
+						NodeReader nr = ReadRoot.this.nodeReaders.remove(p);
+						if (nr != null)
+							nr.dispose();
+					}
 					for (String p : children) {
 						if (Geo.isOwnPublication(p)) {
 							/* own publications need not to be discovered */
 							continue;
 						}
 						if (!ReadRoot.this.nodeReaders.containsKey(p)) {
-							/* launch a new reader to handle this node's data */
+							/*
+							 * launch a new reader to handle this node's data.
+							 * It reads asynchronously, so the data of all new
+							 * nodes is requested at once.
+							 */
 							NodeReader nr = new NodeReader(p, ReadRoot.this);
-							/* watch this very path for deletion */
-							ReadRoot.this.readKeeper.exists(
-									nr.getAbsolutePath(), ReadRoot.this, null,
-									null);
 							ReadRoot.this.nodeReaders.put(nr.getPath(), nr);
 						}
 					}
@@ -167,6 +208,20 @@ public class ReadRoot implements Watcher, ChildrenCallback {
 		});
 	}
 
+	private void disposeNodeReaders() {
+		// the children have to be applied again, whatever their version
+		this.appliedCversion = -1;
+		NodeReader[] readers;
+		synchronized (this.nodeReaders) {
+			readers = this.nodeReaders.values().toArray(
+					new NodeReader[this.nodeReaders.size()]);
+			this.nodeReaders.clear();
+		}
+		for (int i = 0; i < readers.length; i++) {
+			readers[i].dispose();
+		}
+	}
+
 	public ZooKeeper getReadKeeper() {
 		return this.readKeeper;
 	}
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.ZooKeeper;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.discovery.IServiceInfo;
@@ -36,6 +37,21 @@ import org.osgi.service.log.LogService;
 
 public class WatchManager implements BundleStoppingListener {
 
+	/*
+	 * Results are handed to the writers through these, so that replies that
+	 * arrive after a batch was awaited on the event thread are still handled.
+	 */
+	private static final WriteBatch.Callback<NodeWriter> PUBLISHED = new WriteBatch.Callback<NodeWriter>() {
+		public void completed(NodeWriter nw, KeeperException.Code code) {
+			nw.published(code);
+		}
+	};
+	private static final WriteBatch.Callback<NodeWriter> REMOVED = new WriteBatch.Callback<NodeWriter>() {
+		public void completed(NodeWriter nw, KeeperException.Code code) {
+			nw.removed(code);
+		}
+	};
+
 	private List<ZooKeeper> zooKeepers;
 	private Map<String, NodeWriter> nodeWriters;
 	private Map<String, IServiceInfo> allKnownServices;
@@ -59,16 +75,7 @@ public class WatchManager implements BundleStoppingListener {
 		String serviceid = ref.getProperty(Constants.SERVICE_ID).toString();
 		if (WatchManager.this.getNodeWriters().containsKey(serviceid))
 			return;
-		if (!WatchManager.this.writeRootLock.isOpen()) {
-			synchronized (WatchManager.this.writeRootLock) {
-				try {
-					/* wait for the server to get ready */
-					WatchManager.this.writeRootLock.wait();
-				} catch (InterruptedException e) {
-					Logger.log(LogService.LOG_DEBUG, e.getMessage(), e);
-				}
-			}
-		}
+		waitForWriteRoot();
 		AdvertisedService published = new AdvertisedService(ref);
 		allKnownServices.put(published.getServiceID().getName(), published);
 		NodeWriter nodeWriter = new NodeWriter(published,
@@ -79,13 +86,7 @@ public class WatchManager implements BundleStoppingListener {
 
 	public void publish(AdvertisedService published) {
 		Assert.isNotNull(published);
-		try {
-			/* wait for the server to get ready */
-			while (!writeRootLock.isOpen())
-				Thread.sleep(300);
-		} catch (InterruptedException e) {
-			Logger.log(LogService.LOG_DEBUG, e.getMessage(), e);
-		}
+		waitForWriteRoot();
 		String serviceName = published.getServiceID().getName();
 		NodeWriter nodeWriter = new NodeWriter(published, writeRoot);
 		getNodeWriters().put(serviceName, nodeWriter);
@@ -93,6 +94,22 @@ public class WatchManager implements BundleStoppingListener {
 		nodeWriter.publish();
 	}
 
+	/**
+	 * Waits until the write root is connected, without polling. The threads
+	 * that connect it notify <code>writeRootLock</code>.
+	 */
+	private void waitForWriteRoot() {
+		synchronized (writeRootLock) {
+			try {
+				/* wait for the server to get ready */
+				while (!writeRootLock.isOpen())
+					writeRootLock.wait();
+			} catch (InterruptedException e) {
+				Logger.log(LogService.LOG_DEBUG, e.getMessage(), e);
+			}
+		}
+	}
+
 	public synchronized void unpublish(final String id) {
 		Assert.isNotNull(id);
 		IServiceInfo p = AdvertisedService.removePublished(id);
@@ -200,10 +217,13 @@ public class WatchManager implements BundleStoppingListener {
 			if (!this.getNodeWriters().isEmpty()) {
 				Set<NodeWriter> copy = new HashSet<NodeWriter>();
 				copy.addAll(this.getNodeWriters().values());
+				WriteBatch<NodeWriter> batch = new WriteBatch<NodeWriter>(
+						REMOVED);
 				for (NodeWriter nw : copy) {
 					if (nw.getNode().isLocalNode())
-						nw.remove();
+						nw.remove(batch);
 				}
+				batch.await();
 				copy.clear();
 			}
 			for (ZooKeeper zk : this.zooKeepers) {
@@ -264,24 +284,36 @@ public class WatchManager implements BundleStoppingListener {
 		}
 	}
 
+	/**
+	 * Removes the nodes of all services published. The delete requests are
+	 * sent at once, and the replies are waited for together.
+	 */
 	public void unpublishAll() {
+		WriteBatch<NodeWriter> batch = new WriteBatch<NodeWriter>(REMOVED);
 		for (NodeWriter nw : getNodeWriters().values()) {
-			nw.remove();
+			nw.remove(batch);
 			allKnownServices.remove(nw.getNode().getWrappedService()
 					.getServiceID().getName());
 		}
+		batch.await();
 	}
 
+	/**
+	 * Publishes all services again under new node IDs. The create requests
+	 * are sent at once, and the replies are waited for together.
+	 */
 	public void republishAll() {
 		NodeWriter nws[] = getNodeWriters().values().toArray(
 				new NodeWriter[getNodeWriters().size()]);
+		WriteBatch<NodeWriter> batch = new WriteBatch<NodeWriter>(PUBLISHED);
 		for (int i = 0; i < nws.length; i++) {
 			nws[i].getNode().regenerateNodeId();
-			nws[i].publish();
+			nws[i].publish(batch);
 			allKnownServices.put(nws[i].getNode().getWrappedService()
 					.getServiceID().getName(), nws[i].getNode()
 					.getWrappedService());
 		}
+		batch.await();
 	}
 
 	public Map<String, IServiceInfo> getAllKnownServices() {
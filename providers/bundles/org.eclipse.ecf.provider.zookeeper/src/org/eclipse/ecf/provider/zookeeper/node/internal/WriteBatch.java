@@ -0,0 +1,154 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.zookeeper.node.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.zookeeper.AsyncCallback.StringCallback;
+import org.apache.zookeeper.AsyncCallback.VoidCallback;
+import org.apache.zookeeper.ClientCnxn;
+import org.apache.zookeeper.KeeperException;
+
+/**
+ * Collects the results of asynchronous creates and deletes of service nodes.
+ * The requests are sent one after the other without waiting for the replies,
+ * so the server answers a whole batch in about one round trip instead of one
+ * round trip per node. The context of each request identifies it in the
+ * results, for the provider it is the {@link NodeWriter} that sent it.
+ * <p>
+ * The replies are delivered on the event thread of the ZooKeeper client, so
+ * they cannot arrive while that thread waits for them. A batch awaited on the
+ * event thread, for example by a service listener, does not wait. The replies
+ * that arrive afterwards are passed to the {@link Callback} of the batch as
+ * they arrive.
+ */
+public class WriteBatch<T> implements StringCallback, VoidCallback {
+
+	/**
+	 * Receives the result of each request of a batch exactly once.
+	 */
+	public interface Callback<T> {
+		/**
+		 * Called on the thread that awaits the batch for the replies that
+		 * arrived until then, and on the event thread for later ones.
+		 */
+		void completed(T context, KeeperException.Code code);
+	}
+
+	/**
+	 * Twice the session timeout the ZooKeeper clients are created with.
+	 */
+	static final long REPLY_TIMEOUT = 6000;
+
+	private static final String EVENT_THREAD = ClientCnxn.class.getName()
+			+ "$EventThread"; //$NON-NLS-1$
+
+	private final Callback<T> callback;
+
+	// guarded by this
+	private final Map<T, Integer> results = new LinkedHashMap<T, Integer>();
+	private int outstanding;
+	private long lastActivity;
+	private boolean awaited;
+
+	public WriteBatch() {
+		this(null);
+	}
+
+	/**
+	 * @param callback
+	 *            receives the result of each request, may be <code>null</code>
+	 */
+	public WriteBatch(Callback<T> callback) {
+		this.callback = callback;
+	}
+
+	/**
+	 * @return <code>true</code> if called on the event thread of a ZooKeeper
+	 *         client, which delivers the replies
+	 */
+	static boolean isEventThread() {
+		return Thread.currentThread().getClass().getName().equals(EVENT_THREAD);
+	}
+
+	/**
+	 * Called before a request is sent with this batch as its callback.
+	 */
+	public synchronized void sent() {
+		outstanding++;
+		lastActivity = System.currentTimeMillis();
+	}
+
+	@SuppressWarnings("unchecked")
+	public void processResult(int rc, String path, Object ctx, String name) {
+		done((T) ctx, rc);
+	}
+
+	@SuppressWarnings("unchecked")
+	public void processResult(int rc, String path, Object ctx) {
+		done((T) ctx, rc);
+	}
+
+	private void done(T context, int rc) {
+		boolean late;
+		synchronized (this) {
+			results.put(context, Integer.valueOf(rc));
+			outstanding--;
+			lastActivity = System.currentTimeMillis();
+			notifyAll();
+			late = awaited;
+		}
+		if (late && callback != null) {
+			callback.completed(context, KeeperException.Code.get(rc));
+		}
+	}
+
+	/**
+	 * Waits for the replies to all requests sent, unless called on the event
+	 * thread, and passes the results to the callback.
+	 *
+	 * @return the result code of each request by its context, in the order
+	 *         the replies arrived. Requests not answered yet when waiting
+	 *         times out or is interrupted, or when not waiting on the event
+	 *         thread, are missing and passed to the callback later.
+	 */
+	public Map<T, KeeperException.Code> await() {
+		Map<T, KeeperException.Code> codes = new LinkedHashMap<T, KeeperException.Code>();
+		synchronized (this) {
+			try {
+				while (outstanding > 0 && !isEventThread()) {
+					long timeout = REPLY_TIMEOUT
+							- (System.currentTimeMillis() - lastActivity);
+					if (timeout <= 0) {
+						break;
+					}
+					wait(timeout);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			awaited = true;
+			for (Map.Entry<T, Integer> result : results.entrySet()) {
+				codes.put(result.getKey(),
+						KeeperException.Code.get(result.getValue().intValue()));
+			}
+		}
+		if (callback != null) {
+			for (Map.Entry<T, KeeperException.Code> result : codes.entrySet()) {
+				callback.completed(result.getKey(), result.getValue());
+			}
+		}
+		return codes;
+	}
+}
@@ -0,0 +1,70 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.generic.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.eclipse.ecf.remoteservice.*;
+import org.eclipse.equinox.concurrent.future.IFuture;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of {@link IRemoteService#callAsync(IRemoteCall)} with a number of
+ * calls outstanding at once.  Each operation issues <code>outstanding</code>
+ * calls and then waits for all of their responses, so calls per second is the
+ * reported score times <code>outstanding</code>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncCallBenchmark {
+
+	@Param({"io", "nio"})
+	public String transport;
+
+	@Param({"1", "4", "16", "64"})
+	public int outstanding;
+
+	@Param({"1024"})
+	public int payloadSize;
+
+	private LoopbackContainers containers;
+	private IRemoteService service;
+	private IRemoteCall echoCall;
+	private IFuture[] futures;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		containers = new LoopbackContainers(1, transport);
+		containers.getServerAdapter().registerRemoteService(new String[] {IEchoService.class.getName()}, new EchoService(), null);
+		service = containers.getRemoteService(0, IEchoService.class.getName());
+		echoCall = new RemoteCall("echo", new Object[] {new byte[payloadSize]}, 30000); //$NON-NLS-1$
+		futures = new IFuture[outstanding];
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		containers.dispose();
+	}
+
+	@Benchmark
+	public void echo(Blackhole blackhole) throws Exception {
+		for (int i = 0; i < outstanding; i++)
+			futures[i] = service.callAsync(echoCall);
+		for (int i = 0; i < outstanding; i++)
+			blackhole.consume(futures[i].get());
+	}
+}
@@ -0,0 +1,75 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.generic.benchmarks;
+
+import java.util.concurrent.*;
+import org.eclipse.ecf.remoteservice.IRemoteServiceListener;
+import org.eclipse.ecf.remoteservice.IRemoteServiceRegistration;
+import org.eclipse.ecf.remoteservice.events.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Fan-out of a group message from the server to every connected client.  Each
+ * operation registers a remote service on the server, which is broadcast to
+ * all clients, and waits until every client has seen it.  The service is then
+ * unregistered, and the operation waits for every client to see that too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastBenchmark {
+
+	@Param({"io", "nio"})
+	public String transport;
+
+	@Param({"1", "4", "16"})
+	public int clients;
+
+	private LoopbackContainers containers;
+	private volatile CountDownLatch registered;
+	private volatile CountDownLatch unregistered;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		containers = new LoopbackContainers(clients, transport);
+		for (int i = 0; i < clients; i++)
+			containers.getClientAdapter(i).addRemoteServiceListener(new IRemoteServiceListener() {
+				public void handleServiceEvent(IRemoteServiceEvent event) {
+					if (event instanceof IRemoteServiceRegisteredEvent)
+						registered.countDown();
+					else if (event instanceof IRemoteServiceUnregisteredEvent)
+						unregistered.countDown();
+				}
+			});
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		containers.dispose();
+	}
+
+	@Benchmark
+	public void registerAndUnregister() throws Exception {
+		registered = new CountDownLatch(clients);
+		unregistered = new CountDownLatch(clients);
+		final IRemoteServiceRegistration registration = containers.getServerAdapter().registerRemoteService(new String[] {IEchoService.class.getName()}, new EchoService(), null);
+		if (!registered.await(30, TimeUnit.SECONDS))
+			throw new TimeoutException("Registration not received by all clients"); //$NON-NLS-1$
+		registration.unregister();
+		if (!unregistered.await(30, TimeUnit.SECONDS))
+			throw new TimeoutException("Unregistration not received by all clients"); //$NON-NLS-1$
+	}
+}
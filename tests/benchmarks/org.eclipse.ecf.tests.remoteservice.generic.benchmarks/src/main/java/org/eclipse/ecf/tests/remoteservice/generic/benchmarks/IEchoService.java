@@ -0,0 +1,23 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.generic.benchmarks;
+
+/**
+ * Service exported by the loopback server in the benchmarks.
+ */
+public interface IEchoService {
+
+	byte[] echo(byte[] payload);
+
+	String concat(String first, String second);
+}
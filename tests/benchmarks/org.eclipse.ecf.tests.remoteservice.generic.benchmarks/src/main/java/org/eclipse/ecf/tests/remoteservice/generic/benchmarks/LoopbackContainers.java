@@ -0,0 +1,106 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.generic.benchmarks;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import org.eclipse.ecf.core.identity.*;
+import org.eclipse.ecf.provider.generic.*;
+import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceContainerAdapterFactory;
+import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceNamespace;
+import org.eclipse.ecf.remoteservice.*;
+
+/**
+ * A generic server container and clients connected to it over the loopback
+ * interface, each with its remote service adapter.  The containers are created
+ * directly rather than through the container factory, so no OSGi framework
+ * is needed.
+ */
+public class LoopbackContainers {
+
+	private static final int KEEP_ALIVE = 30000;
+
+	private final TCPServerSOContainer server;
+	private final TCPClientSOContainer[] clients;
+	private final IRemoteServiceContainerAdapter serverAdapter;
+	private final IRemoteServiceContainerAdapter[] clientAdapters;
+
+	public LoopbackContainers(int clientCount, String transport) throws Exception {
+		addRemoteServiceNamespace();
+		final ID serverID = IDFactory.getDefault().createStringID("ecftcp://localhost:" + getFreePort() + "/server"); //$NON-NLS-1$ //$NON-NLS-2$
+		server = new TCPServerSOContainer(new SOContainerConfig(serverID), InetAddress.getLoopbackAddress(), KEEP_ALIVE, transport);
+		serverAdapter = getAdapter(server);
+		clients = new TCPClientSOContainer[clientCount];
+		clientAdapters = new IRemoteServiceContainerAdapter[clientCount];
+		for (int i = 0; i < clientCount; i++) {
+			clients[i] = new TCPClientSOContainer(new SOContainerConfig(IDFactory.getDefault().createGUID()), KEEP_ALIVE, transport);
+			clientAdapters[i] = getAdapter(clients[i]);
+			clients[i].connect(serverID, null);
+		}
+	}
+
+	/**
+	 * Add the generic remote service namespace, which is registered by the
+	 * bundle activator when running in a framework.
+	 */
+	static synchronized void addRemoteServiceNamespace() {
+		final IIDFactory idFactory = IDFactory.getDefault();
+		if (idFactory.getNamespaceByName(RemoteServiceNamespace.NAME) == null)
+			idFactory.addNamespace(new RemoteServiceNamespace(RemoteServiceNamespace.NAME, "Generic remote service namespace")); //$NON-NLS-1$
+	}
+
+	private static int getFreePort() throws IOException {
+		final ServerSocket socket = new ServerSocket(0);
+		try {
+			return socket.getLocalPort();
+		} finally {
+			socket.close();
+		}
+	}
+
+	private static IRemoteServiceContainerAdapter getAdapter(SOContainer container) {
+		return new RemoteServiceContainerAdapterFactory().getAdapter(container, IRemoteServiceContainerAdapter.class);
+	}
+
+	public IRemoteServiceContainerAdapter getServerAdapter() {
+		return serverAdapter;
+	}
+
+	public IRemoteServiceContainerAdapter getClientAdapter(int index) {
+		return clientAdapters[index];
+	}
+
+	public int getClientCount() {
+		return clients.length;
+	}
+
+	/**
+	 * @return IRemoteService the service registered by the server under
+	 * serviceInterface, as seen from the client at index
+	 */
+	public IRemoteService getRemoteService(int index, String serviceInterface) throws Exception {
+		final IRemoteServiceReference[] refs = clientAdapters[index].getRemoteServiceReferences(server.getID(), serviceInterface, null);
+		if (refs == null || refs.length == 0)
+			throw new IllegalStateException("Remote service " + serviceInterface + " not found"); //$NON-NLS-1$ //$NON-NLS-2$
+		return clientAdapters[index].getRemoteService(refs[0]);
+	}
+
+	public void dispose() {
+		for (int i = 0; i < clients.length; i++) {
+			clients[i].disconnect();
+			clients[i].dispose();
+		}
+		server.dispose();
+	}
+}
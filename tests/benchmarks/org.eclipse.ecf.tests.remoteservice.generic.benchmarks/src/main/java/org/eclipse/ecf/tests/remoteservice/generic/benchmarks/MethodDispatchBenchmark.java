@@ -0,0 +1,86 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.generic.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.provider.remoteservice.generic.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of dispatching a call to the service object with
+ * {@link RemoteServiceRegistrationImpl#callService(RemoteCallImpl)}, with the
+ * dispatch cache and, in a separate fork with the cache disabled, with method
+ * lookup and reflective invocation on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MethodDispatchBenchmark {
+
+	private static final String NO_DISPATCH_CACHE = "-Dorg.eclipse.ecf.provider.remoteservice.dispatchCache=false"; //$NON-NLS-1$
+
+	public interface IConcat {
+		String concat(String a, String b);
+
+		int add(int a, int b);
+	}
+
+	public static class Concat implements IConcat {
+		public String concat(String a, String b) {
+			return a + b;
+		}
+
+		public int add(int a, int b) {
+			return a + b;
+		}
+	}
+
+	private RemoteServiceRegistrationImpl registration;
+	private RemoteCallImpl concatCall;
+	private RemoteCallImpl addCall;
+
+	@Setup
+	public void setup() {
+		LoopbackContainers.addRemoteServiceNamespace();
+		registration = new RemoteServiceRegistrationImpl();
+		registration.publish(null, new RemoteServiceRegistryImpl(IDFactory.getDefault().createGUID()), new Concat(), new String[] {IConcat.class.getName()}, null);
+		concatCall = RemoteCallImpl.createRemoteCall(IConcat.class.getName(), "concat", new Object[] {"ab", "cd"}, 0); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		addCall = RemoteCallImpl.createRemoteCall(IConcat.class.getName(), "add", new Object[] {Integer.valueOf(3), Integer.valueOf(4)}, 0); //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public Object concatDispatchCache() throws Exception {
+		return registration.callService(concatCall);
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = NO_DISPATCH_CACHE)
+	public Object concatReflection() throws Exception {
+		return registration.callService(concatCall);
+	}
+
+	@Benchmark
+	public Object addDispatchCache() throws Exception {
+		return registration.callService(addCall);
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = NO_DISPATCH_CACHE)
+	public Object addReflection() throws Exception {
+		return registration.callService(addCall);
+	}
+}
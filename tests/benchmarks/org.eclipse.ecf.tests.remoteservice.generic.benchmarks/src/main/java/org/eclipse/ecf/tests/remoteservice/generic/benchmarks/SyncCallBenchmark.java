@@ -0,0 +1,67 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.generic.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.eclipse.ecf.remoteservice.IRemoteCall;
+import org.eclipse.ecf.remoteservice.IRemoteService;
+import org.eclipse.ecf.remoteservice.RemoteCall;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Round trip latency of {@link IRemoteService#callSync(IRemoteCall)} from one
+ * client to the server, by transport and payload size.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SyncCallBenchmark {
+
+	@Param({"io", "nio"})
+	public String transport;
+
+	@Param({"0", "1024", "65536"})
+	public int payloadSize;
+
+	private LoopbackContainers containers;
+	private IRemoteService service;
+	private IRemoteCall echoCall;
+	private IRemoteCall concatCall;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		containers = new LoopbackContainers(1, transport);
+		containers.getServerAdapter().registerRemoteService(new String[] {IEchoService.class.getName()}, new EchoService(), null);
+		service = containers.getRemoteService(0, IEchoService.class.getName());
+		echoCall = new RemoteCall("echo", new Object[] {new byte[payloadSize]}, 30000); //$NON-NLS-1$
+		concatCall = new RemoteCall("concat", new Object[] {"first", "second"}, 30000); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		containers.dispose();
+	}
+
+	@Benchmark
+	public Object echo() throws Exception {
+		return service.callSync(echoCall);
+	}
+
+	@Benchmark
+	public Object concat() throws Exception {
+		return service.callSync(concatCall);
+	}
+}
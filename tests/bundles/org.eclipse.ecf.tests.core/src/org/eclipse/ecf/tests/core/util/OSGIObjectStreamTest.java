@@ -7,7 +7,9 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.ecf.core.util.OSGIObjectInputStream;
@@ -61,6 +63,23 @@ public class OSGIObjectStreamTest extends TestCase {
 		}
 	}
 
+	/**
+	 * Writes objects as their class name and fields.
+	 */
+	static class FieldsObjectOutputStream extends OSGIObjectOutputStream {
+		FieldsObjectOutputStream(ByteArrayOutputStream out) throws IOException {
+			super(out);
+		}
+
+		void writeFields(Object o) throws IOException {
+			writeNonSerializable(o, o.getClass());
+		}
+	}
+
+	public enum Color {
+		RED, GREEN, BLUE
+	}
+
 	MyDTO dto1;
 	MyDTO dto2;
 	Version v1;
@@ -143,18 +162,82 @@ public class OSGIObjectStreamTest extends TestCase {
 	}
 
 	private Object serializeDeserialize(Object o) throws IOException, ClassNotFoundException {
+		return deserialize(serialize(o, false));
+	}
+
+	private byte[] serialize(Object o, boolean compactNames) throws IOException {
 		ByteArrayOutputStream bos = new ByteArrayOutputStream();
 		OSGIObjectOutputStream oos = new OSGIObjectOutputStream(bos);
+		oos.setCompactNames(compactNames);
 		oos.writeObject(o);
 		oos.close();
+		return bos.toByteArray();
+	}
 
-		ByteArrayInputStream bis = new ByteArrayInputStream(bos.toByteArray());
+	private Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
 		OSGIObjectInputStream ois = new OSGIObjectInputStream(b, bis);
 		Object result = ois.readObject();
 		ois.close();
 		return result;
 	}
 
+	public void testCompactNames() throws Exception {
+		List<Object> list = new ArrayList<Object>();
+		for (int i = 0; i < 10; i++) {
+			list.add(Color.values()[i % 3]);
+			list.add(new String[] { s, String.valueOf(i) });
+		}
+		byte[] compact = serialize(list, true);
+		byte[] full = serialize(list, false);
+		assertTrue(compact.length < full.length);
+		List<?> result = (List<?>) deserialize(compact);
+		assertEquals(list.size(), result.size());
+		for (int i = 0; i < list.size(); i += 2) {
+			assertEquals(list.get(i), result.get(i));
+			assertTrue(Arrays.equals((String[]) list.get(i + 1), (String[]) result.get(i + 1)));
+		}
+	}
+
+	public void testCompactNamesDTO() throws Exception {
+		List<Object> list = new ArrayList<Object>();
+		for (int i = 0; i < 10; i++)
+			list.add((i % 2 == 0) ? dto1 : dto2);
+		byte[] compact = serialize(list, true);
+		assertTrue(compact.length < serialize(list, false).length);
+		assertEquals(list, deserialize(compact));
+	}
+
+	private void assertNonSerializableRoundtrip(boolean compactNames) throws Exception {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		FieldsObjectOutputStream oos = new FieldsObjectOutputStream(bos);
+		oos.setCompactNames(compactNames);
+		// the class and field names repeat
+		for (int i = 0; i < 4; i++)
+			oos.writeFields((i % 2 == 0) ? dto1 : dto2);
+		oos.close();
+		ByteArrayInputStream bis = new ByteArrayInputStream(bos.toByteArray());
+		OSGIObjectInputStream ois = new OSGIObjectInputStream(b, bis);
+		for (int i = 0; i < 4; i++)
+			assertEquals((i % 2 == 0) ? dto1 : dto2, ois.readObject());
+		ois.close();
+	}
+
+	public void testNonSerializable() throws Exception {
+		assertNonSerializableRoundtrip(false);
+	}
+
+	public void testNonSerializableCompactNames() throws Exception {
+		assertNonSerializableRoundtrip(true);
+	}
+
+	public void testDTORepeated() throws Exception {
+		List<Object> list = new ArrayList<Object>();
+		for (int i = 0; i < 10; i++)
+			list.add((i % 2 == 0) ? dto1 : dto2);
+		assertEquals(list, serializeDeserialize(list));
+	}
+
 	public void testSerializable() throws Exception {
 		MySerializable r = (MySerializable) serializeDeserialize(ser);
 		assertEquals(r.getFirst(), ser.getFirst());
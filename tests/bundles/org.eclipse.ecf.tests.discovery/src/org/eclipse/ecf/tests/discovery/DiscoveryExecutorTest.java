@@ -0,0 +1,143 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.discovery;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.ecf.discovery.DiscoveryExecutor;
+import org.eclipse.equinox.concurrent.future.IFuture;
+import org.eclipse.equinox.concurrent.future.IProgressRunnable;
+
+public class DiscoveryExecutorTest extends TestCase {
+
+	private DiscoveryExecutor executor;
+
+	/**
+	 * Operation that blocks until the gate is opened.
+	 */
+	static class Gate implements IProgressRunnable {
+		private boolean started;
+		private boolean open;
+
+		public synchronized Object run(IProgressMonitor monitor) throws Exception {
+			started = true;
+			notifyAll();
+			final long deadline = System.currentTimeMillis() + 10000;
+			while (!open && System.currentTimeMillis() < deadline) {
+				wait(deadline - System.currentTimeMillis());
+			}
+			return Thread.currentThread().getName();
+		}
+
+		synchronized boolean awaitStarted() throws InterruptedException {
+			final long deadline = System.currentTimeMillis() + 5000;
+			while (!started && System.currentTimeMillis() < deadline) {
+				wait(deadline - System.currentTimeMillis());
+			}
+			return started;
+		}
+
+		synchronized void open() {
+			open = true;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * The completed count is updated right after the future is done.
+	 */
+	private void assertCompleted(long expected) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + 5000;
+		while (executor.getCompletedCount() < expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, executor.getCompletedCount());
+	}
+
+	protected void tearDown() throws Exception {
+		if (executor != null)
+			executor.shutdown();
+		super.tearDown();
+	}
+
+	public void testExecute() throws Exception {
+		executor = new DiscoveryExecutor("test", 2, 1, false);
+		final IFuture future = executor.execute(new IProgressRunnable() {
+			public Object run(IProgressMonitor monitor) throws Exception {
+				return Thread.currentThread().getName();
+			}
+		}, new NullProgressMonitor());
+		assertTrue(((String) future.get(5000)).startsWith("test-"));
+		assertCompleted(1);
+		assertEquals(0, executor.getRejectedCount());
+	}
+
+	public void testRejectWhenQueueFull() throws Exception {
+		executor = new DiscoveryExecutor("test", 1, 1, false);
+		final Gate running = new Gate();
+		final Gate queued = new Gate();
+		final IFuture runningFuture = executor.execute(running, new NullProgressMonitor());
+		assertTrue(running.awaitStarted());
+		final IFuture queuedFuture = executor.execute(queued, new NullProgressMonitor());
+		assertEquals(1, executor.getActiveCount());
+		assertEquals(1, executor.getQueuedCount());
+
+		final IFuture rejected = executor.execute(new Gate(), new NullProgressMonitor());
+		assertTrue(rejected.isDone());
+		assertTrue(rejected.getStatus().getException() instanceof IllegalStateException);
+		assertEquals(1, executor.getRejectedCount());
+		assertEquals(1, executor.getQueuedCount());
+
+		running.open();
+		queued.open();
+		assertNotNull(runningFuture.get(5000));
+		assertNotNull(queuedFuture.get(5000));
+		assertCompleted(2);
+	}
+
+	public void testQueueWhileWorkerStarts() throws Exception {
+		executor = new DiscoveryExecutor("test", 1, 1, false);
+		final Gate first = new Gate();
+		final Gate second = new Gate();
+		// the second operation is queued even if the worker started for the
+		// first one has not taken it yet
+		final IFuture firstFuture = executor.execute(first, new NullProgressMonitor());
+		final IFuture secondFuture = executor.execute(second, new NullProgressMonitor());
+		assertFalse(secondFuture.isDone());
+		first.open();
+		second.open();
+		assertNotNull(firstFuture.get(5000));
+		assertNotNull(secondFuture.get(5000));
+		assertEquals(0, executor.getRejectedCount());
+	}
+
+	public void testRejectAfterShutdown() throws Exception {
+		executor = new DiscoveryExecutor("test", 1, 1, false);
+		executor.shutdown();
+		final IFuture rejected = executor.execute(new Gate(), new NullProgressMonitor());
+		assertTrue(rejected.isDone());
+		assertTrue(rejected.getStatus().getException() instanceof IllegalStateException);
+		// not counted as rejected because of a full queue
+		assertEquals(0, executor.getRejectedCount());
+	}
+
+	public void testSharedExecutor() {
+		final DiscoveryExecutor shared = DiscoveryExecutor.getSharedExecutor();
+		assertNotNull(shared);
+		assertSame(shared, DiscoveryExecutor.getSharedExecutor());
+		assertTrue(shared.getQueuedCount() >= 0);
+		assertTrue(shared.getActiveCount() >= 0);
+	}
+}
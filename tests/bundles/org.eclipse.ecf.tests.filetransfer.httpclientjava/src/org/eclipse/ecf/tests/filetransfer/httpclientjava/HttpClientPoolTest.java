@@ -0,0 +1,243 @@
+package org.eclipse.ecf.tests.filetransfer.httpclientjava;
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.net.ssl.SSLSession;
+
+import org.eclipse.ecf.internal.provider.filetransfer.httpclientjava.HttpClientPool;
+import org.eclipse.ecf.internal.provider.filetransfer.httpclientjava.HttpHost;
+import org.eclipse.ecf.internal.provider.filetransfer.httpclientjava.IHttpClientContext;
+import org.eclipse.ecf.internal.provider.filetransfer.httpclientjava.IHttpClientFactory;
+
+import junit.framework.TestCase;
+
+public class HttpClientPoolTest extends TestCase {
+
+	/**
+	 * Builds plain clients and contexts that keep their credentials, like the
+	 * ECF factory does.
+	 */
+	static class TestClientFactory implements IHttpClientFactory {
+
+		@Override
+		public HttpClient.Builder newClient() {
+			return HttpClient.newBuilder();
+		}
+
+		@Override
+		public IHttpClientContext newClientContext() {
+			return new TestClientContext();
+		}
+
+		@Override
+		public HttpRequest.Builder newRequestConfig(IHttpClientContext context, Map<?, ?> localOptions) {
+			return HttpRequest.newBuilder();
+		}
+	}
+
+	static class TestClientContext implements IHttpClientContext {
+
+		private final Map<String, Object> values = new HashMap<>();
+		Authenticator authenticator;
+
+		@Override
+		public void setAttribute(String key, Object value) {
+			values.put(key, value);
+		}
+
+		@Override
+		public void setCredentialsProvider(Authenticator authenticator) {
+			this.authenticator = authenticator;
+		}
+
+		@Override
+		public Object getAttribute(String key) {
+			return values.get(key);
+		}
+
+		@Override
+		public void setProxy(HttpHost httpHost) {
+			//
+		}
+	}
+
+	static Authenticator newAuthenticator(final String user, final String password) {
+		return new Authenticator() {
+			@Override
+			protected PasswordAuthentication getPasswordAuthentication() {
+				return new PasswordAuthentication(user, password.toCharArray());
+			}
+		};
+	}
+
+	static HttpResponse<Void> newResponse(final Version version) {
+		return new HttpResponse<Void>() {
+			@Override
+			public int statusCode() {
+				return 200;
+			}
+
+			@Override
+			public HttpRequest request() {
+				return null;
+			}
+
+			@Override
+			public Optional<HttpResponse<Void>> previousResponse() {
+				return Optional.empty();
+			}
+
+			@Override
+			public HttpHeaders headers() {
+				return HttpHeaders.of(Collections.emptyMap(), (name, value) -> true);
+			}
+
+			@Override
+			public Void body() {
+				return null;
+			}
+
+			@Override
+			public Optional<SSLSession> sslSession() {
+				return Optional.empty();
+			}
+
+			@Override
+			public URI uri() {
+				return URI.create("http://localhost/"); //$NON-NLS-1$
+			}
+
+			@Override
+			public Version version() {
+				return version;
+			}
+		};
+	}
+
+	private final IHttpClientFactory factory = new TestClientFactory();
+	private final List<Long> modifierIds = Arrays.asList(Long.valueOf(1), Long.valueOf(2));
+
+	private HttpClientPool pool;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		pool = new HttpClientPool();
+	}
+
+	public void testClientReusedForSameConfiguration() {
+		HttpClient client = pool.getClient(factory, modifierIds);
+		assertSame(client, pool.getClient(factory, Arrays.asList(Long.valueOf(1), Long.valueOf(2))));
+		assertEquals(1, pool.getClientsCreated());
+		assertEquals(1, pool.getClientsReused());
+	}
+
+	public void testNewClientForOtherFactory() {
+		HttpClient client = pool.getClient(factory, modifierIds);
+		assertNotSame(client, pool.getClient(new TestClientFactory(), modifierIds));
+		assertEquals(2, pool.getClientsCreated());
+	}
+
+	public void testNewClientForOtherModifiers() {
+		HttpClient client = pool.getClient(factory, modifierIds);
+		HttpClient other = pool.getClient(factory, Arrays.asList(Long.valueOf(1)));
+		assertNotSame(client, other);
+		assertNotSame(other, pool.getClient(factory, Collections.<Long> emptyList()));
+		assertEquals(3, pool.getClientsCreated());
+		assertEquals(0, pool.getClientsReused());
+	}
+
+	public void testNewClientForOtherDefaultProxySelector() {
+		ProxySelector previous = ProxySelector.getDefault();
+		HttpClient client = pool.getClient(factory, modifierIds);
+		try {
+			ProxySelector.setDefault(new ProxySelector() {
+				@Override
+				public List<Proxy> select(URI uri) {
+					return Collections.singletonList(Proxy.NO_PROXY);
+				}
+
+				@Override
+				public void connectFailed(URI uri, SocketAddress sa, IOException ioe) {
+					//
+				}
+			});
+			assertNotSame(client, pool.getClient(factory, modifierIds));
+		} finally {
+			ProxySelector.setDefault(previous);
+		}
+		assertEquals(2, pool.getClientsCreated());
+	}
+
+	public void testClearBuildsNewClient() {
+		HttpClient client = pool.getClient(factory, modifierIds);
+		pool.clear();
+		assertNotSame(client, pool.getClient(factory, modifierIds));
+	}
+
+	public void testCredentialsStayInContext() {
+		TestClientContext alice = (TestClientContext) factory.newClientContext();
+		alice.setCredentialsProvider(newAuthenticator("alice", "secret1")); //$NON-NLS-1$ //$NON-NLS-2$
+		HttpClient aliceClient = pool.getClient(factory, modifierIds);
+
+		TestClientContext bob = (TestClientContext) factory.newClientContext();
+		bob.setCredentialsProvider(newAuthenticator("bob", "secret2")); //$NON-NLS-1$ //$NON-NLS-2$
+		HttpClient bobClient = pool.getClient(factory, modifierIds);
+
+		// both operations share the client, which carries no credentials
+		assertSame(aliceClient, bobClient);
+		assertFalse(aliceClient.authenticator().isPresent());
+		assertNotSame(alice.authenticator, bob.authenticator);
+		assertEquals("alice", alice.authenticator.requestPasswordAuthenticationInstance(null, null, 0, null, null, null, null, null).getUserName()); //$NON-NLS-1$
+		assertEquals("bob", bob.authenticator.requestPasswordAuthenticationInstance(null, null, 0, null, null, null, null, null).getUserName()); //$NON-NLS-1$
+	}
+
+	public void testResponsesCountedForPooledClientsOnly() {
+		HttpClient pooled = pool.getClient(factory, modifierIds);
+		pool.responseReceived(pooled, newResponse(Version.HTTP_2));
+		pool.responseReceived(pooled, newResponse(Version.HTTP_1_1));
+		pool.responseReceived(pooled, newResponse(Version.HTTP_2));
+		// e.g. a shared client service or a client built per operation
+		pool.responseReceived(HttpClient.newHttpClient(), newResponse(Version.HTTP_2));
+		pool.responseReceived(HttpClient.newHttpClient(), newResponse(Version.HTTP_1_1));
+		assertEquals(2, pool.getHttp2Responses());
+		assertEquals(1, pool.getHttp11Responses());
+	}
+
+	public void testResponsesOfPreviousClientCounted() {
+		HttpClient previous = pool.getClient(factory, modifierIds);
+		pool.getClient(factory, Collections.<Long> emptyList());
+		// an operation still running on the previous client
+		pool.responseReceived(previous, newResponse(Version.HTTP_2));
+		assertEquals(1, pool.getHttp2Responses());
+	}
+}
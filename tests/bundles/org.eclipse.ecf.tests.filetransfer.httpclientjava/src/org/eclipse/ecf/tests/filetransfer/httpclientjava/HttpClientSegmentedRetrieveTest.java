@@ -0,0 +1,203 @@
+package org.eclipse.ecf.tests.filetransfer.httpclientjava;
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.server.HttpRequestHandler;
+import org.apache.commons.httpclient.server.ResponseWriter;
+import org.apache.commons.httpclient.server.SimpleHttpServerConnection;
+import org.apache.commons.httpclient.server.SimpleRequest;
+import org.eclipse.ecf.filetransfer.events.IIncomingFileTransferReceiveStartEvent;
+import org.eclipse.ecf.internal.tests.filetransfer.httpserver.SimpleServer;
+import org.eclipse.ecf.provider.filetransfer.httpclientjava.HttpClientOptions;
+import org.eclipse.ecf.tests.filetransfer.AbstractRetrieveTestCase;
+
+/**
+ * Retrieves a file over several connections from a local server that records
+ * the range requests it gets.
+ */
+public class HttpClientSegmentedRetrieveTest extends AbstractRetrieveTestCase {
+
+	private static final int FILE_LENGTH = 64 * 1024;
+	private static final String ETAG = "\"v1\"";
+
+	private final byte[] content = new byte[FILE_LENGTH];
+
+	// server behaviour
+	boolean acceptRanges;
+	boolean honorRanges;
+	// when set, range requests are answered with a new version of the file
+	boolean changeFile;
+
+	final List<String> ranges = new ArrayList<String>();
+	final List<String> ifRanges = new ArrayList<String>();
+
+	private SimpleServer server;
+	private File tmpFile;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) (i * 31 + (i >> 8));
+		}
+		acceptRanges = true;
+		honorRanges = true;
+		changeFile = false;
+		tmpFile = File.createTempFile("ECFTest", "");
+		server = new SimpleServer(getName());
+		server.getSimpleHttpServer().setRequestHandler(new HttpRequestHandler() {
+			public boolean processRequest(SimpleHttpServerConnection conn, SimpleRequest request) throws IOException {
+				String range = getHeader(request, "Range");
+				String ifRange = getHeader(request, "If-Range");
+				if (range != null) {
+					synchronized (ranges) {
+						ranges.add(range);
+						ifRanges.add(ifRange);
+					}
+				}
+				conn.setKeepAlive(true);
+				if (range != null && changeFile) {
+					writeResponse(conn, "200 OK", "\"v2\"", null, new byte[FILE_LENGTH], 0, FILE_LENGTH);
+				} else if (range != null && honorRanges && ETAG.equals(ifRange)) {
+					String[] bounds = range.substring("bytes=".length()).split("-");
+					int start = Integer.parseInt(bounds[0]);
+					int end = Integer.parseInt(bounds[1]);
+					writeResponse(conn, "206 Partial Content", ETAG, "bytes " + start + "-" + end + "/" + FILE_LENGTH, content, start, end - start + 1);
+				} else {
+					writeResponse(conn, "200 OK", ETAG, null, content, 0, FILE_LENGTH);
+				}
+				return true;
+			}
+		});
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		if (server != null) {
+			server.shutdown();
+		}
+		server = null;
+		if (tmpFile != null)
+			tmpFile.delete();
+		tmpFile = null;
+	}
+
+	static String getHeader(SimpleRequest request, String name) {
+		Header header = request.getFirstHeader(name);
+		return (header == null) ? null : header.getValue();
+	}
+
+	void writeResponse(SimpleHttpServerConnection conn, String status, String etag, String contentRange, byte[] body, int offset, int length) throws IOException {
+		ResponseWriter w = conn.getWriter();
+		w.println("HTTP/1.1 " + status);
+		w.println("Content-Length: " + length);
+		w.println("Content-Type: application/octet-stream");
+		w.println("ETag: " + etag);
+		if (acceptRanges)
+			w.println("Accept-Ranges: bytes");
+		if (contentRange != null)
+			w.println("Content-Range: " + contentRange);
+		w.println("");
+		w.flush();
+		OutputStream out = conn.getOutputStream();
+		out.write(body, offset, length);
+		out.flush();
+	}
+
+	protected void handleStartEvent(IIncomingFileTransferReceiveStartEvent event) {
+		super.handleStartEvent(event);
+		try {
+			incomingFileTransfer = event.receive(tmpFile);
+		} catch (final IOException e) {
+			fail(e.getLocalizedMessage());
+		}
+	}
+
+	private void retrieve(Object segments) throws Exception {
+		Map<String, Object> options = new HashMap<String, Object>();
+		options.put(HttpClientOptions.RETRIEVE_SEGMENTS_PROP, segments);
+		options.put(HttpClientOptions.RETRIEVE_MIN_SEGMENT_SIZE_PROP, Integer.valueOf(1024));
+		retrieveAdapter.sendRetrieveRequest(createFileID(new URL(server.getServerURL() + "/file.bin")), createFileTransferListener(), options);
+		waitForDone(60000);
+	}
+
+	private void assertFileRetrieved() throws Exception {
+		assertDoneOK();
+		assertTrue(Arrays.equals(content, Files.readAllBytes(tmpFile.toPath())));
+	}
+
+	public void testSegmentsRequestedWithRangeAndIfRange() throws Exception {
+		retrieve(Integer.valueOf(4));
+		assertFileRetrieved();
+		synchronized (ranges) {
+			assertEquals(3, ranges.size());
+			assertTrue(ranges.containsAll(Arrays.asList(new String[] {"bytes=16384-32767", "bytes=32768-49151", "bytes=49152-65535"})));
+			for (String ifRange : ifRanges) {
+				assertEquals(ETAG, ifRange);
+			}
+		}
+	}
+
+	public void testSegmentCountFromString() throws Exception {
+		retrieve(" 2 ");
+		assertFileRetrieved();
+		synchronized (ranges) {
+			assertEquals(Arrays.asList(new String[] {"bytes=32768-65535"}), ranges);
+		}
+	}
+
+	public void testInvalidSegmentCountFallsBackToDefault() throws Exception {
+		retrieve("four");
+		assertFileRetrieved();
+		synchronized (ranges) {
+			assertTrue(ranges.isEmpty());
+		}
+	}
+
+	public void testNotSegmentedWithoutAcceptRanges() throws Exception {
+		acceptRanges = false;
+		retrieve(Integer.valueOf(4));
+		assertFileRetrieved();
+		synchronized (ranges) {
+			assertTrue(ranges.isEmpty());
+		}
+	}
+
+	public void testRangeIgnored() throws Exception {
+		honorRanges = false;
+		retrieve(Integer.valueOf(4));
+		// the segments are taken from the full responses
+		assertFileRetrieved();
+		synchronized (ranges) {
+			assertEquals(3, ranges.size());
+		}
+	}
+
+	public void testFileChangedDuringRetrieve() throws Exception {
+		changeFile = true;
+		retrieve(Integer.valueOf(4));
+		assertNotNull(getDoneEvent().getException());
+	}
+
+}
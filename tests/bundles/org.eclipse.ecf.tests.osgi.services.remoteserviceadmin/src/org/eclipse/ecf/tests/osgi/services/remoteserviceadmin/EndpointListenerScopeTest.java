@@ -0,0 +1,151 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.osgi.services.remoteserviceadmin;
+
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.ecf.osgi.services.remoteserviceadmin.EndpointDescriptionLocator;
+import org.eclipse.ecf.osgi.services.remoteserviceadmin.EndpointDescriptionLocator.EndpointListenerHolder;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.remoteserviceadmin.EndpointDescription;
+import org.osgi.service.remoteserviceadmin.EndpointListener;
+import org.osgi.service.remoteserviceadmin.RemoteConstants;
+
+import junit.framework.TestCase;
+
+/**
+ * Matching of endpoint descriptions against endpoint.listener.scope filters,
+ * including filters from which the locator cannot extract objectClass or
+ * framework uuid terms.
+ */
+@SuppressWarnings("deprecation")
+public class EndpointListenerScopeTest extends TestCase {
+
+	private static final String A = "org.eclipse.ecf.tests.A";
+	private static final String B = "org.eclipse.ecf.tests.B";
+
+	private BundleContext context;
+	private EndpointDescriptionLocator locator;
+	private List<ServiceRegistration> registrations;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		context = FrameworkUtil.getBundle(getClass()).getBundleContext();
+		locator = new EndpointDescriptionLocator(context);
+		registrations = new ArrayList<ServiceRegistration>();
+	}
+
+	protected void tearDown() throws Exception {
+		for (ServiceRegistration registration : registrations)
+			registration.unregister();
+		super.tearDown();
+	}
+
+	private ServiceReference registerListener(Object scope) {
+		Dictionary<String, Object> props = new Hashtable<String, Object>();
+		props.put(EndpointListener.ENDPOINT_LISTENER_SCOPE, scope);
+		ServiceRegistration registration = context.registerService(EndpointListener.class.getName(), new EndpointListener() {
+			public void endpointAdded(EndpointDescription endpoint, String matchedFilter) {
+			}
+
+			public void endpointRemoved(EndpointDescription endpoint, String matchedFilter) {
+			}
+		}, props);
+		registrations.add(registration);
+		return registration.getReference();
+	}
+
+	private EndpointDescription createEndpoint(String objectClass, String frameworkUUID) {
+		Map<String, Object> props = new HashMap<String, Object>();
+		props.put(Constants.OBJECTCLASS, new String[] {objectClass});
+		props.put(RemoteConstants.ENDPOINT_ID, "ecftcp://localhost:3282/server");
+		props.put(RemoteConstants.ENDPOINT_SERVICE_ID, Long.valueOf(1));
+		props.put(RemoteConstants.ENDPOINT_FRAMEWORK_UUID, frameworkUUID);
+		props.put(RemoteConstants.SERVICE_IMPORTED_CONFIGS, "ecf.generic.client");
+		return new EndpointDescription(props);
+	}
+
+	private String getMatchingFilter(ServiceReference ref, EndpointDescription endpoint) {
+		EndpointListenerHolder[] holders = locator.getMatchingEndpointListenerHolders(new ServiceReference[] {ref}, endpoint);
+		assertTrue(holders.length <= 1);
+		return (holders.length == 0) ? null : holders[0].getMatchingFilter();
+	}
+
+	private boolean matches(String scope, EndpointDescription endpoint) {
+		return getMatchingFilter(registerListener(scope), endpoint) != null;
+	}
+
+	public void testNestedAndOrNot() throws Exception {
+		String scope = "(&(objectClass=" + A + ")(|(endpoint.framework.uuid=u1)(endpoint.framework.uuid=u2))(!(service.imported.configs=ecf.r_osgi.peer)))";
+		assertTrue(matches(scope, createEndpoint(A, "u1")));
+		assertTrue(matches(scope, createEndpoint(A, "u2")));
+		assertFalse(matches(scope, createEndpoint(A, "u3")));
+		assertFalse(matches(scope, createEndpoint(B, "u1")));
+	}
+
+	public void testNestedNotAnd() throws Exception {
+		String scope = "(&(objectClass=" + A + ")(!(&(endpoint.framework.uuid=u1)(service.imported.configs=ecf.generic.client))))";
+		assertFalse(matches(scope, createEndpoint(A, "u1")));
+		assertTrue(matches(scope, createEndpoint(A, "u2")));
+	}
+
+	public void testNegatedFrameworkUUID() throws Exception {
+		String scope = "(&(objectClass=" + A + ")(!(endpoint.framework.uuid=u1)))";
+		assertFalse(matches(scope, createEndpoint(A, "u1")));
+		assertTrue(matches(scope, createEndpoint(A, "u2")));
+	}
+
+	public void testTopLevelOr() throws Exception {
+		String scope = "(|(objectClass=" + A + ")(objectClass=" + B + "))";
+		assertTrue(matches(scope, createEndpoint(A, "u1")));
+		assertTrue(matches(scope, createEndpoint(B, "u1")));
+		assertFalse(matches(scope, createEndpoint("org.eclipse.ecf.tests.C", "u1")));
+	}
+
+	public void testNonIndexableTerms() throws Exception {
+		EndpointDescription endpoint = createEndpoint(A, "u1");
+		// wildcard, presence, case insensitive attribute, approximate and ordering
+		assertTrue(matches("(objectClass=org.eclipse.ecf.tests.*)", endpoint));
+		assertTrue(matches("(endpoint.framework.uuid=*)", endpoint));
+		assertTrue(matches("(OBJECTCLASS=" + A + ")", endpoint));
+		assertTrue(matches("(&(objectClass~=" + A + ")(endpoint.framework.uuid>=u0))", endpoint));
+		assertFalse(matches("(&(objectClass=" + A + ")(endpoint.framework.uuid<=u0))", endpoint));
+		assertFalse(matches("(objectClass=org.eclipse.ecf.tests.B*)", endpoint));
+	}
+
+	public void testEscapedValue() throws Exception {
+		assertTrue(matches("(objectClass=a\\(b\\))", createEndpoint("a(b)", "u1")));
+		assertFalse(matches("(objectClass=a\\(b\\))", createEndpoint("ab", "u1")));
+	}
+
+	public void testInvalidAndMultipleScopes() throws Exception {
+		EndpointDescription endpoint = createEndpoint(A, "u1");
+		assertFalse(matches("(objectClass=" + A, endpoint));
+		String valid = "(objectClass=" + A + ")";
+		ServiceReference ref = registerListener(new String[] {"(objectClass=" + A, "(objectClass=" + B + ")", valid, "(endpoint.framework.uuid=u1)"});
+		// First matching scope filter is reported
+		assertEquals(valid, getMatchingFilter(ref, endpoint));
+		// Parsed scope is reused for the next endpoint
+		assertEquals("(objectClass=" + B + ")", getMatchingFilter(ref, createEndpoint(B, "u1")));
+		assertNull(getMatchingFilter(ref, createEndpoint(B, "u2")));
+	}
+}
@@ -0,0 +1,238 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.datashare.nio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+public class ConnectionTest extends TestCase {
+
+	private static final String LOCALHOST = "127.0.0.1"; //$NON-NLS-1$
+
+	private ServerSocketChannel server;
+	private SocketChannel writerChannel;
+	private SocketChannel readerChannel;
+
+	protected void tearDown() throws Exception {
+		if (writerChannel != null)
+			writerChannel.close();
+		if (readerChannel != null)
+			readerChannel.close();
+		if (server != null)
+			server.close();
+		super.tearDown();
+	}
+
+	/**
+	 * Serializes an object on a stream of its own, as every message is sent.
+	 */
+	private static byte[] serialize(Object object) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(baos);
+		oos.writeObject(object);
+		oos.flush();
+		return baos.toByteArray();
+	}
+
+	private static byte[] getData(int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++)
+			data[i] = (byte) (i * 31 + (i >> 8));
+		return data;
+	}
+
+	private static byte[] concat(byte[] a, byte[] b) {
+		byte[] result = new byte[a.length + b.length];
+		System.arraycopy(a, 0, result, 0, a.length);
+		System.arraycopy(b, 0, result, a.length, b.length);
+		return result;
+	}
+
+	private static byte[] range(byte[] bytes, int from, int to) {
+		byte[] result = new byte[to - from];
+		System.arraycopy(bytes, from, result, 0, result.length);
+		return result;
+	}
+
+	private void connect() throws IOException {
+		connect(0);
+	}
+
+	/**
+	 * Connects two sockets.
+	 *
+	 * @param bufferSize
+	 *            the socket buffer sizes, or 0 for the default. Set before
+	 *            connecting, so that the receive window is not shrunk on an
+	 *            established connection.
+	 */
+	private void connect(int bufferSize) throws IOException {
+		server = ServerSocketChannel.open();
+		if (bufferSize > 0)
+			server.socket().setReceiveBufferSize(bufferSize);
+		server.socket().bind(new InetSocketAddress(InetAddress.getByName(LOCALHOST), 0));
+		writerChannel = SocketChannel.open();
+		if (bufferSize > 0)
+			writerChannel.socket().setSendBufferSize(bufferSize);
+		writerChannel.connect(server.socket().getLocalSocketAddress());
+		readerChannel = server.accept();
+		writerChannel.configureBlocking(false);
+		readerChannel.configureBlocking(false);
+	}
+
+	public void testFramedAsSerializedByteArray() throws Exception {
+		connect();
+		Connection writer = new Connection(writerChannel);
+		byte[] message = getData(1000);
+		writer.enqueueMessage(message);
+		assertTrue(writer.flush());
+		assertFalse(writer.hasOutput());
+		// what an ObjectOutputStream of a peer that does not frame writes
+		byte[] expected = serialize(message);
+		ByteBuffer buffer = ByteBuffer.allocate(expected.length + 1);
+		while (buffer.position() < expected.length)
+			readerChannel.read(buffer);
+		buffer.flip();
+		byte[] written = new byte[buffer.remaining()];
+		buffer.get(written);
+		assertTrue(Arrays.equals(expected, written));
+	}
+
+	public void testPartialFrames() throws Exception {
+		Connection connection = new Connection(null);
+		byte[] first = getData(300);
+		byte[] second = getData(5);
+		byte[] bytes = concat(serialize(first), serialize(second));
+		// one byte at a time, so that the header is split as well
+		int pos = 0;
+		byte[] message = null;
+		while (message == null) {
+			assertTrue(pos < bytes.length);
+			connection.append(new byte[] {bytes[pos++]});
+			message = connection.nextMessage();
+		}
+		assertEquals(serialize(first).length, pos);
+		assertTrue(Arrays.equals(first, message));
+		while (pos < bytes.length - 1) {
+			connection.append(new byte[] {bytes[pos++]});
+			assertNull(connection.nextMessage());
+		}
+		connection.append(new byte[] {bytes[pos]});
+		assertTrue(Arrays.equals(second, connection.nextMessage()));
+		assertNull(connection.nextMessage());
+		assertNull(connection.remaining());
+	}
+
+	public void testSeveralFramesInOneRead() throws Exception {
+		Connection connection = new Connection(null);
+		byte[] empty = new byte[0];
+		byte[] data = getData(100);
+		connection.append(concat(concat(serialize(data), serialize(empty)), serialize(data)));
+		assertTrue(Arrays.equals(data, connection.nextMessage()));
+		assertTrue(Arrays.equals(empty, connection.nextMessage()));
+		assertTrue(Arrays.equals(data, connection.nextMessage()));
+		assertNull(connection.nextMessage());
+	}
+
+	public void testPartialReadsFromSocket() throws Exception {
+		connect();
+		Connection writer = new Connection(writerChannel);
+		Connection reader = new Connection(readerChannel);
+		byte[] message = getData(10000);
+		writer.enqueueMessage(message);
+		writer.enqueueMessage(message);
+		assertTrue(writer.flush());
+		// a buffer much smaller than the messages
+		ByteBuffer buffer = ByteBuffer.allocate(7);
+		int received = 0;
+		long deadline = System.currentTimeMillis() + 10000;
+		while (received < 2) {
+			assertTrue(System.currentTimeMillis() < deadline);
+			assertTrue(reader.read(buffer));
+			byte[] next;
+			while ((next = reader.nextMessage()) != null) {
+				assertTrue(Arrays.equals(message, next));
+				received++;
+			}
+		}
+		assertNull(reader.remaining());
+	}
+
+	public void testLegacyFormat() throws Exception {
+		Connection connection = new Connection(null);
+		byte[] data = getData(50);
+		// objects that are not framed like a byte[] are deserialized, and
+		// skipped unless they are a byte[]
+		byte[] bytes = concat(serialize("not a message"), serialize(data)); //$NON-NLS-1$
+		connection.append(range(bytes, 0, 10));
+		assertNull(connection.nextMessage());
+		connection.append(range(bytes, 10, bytes.length));
+		assertTrue(Arrays.equals(data, connection.nextMessage()));
+		assertNull(connection.nextMessage());
+	}
+
+	public void testMarkAndReset() throws Exception {
+		Connection connection = new Connection(null);
+		connection.append(serialize("id")); //$NON-NLS-1$
+		connection.mark();
+		assertEquals("id", connection.nextObject()); //$NON-NLS-1$
+		connection.reset();
+		assertEquals("id", connection.nextObject()); //$NON-NLS-1$
+		assertNull(connection.nextObject());
+	}
+
+	public void testWriteBackpressure() throws Exception {
+		connect(16384);
+		Connection writer = new Connection(writerChannel);
+		Connection reader = new Connection(readerChannel);
+		byte[] message = getData(8 * 1024 * 1024);
+		writer.enqueueMessage(message);
+		writer.enqueueMessage(getData(3));
+		// the receiver does not read, so the socket takes only part of it
+		assertFalse(writer.flush());
+		assertTrue(writer.hasOutput());
+		assertFalse(writer.flush());
+		// the rest is written as the receiver reads
+		ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+		byte[] first = null;
+		byte[] second = null;
+		boolean flushed = false;
+		long deadline = System.currentTimeMillis() + 30000;
+		while (second == null) {
+			assertTrue(System.currentTimeMillis() < deadline);
+			if (!flushed)
+				flushed = writer.flush();
+			assertTrue(reader.read(buffer));
+			byte[] next;
+			while ((next = reader.nextMessage()) != null) {
+				if (first == null)
+					first = next;
+				else
+					second = next;
+			}
+		}
+		assertTrue(flushed);
+		assertFalse(writer.hasOutput());
+		assertTrue(Arrays.equals(message, first));
+		assertTrue(Arrays.equals(getData(3), second));
+	}
+}
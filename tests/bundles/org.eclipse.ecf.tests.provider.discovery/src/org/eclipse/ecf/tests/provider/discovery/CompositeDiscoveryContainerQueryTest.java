@@ -0,0 +1,246 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.discovery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.ContainerConnectException;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.security.IConnectContext;
+import org.eclipse.ecf.discovery.AbstractDiscoveryContainerAdapter;
+import org.eclipse.ecf.discovery.DiscoveryContainerConfig;
+import org.eclipse.ecf.discovery.IServiceInfo;
+import org.eclipse.ecf.discovery.ServiceContainerEvent;
+import org.eclipse.ecf.discovery.ServiceInfo;
+import org.eclipse.ecf.discovery.identity.IServiceID;
+import org.eclipse.ecf.discovery.identity.IServiceTypeID;
+import org.eclipse.ecf.discovery.identity.ServiceIDFactory;
+import org.eclipse.ecf.provider.discovery.CompositeDiscoveryContainer;
+import org.eclipse.ecf.tests.discovery.DiscoveryTestHelper;
+
+/**
+ * Parallel queries of a {@link CompositeDiscoveryContainer} with a child
+ * container that stops responding.
+ */
+public class CompositeDiscoveryContainerQueryTest extends TestCase {
+
+	private static final long TIMEOUT = 300;
+
+	/**
+	 * A child container with one service, that blocks its queries while it is
+	 * stalled.
+	 */
+	static class TestLocator extends AbstractDiscoveryContainerAdapter {
+		private final IServiceInfo service;
+		private boolean stalled;
+		private int queries;
+		private int results;
+		private ID connectedID;
+
+		TestLocator(String name) {
+			super("ecf.namespace.jmdns", new DiscoveryContainerConfig(IDFactory.getDefault().createStringID(name)));
+			service = createService(name);
+		}
+
+		IServiceInfo createService(String name) {
+			final IServiceTypeID type = ServiceIDFactory.getDefault().createServiceTypeID(getServicesNamespace(), DiscoveryTestHelper.SERVICES, new String[] {DiscoveryTestHelper.SCOPE}, new String[] {name}, DiscoveryTestHelper.NAMINGAUTHORITY);
+			return new ServiceInfo(DiscoveryTestHelper.createDefaultURI(DiscoveryTestHelper.HOSTNAME), name, type);
+		}
+
+		void discover(IServiceInfo serviceInfo) {
+			fireServiceDiscovered(new ServiceContainerEvent(serviceInfo, getID()));
+		}
+
+		synchronized void setStalled(boolean stalled) {
+			this.stalled = stalled;
+			notifyAll();
+		}
+
+		IServiceTypeID getServiceType() {
+			return service.getServiceID().getServiceTypeID();
+		}
+
+		synchronized int getQueries() {
+			return queries;
+		}
+
+		synchronized int getResults() {
+			return results;
+		}
+
+		private synchronized void await() {
+			queries++;
+			while (stalled) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+
+		public IServiceInfo[] getServices() {
+			await();
+			synchronized (this) {
+				results++;
+			}
+			return new IServiceInfo[] {service};
+		}
+
+		public IServiceInfo[] getServices(IServiceTypeID type) {
+			await();
+			return type.equals(getServiceType()) ? new IServiceInfo[] {service} : new IServiceInfo[0];
+		}
+
+		public IServiceTypeID[] getServiceTypes() {
+			await();
+			return new IServiceTypeID[] {getServiceType()};
+		}
+
+		public IServiceInfo getServiceInfo(IServiceID aServiceID) {
+			return aServiceID.equals(service.getServiceID()) ? service : null;
+		}
+
+		public void registerService(IServiceInfo serviceInfo) {
+			// not advertised
+		}
+
+		public void unregisterService(IServiceInfo serviceInfo) {
+			// not advertised
+		}
+
+		public void connect(ID targetID, IConnectContext connectContext) throws ContainerConnectException {
+			connectedID = targetID == null ? getID() : targetID;
+		}
+
+		public void disconnect() {
+			connectedID = null;
+		}
+
+		public ID getConnectedID() {
+			return connectedID;
+		}
+
+		public String getContainerName() {
+			return "ecf.discovery.test"; //$NON-NLS-1$
+		}
+	}
+
+	private TestLocator fast;
+	private TestLocator slow;
+	private CompositeDiscoveryContainer composite;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		// children are queried in parallel by default
+		System.setProperty("org.eclipse.ecf.provider.discovery.queryTimeout", String.valueOf(TIMEOUT)); //$NON-NLS-1$
+		composite = new CompositeDiscoveryContainer(new ArrayList());
+		fast = new TestLocator("fast"); //$NON-NLS-1$
+		slow = new TestLocator("slow"); //$NON-NLS-1$
+		assertTrue(composite.addContainer(fast));
+		assertTrue(composite.addContainer(slow));
+	}
+
+	protected void tearDown() throws Exception {
+		slow.setStalled(false);
+		composite.dispose();
+		System.getProperties().remove("org.eclipse.ecf.provider.discovery.queryTimeout"); //$NON-NLS-1$
+		super.tearDown();
+	}
+
+	private Set getServiceNames(IServiceInfo[] services) {
+		final Set names = new HashSet();
+		for (int i = 0; i < services.length; i++) {
+			names.add(services[i].getServiceName());
+		}
+		return names;
+	}
+
+	public void testStalledChildUsesKnownServices() {
+		assertEquals(2, composite.getServices().length);
+
+		slow.setStalled(true);
+		final long start = System.currentTimeMillis();
+		final IServiceInfo[] services = composite.getServices();
+		assertTrue(System.currentTimeMillis() - start < 10 * TIMEOUT);
+		assertEquals(new HashSet(Arrays.asList(new String[] {"fast", "slow"})), getServiceNames(services)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public void testStalledChildIsNotQueriedAgain() {
+		composite.getServices();
+		assertEquals(1, slow.getQueries());
+
+		slow.setStalled(true);
+		composite.getServices();
+		composite.getServices();
+		composite.getServices();
+		// the first stalled query is still pending
+		assertEquals(2, slow.getQueries());
+		assertEquals(4, fast.getQueries());
+
+		slow.setStalled(false);
+		final long deadline = System.currentTimeMillis() + 10 * TIMEOUT;
+		while (slow.getQueries() < 3 && System.currentTimeMillis() < deadline) {
+			// a new query once the pending one is done
+			composite.getServices();
+		}
+		assertEquals(3, slow.getQueries());
+	}
+
+	public void testStalledChildServiceTypes() {
+		composite.getServices();
+
+		slow.setStalled(true);
+		final IServiceTypeID[] types = composite.getServiceTypes();
+		assertEquals(2, types.length);
+		assertTrue(Arrays.asList(types).contains(slow.getServiceType()));
+		assertTrue(Arrays.asList(types).contains(fast.getServiceType()));
+	}
+
+	public void testLateResultIsMerged() throws Exception {
+		composite.getServices();
+
+		slow.setStalled(true);
+		composite.getServices();
+		// discovered while the query of all services is pending
+		slow.discover(slow.createService("discovered")); //$NON-NLS-1$
+		slow.setStalled(false);
+		final long deadline = System.currentTimeMillis() + 10 * TIMEOUT;
+		while (slow.getResults() < 2) {
+			assertTrue(System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+
+		// the late result did not replace the discovered service
+		slow.setStalled(true);
+		assertEquals(new HashSet(Arrays.asList(new String[] {"fast", "slow", "discovered"})), getServiceNames(composite.getServices())); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	public void testMergedViewWithoutChanges() {
+		final IServiceInfo[] first = composite.getServices();
+		final IServiceInfo[] second = composite.getServices();
+		assertEquals(first.length, second.length);
+		// built once, the same wrappers are handed out again
+		assertEquals(new HashSet(Arrays.asList(first)), new HashSet(Arrays.asList(second)));
+
+		assertTrue(composite.removeContainer(slow));
+		assertEquals(new HashSet(Arrays.asList(new String[] {"fast"})), getServiceNames(composite.getServices())); //$NON-NLS-1$
+	}
+}
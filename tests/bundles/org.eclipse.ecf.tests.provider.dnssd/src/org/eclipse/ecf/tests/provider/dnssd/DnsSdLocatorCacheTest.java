@@ -0,0 +1,341 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.dnssd;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.discovery.IServiceInfo;
+import org.eclipse.ecf.discovery.identity.IServiceTypeID;
+import org.eclipse.ecf.discovery.identity.ServiceIDFactory;
+import org.eclipse.ecf.provider.dnssd.DnsSdDiscoveryLocator;
+import org.eclipse.ecf.provider.dnssd.DnsSdNamespace;
+import org.eclipse.ecf.provider.dnssd.DnsSdServiceTypeID;
+import org.xbill.DNS.DClass;
+import org.xbill.DNS.Flags;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.Name;
+import org.xbill.DNS.PTRRecord;
+import org.xbill.DNS.Rcode;
+import org.xbill.DNS.Record;
+import org.xbill.DNS.SRVRecord;
+import org.xbill.DNS.Section;
+import org.xbill.DNS.SimpleResolver;
+import org.xbill.DNS.TXTRecord;
+import org.xbill.DNS.Type;
+
+/**
+ * Runs the locator against a stub DNS server on the loopback interface, which
+ * counts the queries it gets. A wildcard query for the scope takes one PTR
+ * query for the service types, then one SRV and one TXT query per type.
+ * <p>
+ * The locator reads the time from the test, so that records expire without
+ * waiting for their TTL to run out.
+ */
+public class DnsSdLocatorCacheTest extends TestCase {
+
+	private static final String CONCURRENT_LOOKUPS_PROP = "org.eclipse.ecf.provider.dnssd.concurrentLookups";
+	private static final String SCOPE = "dnssd.test";
+	private static final int SERVICES = 5;
+	private static final int QUERIES = 1 + 2 * SERVICES;
+	private static final long TTL = 3600;
+
+	private StubDnsServer server;
+	private DnsSdDiscoveryLocator locator;
+	private volatile long time;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	protected void setUp() throws Exception {
+		super.setUp();
+		// bound before it is started, so queries sent right away are queued
+		server = new StubDnsServer();
+		new Thread(server, "StubDnsServer").start();
+		time = System.currentTimeMillis();
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	protected void tearDown() throws Exception {
+		if (locator != null) {
+			locator.disconnect();
+			locator = null;
+		}
+		server.close();
+		System.getProperties().remove(CONCURRENT_LOOKUPS_PROP);
+		super.tearDown();
+	}
+
+	private void addRecords(long ttl) throws Exception {
+		final Name services = Name.fromString("_services._dns-sd._udp." + SCOPE + ".");
+		final Record[] ptrRecords = new Record[SERVICES];
+		for (int i = 0; i < SERVICES; i++) {
+			final Name type = Name.fromString("_svc" + i + "._tcp." + SCOPE + ".");
+			ptrRecords[i] = new PTRRecord(services, DClass.IN, ttl, type);
+			server.add(type, Type.SRV, new Record[] {new SRVRecord(type, DClass.IN, ttl, 0, 0, 8080 + i, Name.fromString("host" + i + "." + SCOPE + "."))});
+			server.add(type, Type.TXT, new Record[] {new TXTRecord(type, DClass.IN, ttl, "path=/" + i)});
+		}
+		server.add(services, Type.PTR, ptrRecords);
+	}
+
+	private void connect() throws Exception {
+		if (locator == null) {
+			final SimpleResolver stub = new SimpleResolver("127.0.0.1");
+			stub.setPort(server.getPort());
+			locator = new DnsSdDiscoveryLocator() {
+				{
+					resolver = stub;
+				}
+
+				protected long getCurrentTime() {
+					return time;
+				}
+			};
+		}
+		locator.connect(new DnsSdServiceTypeID(new DnsSdNamespace(), "_http._tcp." + SCOPE + "._iana"), null);
+	}
+
+	private IServiceInfo[] getServices() throws Exception {
+		if (locator == null) {
+			connect();
+		}
+		final IServiceTypeID serviceTypeId = ServiceIDFactory.getDefault().createServiceTypeID(locator.getServicesNamespace(), new String[] {""}, new String[] {SCOPE}, new String[] {""}, DnsSdTestHelper.NAMING_AUTH);
+		return locator.getServices(serviceTypeId);
+	}
+
+	/**
+	 * @return the number of queries sent for one call to {@link #getServices()}
+	 */
+	private int countQueries() throws Exception {
+		if (locator == null) {
+			connect();
+		}
+		final int queries = server.getQueryCount();
+		assertEquals(SERVICES, getServices().length);
+		return server.getQueryCount() - queries;
+	}
+
+	public void testServices() throws Exception {
+		addRecords(TTL);
+		final IServiceInfo[] services = getServices();
+		assertEquals(SERVICES, services.length);
+		for (int i = 0; i < services.length; i++) {
+			final int port = services[i].getLocation().getPort();
+			assertEquals("/" + (port - 8080), services[i].getServiceProperties().getProperty("path"));
+		}
+	}
+
+	public void testCachedUntilExpired() throws Exception {
+		addRecords(TTL);
+		assertEquals(QUERIES, countQueries());
+		// answered from the cache until the TTL has passed
+		assertEquals(0, countQueries());
+		time += TTL * 1000 - 1;
+		assertEquals(0, countQueries());
+		time += 1;
+		assertEquals(QUERIES, countQueries());
+		// and cached again
+		assertEquals(0, countQueries());
+	}
+
+	public void testNotCachedWithoutTTL() throws Exception {
+		addRecords(0);
+		assertEquals(QUERIES, countQueries());
+		assertEquals(QUERIES, countQueries());
+	}
+
+	public void testCacheClearedOnDisconnect() throws Exception {
+		addRecords(TTL);
+		assertEquals(QUERIES, countQueries());
+		locator.disconnect();
+		connect();
+		assertEquals(QUERIES, countQueries());
+	}
+
+	public void testSequentialLookups() throws Exception {
+		addRecords(TTL);
+		assertEquals(QUERIES, countQueries());
+		assertEquals(1, server.getMaxConcurrentQueries());
+	}
+
+	public void testConcurrentLookups() throws Exception {
+		System.setProperty(CONCURRENT_LOOKUPS_PROP, "8");
+		addRecords(TTL);
+		// the SRV queries are answered once all of them have been received
+		server.holdUntil(Type.SRV, SERVICES, 5000);
+		// the lookups read the prefetched records from the cache
+		assertEquals(QUERIES, countQueries());
+		assertEquals(SERVICES, server.getMaxConcurrentQueries());
+	}
+
+	public void testConcurrentLookupsLimited() throws Exception {
+		System.setProperty(CONCURRENT_LOOKUPS_PROP, "3");
+		addRecords(TTL);
+		// more than the limit would be answered at once, so the queries wait
+		// for each other until the hold times out
+		server.holdUntil(Type.SRV, SERVICES, 500);
+		assertEquals(QUERIES, countQueries());
+		assertEquals(3, server.getMaxConcurrentQueries());
+	}
+
+	/**
+	 * Answers each query on a thread of its own. The answers to queries of one
+	 * type can be held back until a number of them are outstanding at the
+	 * same time.
+	 */
+	private static class StubDnsServer implements Runnable {
+
+		private final DatagramSocket socket;
+		private final Map records = new HashMap();
+		private int queryCount;
+		private int concurrentQueries;
+		private int maxConcurrentQueries;
+		private int heldType = -1;
+		private int heldQueries;
+		private int maxHeldQueries;
+		private int hold;
+		private long holdTimeout;
+
+		StubDnsServer() throws IOException {
+			socket = new DatagramSocket(0, InetAddress.getByName("127.0.0.1"));
+		}
+
+		int getPort() {
+			return socket.getLocalPort();
+		}
+
+		void close() {
+			socket.close();
+		}
+
+		void add(Name name, int type, Record[] answers) {
+			synchronized (records) {
+				records.put(name + "/" + type, answers);
+			}
+		}
+
+		synchronized void holdUntil(int type, int queries, long timeout) {
+			heldType = type;
+			hold = queries;
+			holdTimeout = timeout;
+		}
+
+		synchronized int getQueryCount() {
+			return queryCount;
+		}
+
+		synchronized int getMaxConcurrentQueries() {
+			return maxConcurrentQueries;
+		}
+
+		public void run() {
+			while (!socket.isClosed()) {
+				final byte[] buf = new byte[512];
+				final DatagramPacket packet = new DatagramPacket(buf, buf.length);
+				try {
+					socket.receive(packet);
+				} catch (IOException e) {
+					return;
+				}
+				final byte[] data = new byte[packet.getLength()];
+				System.arraycopy(buf, 0, data, 0, data.length);
+				final SocketAddress client = packet.getSocketAddress();
+				new Thread(new Runnable() {
+					public void run() {
+						answer(data, client);
+					}
+				}, "StubDnsServer answer").start();
+			}
+		}
+
+		void answer(byte[] data, SocketAddress client) {
+			final Message query;
+			try {
+				query = new Message(data);
+			} catch (IOException e) {
+				return;
+			}
+			final Record question = query.getQuestion();
+			final boolean held;
+			synchronized (this) {
+				queryCount++;
+				concurrentQueries++;
+				maxConcurrentQueries = Math.max(maxConcurrentQueries, concurrentQueries);
+				held = question.getType() == heldType;
+				if (held) {
+					heldQueries++;
+					maxHeldQueries = Math.max(maxHeldQueries, heldQueries);
+					notifyAll();
+				}
+			}
+			final Message response = new Message(query.getHeader().getID());
+			try {
+				if (held) {
+					awaitHold();
+				}
+			} catch (InterruptedException e) {
+				return;
+			} finally {
+				// counted as answered before the client can see the response
+				synchronized (this) {
+					concurrentQueries--;
+					if (held) {
+						heldQueries--;
+					}
+				}
+			}
+			response.getHeader().setFlag(Flags.QR);
+			response.getHeader().setFlag(Flags.AA);
+			response.addRecord(question, Section.QUESTION);
+			final Record[] answers;
+			synchronized (records) {
+				answers = (Record[]) records.get(question.getName() + "/" + question.getType());
+			}
+			if (answers == null) {
+				response.getHeader().setRcode(Rcode.NXDOMAIN);
+			} else {
+				for (int i = 0; i < answers.length; i++) {
+					response.addRecord(answers[i], Section.ANSWER);
+				}
+			}
+			final byte[] out = response.toWire();
+			try {
+				socket.send(new DatagramPacket(out, out.length, client));
+			} catch (IOException e) {
+				// closed
+			}
+		}
+
+		// waits until the number of queries to hold for have been outstanding
+		// at the same time once, or the hold times out
+		private synchronized void awaitHold() throws InterruptedException {
+			final long end = System.currentTimeMillis() + holdTimeout;
+			while (maxHeldQueries < hold) {
+				final long remaining = end - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return;
+				}
+				wait(remaining);
+			}
+		}
+	}
+}
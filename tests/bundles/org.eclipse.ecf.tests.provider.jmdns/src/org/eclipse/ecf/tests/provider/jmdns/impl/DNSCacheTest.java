@@ -0,0 +1,113 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.jmdns.impl;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.jmdns.impl.DNSCache;
+import javax.jmdns.impl.DNSConstants;
+import javax.jmdns.impl.DNSEntry;
+import javax.jmdns.impl.DNSRecord;
+
+import junit.framework.TestCase;
+
+/**
+ * Runs the same operations against an unsharded and a sharded cache.
+ */
+public class DNSCacheTest extends TestCase {
+
+	private static final int NAMES = 50;
+
+	private static DNSRecord newRecord(int name, int alias) {
+		return new DNSRecord.Pointer("_svc" + name + "._tcp.local.", DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN, 120, "host" + alias + ".local.");
+	}
+
+	private void testAddFindRemove(DNSCache cache) {
+		final DNSRecord[][] records = new DNSRecord[NAMES][2];
+		for (int i = 0; i < NAMES; i++) {
+			for (int j = 0; j < 2; j++) {
+				records[i][j] = newRecord(i, j);
+				cache.add(records[i][j]);
+			}
+		}
+		for (int i = 0; i < NAMES; i++) {
+			assertSame(records[i][1], cache.get(newRecord(i, 1)));
+			int count = 0;
+			for (DNSCache.CacheNode n = cache.find(records[i][0].getName()); n != null; n = n.next()) {
+				count++;
+			}
+			assertEquals(2, count);
+		}
+		assertEquals(2 * NAMES, getEntries(cache).size());
+
+		for (int i = 0; i < NAMES; i++) {
+			assertTrue(cache.remove(records[i][0]));
+			assertFalse(cache.remove(records[i][0]));
+		}
+		final Set entries = getEntries(cache);
+		assertEquals(NAMES, entries.size());
+		for (int i = 0; i < NAMES; i++) {
+			assertTrue(entries.contains(records[i][1]));
+			assertNull(cache.get(records[i][0]));
+		}
+
+		cache.clear();
+		assertFalse(cache.iterator().hasNext());
+	}
+
+	private static Set getEntries(DNSCache cache) {
+		final Set entries = new HashSet();
+		for (final Iterator i = cache.iterator(); i.hasNext();) {
+			for (DNSCache.CacheNode n = (DNSCache.CacheNode) i.next(); n != null; n = n.next()) {
+				entries.add(n.getValue());
+			}
+		}
+		return entries;
+	}
+
+	public void testUnsharded() {
+		testAddFindRemove(new DNSCache(100));
+	}
+
+	public void testSharded() {
+		testAddFindRemove(new DNSCache(100, 8));
+	}
+
+	public void testShardedConcurrentAdds() throws Exception {
+		final DNSCache cache = new DNSCache(100, 8);
+		final Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int alias = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					for (int i = 0; i < NAMES; i++) {
+						cache.add(newRecord(i, alias));
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (int t = 0; t < threads.length; t++) {
+			threads[t].join();
+		}
+		assertEquals(threads.length * NAMES, getEntries(cache).size());
+		for (int i = 0; i < NAMES; i++) {
+			for (int t = 0; t < threads.length; t++) {
+				final DNSEntry entry = cache.get(newRecord(i, t));
+				assertNotNull(entry);
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.jmdns.impl;
+
+import java.util.TimerTask;
+
+import javax.jmdns.impl.JmDNSImpl;
+import javax.jmdns.impl.SharedTimer;
+
+import junit.framework.TestCase;
+
+public class SharedTimerTest extends TestCase {
+
+	private static final long TIMEOUT = 10000;
+
+	private JmDNSImpl first;
+	private JmDNSImpl second;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	protected void setUp() throws Exception {
+		super.setUp();
+		System.setProperty(SharedTimer.PROPERTY, "true");
+		first = new JmDNSImpl();
+		second = new JmDNSImpl();
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	protected void tearDown() throws Exception {
+		first.close();
+		second.close();
+		System.getProperties().remove(SharedTimer.PROPERTY);
+		super.tearDown();
+	}
+
+	public void testInstancesShareTimer() throws Exception {
+		assertEquals(2, SharedTimer.getInstanceCount());
+		final RecordingTask firstTask = new RecordingTask();
+		final RecordingTask secondTask = new RecordingTask();
+		first.schedule(firstTask, 0);
+		second.schedule(secondTask, 0);
+		assertSame(firstTask.awaitRun(), secondTask.awaitRun());
+	}
+
+	public void testTimerStoppedWithLastInstance() throws Exception {
+		first.close();
+		assertEquals(1, SharedTimer.getInstanceCount());
+		assertTrue(SharedTimer.isRunning());
+		second.close();
+		assertEquals(0, SharedTimer.getInstanceCount());
+		assertFalse(SharedTimer.isRunning());
+	}
+
+	public void testCloseCancelsOwnTasks() throws Exception {
+		final RecordingTask firstTask = new RecordingTask();
+		final RecordingTask secondTask = new RecordingTask();
+		first.schedule(firstTask, (int) TIMEOUT);
+		second.schedule(secondTask, (int) TIMEOUT);
+		first.close();
+		// cancel() returns false for a task that was cancelled before
+		assertFalse(firstTask.cancel());
+		assertTrue(secondTask.cancel());
+		assertTrue(SharedTimer.isRunning());
+	}
+
+	public void testDeadTimerReplaced() throws Exception {
+		final int replaced = SharedTimer.getReplacedCount();
+		final RecordingTask failing = new RecordingTask() {
+			public void run() {
+				super.run();
+				throw new RuntimeException("kills the timer thread");
+			}
+		};
+		first.schedule(failing, 0);
+		final Thread dead = failing.awaitRun();
+		dead.join(TIMEOUT);
+		assertFalse(dead.isAlive());
+
+		final RecordingTask next = new RecordingTask();
+		second.schedule(next, 0);
+		assertNotSame(dead, next.awaitRun());
+		assertEquals(replaced + 1, SharedTimer.getReplacedCount());
+		assertEquals(2, SharedTimer.getInstanceCount());
+	}
+
+	/**
+	 * Remembers the thread it ran on.
+	 */
+	private static class RecordingTask extends TimerTask {
+		private Thread thread;
+
+		public void run() {
+			synchronized (this) {
+				thread = Thread.currentThread();
+				notifyAll();
+			}
+		}
+
+		synchronized Thread awaitRun() throws InterruptedException {
+			final long end = System.currentTimeMillis() + TIMEOUT;
+			while (thread == null && System.currentTimeMillis() < end) {
+				wait(end - System.currentTimeMillis());
+			}
+			assertNotNull("task did not run", thread);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,183 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.remoteservice.generic;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.sharedobject.SharedObjectMsg;
+import org.eclipse.ecf.core.util.reflection.ClassUtil;
+
+public class MethodDispatchCacheTest extends TestCase {
+
+	public static class TestService {
+
+		public String echo(String s) {
+			return "String:" + s; //$NON-NLS-1$
+		}
+
+		public String echo(Object o) {
+			return "Object:" + o; //$NON-NLS-1$
+		}
+
+		public String echo(int i) {
+			return "int:" + i; //$NON-NLS-1$
+		}
+
+		public String echo(long l) {
+			return "long:" + l; //$NON-NLS-1$
+		}
+
+		public String echo(String s, int i) {
+			return "String,int:" + s + "," + i; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		public int add(int a, int b) {
+			return a + b;
+		}
+
+		public boolean negate(boolean b) {
+			return !b;
+		}
+
+		public String nullable(String s) {
+			return (s == null) ? "null" : s; //$NON-NLS-1$
+		}
+
+		public String noArgs() {
+			return "noArgs"; //$NON-NLS-1$
+		}
+
+		public void fail() throws IOException {
+			throw new IOException("failed"); //$NON-NLS-1$
+		}
+
+		public static String staticEcho(String s) {
+			return "static:" + s; //$NON-NLS-1$
+		}
+	}
+
+	private final TestService service = new TestService();
+	private MethodDispatchCache cache;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		cache = new MethodDispatchCache(TestService.class);
+	}
+
+	private MethodDispatchCache.Target getTarget(String methodName, Object[] args) throws Exception {
+		return cache.getTarget(methodName, SharedObjectMsg.getTypesForParameters(args));
+	}
+
+	private Method getUncachedMethod(String methodName, Object[] args) throws Exception {
+		return ClassUtil.getMethod(TestService.class, methodName, SharedObjectMsg.getTypesForParameters(args));
+	}
+
+	/**
+	 * The cached target must resolve to the same method as uncached resolution
+	 * and give the same result as reflection.
+	 */
+	private Object assertSameAsUncached(String methodName, Object[] args) throws Exception {
+		final Method expected = getUncachedMethod(methodName, args);
+		final MethodDispatchCache.Target target = getTarget(methodName, args);
+		assertEquals(expected, target.getMethod());
+		final Object result = target.invoke(service, args);
+		assertEquals(expected.invoke(service, args), result);
+		return result;
+	}
+
+	public void testOverloadResolution() throws Exception {
+		assertEquals("String:a", assertSameAsUncached("echo", new Object[] {"a"})); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertSameAsUncached("echo", new Object[] {Integer.valueOf(1)}); //$NON-NLS-1$
+		assertSameAsUncached("echo", new Object[] {Long.valueOf(2)}); //$NON-NLS-1$
+		assertEquals("Object:true", assertSameAsUncached("echo", new Object[] {Boolean.TRUE})); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("String,int:a,3", assertSameAsUncached("echo", new Object[] {"a", Integer.valueOf(3)})); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	public void testNoArgs() throws Exception {
+		assertEquals("noArgs", assertSameAsUncached("noArgs", SharedObjectMsg.nullArgs)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public void testPrimitiveArgs() throws Exception {
+		assertEquals(Integer.valueOf(5), assertSameAsUncached("add", new Object[] {Integer.valueOf(2), Integer.valueOf(3)})); //$NON-NLS-1$
+		assertEquals(Boolean.FALSE, assertSameAsUncached("negate", new Object[] {Boolean.TRUE})); //$NON-NLS-1$
+	}
+
+	public void testNullArgs() throws Exception {
+		assertEquals("null", assertSameAsUncached("nullable", new Object[] {null})); //$NON-NLS-1$ //$NON-NLS-2$
+		assertSameAsUncached("echo", new Object[] {null, Integer.valueOf(1)}); //$NON-NLS-1$
+	}
+
+	public void testNullForPrimitiveArg() throws Exception {
+		final Object[] args = new Object[] {null, Integer.valueOf(1)};
+		final MethodDispatchCache.Target target = getTarget("add", args); //$NON-NLS-1$
+		assertEquals(getUncachedMethod("add", args), target.getMethod()); //$NON-NLS-1$
+		try {
+			target.invoke(service, args);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// same as Method.invoke
+		}
+	}
+
+	public void testStaticMethod() throws Exception {
+		assertEquals("static:a", assertSameAsUncached("staticEcho", new Object[] {"a"})); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	public void testCacheHit() throws Exception {
+		final Object[] args = new Object[] {"a"}; //$NON-NLS-1$
+		final MethodDispatchCache.Target target = getTarget("echo", args); //$NON-NLS-1$
+		assertSame(target, getTarget("echo", new Object[] {"b"})); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(getUncachedMethod("echo", args), getTarget("echo", args).getMethod()); //$NON-NLS-1$ //$NON-NLS-2$
+		// a different argument type is a different entry
+		assertNotSame(target, getTarget("echo", new Object[] {Integer.valueOf(1)})); //$NON-NLS-1$
+	}
+
+	public void testClear() throws Exception {
+		final MethodDispatchCache.Target target = getTarget("echo", new Object[] {"a"}); //$NON-NLS-1$ //$NON-NLS-2$
+		cache.clear();
+		final MethodDispatchCache.Target other = getTarget("echo", new Object[] {"a"}); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotSame(target, other);
+		assertEquals(target.getMethod(), other.getMethod());
+	}
+
+	public void testExceptionFromMethod() throws Exception {
+		try {
+			getTarget("fail", SharedObjectMsg.nullArgs).invoke(service, SharedObjectMsg.nullArgs); //$NON-NLS-1$
+			fail();
+		} catch (InvocationTargetException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	public void testNoSuchMethod() throws Exception {
+		try {
+			getTarget("missing", new Object[] {"a"}); //$NON-NLS-1$ //$NON-NLS-2$
+			fail();
+		} catch (NoSuchMethodException e) {
+			// expected
+		}
+	}
+
+	public void testWrongService() throws Exception {
+		try {
+			getTarget("echo", new Object[] {"a"}).invoke(new Object(), new Object[] {"a"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			fail();
+		} catch (IllegalArgumentException e) {
+			// same as Method.invoke
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.remoteservice.generic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.remoteservice.IRemoteServiceReference;
+
+public class RemoteServiceRegistryImplTest extends TestCase {
+
+	private static final String FOO = "org.eclipse.ecf.tests.Foo"; //$NON-NLS-1$
+	private static final String BAR = "org.eclipse.ecf.tests.Bar"; //$NON-NLS-1$
+
+	/**
+	 * Changes the protected fields directly, as subclasses may.
+	 */
+	static class TestRegistry extends RemoteServiceRegistryImpl {
+
+		private static final long serialVersionUID = 1L;
+
+		TestRegistry() throws Exception {
+			super(IDFactory.getDefault().createStringID("container")); //$NON-NLS-1$
+		}
+
+		@SuppressWarnings("unchecked")
+		synchronized void addDirectly(RemoteServiceRegistrationImpl reg) {
+			allPublishedServices.add(reg);
+		}
+
+		synchronized void removeDirectly(RemoteServiceRegistrationImpl reg) {
+			allPublishedServices.remove(reg);
+		}
+	}
+
+	private TestRegistry registry;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		registry = new TestRegistry();
+	}
+
+	private RemoteServiceRegistrationImpl register(RemoteServiceRegistryImpl reg, String[] clazzes, String name) {
+		final Hashtable props = new Hashtable();
+		props.put("name", name); //$NON-NLS-1$
+		final RemoteServiceRegistrationImpl registration = new RemoteServiceRegistrationImpl();
+		registration.publish(null, reg, new Object(), clazzes, props);
+		return registration;
+	}
+
+	private static Set references(IRemoteServiceReference[] refs) {
+		return (refs == null) ? new HashSet() : new HashSet(Arrays.asList(refs));
+	}
+
+	private static Set references(RemoteServiceRegistrationImpl[] regs) {
+		final Set result = new HashSet();
+		for (int i = 0; i < regs.length; i++)
+			result.add(regs[i].getReference());
+		return result;
+	}
+
+	public void testEmpty() throws Exception {
+		assertNull(registry.lookupServiceReferences());
+		assertNull(registry.lookupServiceReferences(FOO, null));
+		assertNull(registry.lookupServiceReferences(null, null));
+		assertEquals(0, registry.getRegistrations().length);
+		assertNull(registry.findRegistrationForServiceId(1));
+	}
+
+	public void testLookupByClass() throws Exception {
+		final RemoteServiceRegistrationImpl foo = register(registry, new String[] {FOO}, "foo"); //$NON-NLS-1$
+		final RemoteServiceRegistrationImpl both = register(registry, new String[] {FOO, BAR}, "both"); //$NON-NLS-1$
+		assertEquals(references(new RemoteServiceRegistrationImpl[] {foo, both}), references(registry.lookupServiceReferences(FOO, null)));
+		assertEquals(references(new RemoteServiceRegistrationImpl[] {both}), references(registry.lookupServiceReferences(BAR, null)));
+		assertNull(registry.lookupServiceReferences("org.eclipse.ecf.tests.Other", null)); //$NON-NLS-1$
+		assertEquals(references(new RemoteServiceRegistrationImpl[] {foo, both}), references(registry.lookupServiceReferences()));
+		assertEquals(references(new RemoteServiceRegistrationImpl[] {foo, both}), references(registry.lookupServiceReferences(null, null)));
+	}
+
+	public void testLookupWithFilter() throws Exception {
+		final RemoteServiceRegistrationImpl foo = register(registry, new String[] {FOO}, "foo"); //$NON-NLS-1$
+		final RemoteServiceRegistrationImpl both = register(registry, new String[] {FOO, BAR}, "both"); //$NON-NLS-1$
+		assertEquals(references(new RemoteServiceRegistrationImpl[] {foo}), references(registry.lookupServiceReferences(FOO, new RemoteFilterImpl("(name=foo)")))); //$NON-NLS-1$
+		assertEquals(references(new RemoteServiceRegistrationImpl[] {both}), references(registry.lookupServiceReferences(null, new RemoteFilterImpl("(name=both)")))); //$NON-NLS-1$
+		assertNull(registry.lookupServiceReferences(BAR, new RemoteFilterImpl("(name=foo)"))); //$NON-NLS-1$
+	}
+
+	public void testFindByServiceId() throws Exception {
+		final RemoteServiceRegistrationImpl foo = register(registry, new String[] {FOO}, "foo"); //$NON-NLS-1$
+		final RemoteServiceRegistrationImpl bar = register(registry, new String[] {BAR}, "bar"); //$NON-NLS-1$
+		assertSame(foo, registry.findRegistrationForServiceId(foo.getServiceId()));
+		assertSame(bar, registry.findRegistrationForServiceId(bar.getServiceId()));
+		assertSame(bar, registry.findRegistrationForRemoteServiceId(bar.getID()));
+		assertNull(registry.findRegistrationForServiceId(bar.getServiceId() + 1000));
+	}
+
+	public void testUnregister() throws Exception {
+		final RemoteServiceRegistrationImpl foo = register(registry, new String[] {FOO}, "foo"); //$NON-NLS-1$
+		final RemoteServiceRegistrationImpl both = register(registry, new String[] {FOO, BAR}, "both"); //$NON-NLS-1$
+		registry.unpublishService(both);
+		assertEquals(references(new RemoteServiceRegistrationImpl[] {foo}), references(registry.lookupServiceReferences(FOO, null)));
+		assertNull(registry.lookupServiceReferences(BAR, null));
+		assertNull(registry.findRegistrationForServiceId(both.getServiceId()));
+		assertNull(registry.findRegistrationForRemoteServiceId(both.getID()));
+		assertSame(foo, registry.findRegistrationForServiceId(foo.getServiceId()));
+		registry.unpublishServices();
+		assertNull(registry.lookupServiceReferences());
+		assertNull(registry.findRegistrationForServiceId(foo.getServiceId()));
+	}
+
+	public void testFieldsAreSourceOfTruth() throws Exception {
+		final RemoteServiceRegistrationImpl foo = register(registry, new String[] {FOO}, "foo"); //$NON-NLS-1$
+		// take a snapshot
+		assertSame(foo, registry.findRegistrationForServiceId(foo.getServiceId()));
+		final RemoteServiceRegistrationImpl bar = register(new TestRegistry(), new String[] {BAR}, "bar"); //$NON-NLS-1$
+		registry.addDirectly(bar);
+		assertEquals(references(new RemoteServiceRegistrationImpl[] {bar}), references(registry.lookupServiceReferences(BAR, null)));
+		assertEquals(2, registry.getRegistrations().length);
+		registry.removeDirectly(foo);
+		assertNull(registry.lookupServiceReferences(FOO, null));
+		assertNull(registry.findRegistrationForServiceId(foo.getServiceId()));
+		assertEquals(references(new RemoteServiceRegistrationImpl[] {bar}), references(registry.getRegistrations()));
+	}
+
+	public void testSerialized() throws Exception {
+		final RemoteServiceRegistrationImpl foo = register(registry, new String[] {FOO}, "foo"); //$NON-NLS-1$
+		register(registry, new String[] {BAR}, "bar"); //$NON-NLS-1$
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(registry);
+		oos.close();
+		final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+		final TestRegistry copy = (TestRegistry) ois.readObject();
+		assertEquals(2, copy.getRegistrations().length);
+		assertEquals(1, copy.lookupServiceReferences(FOO, null).length);
+		assertEquals(foo.getID(), copy.findRegistrationForServiceId(foo.getServiceId()).getID());
+		// still sees direct changes
+		copy.removeDirectly(copy.findRegistrationForServiceId(foo.getServiceId()));
+		assertNull(copy.lookupServiceReferences(FOO, null));
+	}
+}
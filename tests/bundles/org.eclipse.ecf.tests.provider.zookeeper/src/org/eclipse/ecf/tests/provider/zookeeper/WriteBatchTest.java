@@ -0,0 +1,223 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.zookeeper;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.apache.zookeeper.AsyncCallback.StatCallback;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooDefs.Ids;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
+import org.apache.zookeeper.server.NIOServerCnxn;
+import org.apache.zookeeper.server.ZooKeeperServer;
+import org.apache.zookeeper.server.persistence.FileTxnSnapLog;
+import org.eclipse.ecf.provider.zookeeper.node.internal.WriteBatch;
+
+/**
+ * Sends batches of asynchronous creates and deletes to an embedded
+ * standalone server, started the same way as the one of the discovery
+ * container.
+ */
+public class WriteBatchTest extends TestCase {
+
+	private static final String PARENT = "/writebatchtest";
+	private static final int NODES = 20;
+
+	private File dataDir;
+	private NIOServerCnxn.Factory cnxnFactory;
+	private ZooKeeper zooKeeper;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		dataDir = File.createTempFile("zookeeper", "");
+		dataDir.delete();
+		dataDir.mkdirs();
+		ZooKeeperServer server = new ZooKeeperServer();
+		server.setTxnLogFactory(new FileTxnSnapLog(dataDir, dataDir));
+		server.setTickTime(2000);
+		int port = getFreePort();
+		cnxnFactory = new NIOServerCnxn.Factory(new InetSocketAddress(port));
+		cnxnFactory.startup(server);
+
+		final CountDownLatch connected = new CountDownLatch(1);
+		zooKeeper = new ZooKeeper("localhost:" + port, 3000, new Watcher() {
+			public void process(WatchedEvent event) {
+				if (event.getState() == Event.KeeperState.SyncConnected)
+					connected.countDown();
+			}
+		});
+		assertTrue("not connected",
+				connected.await(10, TimeUnit.SECONDS));
+		zooKeeper.create(PARENT, new byte[0], Ids.OPEN_ACL_UNSAFE,
+				CreateMode.PERSISTENT);
+	}
+
+	protected void tearDown() throws Exception {
+		if (zooKeeper != null)
+			zooKeeper.close();
+		if (cnxnFactory != null)
+			cnxnFactory.shutdown();
+		delete(dataDir);
+		super.tearDown();
+	}
+
+	private static int getFreePort() throws Exception {
+		ServerSocket socket = new ServerSocket(0);
+		try {
+			return socket.getLocalPort();
+		} finally {
+			socket.close();
+		}
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (int i = 0; i < children.length; i++)
+				delete(children[i]);
+		}
+		file.delete();
+	}
+
+	private static String path(int i) {
+		return PARENT + "/node" + i;
+	}
+
+	private WriteBatch<String> createAll() {
+		return createAll(new WriteBatch<String>());
+	}
+
+	private WriteBatch<String> createAll(WriteBatch<String> batch) {
+		for (int i = 0; i < NODES; i++) {
+			batch.sent();
+			zooKeeper.create(path(i), new byte[] { (byte) i },
+					Ids.OPEN_ACL_UNSAFE, CreateMode.EPHEMERAL, batch, path(i));
+		}
+		return batch;
+	}
+
+	private static void assertAll(KeeperException.Code expected,
+			Map<String, KeeperException.Code> codes) {
+		assertEquals(NODES, codes.size());
+		for (Iterator<Map.Entry<String, KeeperException.Code>> i = codes
+				.entrySet().iterator(); i.hasNext();) {
+			Map.Entry<String, KeeperException.Code> entry = i.next();
+			assertEquals(entry.getKey(), expected, entry.getValue());
+		}
+	}
+
+	public void testEmptyBatch() {
+		assertTrue(new WriteBatch<String>().await().isEmpty());
+	}
+
+	public void testCreates() throws Exception {
+		Map<String, KeeperException.Code> codes = createAll().await();
+		assertAll(KeeperException.Code.OK, codes);
+		for (int i = 0; i < NODES; i++)
+			assertTrue(codes.containsKey(path(i)));
+		assertEquals(NODES, zooKeeper.getChildren(PARENT, false).size());
+		assertEquals(7, zooKeeper.getData(path(7), false, null)[0]);
+	}
+
+	public void testCreatesOfExistingNodes() throws Exception {
+		assertAll(KeeperException.Code.OK, createAll().await());
+		assertAll(KeeperException.Code.NODEEXISTS, createAll().await());
+		assertEquals(NODES, zooKeeper.getChildren(PARENT, false).size());
+	}
+
+	public void testDeletes() throws Exception {
+		assertAll(KeeperException.Code.OK, createAll().await());
+		WriteBatch<String> batch = new WriteBatch<String>();
+		for (int i = 0; i < NODES; i++) {
+			batch.sent();
+			zooKeeper.delete(path(i), -1, batch, path(i));
+		}
+		assertAll(KeeperException.Code.OK, batch.await());
+		assertTrue(zooKeeper.getChildren(PARENT, false).isEmpty());
+	}
+
+	/**
+	 * Records the results passed to it, and fails on a result passed twice.
+	 */
+	static class Results implements WriteBatch.Callback<String> {
+		final Map<String, KeeperException.Code> codes = new LinkedHashMap<String, KeeperException.Code>();
+		final CountDownLatch done = new CountDownLatch(NODES);
+		volatile boolean twice;
+
+		public synchronized void completed(String context,
+				KeeperException.Code code) {
+			if (codes.put(context, code) != null)
+				twice = true;
+			done.countDown();
+		}
+	}
+
+	public void testCallback() throws Exception {
+		Results results = new Results();
+		Map<String, KeeperException.Code> codes = createAll(
+				new WriteBatch<String>(results)).await();
+		assertAll(KeeperException.Code.OK, codes);
+		assertEquals(0, results.done.getCount());
+		assertFalse(results.twice);
+		assertEquals(codes, results.codes);
+	}
+
+	public void testAwaitOnEventThread() throws Exception {
+		final Results results = new Results();
+		final Map<String, KeeperException.Code> codes = new LinkedHashMap<String, KeeperException.Code>();
+		final long[] elapsed = new long[] { -1 };
+		final CountDownLatch awaited = new CountDownLatch(1);
+		// async callbacks are delivered on the event thread, like the replies
+		zooKeeper.exists(PARENT, false, new StatCallback() {
+			public void processResult(int rc, String path, Object ctx,
+					Stat stat) {
+				long start = System.currentTimeMillis();
+				codes.putAll(createAll(new WriteBatch<String>(results))
+						.await());
+				elapsed[0] = System.currentTimeMillis() - start;
+				awaited.countDown();
+			}
+		}, null);
+		assertTrue(awaited.await(30, TimeUnit.SECONDS));
+		// returned without waiting for the replies it cannot receive
+		assertTrue("elapsed=" + elapsed[0], elapsed[0] < 3000);
+		assertTrue(codes.isEmpty());
+		// and passed them to the callback once they arrived
+		assertTrue(results.done.await(10, TimeUnit.SECONDS));
+		assertFalse(results.twice);
+		assertAll(KeeperException.Code.OK, results.codes);
+		assertEquals(NODES, zooKeeper.getChildren(PARENT, false).size());
+	}
+
+	public void testDeletesOfMissingNodes() throws Exception {
+		WriteBatch<String> batch = new WriteBatch<String>();
+		for (int i = 0; i < NODES; i++) {
+			batch.sent();
+			zooKeeper.delete(path(i), -1, batch, path(i));
+		}
+		assertAll(KeeperException.Code.NONODE, batch.await());
+	}
+}
@@ -0,0 +1,195 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.provider.comm.AsynchEvent;
+import org.eclipse.ecf.provider.comm.ConnectionEvent;
+import org.eclipse.ecf.provider.comm.DisconnectEvent;
+import org.eclipse.ecf.provider.comm.ISynchAsynchEventHandler;
+import org.eclipse.ecf.provider.comm.SynchEvent;
+
+public class ClientBatchTest extends TestCase {
+
+	private static final String KEEPALIVE_PROPERTY = "org.eclipse.ecf.provider.generic.keepalive"; //$NON-NLS-1$
+
+	/**
+	 * Counts the flushes that reach the socket.
+	 */
+	static class FlushCountingOutputStream extends FilterOutputStream {
+		final AtomicInteger flushes = new AtomicInteger();
+
+		FlushCountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		public void flush() throws IOException {
+			flushes.incrementAndGet();
+			super.flush();
+		}
+	}
+
+	static class NullHandler implements ISynchAsynchEventHandler {
+		public ID getEventHandlerID() {
+			return null;
+		}
+
+		public void handleDisconnectEvent(DisconnectEvent event) {
+			// nothing to do
+		}
+
+		public void handleConnectEvent(ConnectionEvent event) {
+			// nothing to do
+		}
+
+		public Object handleSynchEvent(SynchEvent event) {
+			return null;
+		}
+
+		public void handleAsynchEvent(AsynchEvent event) {
+			// nothing to do
+		}
+	}
+
+	private String keepAlive;
+	private ServerSocket serverSocket;
+	private Socket peer;
+	private ObjectInputStream peerInput;
+	private FlushCountingOutputStream counter;
+	private Client client;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		// No pings between the test messages
+		keepAlive = System.getProperty(KEEPALIVE_PROPERTY);
+		System.setProperty(KEEPALIVE_PROPERTY, "0"); //$NON-NLS-1$
+		serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		final Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+		peer = serverSocket.accept();
+		counter = new FlushCountingOutputStream(socket.getOutputStream());
+		final ObjectOutputStream oos = new ObjectOutputStream(counter);
+		oos.flush();
+		peerInput = new ObjectInputStream(peer.getInputStream());
+		// The client reads the stream header of the peer
+		new ObjectOutputStream(peer.getOutputStream()).flush();
+		client = new Client(socket, new ObjectInputStream(socket.getInputStream()), oos, new NullHandler());
+		counter.flushes.set(0);
+	}
+
+	protected void tearDown() throws Exception {
+		client.disconnect();
+		peer.close();
+		serverSocket.close();
+		if (keepAlive == null)
+			System.getProperties().remove(KEEPALIVE_PROPERTY);
+		else
+			System.setProperty(KEEPALIVE_PROPERTY, keepAlive);
+		super.tearDown();
+	}
+
+	private void send(int i) throws IOException {
+		client.sendAsynch(null, Integer.valueOf(i));
+	}
+
+	private int receive() throws Exception {
+		return ((Integer) ((AsynchMessage) peerInput.readObject()).getData()).intValue();
+	}
+
+	public void testFlushOnSize() throws Exception {
+		client.setBatch(true);
+		client.setBatchMaxMsgs(4);
+		// Long enough that only full batches are written
+		client.setBatchLinger(60 * 1000 * 1000);
+		for (int i = 0; i < 8; i++)
+			send(i);
+		client.start();
+		for (int i = 0; i < 8; i++)
+			assertEquals(i, receive());
+		assertEquals(2, counter.flushes.get());
+	}
+
+	public void testFlushOnDelay() throws Exception {
+		client.setBatch(true);
+		client.setBatchMaxMsgs(100);
+		client.setBatchLinger(500 * 1000);
+		client.start();
+		final long start = System.currentTimeMillis();
+		send(0);
+		send(1);
+		assertEquals(0, receive());
+		final long elapsed = System.currentTimeMillis() - start;
+		assertEquals(1, receive());
+		// The batch is written once the linger time has passed, although it is not full
+		assertTrue("elapsed=" + elapsed, elapsed >= 400); //$NON-NLS-1$
+		assertEquals(1, counter.flushes.get());
+	}
+
+	public void testNoLinger() throws Exception {
+		client.setBatch(true);
+		client.setBatchMaxMsgs(100);
+		client.setBatchLinger(0);
+		client.start();
+		send(0);
+		assertEquals(0, receive());
+		assertEquals(1, counter.flushes.get());
+	}
+
+	public void testOrdering() throws Exception {
+		client.setBatch(true);
+		client.setBatchMaxMsgs(16);
+		client.setBatchLinger(100);
+		client.start();
+		final int count = 2000;
+		final Thread sender = new Thread(new Runnable() {
+			public void run() {
+				try {
+					for (int i = 0; i < count; i++)
+						send(i);
+				} catch (IOException e) {
+					// reported as missing messages
+				}
+			}
+		});
+		sender.start();
+		for (int i = 0; i < count; i++)
+			assertEquals(i, receive());
+		sender.join();
+		assertTrue(counter.flushes.get() <= count);
+	}
+
+	public void testNotBatched() throws Exception {
+		client.setBatch(false);
+		for (int i = 0; i < 8; i++)
+			send(i);
+		client.start();
+		for (int i = 0; i < 8; i++)
+			assertEquals(i, receive());
+		assertEquals(8, counter.flushes.get());
+	}
+}
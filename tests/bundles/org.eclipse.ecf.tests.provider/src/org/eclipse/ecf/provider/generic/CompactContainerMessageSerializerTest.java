@@ -0,0 +1,141 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.generic;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+
+public class CompactContainerMessageSerializerTest extends TestCase {
+
+	private final CompactContainerMessageSerializer serializer = new CompactContainerMessageSerializer();
+
+	private ID fromID;
+	private ID toID;
+	private ID sharedObjectID;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		fromID = IDFactory.getDefault().createStringID("from"); //$NON-NLS-1$
+		toID = IDFactory.getDefault().createGUID();
+		sharedObjectID = IDFactory.getDefault().createLongID(42);
+	}
+
+	private ContainerMessage roundtrip(ContainerMessage message) throws Exception {
+		final byte[] bytes = serializer.serializeContainerMessage(message);
+		assertTrue(CompactContainerMessageSerializer.isCompactMessage(bytes));
+		final ContainerMessage result = serializer.deserializeContainerMessage(bytes);
+		assertNotNull(result);
+		assertEquals(message.getFromContainerID(), result.getFromContainerID());
+		assertEquals(message.getToContainerID(), result.getToContainerID());
+		assertEquals(message.getSequence(), result.getSequence());
+		if (message.getData() == null)
+			assertNull(result.getData());
+		else
+			assertEquals(message.getData().getClass(), result.getData().getClass());
+		return result;
+	}
+
+	private static Serializable createProperties() {
+		final HashMap properties = new HashMap();
+		properties.put("name", "value"); //$NON-NLS-1$ //$NON-NLS-2$
+		return properties;
+	}
+
+	public void testNullData() throws Exception {
+		roundtrip(new ContainerMessage(fromID, null, 0, null));
+	}
+
+	public void testSharedObjectMessage() throws Exception {
+		final byte[] payload = new byte[] {1, 2, 3, 4};
+		final ContainerMessage result = roundtrip(ContainerMessage.createSharedObjectMessage(fromID, toID, 7, sharedObjectID, payload));
+		final ContainerMessage.SharedObjectMessage data = (ContainerMessage.SharedObjectMessage) result.getData();
+		assertEquals(sharedObjectID, data.getFromSharedObjectID());
+		assertTrue(Arrays.equals(payload, (byte[]) data.getData()));
+	}
+
+	public void testSharedObjectMessageWithSerializedPayload() throws Exception {
+		final ContainerMessage result = roundtrip(ContainerMessage.createSharedObjectMessage(fromID, toID, 7, sharedObjectID, createProperties()));
+		assertEquals(createProperties(), ((ContainerMessage.SharedObjectMessage) result.getData()).getData());
+	}
+
+	public void testSharedObjectDisposeMessage() throws Exception {
+		final ContainerMessage result = roundtrip(ContainerMessage.createSharedObjectDisposeMessage(fromID, toID, Long.MAX_VALUE, sharedObjectID));
+		assertEquals(sharedObjectID, ((ContainerMessage.SharedObjectDisposeMessage) result.getData()).getSharedObjectID());
+	}
+
+	public void testCreateMessage() throws Exception {
+		final ContainerMessage result = roundtrip(ContainerMessage.createSharedObjectCreateMessage(fromID, null, 3, createProperties()));
+		assertEquals(createProperties(), ((ContainerMessage.CreateMessage) result.getData()).getData());
+	}
+
+	public void testCreateResponseMessage() throws Exception {
+		final ContainerMessage result = roundtrip(ContainerMessage.createSharedObjectCreateResponseMessage(fromID, toID, 4, sharedObjectID, new IllegalStateException("failed"), 99)); //$NON-NLS-1$
+		final ContainerMessage.CreateResponseMessage data = (ContainerMessage.CreateResponseMessage) result.getData();
+		assertEquals(sharedObjectID, data.getSharedObjectID());
+		assertEquals(99, data.getSequence());
+		assertTrue(data.getException() instanceof IllegalStateException);
+		assertEquals("failed", data.getException().getMessage()); //$NON-NLS-1$
+	}
+
+	public void testCreateResponseMessageWithoutException() throws Exception {
+		final ContainerMessage result = roundtrip(ContainerMessage.createSharedObjectCreateResponseMessage(fromID, toID, 4, sharedObjectID, null, 0));
+		assertNull(((ContainerMessage.CreateResponseMessage) result.getData()).getException());
+	}
+
+	public void testViewChangeMessage() throws Exception {
+		// the from and to IDs repeat in the view
+		final ID[] ids = new ID[] {fromID, toID, IDFactory.getDefault().createStringID("other"), fromID}; //$NON-NLS-1$
+		final ContainerMessage result = roundtrip(ContainerMessage.createViewChangeMessage(fromID, toID, 5, ids, true, createProperties()));
+		final ContainerMessage.ViewChangeMessage data = (ContainerMessage.ViewChangeMessage) result.getData();
+		assertTrue(data.isAdd());
+		assertTrue(Arrays.equals(ids, data.getChangeIDs()));
+		assertEquals(createProperties(), data.getData());
+	}
+
+	public void testViewChangeMessageWithoutIDs() throws Exception {
+		final ContainerMessage result = roundtrip(ContainerMessage.createViewChangeMessage(fromID, toID, 5, null, false, null));
+		final ContainerMessage.ViewChangeMessage data = (ContainerMessage.ViewChangeMessage) result.getData();
+		assertFalse(data.isAdd());
+		assertNull(data.getChangeIDs());
+		assertNull(data.getData());
+	}
+
+	public void testJoinGroupMessage() throws Exception {
+		final ContainerMessage result = roundtrip(ContainerMessage.createJoinGroupMessage(fromID, toID, 6, createProperties()));
+		assertEquals(createProperties(), ((ContainerMessage.JoinGroupMessage) result.getData()).getData());
+	}
+
+	public void testLeaveGroupMessage() throws Exception {
+		final ContainerMessage result = roundtrip(ContainerMessage.createLeaveGroupMessage(fromID, toID, 6, "bye")); //$NON-NLS-1$
+		assertEquals("bye", ((ContainerMessage.LeaveGroupMessage) result.getData()).getData()); //$NON-NLS-1$
+	}
+
+	public void testOtherData() throws Exception {
+		final ContainerMessage result = roundtrip(new ContainerMessage(fromID, toID, 8, createProperties()));
+		assertEquals(createProperties(), result.getData());
+	}
+
+	public void testJavaSerializedMessageAccepted() throws Exception {
+		final Map properties = (Map) createProperties();
+		final ContainerMessage result = serializer.deserializeContainerMessage(SOContainer.serialize(ContainerMessage.createJoinGroupMessage(fromID, toID, 9, (Serializable) properties)));
+		assertEquals(9, result.getSequence());
+		assertEquals(properties, ((ContainerMessage.JoinGroupMessage) result.getData()).getData());
+	}
+}
@@ -0,0 +1,87 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.generic;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+
+public class SharedContainerMessageTest extends TestCase {
+
+	private ID fromID;
+	private ID[] recipients;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		fromID = IDFactory.getDefault().createStringID("from"); //$NON-NLS-1$
+		recipients = new ID[] {IDFactory.getDefault().createStringID("to"), IDFactory.getDefault().createGUID(), IDFactory.getDefault().createStringID("from"), null}; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private void assertEncodedAsContainerMessage(Serializable data) throws Exception {
+		final SharedContainerMessage shared = new SharedContainerMessage(fromID, data);
+		for (int i = 0; i < recipients.length; i++) {
+			final long sequence = 1000L * i + i;
+			final ContainerMessage expected = SOContainer.deserializeContainerMessage(SOContainer.serialize(new ContainerMessage(fromID, recipients[i], sequence, data)));
+			final ContainerMessage actual = SOContainer.deserializeContainerMessage(shared.encode(recipients[i], sequence));
+			assertNotNull(actual);
+			assertEquals(expected.getFromContainerID(), actual.getFromContainerID());
+			assertEquals(expected.getToContainerID(), actual.getToContainerID());
+			assertEquals(expected.getSequence(), actual.getSequence());
+			if (expected.getData() == null)
+				assertNull(actual.getData());
+			else {
+				assertEquals(expected.getData().getClass(), actual.getData().getClass());
+				assertTrue(Arrays.equals(SOContainer.serialize(expected.getData()), SOContainer.serialize(actual.getData())));
+			}
+		}
+	}
+
+	public void testSharedObjectMessage() throws Exception {
+		final byte[] payload = new byte[4096];
+		for (int i = 0; i < payload.length; i++)
+			payload[i] = (byte) i;
+		assertEncodedAsContainerMessage(ContainerMessage.createSharedObjectMessage(fromID, null, 0, IDFactory.getDefault().createStringID("so"), payload).getData()); //$NON-NLS-1$
+	}
+
+	public void testCreateMessage() throws Exception {
+		final Map properties = new HashMap();
+		properties.put("name", "value"); //$NON-NLS-1$ //$NON-NLS-2$
+		// the from ID is also referenced from the data
+		properties.put("home", fromID); //$NON-NLS-1$
+		assertEncodedAsContainerMessage(ContainerMessage.createSharedObjectCreateMessage(fromID, null, 0, (Serializable) properties).getData());
+	}
+
+	public void testViewChangeMessage() throws Exception {
+		assertEncodedAsContainerMessage(ContainerMessage.createViewChangeMessage(fromID, null, 0, recipients, true, null).getData());
+	}
+
+	public void testNullData() throws Exception {
+		assertEncodedAsContainerMessage(null);
+	}
+
+	public void testSequenceNotShared() throws Exception {
+		final SharedContainerMessage shared = new SharedContainerMessage(fromID, "data"); //$NON-NLS-1$
+		final ContainerMessage first = SOContainer.deserializeContainerMessage(shared.encode(recipients[0], 1));
+		final ContainerMessage second = SOContainer.deserializeContainerMessage(shared.encode(recipients[1], Long.MAX_VALUE));
+		assertEquals(1, first.getSequence());
+		assertEquals(Long.MAX_VALUE, second.getSequence());
+		assertEquals("data", first.getData()); //$NON-NLS-1$
+		assertEquals("data", second.getData()); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,251 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.generic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.sharedobject.ISharedObject;
+import org.eclipse.ecf.core.sharedobject.ISharedObjectConfig;
+import org.eclipse.ecf.core.sharedobject.SharedObjectInitException;
+import org.eclipse.ecf.core.sharedobject.events.ISharedObjectActivatedEvent;
+import org.eclipse.ecf.core.util.Event;
+
+public class SharedObjectMailboxTest extends TestCase {
+
+	private static final int SENDERS = 4;
+	private static final int EVENTS = 2000;
+
+	static class SenderEvent implements Event {
+		final int sender;
+		final int sequence;
+
+		SenderEvent(int sender, int sequence) {
+			this.sender = sender;
+			this.sequence = sequence;
+		}
+	}
+
+	/**
+	 * Records the events it processes and fails if called concurrently.
+	 */
+	static class RecordingMailbox extends SharedObjectMailbox {
+		final List<Object> processed = Collections.synchronizedList(new ArrayList<Object>());
+		final AtomicBoolean processing = new AtomicBoolean();
+		volatile boolean concurrent;
+		final CountDownLatch done;
+
+		RecordingMailbox(Executor executor, int expected) {
+			super(executor);
+			done = new CountDownLatch(expected);
+		}
+
+		protected void process(Object event) {
+			if (!processing.compareAndSet(false, true))
+				concurrent = true;
+			processed.add(event);
+			processing.set(false);
+			done.countDown();
+		}
+	}
+
+	private ExecutorService executor;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	protected void tearDown() throws Exception {
+		executor.shutdownNow();
+		super.tearDown();
+	}
+
+	public void testPerSenderOrdering() throws Exception {
+		final RecordingMailbox mailbox = new RecordingMailbox(executor, SENDERS * EVENTS);
+		mailbox.start();
+		final Thread[] senders = new Thread[SENDERS];
+		for (int i = 0; i < SENDERS; i++) {
+			final int sender = i;
+			senders[i] = new Thread(new Runnable() {
+				public void run() {
+					for (int j = 0; j < EVENTS; j++)
+						mailbox.enqueue(new SenderEvent(sender, j));
+				}
+			});
+			senders[i].start();
+		}
+		for (int i = 0; i < SENDERS; i++)
+			senders[i].join();
+		assertTrue(mailbox.done.await(30, TimeUnit.SECONDS));
+		assertFalse(mailbox.concurrent);
+		final int[] next = new int[SENDERS];
+		synchronized (mailbox.processed) {
+			assertEquals(SENDERS * EVENTS, mailbox.processed.size());
+			for (final Object o : mailbox.processed) {
+				final SenderEvent event = (SenderEvent) o;
+				assertEquals(next[event.sender]++, event.sequence);
+			}
+		}
+	}
+
+	public void testHeldUntilStarted() throws Exception {
+		final RecordingMailbox mailbox = new RecordingMailbox(executor, 3);
+		for (int i = 0; i < 3; i++)
+			mailbox.enqueue(Integer.valueOf(i));
+		Thread.sleep(100);
+		assertTrue(mailbox.processed.isEmpty());
+		assertEquals(3, mailbox.size());
+		mailbox.start();
+		assertTrue(mailbox.done.await(10, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList(new Object[] {Integer.valueOf(0), Integer.valueOf(1), Integer.valueOf(2)}), mailbox.processed);
+	}
+
+	public void testDeliveredAfterExecutorShutdown() throws Exception {
+		executor.shutdown();
+		final RecordingMailbox mailbox = new RecordingMailbox(executor, 2);
+		mailbox.start();
+		mailbox.enqueue(Integer.valueOf(0));
+		mailbox.enqueue(Integer.valueOf(1));
+		// Delivered on the enqueueing thread
+		assertEquals(0, mailbox.done.getCount());
+		assertEquals(Arrays.asList(new Object[] {Integer.valueOf(0), Integer.valueOf(1)}), mailbox.processed);
+	}
+
+	public void testBusyMailboxDoesNotStarveOthers() throws Exception {
+		final ExecutorService single = Executors.newSingleThreadExecutor();
+		try {
+			final int busyEvents = SharedObjectMailbox.MAX_DRAIN * 10;
+			final RecordingMailbox busy = new RecordingMailbox(single, busyEvents);
+			final int[] busyBeforeOther = new int[1];
+			final RecordingMailbox other = new RecordingMailbox(single, 1) {
+				protected void process(Object event) {
+					busyBeforeOther[0] = busy.processed.size();
+					super.process(event);
+				}
+			};
+			for (int i = 0; i < busyEvents; i++)
+				busy.enqueue(Integer.valueOf(i));
+			other.enqueue(Integer.valueOf(0));
+			busy.start();
+			other.start();
+			assertTrue(other.done.await(10, TimeUnit.SECONDS));
+			assertTrue(busy.done.await(10, TimeUnit.SECONDS));
+			// The other mailbox was drained after the first batch of the busy one
+			assertEquals(SharedObjectMailbox.MAX_DRAIN, busyBeforeOther[0]);
+			assertEquals(busyEvents, busy.processed.size());
+		} finally {
+			single.shutdownNow();
+		}
+	}
+
+	public void testStoppedMailboxRefusesEvents() throws Exception {
+		final RecordingMailbox mailbox = new RecordingMailbox(executor, 1);
+		mailbox.enqueue(Integer.valueOf(0));
+		assertEquals(1, mailbox.flush().length);
+		assertFalse(mailbox.enqueue(Integer.valueOf(1)));
+		assertTrue(mailbox.isEmpty());
+	}
+
+	/**
+	 * Container that chooses the delivery mode of its shared objects.
+	 */
+	static class TestContainer extends TCPClientSOContainer {
+		private final boolean mailbox;
+
+		TestContainer(boolean mailbox) throws Exception {
+			super(new SOContainerConfig(IDFactory.getDefault().createGUID()));
+			this.mailbox = mailbox;
+		}
+
+		protected boolean isSharedObjectMailbox() {
+			return mailbox;
+		}
+	}
+
+	static class RecordingSharedObject implements ISharedObject {
+		final List<Object> events = Collections.synchronizedList(new ArrayList<Object>());
+		final CountDownLatch done = new CountDownLatch(EVENTS);
+		volatile ISharedObjectConfig config;
+		volatile String activatedThread;
+
+		public void init(ISharedObjectConfig initData) throws SharedObjectInitException {
+			config = initData;
+		}
+
+		public void handleEvent(Event event) {
+			if (event instanceof ISharedObjectActivatedEvent)
+				activatedThread = Thread.currentThread().getName();
+			else if (event instanceof SenderEvent) {
+				events.add(event);
+				done.countDown();
+			}
+		}
+
+		public void handleEvents(Event[] events1) {
+			for (int i = 0; i < events1.length; i++)
+				handleEvent(events1[i]);
+		}
+
+		public void dispose(ID containerID) {
+			config = null;
+		}
+
+		public Object getAdapter(Class adapter) {
+			return null;
+		}
+	}
+
+	private void assertDelivery(boolean mailbox) throws Exception {
+		final TestContainer container = new TestContainer(mailbox);
+		try {
+			final ID id = IDFactory.getDefault().createStringID("mailboxTest"); //$NON-NLS-1$
+			final RecordingSharedObject so = new RecordingSharedObject();
+			container.getSharedObjectManager().addSharedObject(id, so, null);
+			final SOWrapper wrapper = container.getSharedObjectWrapper(id);
+			assertEquals(mailbox, wrapper.queue instanceof SharedObjectMailbox);
+			for (int i = 0; i < EVENTS; i++)
+				so.config.getContext().getQueue().enqueue(new SenderEvent(0, i));
+			assertTrue(so.done.await(30, TimeUnit.SECONDS));
+			for (int i = 0; i < EVENTS; i++)
+				assertEquals(i, ((SenderEvent) so.events.get(i)).sequence);
+			if (mailbox)
+				assertTrue(so.activatedThread, so.activatedThread.startsWith("ECF SharedObject-")); //$NON-NLS-1$
+			else
+				assertEquals(id.getName() + ":run", so.activatedThread); //$NON-NLS-1$
+			container.getSharedObjectManager().removeSharedObject(id);
+		} finally {
+			container.dispose();
+		}
+	}
+
+	public void testThreadDelivery() throws Exception {
+		assertDelivery(false);
+	}
+
+	public void testMailboxDelivery() throws Exception {
+		assertDelivery(true);
+	}
+}
@@ -0,0 +1,123 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.generic;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.ecf.provider.remoteservice.generic.PooledRequestExecutor;
+import org.eclipse.equinox.concurrent.future.IFuture;
+import org.eclipse.equinox.concurrent.future.IProgressRunnable;
+
+public class PooledRequestExecutorTest extends TestCase {
+
+	private PooledRequestExecutor executor;
+
+	protected void tearDown() throws Exception {
+		if (executor != null)
+			executor.shutdown();
+		super.tearDown();
+	}
+
+	private IProgressRunnable createBlockingRunnable(final CountDownLatch started, final CountDownLatch release) {
+		return new IProgressRunnable() {
+			public Object run(IProgressMonitor monitor) throws Exception {
+				started.countDown();
+				release.await(10, TimeUnit.SECONDS);
+				return Thread.currentThread().getName();
+			}
+		};
+	}
+
+	public void testExecute() throws Exception {
+		executor = PooledRequestExecutor.createThreadPool("test", 2, 0, PooledRequestExecutor.ABORT);
+		final IFuture future = executor.execute(new IProgressRunnable() {
+			public Object run(IProgressMonitor monitor) throws Exception {
+				return Thread.currentThread().getName();
+			}
+		}, new NullProgressMonitor());
+		assertTrue(((String) future.get(5000)).startsWith("test-"));
+	}
+
+	public void testAbortWhenFull() throws Exception {
+		executor = PooledRequestExecutor.createThreadPool("test", 1, 1, PooledRequestExecutor.ABORT);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final IFuture running = executor.execute(createBlockingRunnable(started, release), new NullProgressMonitor());
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		final IFuture queued = executor.execute(createBlockingRunnable(new CountDownLatch(1), release), new NullProgressMonitor());
+		final IFuture rejected = executor.execute(createBlockingRunnable(new CountDownLatch(1), release), new NullProgressMonitor());
+		assertTrue(rejected.isDone());
+		assertTrue(rejected.getStatus().getException() instanceof RejectedExecutionException);
+		release.countDown();
+		assertNotNull(running.get(5000));
+		assertNotNull(queued.get(5000));
+	}
+
+	public void testCallerRunsWhenFull() throws Exception {
+		executor = PooledRequestExecutor.createThreadPool("test", 1, 0, PooledRequestExecutor.CALLER_RUNS);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		executor.execute(createBlockingRunnable(started, release), new NullProgressMonitor());
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		final IFuture future = executor.execute(new IProgressRunnable() {
+			public Object run(IProgressMonitor monitor) throws Exception {
+				return Thread.currentThread().getName();
+			}
+		}, new NullProgressMonitor());
+		release.countDown();
+		assertEquals(Thread.currentThread().getName(), future.get(5000));
+	}
+
+	public void testVirtualThreads() throws Exception {
+		executor = PooledRequestExecutor.createVirtualThreads("test", 2, 0, PooledRequestExecutor.ABORT);
+		if (executor == null)
+			// Before Java 21
+			return;
+		final IFuture future = executor.execute(new IProgressRunnable() {
+			public Object run(IProgressMonitor monitor) throws Exception {
+				return Boolean.valueOf(Thread.currentThread().isDaemon());
+			}
+		}, new NullProgressMonitor());
+		// virtual threads are daemon threads
+		assertEquals(Boolean.TRUE, future.get(5000));
+	}
+
+	public void testVirtualThreadsBounded() throws Exception {
+		executor = PooledRequestExecutor.createVirtualThreads("test", 1, 1, PooledRequestExecutor.ABORT);
+		if (executor == null)
+			// Before Java 21
+			return;
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch queuedStarted = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final IFuture running = executor.execute(createBlockingRunnable(started, release), new NullProgressMonitor());
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		final IFuture queued = executor.execute(createBlockingRunnable(queuedStarted, release), new NullProgressMonitor());
+		final IFuture rejected = executor.execute(createBlockingRunnable(new CountDownLatch(1), release), new NullProgressMonitor());
+		assertTrue(rejected.isDone());
+		assertTrue(rejected.getStatus().getException() instanceof RejectedExecutionException);
+		// only one request runs at a time
+		assertFalse(queuedStarted.await(200, TimeUnit.MILLISECONDS));
+		assertEquals(1, executor.getActiveCount());
+		assertEquals(1, executor.getQueuedCount());
+		release.countDown();
+		assertNotNull(running.get(5000));
+		assertNotNull(queued.get(5000));
+	}
+}
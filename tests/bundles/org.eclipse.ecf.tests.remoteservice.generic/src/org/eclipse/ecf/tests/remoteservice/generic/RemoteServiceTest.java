@@ -13,6 +13,14 @@
 
 package org.eclipse.ecf.tests.remoteservice.generic;
 
+import java.util.Hashtable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.ecf.remoteservice.Constants;
+import org.eclipse.ecf.remoteservice.IRemoteCall;
 import org.eclipse.ecf.remoteservice.IRemoteService;
 import org.eclipse.ecf.remoteservice.IRemoteServiceContainerAdapter;
 import org.eclipse.ecf.remoteservice.IRemoteServiceListener;
@@ -22,6 +30,7 @@ import org.eclipse.ecf.remoteservice.events.IRemoteServiceRegisteredEvent;
 import org.eclipse.ecf.tests.remoteservice.AbstractRemoteServiceTest;
 import org.eclipse.ecf.tests.remoteservice.IConcatService;
 import org.eclipse.equinox.concurrent.future.IFuture;
+import org.osgi.framework.ServiceException;
 
 public class RemoteServiceTest extends AbstractRemoteServiceTest {
 
@@ -108,5 +117,85 @@ public class RemoteServiceTest extends AbstractRemoteServiceTest {
 		Thread.sleep(SLEEPTIME);
 	}
 
+	public void testCallSynchTimeout() throws Exception {
+		final IRemoteServiceContainerAdapter[] adapters = getRemoteServiceAdapters();
+		final AtomicBoolean first = new AtomicBoolean(true);
+		final CountDownLatch lateResponse = new CountDownLatch(1);
+		// First call answers well after the call timeout, later calls at once
+		registerService(adapters[0], IConcatService.class.getName(), new IConcatService() {
+			public String concat(String string1, String string2) {
+				if (first.getAndSet(false)) {
+					sleep(3000);
+					lateResponse.countDown();
+				}
+				return string1.concat(string2);
+			}
+		}, customizeProperties(null), SLEEPTIME);
+		final IRemoteService service = getRemoteService(adapters[1], getClient(0).getConnectedID(), getIDFilter(), IConcatService.class.getName(), null, SLEEPTIME);
+		assertNotNull(service);
+		final long start = System.currentTimeMillis();
+		try {
+			service.callSync(createTimedConcat(500));
+			fail();
+		} catch (final ServiceException e) {
+			// Should time out well before the service returns
+			assertTrue(System.currentTimeMillis() - start < 2500);
+		}
+		assertTrue(lateResponse.await(10, TimeUnit.SECONDS));
+		// Responses arrive in order, so the late response for the expired
+		// request has been handled before the response to this call
+		assertEquals("firstsecond", service.callSync(createTimedConcat(5000)));
+	}
+
+	private IRemoteCall createTimedConcat(final long timeout) {
+		return new IRemoteCall() {
+			public String getMethod() {
+				return "concat";
+			}
+
+			public Object[] getParameters() {
+				return new Object[] {"first", "second"};
+			}
+
+			public long getTimeout() {
+				return timeout;
+			}
+		};
+	}
+
+	public interface IAsyncConcatService {
+		CompletableFuture concatAsync(String string1, String string2);
+	}
+
+	public void testCallSynchAsyncService() throws Exception {
+		final IRemoteServiceContainerAdapter[] adapters = getRemoteServiceAdapters();
+		// Service completes its result on another thread after returning
+		final Hashtable props = new Hashtable();
+		props.put(Constants.OSGI_ASYNC_INTENT, Boolean.TRUE);
+		registerService(adapters[0], IAsyncConcatService.class.getName(), new IAsyncConcatService() {
+			public CompletableFuture concatAsync(final String string1, final String string2) {
+				final CompletableFuture result = new CompletableFuture();
+				new Thread(new Runnable() {
+					public void run() {
+						sleep(500);
+						if (string2 == null)
+							result.completeExceptionally(new IllegalArgumentException());
+						else
+							result.complete(string1.concat(string2));
+					}
+				}).start();
+				return result;
+			}
+		}, customizeProperties(props), SLEEPTIME);
+		final IRemoteService service = getRemoteService(adapters[1], getClient(0).getConnectedID(), getIDFilter(), IAsyncConcatService.class.getName(), null, SLEEPTIME);
+		assertNotNull(service);
+		assertEquals("firstsecond", service.callSync(createRemoteCall("concatAsync", new Object[] {"first", "second"})));
+		try {
+			service.callSync(createRemoteCall("concatAsync", new Object[] {"first", null}));
+			fail();
+		} catch (final Exception e) {
+			// Failure of the async result is returned to the caller
+		}
+	}
 
 }
@@ -0,0 +1,153 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.r_osgi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import ch.ethz.iks.r_osgi.impl.EndpointScheduler;
+
+public class EndpointSchedulerTest extends TestCase {
+
+	private static final int TASKS = 1000;
+
+	private ExecutorService executor;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	protected void tearDown() throws Exception {
+		executor.shutdownNow();
+		super.tearDown();
+	}
+
+	public void testOrdering() throws Exception {
+		final EndpointScheduler.Queue queue = new EndpointScheduler.Queue(executor, 1, null);
+		final List result = Collections.synchronizedList(new ArrayList());
+		final AtomicInteger running = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(TASKS);
+		final boolean[] concurrent = new boolean[1];
+		for (int i = 0; i < TASKS; i++) {
+			final Integer n = Integer.valueOf(i);
+			queue.execute(new Runnable() {
+				public void run() {
+					if (running.incrementAndGet() > 1)
+						concurrent[0] = true;
+					result.add(n);
+					running.decrementAndGet();
+					done.countDown();
+				}
+			});
+		}
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		// one task at a time, across the batches, in the order added
+		assertFalse(concurrent[0]);
+		for (int i = 0; i < TASKS; i++)
+			assertEquals(Integer.valueOf(i), result.get(i));
+	}
+
+	public void testLimit() throws Exception {
+		final EndpointScheduler.Queue queue = new EndpointScheduler.Queue(executor, 2, null);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger max = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(100);
+		for (int i = 0; i < 100; i++) {
+			queue.execute(new Runnable() {
+				public void run() {
+					final int n = running.incrementAndGet();
+					synchronized (max) {
+						if (n > max.get())
+							max.set(n);
+					}
+					try {
+						Thread.sleep(1);
+					} catch (final InterruptedException e) {
+						// done
+					}
+					running.decrementAndGet();
+					done.countDown();
+				}
+			});
+		}
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		assertTrue("max=" + max.get(), max.get() <= 2); //$NON-NLS-1$
+	}
+
+	public void testRejection() throws Exception {
+		executor.shutdown();
+		final AtomicInteger rejections = new AtomicInteger();
+		final EndpointScheduler.Queue queue = new EndpointScheduler.Queue(executor, 1, new Runnable() {
+			public void run() {
+				rejections.incrementAndGet();
+			}
+		});
+		final boolean[] ran = new boolean[1];
+		queue.execute(new Runnable() {
+			public void run() {
+				ran[0] = true;
+			}
+		});
+		// not run on the calling thread, but dropped and reported
+		assertFalse(ran[0]);
+		assertEquals(0, queue.size());
+		assertEquals(1, rejections.get());
+	}
+
+	public void testRejectionAfterBatch() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch rejected = new CountDownLatch(1);
+		final EndpointScheduler.Queue queue = new EndpointScheduler.Queue(executor, 1, new Runnable() {
+			public void run() {
+				rejected.countDown();
+			}
+		});
+		final AtomicInteger ran = new AtomicInteger();
+		queue.execute(new Runnable() {
+			public void run() {
+				started.countDown();
+				try {
+					release.await();
+				} catch (final InterruptedException e) {
+					// done
+				}
+			}
+		});
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		// more than the running batch takes
+		for (int i = 0; i < 100; i++) {
+			queue.execute(new Runnable() {
+				public void run() {
+					ran.incrementAndGet();
+				}
+			});
+		}
+		executor.shutdown();
+		release.countDown();
+		// the rest of the batch ran, the remaining tasks were dropped
+		assertTrue(rejected.await(10, TimeUnit.SECONDS));
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertTrue("ran=" + ran.get(), ran.get() < 100); //$NON-NLS-1$
+		assertEquals(0, queue.size());
+	}
+}
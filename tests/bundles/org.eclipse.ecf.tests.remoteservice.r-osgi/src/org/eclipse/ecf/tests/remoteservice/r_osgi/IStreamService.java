@@ -0,0 +1,43 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.r_osgi;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Service handing out streams, which R-OSGi passes to the consumer as stream
+ * proxies.
+ */
+public interface IStreamService {
+
+	/**
+	 * @return a stream of length bytes, see {@link ROsgiStreamProxyTest#getData(int)}
+	 */
+	public InputStream openSource(int length);
+
+	/**
+	 * @return a stream collecting what is written to it
+	 */
+	public OutputStream openSink();
+
+	/**
+	 * @return the bytes written to the last stream from {@link #openSink()}
+	 */
+	public byte[] getSinkData();
+
+	/**
+	 * @return a stream failing every write
+	 */
+	public OutputStream openFailingSink();
+}
@@ -0,0 +1,214 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.r_osgi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.osgi.framework.Version;
+
+import ch.ethz.iks.r_osgi.RemoteOSGiService;
+import ch.ethz.iks.r_osgi.URI;
+import ch.ethz.iks.r_osgi.impl.ProxyBundleCache;
+import ch.ethz.iks.r_osgi.messages.DeliverServiceMessage;
+import junit.framework.TestCase;
+
+public class ProxyBundleCacheTest extends TestCase {
+
+	private static final String IMPORTS = "a.b;version=\"[1.0,2.0)\", c.d, e.f;resolution:=optional;version=1.1"; //$NON-NLS-1$
+
+	private static final String SERVICE_URI_HEADER = "R-OSGi-Service-URI"; //$NON-NLS-1$
+
+	private static int keys;
+
+	private String key;
+
+	public void setUp() throws IOException {
+		if (System.getProperty(ProxyBundleCache.DIR_PROPERTY) == null) {
+			final File dir = File.createTempFile("proxyCache", ""); //$NON-NLS-1$ //$NON-NLS-2$
+			dir.delete();
+			System.setProperty(ProxyBundleCache.DIR_PROPERTY, dir.getPath());
+		}
+		key = "test" + keys++; //$NON-NLS-1$
+	}
+
+	public void testRequirements() {
+		final String[] requirements = ProxyBundleCache.getRequirements(
+				IMPORTS, new String[] { "c.d", "a.b" }); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(Arrays.equals(new String[] { "a.b;version=\"[1.0,2.0)\"", //$NON-NLS-1$
+				"c.d;version=\"0.0.0\"" }, requirements)); //$NON-NLS-1$
+	}
+
+	public void testParseHeader() {
+		final String[][] packages = ProxyBundleCache
+				.parseHeader("a.b;c.d;version=\"1.2\", e.f"); //$NON-NLS-1$
+		assertEquals(3, packages.length);
+		assertEquals("a.b", packages[0][0]); //$NON-NLS-1$
+		assertEquals("1.2", packages[0][1]); //$NON-NLS-1$
+		assertEquals("c.d", packages[1][0]); //$NON-NLS-1$
+		assertEquals("1.2", packages[1][1]); //$NON-NLS-1$
+		assertEquals("e.f", packages[2][0]); //$NON-NLS-1$
+		assertNull(packages[2][1]);
+	}
+
+	public void testIncludes() {
+		final Version v = new Version(1, 2, 0);
+		assertTrue(ProxyBundleCache.includes("[1.0,2.0)", v)); //$NON-NLS-1$
+		assertTrue(ProxyBundleCache.includes("[1.2,1.2]", v)); //$NON-NLS-1$
+		assertFalse(ProxyBundleCache.includes("(1.2,2.0)", v)); //$NON-NLS-1$
+		assertFalse(ProxyBundleCache.includes("[1.0,1.2)", v)); //$NON-NLS-1$
+		assertTrue(ProxyBundleCache.includes("1.1", v)); //$NON-NLS-1$
+		assertFalse(ProxyBundleCache.includes("1.3", v)); //$NON-NLS-1$
+	}
+
+	public void testDependenciesHit() throws IOException {
+		final String[] requirements = ProxyBundleCache.getRequirements(
+				IMPORTS, new String[] { "a.b", "c.d" }); //$NON-NLS-1$ //$NON-NLS-2$
+		final byte[][] bundles = new byte[][] {
+				createBundle("a.b;version=1.2.0"), createBundle("c.d") }; //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(ProxyBundleCache.getDependencies(key, requirements));
+		ProxyBundleCache.putDependencies(key, requirements, bundles);
+		final byte[][] cached = ProxyBundleCache.getDependencies(key,
+				requirements);
+		assertNotNull(cached);
+		assertEquals(2, cached.length);
+		assertTrue(Arrays.equals(bundles[0], cached[0]));
+		assertTrue(Arrays.equals(bundles[1], cached[1]));
+	}
+
+	public void testDependenciesOtherRequirements() throws IOException {
+		ProxyBundleCache.putDependencies(key, ProxyBundleCache
+				.getRequirements(IMPORTS, new String[] { "a.b" }), //$NON-NLS-1$
+				new byte[][] { createBundle("a.b;version=1.2.0") }); //$NON-NLS-1$
+		// the proxy now requires a newer version of the package
+		assertNull(ProxyBundleCache.getDependencies(key, ProxyBundleCache
+				.getRequirements("a.b;version=\"[1.3,2.0)\"", //$NON-NLS-1$
+						new String[] { "a.b" }))); //$NON-NLS-1$
+		// or another package
+		assertNull(ProxyBundleCache.getDependencies(key, ProxyBundleCache
+				.getRequirements(IMPORTS, new String[] { "a.b", "c.d" }))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public void testDependenciesVersionNotExported() throws IOException {
+		final String[] requirements = ProxyBundleCache.getRequirements(
+				IMPORTS, new String[] { "a.b" }); //$NON-NLS-1$
+		ProxyBundleCache.putDependencies(key, requirements,
+				new byte[][] { createBundle("a.b;version=2.0.0") }); //$NON-NLS-1$
+		assertNull(ProxyBundleCache.getDependencies(key, requirements));
+	}
+
+	public void testDependenciesModified() throws IOException {
+		final String[] requirements = ProxyBundleCache.getRequirements(
+				IMPORTS, new String[] { "a.b" }); //$NON-NLS-1$
+		ProxyBundleCache.putDependencies(key, requirements,
+				new byte[][] { createBundle("a.b;version=1.2.0") }); //$NON-NLS-1$
+		assertNotNull(ProxyBundleCache.getDependencies(key, requirements));
+
+		final RandomAccessFile file = new RandomAccessFile(new File(System
+				.getProperty(ProxyBundleCache.DIR_PROPERTY), key + ".deps"), //$NON-NLS-1$
+				"rw"); //$NON-NLS-1$
+		try {
+			file.seek(file.length() - 1);
+			final int last = file.read();
+			file.seek(file.length() - 1);
+			file.write(last ^ 0xff);
+		} finally {
+			file.close();
+		}
+		assertNull(ProxyBundleCache.getDependencies(key, requirements));
+	}
+
+	public void testKey() {
+		final String key = ProxyBundleCache.getKey(createDescription(
+				"a.b.Foo", new byte[] { 1, 2, 3 })); //$NON-NLS-1$
+		assertNotNull(key);
+		// the same description offered by another peer
+		assertEquals(key, ProxyBundleCache.getKey(createDescription(
+				"a.b.Foo", new byte[] { 1, 2, 3 }))); //$NON-NLS-1$
+		// other class bytes
+		assertFalse(key.equals(ProxyBundleCache.getKey(createDescription(
+				"a.b.Foo", new byte[] { 1, 2, 4 })))); //$NON-NLS-1$
+		// another interface
+		assertFalse(key.equals(ProxyBundleCache.getKey(createDescription(
+				"a.b.Bar", new byte[] { 1, 2, 3 })))); //$NON-NLS-1$
+	}
+
+	public void testProxyBundleBoundToService() throws IOException {
+		final URI first = new URI("r-osgi://hostA:9278#12"); //$NON-NLS-1$
+		final URI second = new URI("r-osgi://hostB:9279#34"); //$NON-NLS-1$
+		final Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION,
+				"1.0"); //$NON-NLS-1$
+		manifest.getMainAttributes().putValue(SERVICE_URI_HEADER,
+				first.toString());
+		manifest.getMainAttributes().putValue("Bundle-Activator", //$NON-NLS-1$
+				"proxy.a.b.FooImpl"); //$NON-NLS-1$
+		final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		final JarOutputStream out = new JarOutputStream(bout, manifest);
+		out.putNextEntry(new JarEntry("proxy/a/b/FooImpl.class")); //$NON-NLS-1$
+		out.write(new byte[] { 1, 2, 3 });
+		out.closeEntry();
+		out.close();
+		ProxyBundleCache.putProxyBundle(key, bout.toByteArray());
+
+		final JarInputStream in = new JarInputStream(new ByteArrayInputStream(
+				ProxyBundleCache.getProxyBundle(key, second)));
+		final Attributes attributes = in.getManifest().getMainAttributes();
+		assertEquals(second.toString(), attributes.getValue(SERVICE_URI_HEADER));
+		assertEquals(RemoteOSGiService.R_OSGi_PROXY_PREFIX + "hostB.9279.34", //$NON-NLS-1$
+				attributes.getValue("Bundle-SymbolicName")); //$NON-NLS-1$
+		assertEquals("proxy.a.b.FooImpl", attributes //$NON-NLS-1$
+				.getValue("Bundle-Activator")); //$NON-NLS-1$
+		final JarEntry entry = in.getNextJarEntry();
+		assertEquals("proxy/a/b/FooImpl.class", entry.getName()); //$NON-NLS-1$
+		final byte[] data = new byte[4];
+		assertEquals(3, in.read(data));
+		assertNull(in.getNextJarEntry());
+		in.close();
+	}
+
+	private static DeliverServiceMessage createDescription(
+			final String interfaceName, final byte[] interfaceClass) {
+		final DeliverServiceMessage deliv = new DeliverServiceMessage();
+		deliv.setInterfaceNames(new String[] { interfaceName });
+		deliv.setImports(IMPORTS);
+		deliv.setExports(""); //$NON-NLS-1$
+		final Map injections = new HashMap();
+		injections.put(interfaceName.replace('.', '/') + ".class", //$NON-NLS-1$
+				interfaceClass);
+		deliv.setInjections(injections);
+		return deliv;
+	}
+
+	private static byte[] createBundle(final String exports)
+			throws IOException {
+		final Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION,
+				"1.0"); //$NON-NLS-1$
+		manifest.getMainAttributes().putValue("Export-Package", exports); //$NON-NLS-1$
+		final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		new JarOutputStream(bout, manifest).close();
+		return bout.toByteArray();
+	}
+}
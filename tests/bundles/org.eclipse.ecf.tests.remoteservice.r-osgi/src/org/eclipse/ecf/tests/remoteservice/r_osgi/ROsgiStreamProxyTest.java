@@ -0,0 +1,197 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.r_osgi;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.ContainerFactory;
+import org.eclipse.ecf.core.IContainer;
+import org.eclipse.ecf.core.IContainerManager;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.remoteservice.IRemoteService;
+import org.eclipse.ecf.remoteservice.IRemoteServiceContainerAdapter;
+import org.eclipse.ecf.remoteservice.IRemoteServiceReference;
+
+/**
+ * Streams passed through R-OSGi stream proxies, with the default stream window
+ * of 0. {@link ROsgiWindowedStreamProxyTest} runs the same tests with a window.
+ */
+public class ROsgiStreamProxyTest extends TestCase {
+
+	private static final String SERVER_IDENTITY = "r-osgi://localhost:9278";
+	private static final String CLIENT_IDENTITY = "r-osgi://localhost:9283";
+
+	// not a multiple of the chunk size
+	private static final int LENGTH = 100 * 1024 + 7;
+
+	private IContainer server;
+	private IContainer client;
+	private IStreamService proxy;
+
+	static byte[] getData(int length) {
+		final byte[] data = new byte[length];
+		for (int i = 0; i < length; i++)
+			data[i] = (byte) (i * 31 + (i >> 8));
+		return data;
+	}
+
+	static class StreamService implements IStreamService {
+		private ByteArrayOutputStream sink;
+
+		public InputStream openSource(int length) {
+			return new ByteArrayInputStream(getData(length));
+		}
+
+		public synchronized OutputStream openSink() {
+			sink = new ByteArrayOutputStream();
+			return sink;
+		}
+
+		public synchronized byte[] getSinkData() {
+			return sink.toByteArray();
+		}
+
+		public OutputStream openFailingSink() {
+			return new OutputStream() {
+				public void write(int b) throws IOException {
+					throw new IOException("write failed");
+				}
+			};
+		}
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		final ID serverID = IDFactory.getDefault().createID("ecf.namespace.r_osgi", SERVER_IDENTITY);
+		server = ContainerFactory.getDefault().createContainer(R_OSGi.HOST_CONTAINER_TYPE, serverID);
+		client = ContainerFactory.getDefault().createContainer(R_OSGi.CONSUMER_CONTAINER_TYPE, new Object[] {IDFactory.getDefault().createStringID(CLIENT_IDENTITY)});
+		getAdapter(server).registerRemoteService(new String[] {IStreamService.class.getName()}, new StreamService(), null);
+		final IRemoteServiceContainerAdapter clientAdapter = getAdapter(client);
+		final IRemoteServiceReference[] refs = clientAdapter.getRemoteServiceReferences(IDFactory.getDefault().createID(client.getConnectNamespace(), SERVER_IDENTITY), IStreamService.class.getName(), null);
+		assertNotNull(refs);
+		assertTrue(refs.length > 0);
+		final IRemoteService remoteService = clientAdapter.getRemoteService(refs[0]);
+		assertNotNull(remoteService);
+		proxy = (IStreamService) remoteService.getProxy();
+	}
+
+	protected void tearDown() throws Exception {
+		client.disconnect();
+		client.dispose();
+		server.dispose();
+		((IContainerManager) ContainerFactory.getDefault()).removeAllContainers();
+		super.tearDown();
+	}
+
+	private IRemoteServiceContainerAdapter getAdapter(IContainer container) {
+		return (IRemoteServiceContainerAdapter) container.getAdapter(IRemoteServiceContainerAdapter.class);
+	}
+
+	public void testReadArrays() throws Exception {
+		final InputStream in = proxy.openSource(LENGTH);
+		final ByteArrayOutputStream result = new ByteArrayOutputStream();
+		final byte[] buf = new byte[3000];
+		int len;
+		while ((len = in.read(buf, 0, buf.length)) != -1)
+			result.write(buf, 0, len);
+		// end of stream is reported again
+		assertEquals(-1, in.read(buf, 0, buf.length));
+		assertEquals(-1, in.read());
+		in.close();
+		assertTrue(Arrays.equals(getData(LENGTH), result.toByteArray()));
+	}
+
+	public void testReadMixed() throws Exception {
+		final InputStream in = proxy.openSource(LENGTH);
+		final byte[] data = getData(LENGTH);
+		final byte[] buf = new byte[777];
+		int pos = 0;
+		while (pos < LENGTH) {
+			if (pos % 2 == 0) {
+				final int b = in.read();
+				assertEquals(data[pos] & 0xff, b);
+				pos++;
+			} else {
+				final int len = in.read(buf, 0, buf.length);
+				assertTrue(len > 0);
+				for (int i = 0; i < len; i++)
+					assertEquals(data[pos + i], buf[i]);
+				pos += len;
+			}
+		}
+		assertEquals(-1, in.read());
+		in.close();
+	}
+
+	public void testCloseBeforeEnd() throws Exception {
+		final InputStream in = proxy.openSource(LENGTH);
+		assertEquals(getData(1)[0] & 0xff, in.read());
+		// discards the data read ahead
+		in.close();
+		// another stream on the same channel is not affected
+		testReadArrays();
+	}
+
+	public void testWrite() throws Exception {
+		final OutputStream out = proxy.openSink();
+		final byte[] data = getData(LENGTH);
+		int pos = 0;
+		while (pos < LENGTH) {
+			if (pos % 5 == 0) {
+				out.write(data[pos++]);
+			} else {
+				final int len = Math.min(1234, LENGTH - pos);
+				out.write(data, pos, len);
+				pos += len;
+			}
+		}
+		out.close();
+		// close waits for all writes to be acknowledged
+		assertTrue(Arrays.equals(data, proxy.getSinkData()));
+	}
+
+	public void testWriteAfterClose() throws Exception {
+		final OutputStream out = proxy.openSink();
+		out.write(getData(10));
+		// close flushes the pending data
+		out.close();
+		assertTrue(Arrays.equals(getData(10), proxy.getSinkData()));
+		try {
+			out.write(0);
+			fail();
+		} catch (final IOException e) {
+			// expected
+		}
+		// closing again has no effect
+		out.close();
+	}
+
+	public void testWriteFailure() throws Exception {
+		final OutputStream out = proxy.openFailingSink();
+		try {
+			out.write(getData(LENGTH));
+			out.flush();
+			fail();
+		} catch (final IOException e) {
+			// expected, from write or at the latest from flush
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.r_osgi;
+
+/**
+ * Stream proxies with a stream window, so that they read ahead and pipeline
+ * writes, with a chunk size much smaller than the data and than the window.
+ * The properties are read when the channel is leased, so they are set before
+ * the containers connect and only apply to this test.
+ */
+public class ROsgiWindowedStreamProxyTest extends ROsgiStreamProxyTest {
+
+	private static final String STREAM_WINDOW = "ch.ethz.iks.r_osgi.channelEndpointImpl.streamWindow";
+	private static final String STREAM_CHUNK_SIZE = "ch.ethz.iks.r_osgi.channelEndpointImpl.streamChunkSize";
+
+	private String streamWindow;
+	private String streamChunkSize;
+
+	protected void setUp() throws Exception {
+		streamWindow = System.setProperty(STREAM_WINDOW, "16384");
+		streamChunkSize = System.setProperty(STREAM_CHUNK_SIZE, "1024");
+		super.setUp();
+	}
+
+	protected void tearDown() throws Exception {
+		try {
+			super.tearDown();
+		} finally {
+			restore(STREAM_WINDOW, streamWindow);
+			restore(STREAM_CHUNK_SIZE, streamChunkSize);
+		}
+	}
+
+	private static void restore(String key, String value) {
+		if (value == null)
+			System.clearProperty(key);
+		else
+			System.setProperty(key, value);
+	}
+}
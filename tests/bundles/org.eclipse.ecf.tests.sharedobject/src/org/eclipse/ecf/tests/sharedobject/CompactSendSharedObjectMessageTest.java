@@ -0,0 +1,32 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *   Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject;
+
+import org.eclipse.ecf.core.IContainer;
+import org.eclipse.ecf.provider.generic.CompactContainerMessageSerializer;
+import org.eclipse.ecf.provider.generic.SOContainer;
+
+/**
+ * Same as {@link SendSharedObjectMessageTest}, but with the server writing
+ * container messages in the compact binary form. Clients keep the default
+ * serializer, so each side reads the other's form.
+ */
+public class CompactSendSharedObjectMessageTest extends SendSharedObjectMessageTest {
+
+	protected IContainer createServer() throws Exception {
+		IContainer container = super.createServer();
+		((SOContainer) container).setContainerMessageSerializer(new CompactContainerMessageSerializer());
+		return container;
+	}
+
+}
@@ -0,0 +1,176 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *   Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.ecf.core.ContainerFactory;
+import org.eclipse.ecf.core.IContainer;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.sharedobject.ISharedObjectManager;
+
+/**
+ * Messages between a server using the selector based (nio) transport and
+ * clients using the stream (io) and the nio transport, which must speak the
+ * same protocol. Client 0 uses the io transport, client 1 the nio transport.
+ */
+public class TransportInteropTest extends AbstractSharedObjectTest {
+
+	private static final String TRANSPORT_PROP = "transport";
+	protected static final String TRANSPORT_IO = "io";
+	protected static final String TRANSPORT_NIO = "nio";
+
+	private static final long TIMEOUT = 10000;
+
+	/**
+	 * Records the messages received by the primary and the replicas, by
+	 * container.
+	 */
+	public static class RecordingSharedObject extends TestMessagingSharedObject {
+
+		static final Map received = new HashMap();
+
+		public RecordingSharedObject(String name) {
+			super(name, null);
+		}
+
+		public RecordingSharedObject() {
+			super();
+		}
+
+		protected void handleMessage(ID fromID, String message) {
+			synchronized (received) {
+				List messages = (List) received.get(getLocalContainerID());
+				if (messages == null) {
+					messages = new ArrayList();
+					received.put(getLocalContainerID(), messages);
+				}
+				messages.add(message);
+				received.notifyAll();
+			}
+		}
+	}
+
+	private ID sharedObjectID;
+
+	protected int getClientCount() {
+		return 2;
+	}
+
+	protected String getServerTransport() {
+		return TRANSPORT_NIO;
+	}
+
+	protected IContainer createServer() throws Exception {
+		Map props = new HashMap();
+		props.put("id", serverID.getName());
+		props.put(TRANSPORT_PROP, getServerTransport());
+		return ContainerFactory.getDefault().createContainer(getServerContainerName(), new Object[] {props});
+	}
+
+	protected IContainer createClient(int index) throws Exception {
+		Map props = new HashMap();
+		props.put(TRANSPORT_PROP, (index == 0) ? TRANSPORT_IO : TRANSPORT_NIO);
+		return ContainerFactory.getDefault().createContainer(getClientContainerName(), new Object[] {props});
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		synchronized (RecordingSharedObject.received) {
+			RecordingSharedObject.received.clear();
+		}
+		createServerAndClients();
+		connectClients();
+		sharedObjectID = IDFactory.getDefault().createStringID("interop");
+		addClientSharedObject(0, sharedObjectID, new RecordingSharedObject("interop"), null);
+		// The primary replicates itself to the server and the other client
+		waitForReplica(getServerSOManager());
+		waitForReplica(getClientSOManager(1));
+	}
+
+	protected void tearDown() throws Exception {
+		cleanUpServerAndClients();
+		super.tearDown();
+	}
+
+	private void waitForReplica(ISharedObjectManager manager) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (manager.getSharedObject(sharedObjectID) == null && System.currentTimeMillis() < end)
+			Thread.sleep(50);
+		assertNotNull("replica not created", manager.getSharedObject(sharedObjectID));
+	}
+
+	private List waitForMessages(ID containerID, int count) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		synchronized (RecordingSharedObject.received) {
+			for (;;) {
+				List messages = (List) RecordingSharedObject.received.get(containerID);
+				if (messages != null && messages.size() >= count)
+					return new ArrayList(messages);
+				long wait = end - System.currentTimeMillis();
+				if (wait <= 0)
+					fail("received " + messages + " instead of " + count + " messages in " + containerID);
+				RecordingSharedObject.received.wait(wait);
+			}
+		}
+	}
+
+	private void send(int client, String message) throws Exception {
+		((IMessageSender) getClientSharedObject(client, sharedObjectID)).sendMessage(null, message);
+	}
+
+	private static String createLargeMessage() {
+		StringBuffer buf = new StringBuffer();
+		for (int i = 0; buf.length() < 500000; i++)
+			buf.append(i).append(' ');
+		return buf.toString();
+	}
+
+	public void testMessagesFromIOClient() throws Exception {
+		for (int i = 0; i < 20; i++)
+			send(0, "io " + i);
+		List server = waitForMessages(getServer().getID(), 20);
+		List client = waitForMessages(getClient(1).getID(), 20);
+		for (int i = 0; i < 20; i++) {
+			assertEquals("io " + i, server.get(i));
+			assertEquals("io " + i, client.get(i));
+		}
+	}
+
+	public void testMessagesFromNIOClient() throws Exception {
+		for (int i = 0; i < 20; i++)
+			send(1, "nio " + i);
+		List server = waitForMessages(getServer().getID(), 20);
+		List client = waitForMessages(getClient(0).getID(), 20);
+		for (int i = 0; i < 20; i++) {
+			assertEquals("nio " + i, server.get(i));
+			assertEquals("nio " + i, client.get(i));
+		}
+	}
+
+	public void testLargeMessages() throws Exception {
+		String large = createLargeMessage();
+		send(0, large);
+		send(1, large);
+		assertEquals(large, waitForMessages(getClient(1).getID(), 1).get(0));
+		assertEquals(large, waitForMessages(getClient(0).getID(), 1).get(0));
+		List server = waitForMessages(getServer().getID(), 2);
+		assertEquals(large, server.get(0));
+		assertEquals(large, server.get(1));
+	}
+
+}